@@ -0,0 +1,82 @@
+#!/usr/bin/env bash
+# Mide el tiempo hasta la primera petición atendida (desde lanzar la JVM hasta el primer 200 de
+# /api/public/test) en tres variantes:
+#   normal       jar por defecto (Flyway comprueba las migraciones, ddl-auto=validate, springdoc)
+#   perfil       mismo jar con el perfil arranque-rapido (sin Flyway ni validación del esquema, sin springdoc)
+#   optimizado   build del perfil Maven arranque-rapido: código AOT + archivo CDS + perfil
+#
+# Requiere PostgreSQL y Redis accesibles con la configuración de application.properties.
+# Uso: scripts/benchmark-arranque.sh [repeticiones]   (variables: PUERTO, SIN_BUILD=1)
+set -euo pipefail
+
+REPETICIONES="${1:-5}"
+PUERTO="${PUERTO:-8080}"
+URL="http://localhost:${PUERTO}/api/public/test"
+ESPERA_MAXIMA_S=120
+
+cd "$(dirname "$0")/.."
+DIR=target/benchmark-arranque
+
+if [[ "${SIN_BUILD:-0}" != "1" ]]; then
+    # El jar normal se construye sin AOT y se copia antes de que el perfil regenere target/
+    mvn -B -q clean package -DskipTests
+    mkdir -p "$DIR"
+    cp target/*-SNAPSHOT.jar "$DIR/normal.jar"
+    mvn -B -q -Parranque-rapido package -DskipTests
+fi
+
+JAR_CDS="$(ls target/cds/*.jar)"
+
+# Lanza la aplicación, espera el primer 200 y devuelve los milisegundos transcurridos
+medir() {
+    local log="$DIR/ultima-ejecucion.log"
+    local inicio fin pid
+    inicio=$(date +%s%N)
+    java -Dserver.port="$PUERTO" "$@" > "$log" 2>&1 &
+    pid=$!
+    while true; do
+        if ! kill -0 "$pid" 2>/dev/null; then
+            echo "La aplicación terminó antes de responder; ver $log" >&2
+            return 1
+        fi
+        if [[ "$(curl -s -o /dev/null -w '%{http_code}' "$URL" || true)" == "200" ]]; then
+            break
+        fi
+        if (( ($(date +%s%N) - inicio) / 1000000000 > ESPERA_MAXIMA_S )); then
+            kill "$pid"
+            echo "Sin respuesta tras ${ESPERA_MAXIMA_S}s; ver $log" >&2
+            return 1
+        fi
+        sleep 0.05
+    done
+    fin=$(date +%s%N)
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    echo $(( (fin - inicio) / 1000000 ))
+}
+
+variante() {
+    local nombre="$1"
+    shift
+    local total=0 minimo=0 ms i
+    for (( i = 1; i <= REPETICIONES; i++ )); do
+        ms=$(medir "$@")
+        total=$(( total + ms ))
+        if (( minimo == 0 || ms < minimo )); then
+            minimo=$ms
+        fi
+        echo "  ${nombre} #${i}: ${ms} ms"
+    done
+    printf '%-11s media %6d ms   mínimo %6d ms\n' "$nombre" $(( total / REPETICIONES )) "$minimo" >> "$DIR/resumen.txt"
+}
+
+mkdir -p "$DIR"
+: > "$DIR/resumen.txt"
+variante normal -jar "$DIR/normal.jar"
+variante perfil -Dspring.profiles.active=arranque-rapido -jar "$DIR/normal.jar"
+variante optimizado -XX:SharedArchiveFile=target/cds/application.jsa -Dspring.aot.enabled=true \
+    -Dspring.profiles.active=arranque-rapido -jar "$JAR_CDS"
+
+echo
+echo "Tiempo hasta la primera petición (${REPETICIONES} repeticiones):"
+cat "$DIR/resumen.txt"
@@ -0,0 +1,400 @@
+package com.universidad.avance;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.universidad.model.CorridaAvance;
+import com.universidad.model.CorridaAvance.EstadoCorrida;
+import com.universidad.conexiones.ClasePool;
+import com.universidad.conexiones.PoolConexiones;
+import com.universidad.conexiones.SeleccionPool;
+import com.universidad.repository.CorridaAvanceRepository;
+import com.universidad.validation.ReglaNegocioException;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Cálculo por lotes del avance académico de todos los estudiantes.
+ * <ul>
+ *   <li>El rango de ids de estudiante se divide en tramos que se procesan en paralelo en un
+ *       {@link ForkJoinPool}; cada tramo lee sus estudiantes e inscripciones con dos consultas.</li>
+ *   <li>Las lecturas no abren transacción ni bloquean filas, así las inscripciones en línea no esperan.</li>
+ *   <li>Los resultados de cada tramo se insertan por lotes en una transacción corta junto con el
+ *       punto de control del tramo; una corrida interrumpida se reanuda desde los tramos pendientes.</li>
+ *   <li>Todas las conexiones, también las de los hilos de la corrida, salen del pool de lotes.</li>
+ * </ul>
+ */
+@Component
+@PoolConexiones(ClasePool.LOTES)
+public class CalculoAvanceAcademico {
+
+    private static final Logger logger = LoggerFactory.getLogger(CalculoAvanceAcademico.class);
+
+    private static final String RANGO = "SELECT MIN(id_persona), MAX(id_persona) FROM estudiante";
+    private static final String CATALOGO = "SELECT id_materia, activo FROM materia";
+    private static final String PREREQUISITOS = "SELECT id_materia, id_prerequisito FROM materia_prerequisito";
+    private static final String ESTUDIANTES_TRAMO = "SELECT id_persona FROM estudiante WHERE id_persona BETWEEN ? AND ?";
+    private static final String INSCRIPCIONES_TRAMO = "SELECT i.estudiante_id, i.materia_id, i.estado, i.activo, m.creditos "
+        + "FROM inscripciones i JOIN materia m ON m.id_materia = i.materia_id "
+        + "WHERE i.estudiante_id BETWEEN ? AND ?";
+    private static final String INSERTAR_AVANCE = "INSERT INTO avance_academico (corrida_id, estudiante_id, materias_aprobadas, "
+        + "creditos_aprobados, inscripciones_activas, creditos_en_curso, materias_bloqueadas, prerequisitos_pendientes) "
+        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERTAR_TRAMO = "INSERT INTO avance_tramo (corrida_id, desde_id, hasta_id, estudiantes, duracion_ms, completado) "
+        + "VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String TRAMOS_COMPLETADOS = "SELECT desde_id FROM avance_tramo WHERE corrida_id = ?";
+    private static final String TOTALES = "SELECT COUNT(*), COALESCE(SUM(estudiantes), 0) FROM avance_tramo WHERE corrida_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CorridaAvanceRepository corridaRepository;
+    private final int tamanoTramo;
+    private final int hilos;
+
+    // Coordina la corrida; el trabajo por tramo se reparte en un ForkJoinPool propio de cada ejecución
+    private final ExecutorService coordinador = Executors.newSingleThreadExecutor(r -> new Thread(r, "avance-academico"));
+    private final AtomicReference<Ejecucion> enCurso = new AtomicReference<>();
+    // Marca la ejecución como reservada mientras se guarda la corrida
+    private static final Ejecucion RESERVA = new Ejecucion(null);
+
+    public CalculoAvanceAcademico(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                  CorridaAvanceRepository corridaRepository,
+                                  @Value("${app.avance.tamano-tramo:2000}") int tamanoTramo,
+                                  @Value("${app.avance.hilos:4}") int hilos) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.corridaRepository = corridaRepository;
+        this.tamanoTramo = Math.max(1, tamanoTramo);
+        this.hilos = Math.max(1, hilos);
+    }
+
+    @Data
+    @Builder
+    public static class Resumen {
+        private Long corridaId;
+        private EstadoCorrida estado;
+        private int tramosTotal;
+        private long tramosCompletados;
+        private long estudiantesProcesados;
+        private long duracionMs;
+        // Rendimiento de la ejecución en curso en este nodo, o de la corrida completa si ya terminó
+        private double estudiantesPorSegundo;
+        private LocalDateTime inicio;
+        private LocalDateTime fin;
+    }
+
+    // Métricas en memoria de la corrida que se está ejecutando en este nodo
+    private static class Ejecucion {
+        private final Long corridaId;
+        private final long inicioNanos = System.nanoTime();
+        private final LongAdder estudiantes = new LongAdder();
+
+        private Ejecucion(Long corridaId) {
+            this.corridaId = corridaId;
+        }
+    }
+
+    @Scheduled(cron = "${app.avance.cron:-}")
+    public void ejecutarProgramada() {
+        try {
+            iniciar();
+        } catch (ReglaNegocioException e) {
+            logger.warn("Corrida de avance académico programada omitida: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Crea una corrida sobre el rango actual de estudiantes y la ejecuta en segundo plano.
+     */
+    public Resumen iniciar() {
+        Long[] rango = jdbcTemplate.queryForObject(RANGO, (rs, n) -> new Long[] {(Long) rs.getObject(1), (Long) rs.getObject(2)});
+        long desde = rango == null || rango[0] == null ? 0 : rango[0];
+        long hasta = rango == null || rango[1] == null ? -1 : rango[1];
+        CorridaAvance corrida = CorridaAvance.builder()
+            .estado(EstadoCorrida.EN_CURSO)
+            .desdeId(desde)
+            .hastaId(hasta)
+            .tamanoTramo(tamanoTramo)
+            .tramosTotal((int) Math.max(0, (hasta - desde + tamanoTramo) / tamanoTramo))
+            .inicio(LocalDateTime.now())
+            .build();
+        return lanzar(corrida);
+    }
+
+    /**
+     * Reanuda una corrida interrumpida o fallida; solo se procesan sus tramos sin punto de control.
+     */
+    public Resumen reanudar(Long corridaId) {
+        CorridaAvance corrida = corridaRepository.findById(corridaId)
+            .orElseThrow(() -> new EntityNotFoundException("Corrida de avance no encontrada"));
+        if (corrida.getEstado() == EstadoCorrida.COMPLETADA) {
+            throw new ReglaNegocioException("La corrida " + corridaId + " ya está completada");
+        }
+        corrida.setEstado(EstadoCorrida.EN_CURSO);
+        corrida.setFin(null);
+        return lanzar(corrida);
+    }
+
+    public Resumen resumen(Long corridaId) {
+        CorridaAvance corrida = corridaRepository.findById(corridaId)
+            .orElseThrow(() -> new EntityNotFoundException("Corrida de avance no encontrada"));
+        return resumen(corrida);
+    }
+
+    public List<Resumen> ultimas() {
+        return corridaRepository.findTop20ByOrderByIdDesc().stream().map(this::resumen).toList();
+    }
+
+    @PreDestroy
+    public void detener() {
+        coordinador.shutdownNow();
+    }
+
+    // Solo una corrida a la vez por nodo: cada una ya usa todos los hilos configurados
+    private Resumen lanzar(CorridaAvance corrida) {
+        if (!enCurso.compareAndSet(null, RESERVA)) {
+            throw new ReglaNegocioException("Ya hay una corrida de avance académico en ejecución");
+        }
+        CorridaAvance guardada;
+        try {
+            guardada = corridaRepository.save(corrida);
+        } catch (RuntimeException e) {
+            enCurso.set(null);
+            throw e;
+        }
+        Ejecucion ejecucion = new Ejecucion(guardada.getId());
+        enCurso.set(ejecucion);
+        coordinador.execute(() -> SeleccionPool.en(ClasePool.LOTES, () -> ejecutar(guardada, ejecucion)));
+        return resumen(guardada);
+    }
+
+    private void ejecutar(CorridaAvance corrida, Ejecucion ejecucion) {
+        ForkJoinPool pool = new ForkJoinPool(hilos);
+        try {
+            Catalogo catalogo = cargarCatalogo();
+            Set<Long> completados = new HashSet<>(jdbcTemplate.queryForList(TRAMOS_COMPLETADOS, Long.class, corrida.getId()));
+            List<long[]> pendientes = new ArrayList<>();
+            for (long desde = corrida.getDesdeId(); desde <= corrida.getHastaId(); desde += corrida.getTamanoTramo()) {
+                if (!completados.contains(desde)) {
+                    pendientes.add(new long[] {desde, Math.min(desde + corrida.getTamanoTramo() - 1, corrida.getHastaId())});
+                }
+            }
+            logger.info("Corrida de avance {}: {} tramos pendientes de {}", corrida.getId(), pendientes.size(), corrida.getTramosTotal());
+            pool.invoke(new TareaTramos(corrida.getId(), catalogo, pendientes, 0, pendientes.size(), ejecucion));
+            corrida.setEstado(EstadoCorrida.COMPLETADA);
+            logger.info("Corrida de avance {} completada: {} estudiantes en {} ms", corrida.getId(),
+                ejecucion.estudiantes.sum(), Duration.ofNanos(System.nanoTime() - ejecucion.inicioNanos).toMillis());
+        } catch (RuntimeException e) {
+            // Los tramos ya terminados conservan su punto de control; la corrida puede reanudarse
+            corrida.setEstado(EstadoCorrida.FALLIDA);
+            logger.error("Corrida de avance {} fallida: {}", corrida.getId(), e.getMessage(), e);
+        } finally {
+            pool.shutdown();
+            corrida.setFin(LocalDateTime.now());
+            corridaRepository.save(corrida);
+            enCurso.set(null);
+        }
+    }
+
+    // Divide la lista de tramos pendientes hasta llegar a un tramo por tarea
+    private class TareaTramos extends RecursiveAction {
+
+        private final Long corridaId;
+        private final Catalogo catalogo;
+        private final List<long[]> tramos;
+        private final int desde;
+        private final int hasta;
+        private final Ejecucion ejecucion;
+
+        private TareaTramos(Long corridaId, Catalogo catalogo, List<long[]> tramos, int desde, int hasta, Ejecucion ejecucion) {
+            this.corridaId = corridaId;
+            this.catalogo = catalogo;
+            this.tramos = tramos;
+            this.desde = desde;
+            this.hasta = hasta;
+            this.ejecucion = ejecucion;
+        }
+
+        @Override
+        protected void compute() {
+            if (hasta - desde <= 1) {
+                if (hasta > desde) {
+                    long[] tramo = tramos.get(desde);
+                    SeleccionPool.en(ClasePool.LOTES, () -> procesarTramo(corridaId, catalogo, tramo[0], tramo[1], ejecucion));
+                }
+                return;
+            }
+            int medio = (desde + hasta) >>> 1;
+            invokeAll(new TareaTramos(corridaId, catalogo, tramos, desde, medio, ejecucion),
+                      new TareaTramos(corridaId, catalogo, tramos, medio, hasta, ejecucion));
+        }
+    }
+
+    private void procesarTramo(Long corridaId, Catalogo catalogo, long desde, long hasta, Ejecucion ejecucion) {
+        long inicio = System.nanoTime();
+        Map<Long, Acumulado> acumulados = new HashMap<>();
+        for (Long estudianteId : jdbcTemplate.queryForList(ESTUDIANTES_TRAMO, Long.class, desde, hasta)) {
+            acumulados.put(estudianteId, new Acumulado());
+        }
+        jdbcTemplate.query(INSCRIPCIONES_TRAMO, rs -> {
+            Acumulado acumulado = acumulados.get(rs.getLong(1));
+            if (acumulado != null) {
+                acumulado.agregar(catalogo.ordinal(rs.getLong(2)), rs.getString(3), rs.getBoolean(4), rs.getInt(5));
+            }
+        }, desde, hasta);
+
+        List<Object[]> filas = new ArrayList<>(acumulados.size());
+        for (Map.Entry<Long, Acumulado> entrada : acumulados.entrySet()) {
+            Acumulado a = entrada.getValue();
+            BitSet pendientes = new BitSet();
+            int bloqueadas = catalogo.bloqueadas(a.aprobadas, pendientes);
+            filas.add(new Object[] {corridaId, entrada.getKey(), a.aprobadas.cardinality(), a.creditosAprobados,
+                a.inscripcionesActivas, a.creditosEnCurso, bloqueadas, pendientes.cardinality()});
+        }
+        long duracionMs = Duration.ofNanos(System.nanoTime() - inicio).toMillis();
+        // Resultados y punto de control en una misma transacción corta
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!filas.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERTAR_AVANCE, filas);
+            }
+            jdbcTemplate.update(INSERTAR_TRAMO, corridaId, desde, hasta, filas.size(), duracionMs, Timestamp.valueOf(LocalDateTime.now()));
+        });
+        ejecucion.estudiantes.add(filas.size());
+    }
+
+    private Resumen resumen(CorridaAvance corrida) {
+        long[] totales = jdbcTemplate.queryForObject(TOTALES, (rs, n) -> new long[] {rs.getLong(1), rs.getLong(2)}, corrida.getId());
+        LocalDateTime hasta = corrida.getFin() != null ? corrida.getFin() : LocalDateTime.now();
+        long duracionMs = Duration.between(corrida.getInicio(), hasta).toMillis();
+        double porSegundo;
+        Ejecucion ejecucion = enCurso.get();
+        if (ejecucion != null && corrida.getId().equals(ejecucion.corridaId)) {
+            long transcurridoMs = Math.max(1, Duration.ofNanos(System.nanoTime() - ejecucion.inicioNanos).toMillis());
+            porSegundo = ejecucion.estudiantes.sum() * 1000.0 / transcurridoMs;
+        } else {
+            porSegundo = totales[1] * 1000.0 / Math.max(1, duracionMs);
+        }
+        return Resumen.builder()
+            .corridaId(corrida.getId())
+            .estado(corrida.getEstado())
+            .tramosTotal(corrida.getTramosTotal())
+            .tramosCompletados(totales[0])
+            .estudiantesProcesados(totales[1])
+            .duracionMs(duracionMs)
+            .estudiantesPorSegundo(porSegundo)
+            .inicio(corrida.getInicio())
+            .fin(corrida.getFin())
+            .build();
+    }
+
+    private Catalogo cargarCatalogo() {
+        Map<Long, Integer> ordinales = new HashMap<>();
+        BitSet activas = new BitSet();
+        jdbcTemplate.query(CATALOGO, rs -> {
+            int ordinal = ordinales.size();
+            ordinales.put(rs.getLong(1), ordinal);
+            // Las materias sin marca de actividad se consideran activas
+            if (!Boolean.FALSE.equals(rs.getObject(2))) {
+                activas.set(ordinal);
+            }
+        });
+        Map<Integer, BitSet> prerequisitos = new HashMap<>();
+        jdbcTemplate.query(PREREQUISITOS, rs -> {
+            Integer materia = ordinales.get(rs.getLong(1));
+            Integer prerequisito = ordinales.get(rs.getLong(2));
+            if (materia != null && prerequisito != null) {
+                prerequisitos.computeIfAbsent(materia, m -> new BitSet()).set(prerequisito);
+            }
+        });
+        return new Catalogo(ordinales, activas, prerequisitos);
+    }
+
+    // Catálogo y grafo de prerequisitos con ordinales densos; inmutable durante la corrida
+    private static class Catalogo {
+        private final Map<Long, Integer> ordinales;
+        private final BitSet activas;
+        private final Map<Integer, BitSet> prerequisitos;
+
+        private Catalogo(Map<Long, Integer> ordinales, BitSet activas, Map<Integer, BitSet> prerequisitos) {
+            this.ordinales = ordinales;
+            this.activas = activas;
+            this.prerequisitos = prerequisitos;
+        }
+
+        // -1 para materias creadas después de cargar el catálogo
+        private int ordinal(long materiaId) {
+            return ordinales.getOrDefault(materiaId, -1);
+        }
+
+        // Cuenta las materias activas no aprobadas con prerequisitos sin aprobar y acumula esos prerequisitos
+        private int bloqueadas(BitSet aprobadas, BitSet pendientes) {
+            int bloqueadas = 0;
+            BitSet faltantes = new BitSet();
+            for (Map.Entry<Integer, BitSet> entrada : prerequisitos.entrySet()) {
+                int materia = entrada.getKey();
+                if (!activas.get(materia) || aprobadas.get(materia)) {
+                    continue;
+                }
+                faltantes.clear();
+                faltantes.or(entrada.getValue());
+                faltantes.andNot(aprobadas);
+                if (!faltantes.isEmpty()) {
+                    bloqueadas++;
+                    pendientes.or(faltantes);
+                }
+            }
+            return bloqueadas;
+        }
+    }
+
+    // Avance de un estudiante mientras se recorren sus inscripciones
+    private static class Acumulado {
+        private final BitSet aprobadas = new BitSet();
+        private int creditosAprobados;
+        private int inscripcionesActivas;
+        private int creditosEnCurso;
+
+        private void agregar(int ordinal, String estado, boolean activo, int creditos) {
+            if ("APROBADA".equals(estado)) {
+                // Una materia aprobada dos veces solo cuenta una
+                if (ordinal < 0 || !aprobadas.get(ordinal)) {
+                    creditosAprobados += creditos;
+                }
+                if (ordinal >= 0) {
+                    aprobadas.set(ordinal);
+                }
+            }
+            if (activo) {
+                inscripcionesActivas++;
+                if ("PENDIENTE".equals(estado)) {
+                    creditosEnCurso += creditos;
+                }
+            }
+        }
+    }
+}
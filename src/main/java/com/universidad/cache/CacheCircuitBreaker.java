@@ -0,0 +1,184 @@
+package com.universidad.cache;
+
+import java.nio.channels.ClosedChannelException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.QueryTimeoutException;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Circuito que protege las llamadas a Redis desde la caché.
+ * <ul>
+ *   <li>CERRADO: las llamadas van a Redis; tras N fallos consecutivos se abre.</li>
+ *   <li>ABIERTO: no se llama a Redis durante el tiempo de apertura.</li>
+ *   <li>SEMIABIERTO: una única llamada de prueba decide si se cierra o vuelve a abrirse.</li>
+ * </ul>
+ * Solo cuentan como fallos los errores de conexión y los tiempos de espera agotados;
+ * un error de serialización no indica que Redis esté caído.
+ */
+public class CacheCircuitBreaker {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheCircuitBreaker.class);
+
+    // Mensajes de Lettuce para los comandos rechazados sin conexión o perdidos al cerrarse la conexión
+    private static final List<String> MENSAJES_SIN_CONEXION = List.of("Currently not connected", "Connection closed");
+
+    public enum Estado {
+        CERRADO, ABIERTO, SEMIABIERTO
+    }
+
+    private final int umbralFallos;
+    private final long aperturaMs;
+    private final LongSupplier reloj;
+
+    private final AtomicReference<Estado> estado = new AtomicReference<>(Estado.CERRADO);
+    private final AtomicInteger fallosConsecutivos = new AtomicInteger();
+    // Momento de la última apertura o del inicio de la prueba en curso
+    private final AtomicLong desde = new AtomicLong();
+    // "ORIGEN->DESTINO" -> número de transiciones
+    private final Map<String, LongAdder> transiciones = new ConcurrentHashMap<>();
+    private final LongAdder fallos = new LongAdder();
+    private final LongAdder rechazadas = new LongAdder();
+    private final List<Runnable> alCerrar = new ArrayList<>();
+
+    public CacheCircuitBreaker(int umbralFallos, long aperturaMs) {
+        this(umbralFallos, aperturaMs, System::currentTimeMillis);
+    }
+
+    public CacheCircuitBreaker(int umbralFallos, long aperturaMs, LongSupplier reloj) {
+        this.umbralFallos = Math.max(1, umbralFallos);
+        this.aperturaMs = aperturaMs;
+        this.reloj = reloj;
+    }
+
+    /**
+     * Indica si la llamada puede ir a Redis. Con el circuito abierto y el tiempo de apertura
+     * cumplido, el primer hilo que pregunta pasa a SEMIABIERTO y hace la llamada de prueba.
+     */
+    public boolean permitir() {
+        Estado actual = estado.get();
+        if (actual == Estado.CERRADO) {
+            return true;
+        }
+        long ahora = reloj.getAsLong();
+        long inicio = desde.get();
+        // También se repite la prueba si la anterior no informó de su resultado a tiempo
+        if (ahora - inicio >= aperturaMs && desde.compareAndSet(inicio, ahora)) {
+            if (actual == Estado.ABIERTO) {
+                transicion(Estado.ABIERTO, Estado.SEMIABIERTO);
+            }
+            return true;
+        }
+        rechazadas.increment();
+        return false;
+    }
+
+    /**
+     * Indica si Redis se considera disponible, sin consumir la llamada de prueba.
+     */
+    public boolean estaCerrado() {
+        return estado.get() == Estado.CERRADO;
+    }
+
+    public void registrarExito() {
+        fallosConsecutivos.set(0);
+        if (estado.get() != Estado.CERRADO && transicion(Estado.SEMIABIERTO, Estado.CERRADO)) {
+            alCerrar.forEach(Runnable::run);
+        }
+    }
+
+    public void registrarFallo(Throwable causa) {
+        fallos.increment();
+        if (estado.get() == Estado.SEMIABIERTO) {
+            desde.set(reloj.getAsLong());
+            transicion(Estado.SEMIABIERTO, Estado.ABIERTO);
+            return;
+        }
+        if (fallosConsecutivos.incrementAndGet() >= umbralFallos && estado.get() == Estado.CERRADO) {
+            desde.set(reloj.getAsLong());
+            if (transicion(Estado.CERRADO, Estado.ABIERTO)) {
+                logger.warn("Circuito de caché abierto tras {} fallos de Redis: {}", umbralFallos,
+                    causa != null ? causa.getMessage() : "-");
+            }
+        }
+    }
+
+    /**
+     * Indica si el error proviene de la disponibilidad de Redis (conexión o tiempo de espera).
+     * Lettuce rechaza los comandos sin conexión, o pierde los enviados al cerrarse, con un RedisException
+     * genérico que solo se distingue por el mensaje.
+     */
+    public boolean esFalloDeRedis(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof DataAccessResourceFailureException || t instanceof QueryTimeoutException
+                    || t instanceof io.lettuce.core.RedisConnectionException
+                    || t instanceof io.lettuce.core.RedisCommandTimeoutException
+                    || t instanceof ClosedChannelException) {
+                return true;
+            }
+            if (t.getClass() == io.lettuce.core.RedisException.class && t.getMessage() != null
+                    && MENSAJES_SIN_CONEXION.stream().anyMatch(t.getMessage()::startsWith)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Registra una acción que se ejecuta cada vez que el circuito vuelve a cerrarse.
+     */
+    public void alCerrar(Runnable accion) {
+        alCerrar.add(accion);
+    }
+
+    public Estado getEstado() {
+        return estado.get();
+    }
+
+    public Resumen resumen() {
+        Map<String, Long> conteo = new TreeMap<>();
+        transiciones.forEach((nombre, contador) -> conteo.put(nombre, contador.sum()));
+        return Resumen.builder()
+            .estado(estado.get())
+            .fallosConsecutivos(fallosConsecutivos.get())
+            .fallos(fallos.sum())
+            .rechazadas(rechazadas.sum())
+            .transiciones(conteo)
+            .build();
+    }
+
+    private boolean transicion(Estado origen, Estado destino) {
+        if (!estado.compareAndSet(origen, destino)) {
+            return false;
+        }
+        transiciones.computeIfAbsent(origen + "->" + destino, k -> new LongAdder()).increment();
+        logger.info("Circuito de caché: {} -> {}", origen, destino);
+        return true;
+    }
+
+    @Data
+    @Builder
+    public static class Resumen {
+        private Estado estado;
+        private int fallosConsecutivos;
+        /** Fallos de Redis registrados desde el arranque. */
+        private long fallos;
+        /** Llamadas que no se hicieron a Redis por estar el circuito abierto. */
+        private long rechazadas;
+        private Map<String, Long> transiciones;
+    }
+}
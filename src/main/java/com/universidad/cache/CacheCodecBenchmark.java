@@ -0,0 +1,74 @@
+package com.universidad.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Compara los serializadores de caché sobre una muestra real: bytes por entrada y
+ * tiempo medio de codificación y decodificación. Incluye como referencia el
+ * GenericJackson2JsonRedisSerializer usado antes de los codecs versionados.
+ */
+public class CacheCodecBenchmark {
+
+    private static final int CALENTAMIENTO = 200;
+
+    private final CacheCodecRegistry registry;
+
+    public CacheCodecBenchmark(CacheCodecRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Ejecuta la comparación.
+     * @param muestra valor representativo de la caché (por ejemplo, la lista de materias)
+     * @param iteraciones número de codificaciones/decodificaciones medidas por serializador
+     */
+    public List<Resultado> comparar(Object muestra, int iteraciones) {
+        List<Resultado> resultados = new ArrayList<>();
+        resultados.add(medir("json-legado", new GenericJackson2JsonRedisSerializer(), muestra, iteraciones));
+        for (CacheValueCodec codec : registry.codecs()) {
+            resultados.add(medir(codec.nombre(), registry.serializer(codec.nombre()), muestra, iteraciones));
+        }
+        return resultados;
+    }
+
+    private Resultado medir(String nombre, RedisSerializer<Object> serializer, Object muestra, int iteraciones) {
+        try {
+            byte[] datos = serializer.serialize(muestra);
+            for (int i = 0; i < CALENTAMIENTO; i++) {
+                serializer.deserialize(serializer.serialize(muestra));
+            }
+            long inicio = System.nanoTime();
+            for (int i = 0; i < iteraciones; i++) {
+                datos = serializer.serialize(muestra);
+            }
+            long codificar = (System.nanoTime() - inicio) / iteraciones;
+            inicio = System.nanoTime();
+            for (int i = 0; i < iteraciones; i++) {
+                serializer.deserialize(datos);
+            }
+            long decodificar = (System.nanoTime() - inicio) / iteraciones;
+            return new Resultado(nombre, datos.length, codificar, decodificar, null);
+        } catch (RuntimeException e) {
+            return new Resultado(nombre, 0, 0, 0, e.getMessage());
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Resultado {
+        private String serializador;
+        private int bytesPorEntrada;
+        private long nanosCodificar;
+        private long nanosDecodificar;
+        private String error;
+    }
+}
@@ -0,0 +1,19 @@
+package com.universidad.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Configuración del formato de los valores de caché (prefijo app.cache-codec).
+ */
+@Data
+@ConfigurationProperties(prefix = "app.cache-codec")
+public class CacheCodecProperties {
+
+    /** Codec usado por defecto: json, smile o cbor. Cada caché puede cambiarlo con app.cache.<nombre>.codec. */
+    private String defecto = "smile";
+
+    /** Tamaño en bytes a partir del cual se comprime la carga útil (0 desactiva la compresión). */
+    private int umbralCompresion = 1024;
+}
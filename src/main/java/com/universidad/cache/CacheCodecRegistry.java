@@ -0,0 +1,58 @@
+package com.universidad.cache;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Registro de los codecs de caché disponibles. Construye el serializador de cada caché
+ * según la configuración y conoce todos los codecs para poder leer cualquier entrada.
+ */
+public class CacheCodecRegistry {
+
+    private final Map<String, CacheValueCodec> porNombre = new LinkedHashMap<>();
+    private final Map<Byte, CacheValueCodec> porId = new LinkedHashMap<>();
+    private final CacheCodecProperties properties;
+
+    public CacheCodecRegistry(CacheCodecProperties properties) {
+        this(properties, List.of(JacksonCacheCodec.json(), JacksonCacheCodec.smile(), JacksonCacheCodec.cbor()));
+    }
+
+    public CacheCodecRegistry(CacheCodecProperties properties, Collection<CacheValueCodec> codecs) {
+        this.properties = properties;
+        for (CacheValueCodec codec : codecs) {
+            if (porId.put(codec.id(), codec) != null) {
+                throw new IllegalStateException("Id de codec de caché duplicado: " + codec.id());
+            }
+            porNombre.put(codec.nombre(), codec);
+        }
+        // Falla al arrancar si la configuración referencia un codec inexistente
+        codec(properties.getDefecto());
+    }
+
+    /**
+     * Serializador que escribe con el codec indicado (o el codec por defecto si es null).
+     */
+    public VersionedCacheSerializer serializer(String codec) {
+        String nombre = codec != null ? codec : properties.getDefecto();
+        return new VersionedCacheSerializer(codec(nombre), Collections.unmodifiableMap(porId), properties.getUmbralCompresion());
+    }
+
+    public boolean existe(String codec) {
+        return codec == null || porNombre.containsKey(codec);
+    }
+
+    public Collection<CacheValueCodec> codecs() {
+        return Collections.unmodifiableCollection(porNombre.values());
+    }
+
+    private CacheValueCodec codec(String nombre) {
+        CacheValueCodec codec = porNombre.get(nombre);
+        if (codec == null) {
+            throw new IllegalArgumentException("Codec de caché desconocido: " + nombre + " (disponibles: " + porNombre.keySet() + ")");
+        }
+        return codec;
+    }
+}
@@ -0,0 +1,153 @@
+package com.universidad.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Informe de las políticas efectivas de cada caché junto con su ocupación actual.
+ */
+public class CacheInspector {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheInspector.class);
+
+    // Límite de claves recorridas con SCAN por caché para no bloquear Redis con cachés grandes
+    private static final int MAX_CLAVES_ESCANEADAS = 10_000;
+
+    private final SingleFlightCacheManager cacheManager;
+    private final Map<String, CachePolicy> politicas;
+    private final RedisConnectionFactory redisConnectionFactory;
+    private final CacheCircuitBreaker circuito;
+
+    public CacheInspector(SingleFlightCacheManager cacheManager, Map<String, CachePolicy> politicas,
+                          RedisConnectionFactory redisConnectionFactory, CacheCircuitBreaker circuito) {
+        this.cacheManager = cacheManager;
+        this.politicas = politicas;
+        this.redisConnectionFactory = redisConnectionFactory;
+        this.circuito = circuito;
+    }
+
+    @Data
+    @Builder
+    public static class Estado {
+        private String nombre;
+        private CachePolicy politica;
+        /** Entradas actuales; en Redis es una cota inferior si se alcanzó el límite de escaneo. */
+        private Long entradas;
+        /** Bytes ocupados (solo nivel local con presupuesto en bytes). */
+        private Long bytes;
+        private boolean entradasTruncadas;
+        private Long cargas;
+        private Long coalescidas;
+        private Long refrescos;
+        /** Lecturas y escrituras servidas por el respaldo local mientras Redis no estaba disponible. */
+        private Long lecturasRespaldo;
+        private Long escriturasRespaldo;
+        /** Invalidaciones a aplicar en Redis cuando se recupere (-1: se vaciará la caché entera). */
+        private Integer invalidacionesPendientes;
+    }
+
+    @Data
+    @Builder
+    public static class Resiliencia {
+        private CacheCircuitBreaker.Resumen circuito;
+        private List<Estado> caches;
+    }
+
+    public List<Estado> inspeccionar() {
+        List<Estado> estados = new ArrayList<>();
+        politicas.forEach((nombre, politica) -> {
+            Estado.EstadoBuilder estado = Estado.builder().nombre(nombre).politica(politica);
+            SingleFlightCache decorada = cacheManager.getCacheDecorada(nombre);
+            if (decorada != null) {
+                estado.cargas(decorada.getCargas())
+                    .coalescidas(decorada.getCoalescidas())
+                    .refrescos(decorada.getRefrescos());
+            }
+            if (politica.getNivel() == CachePolicy.Nivel.LOCAL) {
+                medirLocal(nombre, estado);
+            } else {
+                medirRespaldo(nombre, estado);
+                // Con el circuito abierto no se consulta Redis
+                if (circuito.estaCerrado()) {
+                    medirRedis(nombre, estado);
+                }
+            }
+            estados.add(estado.build());
+        });
+        return estados;
+    }
+
+    /**
+     * Estado del circuito de Redis y uso del respaldo local de cada caché remota.
+     */
+    public Resiliencia resiliencia() {
+        List<Estado> caches = new ArrayList<>();
+        politicas.forEach((nombre, politica) -> {
+            if (politica.getNivel() == CachePolicy.Nivel.REMOTO) {
+                Estado.EstadoBuilder estado = Estado.builder().nombre(nombre).politica(politica);
+                medirRespaldo(nombre, estado);
+                caches.add(estado.build());
+            }
+        });
+        return Resiliencia.builder().circuito(circuito.resumen()).caches(caches).build();
+    }
+
+    private void medirRespaldo(String nombre, Estado.EstadoBuilder estado) {
+        if (desenvolver(nombre) instanceof ResilientCache resiliente) {
+            estado.lecturasRespaldo(resiliente.getLecturasRespaldo())
+                .escriturasRespaldo(resiliente.getEscriturasRespaldo())
+                .invalidacionesPendientes(resiliente.getInvalidacionesPendientes());
+        }
+    }
+
+    private void medirLocal(String nombre, Estado.EstadoBuilder estado) {
+        Cache actual = desenvolver(nombre);
+        if (actual != null && actual.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine) {
+            estado.entradas(caffeine.estimatedSize());
+            caffeine.policy().eviction().ifPresent(eviction -> {
+                if (eviction.isWeighted()) {
+                    eviction.weightedSize().ifPresent(estado::bytes);
+                }
+            });
+        }
+    }
+
+    // Quita los decoradores de carga única y transaccional para llegar a la caché real
+    private Cache desenvolver(String nombre) {
+        Cache cache = cacheManager.getCache(nombre);
+        Cache actual = cache instanceof SingleFlightCache sf ? sf.getDelegate() : cache;
+        if (actual instanceof TransactionAwareCacheDecorator decorador) {
+            actual = decorador.getTargetCache();
+        }
+        return actual;
+    }
+
+    // Cuenta las claves "<cache>::*" con SCAN, que no bloquea el servidor como KEYS
+    private void medirRedis(String nombre, Estado.EstadoBuilder estado) {
+        ScanOptions opciones = ScanOptions.scanOptions().match(nombre + "::*").count(500).build();
+        try (RedisConnection conexion = redisConnectionFactory.getConnection();
+             Cursor<byte[]> cursor = conexion.keyCommands().scan(opciones)) {
+            long contadas = 0;
+            while (cursor.hasNext() && contadas < MAX_CLAVES_ESCANEADAS) {
+                cursor.next();
+                contadas++;
+            }
+            estado.entradas(contadas).entradasTruncadas(cursor.hasNext());
+        } catch (Exception e) {
+            logger.warn("No se pudo medir la caché {} en Redis: {}", nombre, e.getMessage());
+        }
+    }
+}
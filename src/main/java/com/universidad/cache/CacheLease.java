@@ -0,0 +1,16 @@
+package com.universidad.cache;
+
+/**
+ * Arrendamiento corto que coordina entre nodos quién carga una clave de caché.
+ * Solo el nodo que obtiene el arrendamiento llama al cargador; el resto espera el valor.
+ */
+public interface CacheLease {
+
+    /**
+     * Intenta obtener el arrendamiento de la clave.
+     * @return un token para liberarlo, o null si otro nodo ya lo tiene
+     */
+    String tryAcquire(String cache, Object key);
+
+    void release(String cache, Object key, String token);
+}
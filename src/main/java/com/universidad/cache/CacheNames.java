@@ -0,0 +1,30 @@
+package com.universidad.cache;
+
+import java.util.Set;
+
+/**
+ * Nombres de las cachés usadas por los servicios. Las políticas de app.cache.* solo
+ * pueden referirse a estos nombres (más "default"), de modo que un error tipográfico
+ * en la configuración se detecta al arrancar.
+ */
+public final class CacheNames {
+
+    public static final String POR_DEFECTO = "default";
+
+    public static final Set<String> CONOCIDAS = Set.of(
+        "materias",
+        "materia",
+        "estudiante",
+        "estudiantes",
+        "estudiantesActivos",
+        "inscripcion",
+        "inscripcionesEstudiante",
+        "estudianteInscripciones",
+        "materiasEstudiante",
+        "materiasDisponibles",
+        "docente"
+    );
+
+    private CacheNames() {
+    }
+}
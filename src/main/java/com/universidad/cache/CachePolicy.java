@@ -0,0 +1,71 @@
+package com.universidad.cache;
+
+import java.time.Duration;
+
+import org.springframework.util.unit.DataSize;
+
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+
+/**
+ * Política de una caché: TTL, presupuesto de tamaño, caché negativa, nivel, codec y refresco anticipado.
+ * Los campos sin valor se heredan de la política "default".
+ */
+@Data
+public class CachePolicy {
+
+    public enum Nivel {
+        /** Caché en memoria del proceso (Caffeine), no compartida entre nodos. */
+        LOCAL,
+        /** Caché compartida en Redis. */
+        REMOTO
+    }
+
+    /** Tiempo de vida de las entradas. */
+    private Duration ttl;
+
+    /** Tiempo de vida de los resultados nulos ("no encontrado"); sin valor no se cachean. */
+    private Duration ttlNegativo;
+
+    /** Número máximo de entradas (solo nivel local). */
+    @Positive
+    private Long maxEntradas;
+
+    /** Tamaño máximo total de la caché, medido con el codec configurado (solo nivel local). */
+    private DataSize maxBytes;
+
+    /** Nivel de la caché. */
+    private Nivel nivel;
+
+    /** Codec de los valores (json, smile, cbor). */
+    private String codec;
+
+    /**
+     * Si los aciertos próximos a expirar recargan la entrada en segundo plano (ver {@link SingleFlightCache}).
+     * Debe ser false en las cachés que guardan entidades o cuyo resultado depende del contexto del llamador.
+     */
+    private Boolean refrescoAnticipado;
+
+    /**
+     * Combina esta política con la política por defecto: los campos propios tienen prioridad.
+     */
+    public CachePolicy heredarDe(CachePolicy defecto) {
+        CachePolicy efectiva = new CachePolicy();
+        efectiva.setTtl(ttl != null ? ttl : defecto.getTtl());
+        efectiva.setTtlNegativo(ttlNegativo != null ? ttlNegativo : defecto.getTtlNegativo());
+        efectiva.setMaxEntradas(maxEntradas != null ? maxEntradas : defecto.getMaxEntradas());
+        efectiva.setMaxBytes(maxBytes != null ? maxBytes : defecto.getMaxBytes());
+        efectiva.setNivel(nivel != null ? nivel : defecto.getNivel());
+        efectiva.setCodec(codec != null ? codec : defecto.getCodec());
+        efectiva.setRefrescoAnticipado(refrescoAnticipado != null ? refrescoAnticipado : defecto.getRefrescoAnticipado());
+        return efectiva;
+    }
+
+    public boolean cacheaNulos() {
+        return ttlNegativo != null && !ttlNegativo.isZero();
+    }
+
+    public boolean refrescaAnticipadamente() {
+        return !Boolean.FALSE.equals(refrescoAnticipado);
+    }
+}
@@ -0,0 +1,93 @@
+package com.universidad.cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.Valid;
+import lombok.Data;
+
+/**
+ * Políticas de caché configuradas con app.cache.&lt;nombre&gt;.* (por ejemplo app.cache.materias.ttl=6h).
+ * La entrada "default" aplica a todas las cachés que no definen un campo propio.
+ */
+@Data
+@Validated
+@ConfigurationProperties(prefix = "app")
+public class CachePolicyProperties {
+
+    @Valid
+    private Map<String, CachePolicy> cache = new LinkedHashMap<>();
+
+    /**
+     * Política por defecto completa: los campos no configurados toman valores seguros.
+     */
+    public CachePolicy politicaPorDefecto() {
+        CachePolicy base = new CachePolicy();
+        base.setTtl(Duration.ofSeconds(1));
+        base.setNivel(CachePolicy.Nivel.REMOTO);
+        base.setRefrescoAnticipado(true);
+        CachePolicy configurada = buscar(CacheNames.POR_DEFECTO);
+        return configurada != null ? configurada.heredarDe(base) : base;
+    }
+
+    /**
+     * Políticas efectivas de todas las cachés conocidas, ya combinadas con la política por defecto.
+     */
+    public Map<String, CachePolicy> politicasEfectivas() {
+        CachePolicy defecto = politicaPorDefecto();
+        Map<String, CachePolicy> efectivas = new TreeMap<>();
+        for (String nombre : CacheNames.CONOCIDAS) {
+            CachePolicy propia = buscar(nombre);
+            efectivas.put(nombre, propia != null ? propia.heredarDe(defecto) : defecto);
+        }
+        return Collections.unmodifiableMap(efectivas);
+    }
+
+    /**
+     * Valida la configuración al arrancar y devuelve la lista de errores (vacía si es correcta).
+     */
+    public List<String> validar() {
+        List<String> errores = new ArrayList<>();
+        for (String nombre : cache.keySet()) {
+            if (!CacheNames.POR_DEFECTO.equalsIgnoreCase(nombre) && CacheNames.CONOCIDAS.stream().noneMatch(nombre::equalsIgnoreCase)) {
+                errores.add("app.cache." + nombre + ": caché desconocida (conocidas: " + new TreeSet<>(CacheNames.CONOCIDAS) + ")");
+            }
+        }
+        politicasEfectivas().forEach((nombre, politica) -> {
+            if (politica.getTtl() == null || politica.getTtl().isNegative() || politica.getTtl().isZero()) {
+                errores.add("app.cache." + nombre + ".ttl debe ser mayor que cero");
+            }
+            if (politica.getTtlNegativo() != null && politica.getTtl() != null
+                    && politica.getTtlNegativo().compareTo(politica.getTtl()) > 0) {
+                errores.add("app.cache." + nombre + ".ttl-negativo no puede superar al ttl");
+            }
+            if (politica.getNivel() == CachePolicy.Nivel.REMOTO
+                    && (politica.getMaxEntradas() != null || politica.getMaxBytes() != null)) {
+                errores.add("app.cache." + nombre + ": max-entradas y max-bytes solo aplican al nivel LOCAL;"
+                    + " el tamaño de Redis se limita con maxmemory");
+            }
+            if (politica.getMaxEntradas() != null && politica.getMaxBytes() != null) {
+                errores.add("app.cache." + nombre + ": use max-entradas o max-bytes, no ambos");
+            }
+        });
+        return errores;
+    }
+
+    // Busca la política sin distinguir mayúsculas: las claves de mapa pueden llegar normalizadas
+    private CachePolicy buscar(String nombre) {
+        return cache.entrySet().stream()
+            .filter(e -> e.getKey().equalsIgnoreCase(nombre))
+            .map(Map.Entry::getValue)
+            .findFirst()
+            .orElse(null);
+    }
+}
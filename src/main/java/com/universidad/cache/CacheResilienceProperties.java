@@ -0,0 +1,25 @@
+package com.universidad.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Degradación de la caché cuando Redis falla o responde lento (prefijo app.cache-resilience).
+ */
+@Data
+@ConfigurationProperties(prefix = "app.cache-resilience")
+public class CacheResilienceProperties {
+
+    /** Fallos consecutivos de Redis que abren el circuito. */
+    private int umbralFallos = 5;
+
+    /** Tiempo que el circuito permanece abierto antes de probar de nuevo Redis (ms). */
+    private long aperturaMs = 10_000;
+
+    /** Entradas máximas de la caché local de respaldo, por caché. */
+    private long maxEntradasRespaldo = 1_000;
+
+    /** Invalidaciones pendientes que se recuerdan por caché mientras el circuito está abierto. */
+    private int maxInvalidacionesPendientes = 1_000;
+}
@@ -0,0 +1,28 @@
+package com.universidad.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Protección frente a estampidas de caché (prefijo app.cache-stampede).
+ */
+@Data
+@ConfigurationProperties(prefix = "app.cache-stampede")
+public class CacheStampedeProperties {
+
+    /** Duración máxima del arrendamiento entre nodos mientras se carga una clave (ms). */
+    private long leaseMs = 2000;
+
+    /** Tiempo que un nodo espera a que otro nodo publique el valor antes de cargarlo él mismo (ms). */
+    private long esperaLeaseMs = 500;
+
+    /** Fracción del TTL a partir de la cual un acierto dispara el refresco asíncrono (0 lo desactiva). */
+    private double ratioRefresco = 0.8;
+
+    /** Dispersión aleatoria añadida al TTL, como fracción del TTL base. */
+    private double ratioDispersionTtl = 0.2;
+
+    /** Hilos dedicados a los refrescos anticipados. */
+    private int hilosRefresco = 2;
+}
@@ -0,0 +1,24 @@
+package com.universidad.cache;
+
+/**
+ * Formato de codificación de los valores almacenados en la caché Redis.
+ * Cada codec tiene un identificador de un byte que se escribe en la cabecera del valor,
+ * de modo que las entradas escritas con un formato se pueden seguir leyendo aunque la
+ * configuración cambie a otro.
+ */
+public interface CacheValueCodec {
+
+    /**
+     * Identificador del codec en la cabecera de cada valor. No debe reutilizarse.
+     */
+    byte id();
+
+    /**
+     * Nombre usado en la configuración (json, smile, cbor).
+     */
+    String nombre();
+
+    byte[] encode(Object valor);
+
+    Object decode(byte[] datos);
+}
@@ -0,0 +1,138 @@
+package com.universidad.cache;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.EntityStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Estadísticas de la caché de segundo nivel y de la caché de consultas de Hibernate.
+ * Para cada entidad compara las cargas desde la base de datos con los aciertos en caché,
+ * que es la reducción de lecturas que aporta la caché. Requiere hibernate.generate_statistics.
+ */
+@Component
+public class HibernateCacheInspector {
+
+    private final Statistics estadisticas;
+
+    public HibernateCacheInspector(EntityManagerFactory entityManagerFactory) {
+        this.estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Data
+    @Builder
+    public static class Entidad {
+        private String nombre;
+        /** Región de segundo nivel, o null si la entidad no se guarda en caché. */
+        private String region;
+        /** Entidades leídas de la base de datos. */
+        private long cargas;
+        private Long aciertosCache;
+        private Long fallosCache;
+        private Long escriturasCache;
+        /** Fracción de las lecturas por id servidas por la caché (aciertos / (aciertos + fallos)). */
+        private Double ratioAciertos;
+    }
+
+    @Data
+    @Builder
+    public static class Region {
+        private String nombre;
+        private long aciertos;
+        private long fallos;
+        private long escrituras;
+        /** Entradas en memoria, o null si el proveedor no lo informa. */
+        private Long entradas;
+    }
+
+    @Data
+    @Builder
+    public static class Resumen {
+        private boolean habilitadas;
+        /** Inicio del periodo medido (arranque o último reinicio). */
+        private Instant desde;
+        /** Entidades leídas de la base de datos, en total. */
+        private long cargasEntidades;
+        private long aciertosSegundoNivel;
+        private long fallosSegundoNivel;
+        private long escriturasSegundoNivel;
+        private long consultasEjecutadas;
+        private long aciertosConsultas;
+        private long fallosConsultas;
+        private long escriturasConsultas;
+        private List<Entidad> entidades;
+        private List<Region> regiones;
+    }
+
+    public Resumen resumen() {
+        List<Entidad> entidades = new ArrayList<>();
+        String[] nombres = estadisticas.getEntityNames();
+        Arrays.sort(nombres);
+        for (String nombre : nombres) {
+            EntityStatistics entidad = estadisticas.getEntityStatistics(nombre);
+            Entidad.EntidadBuilder estado = Entidad.builder()
+                .nombre(nombre.substring(nombre.lastIndexOf('.') + 1))
+                .region(entidad.getCacheRegionName())
+                .cargas(entidad.getLoadCount());
+            // Las entidades sin región no tienen contadores de caché
+            if (entidad.getCacheRegionName() != null) {
+                long consultadas = entidad.getCacheHitCount() + entidad.getCacheMissCount();
+                estado.aciertosCache(entidad.getCacheHitCount())
+                    .fallosCache(entidad.getCacheMissCount())
+                    .escriturasCache(entidad.getCachePutCount())
+                    .ratioAciertos(consultadas > 0 ? (double) entidad.getCacheHitCount() / consultadas : null);
+            }
+            entidades.add(estado.build());
+        }
+
+        List<Region> regiones = new ArrayList<>();
+        String[] nombresRegion = estadisticas.getSecondLevelCacheRegionNames();
+        Arrays.sort(nombresRegion);
+        for (String nombre : nombresRegion) {
+            CacheRegionStatistics region = estadisticas.getCacheRegionStatistics(nombre);
+            if (region == null) {
+                continue;
+            }
+            long enMemoria = region.getElementCountInMemory();
+            regiones.add(Region.builder()
+                .nombre(nombre)
+                .aciertos(region.getHitCount())
+                .fallos(region.getMissCount())
+                .escrituras(region.getPutCount())
+                .entradas(enMemoria >= 0 ? enMemoria : null)
+                .build());
+        }
+
+        return Resumen.builder()
+            .habilitadas(estadisticas.isStatisticsEnabled())
+            .desde(estadisticas.getStart())
+            .cargasEntidades(estadisticas.getEntityLoadCount())
+            .aciertosSegundoNivel(estadisticas.getSecondLevelCacheHitCount())
+            .fallosSegundoNivel(estadisticas.getSecondLevelCacheMissCount())
+            .escriturasSegundoNivel(estadisticas.getSecondLevelCachePutCount())
+            .consultasEjecutadas(estadisticas.getQueryExecutionCount())
+            .aciertosConsultas(estadisticas.getQueryCacheHitCount())
+            .fallosConsultas(estadisticas.getQueryCacheMissCount())
+            .escriturasConsultas(estadisticas.getQueryCachePutCount())
+            .entidades(entidades)
+            .regiones(regiones)
+            .build();
+    }
+
+    /**
+     * Pone a cero los contadores, para medir un periodo concreto.
+     */
+    public void reiniciar() {
+        estadisticas.clear();
+    }
+}
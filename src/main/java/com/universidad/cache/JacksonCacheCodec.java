@@ -0,0 +1,108 @@
+package com.universidad.cache;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
+import com.fasterxml.jackson.databind.jsontype.PolymorphicTypeValidator;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import org.springframework.data.redis.serializer.SerializationException;
+
+/**
+ * Codec basado en Jackson. El mismo modelo de datos (DTOs con información de tipo) se
+ * escribe en JSON, Smile o CBOR según la fábrica usada; los formatos binarios evitan
+ * repetir los nombres de campo como texto y se parsean más rápido.
+ * <p>
+ * Los tipos que viajan con el valor se limitan a los DTOs, las colecciones y las fechas de java.util y
+ * java.time y los números: un tipo cualquiera leído de Redis podría instanciar una clase peligrosa.
+ * Las cachés que guardan entidades no pueden usar este codec (sus colecciones son de Hibernate).
+ */
+public class JacksonCacheCodec implements CacheValueCodec {
+
+    public static final byte JSON = 1;
+    public static final byte SMILE = 2;
+    public static final byte CBOR = 3;
+
+    private final byte id;
+    private final String nombre;
+    private static final PolymorphicTypeValidator TIPOS_PERMITIDOS = BasicPolymorphicTypeValidator.builder()
+        .allowIfSubType("com.universidad.dto.")
+        .allowIfSubType("java.util.")
+        .allowIfSubType("java.time.")
+        .allowIfSubType(Long.class)
+        .allowIfSubType(Integer.class)
+        .allowIfSubType(Short.class)
+        .allowIfSubType(Byte.class)
+        .allowIfSubType(Float.class)
+        .allowIfSubType(BigDecimal.class)
+        .allowIfSubType(BigInteger.class)
+        .build();
+
+    private final ObjectMapper mapper;
+    // Se escribe como Object para que también los valores de tipo final (Long) lleven su tipo;
+    // sin él, un Long pequeño se leería como Integer
+    private final ObjectWriter escritor;
+
+    public JacksonCacheCodec(byte id, String nombre, JsonFactory factory) {
+        this.id = id;
+        this.nombre = nombre;
+        this.mapper = new ObjectMapper(factory);
+        this.mapper.registerModule(new JavaTimeModule());
+        this.mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        // Permite leer entradas escritas por versiones anteriores de los DTOs
+        this.mapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        // Igual que GenericJackson2JsonRedisSerializer: el tipo viaja con el valor para poder leerlo sin conocerlo de antemano
+        this.mapper.activateDefaultTyping(TIPOS_PERMITIDOS, ObjectMapper.DefaultTyping.NON_FINAL, JsonTypeInfo.As.PROPERTY);
+        this.escritor = mapper.writerFor(Object.class);
+    }
+
+    public static JacksonCacheCodec json() {
+        return new JacksonCacheCodec(JSON, "json", new JsonFactory());
+    }
+
+    public static JacksonCacheCodec smile() {
+        return new JacksonCacheCodec(SMILE, "smile", new SmileFactory());
+    }
+
+    public static JacksonCacheCodec cbor() {
+        return new JacksonCacheCodec(CBOR, "cbor", new CBORFactory());
+    }
+
+    @Override
+    public byte id() {
+        return id;
+    }
+
+    @Override
+    public String nombre() {
+        return nombre;
+    }
+
+    @Override
+    public byte[] encode(Object valor) {
+        try {
+            return escritor.writeValueAsBytes(valor);
+        } catch (IOException e) {
+            throw new SerializationException("No se pudo codificar el valor con " + nombre, e);
+        }
+    }
+
+    @Override
+    public Object decode(byte[] datos) {
+        try {
+            return mapper.readValue(datos, Object.class);
+        } catch (IOException e) {
+            throw new SerializationException("No se pudo decodificar el valor con " + nombre, e);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.universidad.cache;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.data.redis.cache.RedisCacheWriter;
+
+/**
+ * TTL con dispersión aleatoria: cada entrada vive entre base y base * (1 + ratio).
+ * Evita que todas las entradas escritas a la vez expiren en el mismo instante.
+ * Los resultados nulos (caché negativa) usan su propio TTL, sin dispersión.
+ */
+public class JitteredTtlFunction implements RedisCacheWriter.TtlFunction {
+
+    private final long baseMs;
+    private final long dispersionMs;
+    private final Duration ttlNegativo;
+
+    public JitteredTtlFunction(Duration base, double ratio) {
+        this(base, ratio, null);
+    }
+
+    public JitteredTtlFunction(Duration base, double ratio, Duration ttlNegativo) {
+        this.baseMs = base.toMillis();
+        this.dispersionMs = Math.max(0L, (long) (baseMs * ratio));
+        this.ttlNegativo = ttlNegativo;
+    }
+
+    @Override
+    public Duration getTimeToLive(Object key, Object value) {
+        if (value == null && ttlNegativo != null) {
+            return ttlNegativo;
+        }
+        if (dispersionMs == 0) {
+            return Duration.ofMillis(baseMs);
+        }
+        return Duration.ofMillis(baseMs + ThreadLocalRandom.current().nextLong(dispersionMs + 1));
+    }
+
+    public Duration getBase() {
+        return Duration.ofMillis(baseMs);
+    }
+}
@@ -0,0 +1,50 @@
+package com.universidad.cache;
+
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.NullValue;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+/**
+ * Construye las cachés de nivel LOCAL (Caffeine) a partir de su política.
+ */
+public final class LocalCacheFactory {
+
+    private LocalCacheFactory() {
+    }
+
+    /**
+     * @param serializer serializador usado para medir el tamaño de los valores cuando la política limita bytes
+     */
+    public static CaffeineCache crear(String nombre, CachePolicy politica, VersionedCacheSerializer serializer) {
+        long ttlNanos = politica.getTtl().toNanos();
+        long ttlNegativoNanos = politica.cacheaNulos() ? politica.getTtlNegativo().toNanos() : ttlNanos;
+        Caffeine<Object, Object> builder = Caffeine.newBuilder()
+            .expireAfter(new Expiry<Object, Object>() {
+                @Override
+                public long expireAfterCreate(Object key, Object value, long currentTime) {
+                    return value instanceof NullValue ? ttlNegativoNanos : ttlNanos;
+                }
+
+                @Override
+                public long expireAfterUpdate(Object key, Object value, long currentTime, long currentDuration) {
+                    return expireAfterCreate(key, value, currentTime);
+                }
+
+                @Override
+                public long expireAfterRead(Object key, Object value, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .recordStats();
+        if (politica.getMaxEntradas() != null) {
+            builder.maximumSize(politica.getMaxEntradas());
+        } else if (politica.getMaxBytes() != null) {
+            // El peso de cada entrada es su tamaño codificado, igual que ocuparía en Redis
+            builder.maximumWeight(politica.getMaxBytes().toBytes())
+                .weigher((key, value) -> value instanceof NullValue ? 1 : serializer.serialize(value).length);
+        }
+        return new CaffeineCache(nombre, builder.build(), politica.cacheaNulos());
+    }
+}
@@ -0,0 +1,68 @@
+package com.universidad.cache;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+// Arrendamiento basado en SET NX PX de Redis. Se libera con un script que solo borra
+// la clave si el token coincide, para no liberar el arrendamiento de otro nodo.
+public class RedisCacheLease implements CacheLease {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisCacheLease.class);
+
+    private static final RedisScript<Long> LIBERAR = new DefaultRedisScript<>(
+        "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+        Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final Duration duracion;
+    private final CacheCircuitBreaker circuito;
+
+    public RedisCacheLease(StringRedisTemplate redisTemplate, Duration duracion, CacheCircuitBreaker circuito) {
+        this.redisTemplate = redisTemplate;
+        this.duracion = duracion;
+        this.circuito = circuito;
+    }
+
+    @Override
+    public String tryAcquire(String cache, Object key) {
+        String token = UUID.randomUUID().toString();
+        if (!circuito.estaCerrado()) {
+            // Con el circuito abierto no se espera a Redis: se carga localmente
+            return token;
+        }
+        try {
+            Boolean obtenido = redisTemplate.opsForValue().setIfAbsent(clave(cache, key), token, duracion);
+            return Boolean.TRUE.equals(obtenido) ? token : null;
+        } catch (Exception e) {
+            if (circuito.esFalloDeRedis(e)) {
+                circuito.registrarFallo(e);
+            }
+            // Sin Redis no hay coordinación entre nodos: se carga localmente
+            logger.debug("No se pudo obtener el arrendamiento de {}::{}: {}", cache, key, e.getMessage());
+            return token;
+        }
+    }
+
+    @Override
+    public void release(String cache, Object key, String token) {
+        if (!circuito.estaCerrado()) {
+            return; // El arrendamiento expira solo
+        }
+        try {
+            redisTemplate.execute(LIBERAR, List.of(clave(cache, key)), token);
+        } catch (Exception e) {
+            logger.debug("No se pudo liberar el arrendamiento de {}::{}: {}", cache, key, e.getMessage());
+        }
+    }
+
+    private String clave(String cache, Object key) {
+        return "lease:" + cache + "::" + key;
+    }
+}
@@ -0,0 +1,216 @@
+package com.universidad.cache;
+
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+
+/**
+ * Caché remota protegida por un {@link CacheCircuitBreaker}.
+ * Mientras Redis falla o el circuito está abierto, las lecturas y escrituras van a una caché
+ * local acotada; las invalidaciones que no llegan a Redis se recuerdan y se aplican cuando el
+ * circuito vuelve a cerrarse, para no servir desde Redis valores que cambiaron durante la caída.
+ */
+public class ResilientCache implements Cache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResilientCache.class);
+
+    private final Cache remota;
+    private final Cache respaldo;
+    private final CacheCircuitBreaker circuito;
+    private final int maxInvalidacionesPendientes;
+
+    private final Set<Object> invalidacionesPendientes = ConcurrentHashMap.newKeySet();
+    // Demasiadas invalidaciones pendientes (o un clear) obligan a vaciar la caché remota entera
+    private final AtomicBoolean limpiezaPendiente = new AtomicBoolean();
+
+    private final LongAdder lecturasRespaldo = new LongAdder();
+    private final LongAdder escriturasRespaldo = new LongAdder();
+
+    public ResilientCache(Cache remota, Cache respaldo, CacheCircuitBreaker circuito, int maxInvalidacionesPendientes) {
+        this.remota = remota;
+        this.respaldo = respaldo;
+        this.circuito = circuito;
+        this.maxInvalidacionesPendientes = maxInvalidacionesPendientes;
+    }
+
+    @Override
+    public String getName() {
+        return remota.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return remota.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        return remota(() -> remota.get(key), () -> {
+            lecturasRespaldo.increment();
+            return respaldo.get(key);
+        });
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        return remota(() -> remota.get(key, type), () -> {
+            lecturasRespaldo.increment();
+            return respaldo.get(key, type);
+        });
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper existente = get(key);
+        if (existente != null) {
+            return (T) existente.get();
+        }
+        T valor;
+        try {
+            valor = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        put(key, valor);
+        return valor;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        remota(() -> {
+            remota.put(key, value);
+            return null;
+        }, () -> {
+            escriturasRespaldo.increment();
+            respaldo.put(key, value);
+            return null;
+        });
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        return remota(() -> remota.putIfAbsent(key, value), () -> {
+            escriturasRespaldo.increment();
+            return respaldo.putIfAbsent(key, value);
+        });
+    }
+
+    @Override
+    public void evict(Object key) {
+        evictIfPresent(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        // La copia local se descarta siempre: puede haberse escrito durante una caída anterior
+        respaldo.evict(key);
+        return remota(() -> remota.evictIfPresent(key), () -> {
+            recordarInvalidacion(key);
+            return false;
+        });
+    }
+
+    @Override
+    public void clear() {
+        respaldo.clear();
+        remota(() -> {
+            remota.clear();
+            return null;
+        }, () -> {
+            limpiezaPendiente.set(true);
+            return null;
+        });
+    }
+
+    @Override
+    public boolean invalidate() {
+        respaldo.invalidate();
+        return remota(remota::invalidate, () -> {
+            limpiezaPendiente.set(true);
+            return false;
+        });
+    }
+
+    /**
+     * Aplica en Redis las invalidaciones acumuladas durante la caída y descarta la caché local.
+     * Se invoca al cerrarse el circuito.
+     */
+    public void sincronizar() {
+        try {
+            aplicarPendientes();
+            respaldo.clear();
+        } catch (RuntimeException e) {
+            // Las invalidaciones que falten se aplicarán antes de la siguiente operación en Redis
+            logger.warn("No se pudieron aplicar las invalidaciones pendientes de {}: {}", getName(), e.getMessage());
+        }
+    }
+
+    public Cache getRespaldo() {
+        return respaldo;
+    }
+
+    public long getLecturasRespaldo() {
+        return lecturasRespaldo.sum();
+    }
+
+    public long getEscriturasRespaldo() {
+        return escriturasRespaldo.sum();
+    }
+
+    public int getInvalidacionesPendientes() {
+        return limpiezaPendiente.get() ? -1 : invalidacionesPendientes.size();
+    }
+
+    // Ejecuta la operación en Redis si el circuito lo permite; si no, o si Redis falla, usa el respaldo
+    private <T> T remota(Supplier<T> operacion, Supplier<T> alternativa) {
+        if (!circuito.permitir()) {
+            return alternativa.get();
+        }
+        try {
+            // Las invalidaciones perdidas se aplican antes para no leer de Redis un valor ya obsoleto
+            aplicarPendientes();
+            T resultado = operacion.get();
+            circuito.registrarExito();
+            return resultado;
+        } catch (RuntimeException e) {
+            if (!circuito.esFalloDeRedis(e)) {
+                throw e;
+            }
+            circuito.registrarFallo(e);
+            logger.debug("Redis no disponible para {}: {}", getName(), e.getMessage());
+            return alternativa.get();
+        }
+    }
+
+    private void aplicarPendientes() {
+        if (limpiezaPendiente.get()) {
+            remota.clear();
+            limpiezaPendiente.set(false);
+            invalidacionesPendientes.clear();
+            return;
+        }
+        if (invalidacionesPendientes.isEmpty()) {
+            return;
+        }
+        for (Object key : invalidacionesPendientes) {
+            remota.evict(key);
+            invalidacionesPendientes.remove(key);
+        }
+    }
+
+    private void recordarInvalidacion(Object key) {
+        if (invalidacionesPendientes.size() >= maxInvalidacionesPendientes) {
+            limpiezaPendiente.set(true);
+        } else {
+            invalidacionesPendientes.add(key);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.universidad.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.interceptor.CacheErrorHandler;
+
+/**
+ * Última barrera ante errores de caché: el error se registra y la operación se trata como
+ * un fallo de caché, de modo que el método anotado se ejecuta contra la base de datos en lugar
+ * de devolver un error al cliente. Los errores de disponibilidad de Redis alimentan el circuito.
+ */
+public class ResilientCacheErrorHandler implements CacheErrorHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResilientCacheErrorHandler.class);
+
+    private final CacheCircuitBreaker circuito;
+
+    public ResilientCacheErrorHandler(CacheCircuitBreaker circuito) {
+        this.circuito = circuito;
+    }
+
+    @Override
+    public void handleCacheGetError(RuntimeException exception, Cache cache, Object key) {
+        registrar("lectura", exception, cache, key);
+    }
+
+    @Override
+    public void handleCachePutError(RuntimeException exception, Cache cache, Object key, Object value) {
+        registrar("escritura", exception, cache, key);
+    }
+
+    @Override
+    public void handleCacheEvictError(RuntimeException exception, Cache cache, Object key) {
+        registrar("invalidación", exception, cache, key);
+    }
+
+    @Override
+    public void handleCacheClearError(RuntimeException exception, Cache cache) {
+        registrar("limpieza", exception, cache, "*");
+    }
+
+    private void registrar(String operacion, RuntimeException exception, Cache cache, Object key) {
+        if (circuito.esFalloDeRedis(exception)) {
+            circuito.registrarFallo(exception);
+        }
+        logger.warn("Error de caché en {} de {}::{}: {}", operacion, cache.getName(), key, exception.getMessage());
+    }
+}
@@ -0,0 +1,72 @@
+package com.universidad.cache;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * CacheManager que protege cada caché remota con un {@link ResilientCache} y su respaldo local.
+ * Las cachés resultantes se decoran para escribir solo tras el commit de la transacción,
+ * de modo que un fallo de Redis nunca llega a la transacción que ya se confirmó.
+ */
+public class ResilientCacheManager implements CacheManager {
+
+    private final CacheManager remoto;
+    private final CacheCircuitBreaker circuito;
+    private final Function<String, CachePolicy> politicaPorCache;
+    private final CacheResilienceProperties properties;
+    private final Map<String, ResilientCache> resilientes = new ConcurrentHashMap<>();
+    private final Map<String, Cache> decoradas = new ConcurrentHashMap<>();
+
+    public ResilientCacheManager(CacheManager remoto, CacheCircuitBreaker circuito,
+                                 Function<String, CachePolicy> politicaPorCache, CacheResilienceProperties properties) {
+        this.remoto = remoto;
+        this.circuito = circuito;
+        this.politicaPorCache = politicaPorCache;
+        this.properties = properties;
+        circuito.alCerrar(() -> resilientes.values().forEach(ResilientCache::sincronizar));
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        Cache decorada = decoradas.get(name);
+        if (decorada != null) {
+            return decorada;
+        }
+        Cache cache = remoto.getCache(name);
+        if (cache == null) {
+            return null;
+        }
+        return decoradas.computeIfAbsent(name, n -> {
+            ResilientCache resiliente = new ResilientCache(cache, respaldo(n), circuito, properties.getMaxInvalidacionesPendientes());
+            resilientes.put(n, resiliente);
+            return new TransactionAwareCacheDecorator(resiliente);
+        });
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return remoto.getCacheNames();
+    }
+
+    public Map<String, ResilientCache> getResilientes() {
+        return resilientes;
+    }
+
+    // Respaldo acotado en número de entradas, con el mismo TTL que la caché remota
+    private Cache respaldo(String nombre) {
+        CachePolicy politica = politicaPorCache.apply(nombre);
+        return new CaffeineCache(nombre, Caffeine.newBuilder()
+            .maximumSize(properties.getMaxEntradasRespaldo())
+            .expireAfterWrite(politica.getTtl())
+            .build(), politica.cacheaNulos());
+    }
+}
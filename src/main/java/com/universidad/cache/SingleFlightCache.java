@@ -0,0 +1,286 @@
+package com.universidad.cache;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+
+/**
+ * Decorador de caché que evita estampidas al expirar una entrada:
+ * <ul>
+ *   <li>los fallos concurrentes de la misma clave comparten una sola invocación del cargador;</li>
+ *   <li>entre nodos, un arrendamiento corto ({@link CacheLease}) decide quién carga y el resto espera el valor;</li>
+ *   <li>los aciertos sobre entradas próximas a expirar disparan un refresco asíncrono.</li>
+ * </ul>
+ * Solo actúa sobre {@link #get(Object, Callable)}, es decir, sobre los métodos @Cacheable(sync = true).
+ * <p>
+ * El refresco anticipado ejecuta la invocación capturada del método @Cacheable en un hilo del ejecutor
+ * de refresco, fuera del contexto de quien la disparó: sin su transacción, sin su SecurityContext y sin
+ * los valores por hilo de la solicitud (SeleccionPool usa el pool de lectura, ConsumoSql no la cuenta).
+ * Solo es válido para métodos cuyo resultado depende únicamente de sus argumentos, abren su propia
+ * transacción si la necesitan y devuelven DTOs. Las cachés que guardan entidades (sus colecciones lazy
+ * no se pueden inicializar fuera de la sesión) o resultados que dependen del usuario o de la transacción
+ * en curso desactivan el refresco con app.cache.&lt;nombre&gt;.refresco-anticipado=false, como materiasEstudiante
+ * (app.cache-stampede.ratio-refresco=0 lo desactiva en todas).
+ */
+public class SingleFlightCache implements Cache {
+
+    private static final Logger logger = LoggerFactory.getLogger(SingleFlightCache.class);
+
+    private static final long INTERVALO_SONDEO_MS = 20;
+    private static final int MAX_CLAVES_SEGUIDAS = 10_000;
+
+    private final Cache delegate;
+    private final CacheLease lease;
+    private final Executor refrescoExecutor;
+    private final long refrescoMs;
+    private final long esperaLeaseMs;
+    private final boolean cachearNulos;
+
+    private final Map<Object, CompletableFuture<Object>> enVuelo = new ConcurrentHashMap<>();
+    // Momento en que este nodo cargó (o vio por primera vez) cada clave; base del refresco anticipado
+    private final Map<Object, Long> cargadoEn = new ConcurrentHashMap<>();
+    private final Set<Object> refrescando = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder cargas = new LongAdder();
+    private final LongAdder coalescidas = new LongAdder();
+    private final LongAdder refrescos = new LongAdder();
+
+    /**
+     * @param refrescoMs antigüedad a partir de la cual un acierto dispara el refresco (0 lo desactiva)
+     * @param esperaLeaseMs tiempo máximo de espera cuando otro nodo tiene el arrendamiento
+     * @param cachearNulos si los resultados nulos se guardan (caché negativa)
+     */
+    public SingleFlightCache(Cache delegate, CacheLease lease, Executor refrescoExecutor, long refrescoMs,
+                             long esperaLeaseMs, boolean cachearNulos) {
+        this.delegate = delegate;
+        this.lease = lease;
+        this.refrescoExecutor = refrescoExecutor;
+        this.refrescoMs = refrescoMs;
+        this.esperaLeaseMs = esperaLeaseMs;
+        this.cachearNulos = cachearNulos;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        return delegate.get(key);
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        return delegate.get(key, type);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper existente = delegate.get(key);
+        if (existente != null) {
+            refrescarSiCaduca(key, valueLoader);
+            return (T) existente.get();
+        }
+        CompletableFuture<Object> propio = new CompletableFuture<>();
+        CompletableFuture<Object> enCurso = enVuelo.putIfAbsent(key, propio);
+        if (enCurso != null) {
+            coalescidas.increment();
+            return (T) esperar(key, enCurso, valueLoader);
+        }
+        try {
+            // Otro hilo pudo publicar el valor entre la primera lectura y el registro en vuelo
+            ValueWrapper publicado = delegate.get(key);
+            Object valor = publicado != null ? publicado.get() : cargarCoordinado(key, valueLoader);
+            propio.complete(valor);
+            return (T) valor;
+        } catch (RuntimeException e) {
+            propio.completeExceptionally(e);
+            throw e;
+        } finally {
+            enVuelo.remove(key, propio);
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        delegate.put(key, value);
+        seguir(key, System.currentTimeMillis());
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        return delegate.putIfAbsent(key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        delegate.evict(key);
+        cargadoEn.remove(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        cargadoEn.remove(key);
+        return delegate.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+        cargadoEn.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        cargadoEn.clear();
+        return delegate.invalidate();
+    }
+
+    public long getCargas() {
+        return cargas.sum();
+    }
+
+    public long getCoalescidas() {
+        return coalescidas.sum();
+    }
+
+    public long getRefrescos() {
+        return refrescos.sum();
+    }
+
+    public Cache getDelegate() {
+        return delegate;
+    }
+
+    // Carga la clave coordinándose con el resto de nodos mediante el arrendamiento
+    private Object cargarCoordinado(Object key, Callable<?> valueLoader) {
+        String token = lease.tryAcquire(getName(), key);
+        if (token == null) {
+            ValueWrapper publicado = esperarPublicacion(key);
+            if (publicado != null) {
+                return publicado.get();
+            }
+            logger.debug("Tiempo de espera agotado para {}::{}; se carga localmente", getName(), key);
+        }
+        try {
+            return cargar(key, valueLoader);
+        } finally {
+            if (token != null) {
+                lease.release(getName(), key, token);
+            }
+        }
+    }
+
+    private Object cargar(Object key, Callable<?> valueLoader) {
+        Object valor;
+        try {
+            valor = valueLoader.call();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        cargas.increment();
+        if (valor != null || cachearNulos) {
+            delegate.put(key, valor);
+            seguir(key, System.currentTimeMillis());
+        }
+        return valor;
+    }
+
+    // Sondea la caché mientras otro nodo carga la clave
+    private ValueWrapper esperarPublicacion(Object key) {
+        long limite = System.currentTimeMillis() + esperaLeaseMs;
+        while (System.currentTimeMillis() < limite) {
+            try {
+                Thread.sleep(INTERVALO_SONDEO_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+            ValueWrapper publicado = delegate.get(key);
+            if (publicado != null) {
+                return publicado;
+            }
+        }
+        return null;
+    }
+
+    private Object esperar(Object key, CompletableFuture<Object> enCurso, Callable<?> valueLoader) {
+        try {
+            return enCurso.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw new ValueRetrievalException(key, valueLoader, e.getCause());
+        }
+    }
+
+    // Refresca en segundo plano las entradas cuya antigüedad supera el umbral, una sola vez por clave
+    private void refrescarSiCaduca(Object key, Callable<?> valueLoader) {
+        if (refrescoMs <= 0) {
+            return;
+        }
+        long ahora = System.currentTimeMillis();
+        Long desde = cargadoEn.get(key);
+        if (desde == null) {
+            seguir(key, ahora);
+            return;
+        }
+        if (ahora - desde < refrescoMs || !refrescando.add(key)) {
+            return;
+        }
+        try {
+            refrescoExecutor.execute(() -> refrescar(key, valueLoader));
+        } catch (RejectedExecutionException e) {
+            refrescando.remove(key);
+        }
+    }
+
+    // Corre en el ejecutor de refresco, sin el contexto del hilo que disparó el refresco (ver la clase)
+    private void refrescar(Object key, Callable<?> valueLoader) {
+        try {
+            String token = lease.tryAcquire(getName(), key);
+            if (token == null) {
+                // Otro nodo ya está refrescando la clave
+                seguir(key, System.currentTimeMillis());
+                return;
+            }
+            try {
+                cargar(key, valueLoader);
+                refrescos.increment();
+            } finally {
+                lease.release(getName(), key, token);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("No se pudo refrescar {}::{}: {}", getName(), key, e.getMessage());
+        } finally {
+            refrescando.remove(key);
+        }
+    }
+
+    private void seguir(Object key, long instante) {
+        if (cargadoEn.size() >= MAX_CLAVES_SEGUIDAS) {
+            cargadoEn.clear();
+        }
+        cargadoEn.put(key, instante);
+    }
+}
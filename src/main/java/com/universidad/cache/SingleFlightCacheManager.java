@@ -0,0 +1,60 @@
+package com.universidad.cache;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+/**
+ * CacheManager que envuelve cada caché del gestor delegado en un {@link SingleFlightCache}.
+ */
+public class SingleFlightCacheManager implements CacheManager {
+
+    private final CacheManager delegate;
+    private final CacheLease lease;
+    private final Executor refrescoExecutor;
+    private final Function<String, CachePolicy> politicaPorCache;
+    private final CacheStampedeProperties properties;
+    private final Map<String, SingleFlightCache> decoradas = new ConcurrentHashMap<>();
+
+    public SingleFlightCacheManager(CacheManager delegate, CacheLease lease, Executor refrescoExecutor,
+                                    Function<String, CachePolicy> politicaPorCache, CacheStampedeProperties properties) {
+        this.delegate = delegate;
+        this.lease = lease;
+        this.refrescoExecutor = refrescoExecutor;
+        this.politicaPorCache = politicaPorCache;
+        this.properties = properties;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        SingleFlightCache decorada = decoradas.get(name);
+        if (decorada != null) {
+            return decorada;
+        }
+        Cache cache = delegate.getCache(name);
+        if (cache == null) {
+            return null;
+        }
+        return decoradas.computeIfAbsent(name, n -> {
+            CachePolicy politica = politicaPorCache.apply(n);
+            long refrescoMs = politica.refrescaAnticipadamente()
+                ? (long) (politica.getTtl().toMillis() * properties.getRatioRefresco()) : 0;
+            return new SingleFlightCache(cache, lease, refrescoExecutor, refrescoMs, properties.getEsperaLeaseMs(),
+                politica.cacheaNulos());
+        });
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return delegate.getCacheNames();
+    }
+
+    public SingleFlightCache getCacheDecorada(String name) {
+        return decoradas.get(name);
+    }
+}
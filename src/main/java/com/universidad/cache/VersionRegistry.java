@@ -0,0 +1,187 @@
+package com.universidad.cache;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.CacheControl;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Registro en memoria de las versiones conocidas de entidades y catálogos.
+ * Permite construir ETags fuertes y responder a If-None-Match sin consultar Redis ni la base de datos.
+ * Las versiones de entidad provienen del campo @Version. El registro es local a cada nodo y solo lo
+ * actualizan sus propias escrituras, así que cada versión conocida caduca tras app.etag.vigencia: pasado
+ * ese tiempo el nodo vuelve a leer la entidad y registra la versión actual.
+ * Los catálogos usan un sello compartido, la secuencia sello_&lt;catálogo&gt; de la base de datos, que cada
+ * nodo avanza tras el commit de sus escrituras. Cada nodo guarda el último sello leído durante la vigencia,
+ * así que una escritura atendida por otro nodo se refleja, como mucho, al terminar la vigencia; el ETag
+ * es el mismo en todos los nodos.
+ */
+@Component
+public class VersionRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(VersionRegistry.class);
+
+    /** Política de caché para respuestas con ETag: el cliente guarda la respuesta y siempre revalida. */
+    public static final CacheControl REVALIDAR = CacheControl.noCache().cachePrivate();
+
+    // "tipo:id" -> versión de la entidad y momento en que se registró
+    private final Map<String, Conocida> versiones = new ConcurrentHashMap<>();
+
+    // nombre del catálogo -> último sello leído o avanzado por este nodo
+    private final Map<String, Conocida> catalogos = new ConcurrentHashMap<>();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long vigenciaMs;
+
+    public VersionRegistry(JdbcTemplate jdbcTemplate, @Value("${app.etag.vigencia:5s}") Duration vigencia) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.vigenciaMs = Math.max(1, vigencia.toMillis());
+    }
+
+    private static class Conocida {
+        private final long version;
+        private final long registradaEn;
+
+        private Conocida(long version, long registradaEn) {
+            this.version = version;
+            this.registradaEn = registradaEn;
+        }
+    }
+
+    /**
+     * Registra la versión conocida de una entidad.
+     */
+    public void registrar(String tipo, Object id, Long version) {
+        if (id == null || version == null) {
+            return;
+        }
+        Conocida nueva = new Conocida(version, System.currentTimeMillis());
+        // Una versión menor solo reemplaza a la conocida si esta ya caducó (la fila pudo recrearse)
+        versiones.merge(clave(tipo, id), nueva,
+            (actual, otra) -> otra.version >= actual.version || caducada(actual, otra.registradaEn) ? otra : actual);
+    }
+
+    /**
+     * Registra la escritura de una entidad y del catálogo al que pertenece.
+     * Si hay una transacción activa, se aplica solo después del commit para no
+     * publicar versiones que terminen en rollback.
+     */
+    public void registrarEscritura(String tipo, Object id, Long version, String catalogo) {
+        despuesDelCommit(() -> {
+            registrar(tipo, id, version);
+            avanzar(catalogo);
+        });
+    }
+
+    /**
+     * Olvida la versión de una entidad (por ejemplo, al eliminarla o cambiar su clave).
+     */
+    public void invalidar(String tipo, Object id) {
+        if (id != null) {
+            versiones.remove(clave(tipo, id));
+        }
+    }
+
+    /**
+     * Avanza el sello de un catálogo tras una escritura, después del commit si hay una transacción activa:
+     * un sello avanzado antes de que los datos sean visibles podría quedar asociado a los anteriores.
+     */
+    public void incrementarCatalogo(String catalogo) {
+        despuesDelCommit(() -> avanzar(catalogo));
+    }
+
+    private void despuesDelCommit(Runnable aplicar) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    aplicar.run();
+                }
+            });
+        } else {
+            aplicar.run();
+        }
+    }
+
+    // La escritura ya está confirmada: si el sello no avanza, este nodo al menos lo vuelve a leer
+    private void avanzar(String catalogo) {
+        try {
+            Long sello = jdbcTemplate.queryForObject("SELECT nextval('" + secuencia(catalogo) + "')", Long.class);
+            recordarSello(catalogo, sello);
+        } catch (DataAccessException e) {
+            catalogos.remove(catalogo);
+            logger.warn("No se pudo avanzar el sello del catálogo {}: {}", catalogo, e.getMessage());
+        }
+    }
+
+    /**
+     * ETag de una entidad, o null si el registro no conoce su versión o la conocida ya caducó.
+     */
+    public String etagEntidad(String tipo, Object id) {
+        String clave = clave(tipo, id);
+        Conocida conocida = versiones.get(clave);
+        if (conocida == null) {
+            return null;
+        }
+        if (caducada(conocida, System.currentTimeMillis())) {
+            versiones.remove(clave, conocida);
+            return null;
+        }
+        return etag(tipo, id, conocida.version);
+    }
+
+    /**
+     * ETag de una entidad para una versión concreta.
+     */
+    public String etag(String tipo, Object id, Long version) {
+        return "\"" + tipo + "-" + id + "-v" + version + "\"";
+    }
+
+    /**
+     * ETag de un catálogo completo; siempre disponible. Cambia con cada escritura local al instante
+     * y con las de otros nodos al releer el sello, pasada la vigencia del último leído.
+     */
+    public String etagCatalogo(String catalogo) {
+        Conocida conocida = catalogos.get(catalogo);
+        long sello;
+        if (conocida != null && !caducada(conocida, System.currentTimeMillis())) {
+            sello = conocida.version;
+        } else {
+            // last_value ya es el último sello entregado; is_called distingue la secuencia recién creada
+            sello = jdbcTemplate.queryForObject("SELECT CASE WHEN is_called THEN last_value ELSE 0 END FROM "
+                + secuencia(catalogo), Long.class);
+            recordarSello(catalogo, sello);
+        }
+        return "\"" + catalogo + "-" + sello + "\"";
+    }
+
+    // Un sello leído nunca retrocede el que este nodo ya avanzó
+    private void recordarSello(String catalogo, long sello) {
+        Conocida nueva = new Conocida(sello, System.currentTimeMillis());
+        catalogos.merge(catalogo, nueva, (actual, otra) -> otra.version >= actual.version ? otra : actual);
+    }
+
+    private static String secuencia(String catalogo) {
+        if (!catalogo.matches("[a-z_]+")) {
+            throw new IllegalArgumentException("Catálogo no válido: " + catalogo);
+        }
+        return "sello_" + catalogo;
+    }
+
+    private boolean caducada(Conocida conocida, long ahora) {
+        return ahora - conocida.registradaEn >= vigenciaMs;
+    }
+
+    private String clave(String tipo, Object id) {
+        return tipo + ":" + id;
+    }
+}
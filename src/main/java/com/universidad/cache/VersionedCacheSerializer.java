@@ -0,0 +1,142 @@
+package com.universidad.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import org.springframework.cache.support.NullValue;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+/**
+ * Serializador de valores de caché con cabecera versionada.
+ *
+ * Formato: [magia 0xCA][versión de formato][id de codec][flags][carga útil].
+ * El bit 0 de flags indica que la carga útil está comprimida y el bit 1 que el valor es el
+ * marcador de resultado nulo (caché negativa), sin carga útil. Los valores sin cabecera
+ * se interpretan como JSON de {@link GenericJackson2JsonRedisSerializer}, el formato
+ * anterior, para que las entradas existentes sigan siendo legibles tras el despliegue.
+ */
+public class VersionedCacheSerializer implements RedisSerializer<Object> {
+
+    static final byte MAGIA = (byte) 0xCA;
+    static final byte VERSION_FORMATO = 1;
+    static final int LONGITUD_CABECERA = 4;
+    private static final byte FLAG_COMPRIMIDO = 0x01;
+    private static final byte FLAG_NULO = 0x02;
+
+    private final CacheValueCodec codec;
+    private final Map<Byte, CacheValueCodec> codecsPorId;
+    private final int umbralCompresion;
+    private final RedisSerializer<Object> legado = new GenericJackson2JsonRedisSerializer();
+
+    /**
+     * @param codec codec usado para escribir
+     * @param codecsPorId todos los codecs conocidos, para leer valores escritos con cualquiera de ellos
+     * @param umbralCompresion tamaño en bytes a partir del cual se comprime la carga útil (0 = nunca)
+     */
+    public VersionedCacheSerializer(CacheValueCodec codec, Map<Byte, CacheValueCodec> codecsPorId, int umbralCompresion) {
+        this.codec = codec;
+        this.codecsPorId = codecsPorId;
+        this.umbralCompresion = umbralCompresion;
+    }
+
+    @Override
+    public byte[] serialize(Object valor) throws SerializationException {
+        if (valor == null) {
+            return new byte[0];
+        }
+        if (valor instanceof NullValue) {
+            return new byte[] {MAGIA, VERSION_FORMATO, codec.id(), FLAG_NULO};
+        }
+        byte[] carga = codec.encode(valor);
+        byte flags = 0;
+        if (umbralCompresion > 0 && carga.length >= umbralCompresion) {
+            byte[] comprimida = comprimir(carga);
+            // Solo se guarda comprimido si realmente ahorra espacio
+            if (comprimida.length < carga.length) {
+                carga = comprimida;
+                flags |= FLAG_COMPRIMIDO;
+            }
+        }
+        byte[] salida = new byte[LONGITUD_CABECERA + carga.length];
+        salida[0] = MAGIA;
+        salida[1] = VERSION_FORMATO;
+        salida[2] = codec.id();
+        salida[3] = flags;
+        System.arraycopy(carga, 0, salida, LONGITUD_CABECERA, carga.length);
+        return salida;
+    }
+
+    @Override
+    public Object deserialize(byte[] datos) throws SerializationException {
+        if (datos == null || datos.length == 0) {
+            return null;
+        }
+        if (datos.length < LONGITUD_CABECERA || datos[0] != MAGIA) {
+            return legado.deserialize(datos);
+        }
+        if (datos[1] != VERSION_FORMATO) {
+            throw new SerializationException("Versión de formato de caché no soportada: " + datos[1]);
+        }
+        if ((datos[3] & FLAG_NULO) != 0) {
+            return NullValue.INSTANCE;
+        }
+        CacheValueCodec lector = codecsPorId.get(datos[2]);
+        if (lector == null) {
+            throw new SerializationException("Codec de caché desconocido: " + datos[2]);
+        }
+        byte[] carga = Arrays.copyOfRange(datos, LONGITUD_CABECERA, datos.length);
+        if ((datos[3] & FLAG_COMPRIMIDO) != 0) {
+            carga = descomprimir(carga);
+        }
+        return lector.decode(carga);
+    }
+
+    public CacheValueCodec getCodec() {
+        return codec;
+    }
+
+    // Compresión rápida (nivel BEST_SPEED): prioriza la latencia sobre el ratio
+    private static byte[] comprimir(byte[] datos) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(datos);
+            deflater.finish();
+            ByteArrayOutputStream salida = new ByteArrayOutputStream(datos.length / 2 + 16);
+            byte[] bufer = new byte[8192];
+            while (!deflater.finished()) {
+                int n = deflater.deflate(bufer);
+                salida.write(bufer, 0, n);
+            }
+            return salida.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] descomprimir(byte[] datos) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(datos);
+            ByteArrayOutputStream salida = new ByteArrayOutputStream(datos.length * 3);
+            byte[] bufer = new byte[8192];
+            while (!inflater.finished()) {
+                int n = inflater.inflate(bufer);
+                if (n == 0 && inflater.needsInput()) {
+                    throw new SerializationException("Valor de caché comprimido truncado");
+                }
+                salida.write(bufer, 0, n);
+            }
+            return salida.toByteArray();
+        } catch (DataFormatException e) {
+            throw new SerializationException("Valor de caché comprimido inválido", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
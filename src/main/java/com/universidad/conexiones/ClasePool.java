@@ -0,0 +1,19 @@
+package com.universidad.conexiones;
+
+/**
+ * Clases de carga con su propio pool de conexiones, para que ninguna pueda agotar las conexiones de otra.
+ */
+public enum ClasePool {
+
+    /** Login y validación de tokens: pocas consultas cortas que no deben esperar a nadie. */
+    AUTENTICACION,
+
+    /** Consultas de catálogo y transacciones de solo lectura; también lo que se ejecuta sin transacción. */
+    LECTURA,
+
+    /** Transacciones de escritura (inscripciones, altas y cambios). */
+    ESCRITURA,
+
+    /** Procesos masivos e informes: alta masiva, avance académico, reconciliación y exportaciones. */
+    LOTES
+}
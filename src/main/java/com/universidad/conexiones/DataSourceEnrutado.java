@@ -0,0 +1,30 @@
+package com.universidad.conexiones;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * Entrega cada conexión desde el pool de la clase de carga del hilo actual ({@link SeleccionPool}).
+ * Se usa detrás de un LazyConnectionDataSourceProxy: así la conexión real se pide en la primera sentencia,
+ * cuando la transacción ya expuso si es de solo lectura.
+ */
+class DataSourceEnrutado extends AbstractRoutingDataSource {
+
+    DataSourceEnrutado(PoolsConexion pools) {
+        Map<Object, Object> destinos = new HashMap<>();
+        for (ClasePool clase : ClasePool.values()) {
+            destinos.put(clase, pools.obtener(clase));
+        }
+        setTargetDataSources(destinos);
+        setDefaultTargetDataSource(pools.obtener(ClasePool.LECTURA));
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return SeleccionPool.actual();
+    }
+}
@@ -0,0 +1,72 @@
+package com.universidad.conexiones;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+/**
+ * Contadores de un pool alimentados por Hikari: esperas para obtener conexión, tiempo de uso y
+ * solicitudes rechazadas por agotar el tiempo de espera.
+ */
+class MetricasPool implements IMetricsTracker {
+
+    private final LongAdder adquisiciones = new LongAdder();
+    private final LongAdder esperaNanos = new LongAdder();
+    private final LongAccumulator maxEsperaNanos = new LongAccumulator(Math::max, 0);
+    private final LongAdder usoMs = new LongAdder();
+    private final LongAccumulator maxUsoMs = new LongAccumulator(Math::max, 0);
+    private final LongAdder rechazos = new LongAdder();
+
+    // Hikari crea el tracker al arrancar el pool; se devuelve siempre el mismo
+    MetricsTrackerFactory factory() {
+        return (String poolName, PoolStats poolStats) -> this;
+    }
+
+    @Override
+    public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+        adquisiciones.increment();
+        esperaNanos.add(elapsedAcquiredNanos);
+        maxEsperaNanos.accumulate(elapsedAcquiredNanos);
+    }
+
+    @Override
+    public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+        usoMs.add(elapsedBorrowedMillis);
+        maxUsoMs.accumulate(elapsedBorrowedMillis);
+    }
+
+    @Override
+    public void recordConnectionTimeout() {
+        rechazos.increment();
+    }
+
+    long getAdquisiciones() {
+        return adquisiciones.sum();
+    }
+
+    double getMediaEsperaMs() {
+        long n = adquisiciones.sum();
+        return n > 0 ? esperaNanos.sum() / 1_000_000.0 / n : 0;
+    }
+
+    long getMaxEsperaMs() {
+        return TimeUnit.NANOSECONDS.toMillis(maxEsperaNanos.get());
+    }
+
+    double getMediaUsoMs() {
+        long n = adquisiciones.sum();
+        return n > 0 ? (double) usoMs.sum() / n : 0;
+    }
+
+    long getMaxUsoMs() {
+        return maxUsoMs.get();
+    }
+
+    long getRechazos() {
+        return rechazos.sum();
+    }
+}
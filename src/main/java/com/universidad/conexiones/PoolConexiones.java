@@ -0,0 +1,21 @@
+package com.universidad.conexiones;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Pool del que toman conexión los métodos anotados (o todos los métodos públicos de la clase).
+ * Sin anotación el pool sale de la transacción: las de solo lectura y el acceso sin transacción usan
+ * LECTURA y las de escritura ESCRITURA. Solo afecta a las conexiones que se obtienen durante la
+ * llamada: una transacción ya iniciada conserva la suya.
+ */
+@Documented
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface PoolConexiones {
+
+    ClasePool value();
+}
@@ -0,0 +1,129 @@
+package com.universidad.conexiones;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Un pool Hikari por {@link ClasePool}, cada uno con su tamaño, su tiempo de espera y su statement_timeout.
+ * Un informe lento o una transacción que retiene su conexión agotan solo el pool de su clase; las
+ * solicitudes de las demás siguen obteniendo conexión y las de la clase agotada fallan al vencer la espera.
+ */
+public class PoolsConexion implements AutoCloseable {
+
+    private final Map<ClasePool, HikariDataSource> pools = new EnumMap<>(ClasePool.class);
+    private final Map<ClasePool, MetricasPool> metricas = new EnumMap<>(ClasePool.class);
+
+    public PoolsConexion(DataSourceProperties dataSourceProperties, PoolsProperties properties) {
+        for (ClasePool clase : ClasePool.values()) {
+            PoolsProperties.Pool configuracion = properties.obtener(clase);
+            MetricasPool metricasPool = new MetricasPool();
+            HikariConfig config = new HikariConfig();
+            config.setPoolName("universidad-" + clase.name().toLowerCase());
+            config.setJdbcUrl(dataSourceProperties.determineUrl());
+            config.setUsername(dataSourceProperties.determineUsername());
+            config.setPassword(dataSourceProperties.determinePassword());
+            config.setDriverClassName(dataSourceProperties.determineDriverClassName());
+            config.setMaximumPoolSize(configuracion.getTamanoMaximo());
+            config.setMinimumIdle(Math.min(configuracion.getMinimoInactivas(), configuracion.getTamanoMaximo()));
+            config.setConnectionTimeout(configuracion.getTiempoEspera().toMillis());
+            if (configuracion.getTiempoMaximoSentencia() != null && !configuracion.getTiempoMaximoSentencia().isZero()) {
+                // Opción de sesión de PostgreSQL aplicada al abrir cada conexión
+                config.addDataSourceProperty("options", "-c statement_timeout=" + configuracion.getTiempoMaximoSentencia().toMillis());
+            }
+            config.setMetricsTrackerFactory(metricasPool.factory());
+            // Sin conexiones hasta el primer uso, como el pool que crea Spring Boot
+            HikariDataSource pool = new HikariDataSource();
+            config.copyStateTo(pool);
+            pools.put(clase, pool);
+            metricas.put(clase, metricasPool);
+        }
+    }
+
+    DataSource obtener(ClasePool clase) {
+        return pools.get(clase);
+    }
+
+    /**
+     * Pool de los procesos masivos, sin statement_timeout por defecto: lo usan también las migraciones
+     * al arrancar, que fuera de una transacción irían al pool de lectura y a su límite por sentencia.
+     */
+    public DataSource lotes() {
+        return pools.get(ClasePool.LOTES);
+    }
+
+    /**
+     * DataSource de la aplicación: enruta cada conexión al pool de su clase de carga.
+     */
+    public DataSource dataSource() {
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy();
+        // Valores por defecto de las conexiones de Hikari; evita pedir una conexión solo para consultarlos
+        proxy.setDefaultAutoCommit(true);
+        proxy.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        proxy.setTargetDataSource(new DataSourceEnrutado(this));
+        proxy.afterPropertiesSet();
+        return proxy;
+    }
+
+    @Data
+    @Builder
+    public static class Estado {
+        private ClasePool clase;
+        private int tamanoMaximo;
+        private long tiempoEsperaMs;
+        /** Conexiones en uso, inactivas y solicitudes esperando (cero si el pool aún no se usó). */
+        private int activas;
+        private int inactivas;
+        private int esperando;
+        private long adquisiciones;
+        private double mediaEsperaMs;
+        private long maxEsperaMs;
+        private double mediaUsoMs;
+        private long maxUsoMs;
+        /** Solicitudes que no obtuvieron conexión dentro del tiempo de espera. */
+        private long rechazos;
+    }
+
+    public List<Estado> estado() {
+        List<Estado> resultado = new ArrayList<>(pools.size());
+        for (Map.Entry<ClasePool, HikariDataSource> entrada : pools.entrySet()) {
+            HikariDataSource pool = entrada.getValue();
+            MetricasPool m = metricas.get(entrada.getKey());
+            HikariPoolMXBean mxBean = pool.getHikariPoolMXBean();
+            resultado.add(Estado.builder()
+                .clase(entrada.getKey())
+                .tamanoMaximo(pool.getMaximumPoolSize())
+                .tiempoEsperaMs(pool.getConnectionTimeout())
+                .activas(mxBean != null ? mxBean.getActiveConnections() : 0)
+                .inactivas(mxBean != null ? mxBean.getIdleConnections() : 0)
+                .esperando(mxBean != null ? mxBean.getThreadsAwaitingConnection() : 0)
+                .adquisiciones(m.getAdquisiciones())
+                .mediaEsperaMs(m.getMediaEsperaMs())
+                .maxEsperaMs(m.getMaxEsperaMs())
+                .mediaUsoMs(m.getMediaUsoMs())
+                .maxUsoMs(m.getMaxUsoMs())
+                .rechazos(m.getRechazos())
+                .build());
+        }
+        return resultado;
+    }
+
+    @Override
+    public void close() {
+        pools.values().forEach(HikariDataSource::close);
+    }
+}
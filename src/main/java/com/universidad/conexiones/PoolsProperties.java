@@ -0,0 +1,62 @@
+package com.universidad.conexiones;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Pools de conexiones por clase de carga (prefijo app.datasource.pools). La URL y las credenciales
+ * son las de spring.datasource; las propiedades spring.datasource.hikari.* no se aplican.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.datasource.pools")
+public class PoolsProperties {
+
+    /** Con false se usa el pool único que configura Spring Boot. */
+    private boolean habilitado = true;
+
+    private Pool autenticacion = new Pool(3, Duration.ofSeconds(1), Duration.ofSeconds(2));
+    private Pool lectura = new Pool(10, Duration.ofSeconds(2), Duration.ofSeconds(10));
+    private Pool escritura = new Pool(8, Duration.ofSeconds(3), Duration.ofSeconds(10));
+    private Pool lotes = new Pool(3, Duration.ofSeconds(10), null);
+
+    @Data
+    public static class Pool {
+
+        /** Conexiones como máximo. */
+        private int tamanoMaximo;
+
+        /** Conexiones inactivas que se mantienen abiertas. */
+        private int minimoInactivas = 1;
+
+        /** Tiempo máximo de espera por una conexión libre; después la solicitud falla con 503. */
+        private Duration tiempoEspera;
+
+        /** statement_timeout de las sesiones del pool; sin valor no se limita. */
+        private Duration tiempoMaximoSentencia;
+
+        public Pool() {
+        }
+
+        Pool(int tamanoMaximo, Duration tiempoEspera, Duration tiempoMaximoSentencia) {
+            this.tamanoMaximo = tamanoMaximo;
+            this.tiempoEspera = tiempoEspera;
+            this.tiempoMaximoSentencia = tiempoMaximoSentencia;
+        }
+    }
+
+    public Pool obtener(ClasePool clase) {
+        switch (clase) {
+        case AUTENTICACION:
+            return autenticacion;
+        case ESCRITURA:
+            return escritura;
+        case LOTES:
+            return lotes;
+        default:
+            return lectura;
+        }
+    }
+}
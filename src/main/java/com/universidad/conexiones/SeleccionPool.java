@@ -0,0 +1,97 @@
+package com.universidad.conexiones;
+
+import java.util.function.Supplier;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Pool elegido para el hilo actual, por {@link PoolConexiones} o con {@link #en(ClasePool, Supplier)}
+ * en los hilos propios de los procesos masivos (las anotaciones no llegan a los hilos de un ForkJoinPool).
+ */
+public final class SeleccionPool {
+
+    private static final ThreadLocal<ClasePool> ACTUAL = new ThreadLocal<>();
+
+    private SeleccionPool() {
+    }
+
+    /**
+     * Pool del que debe salir la próxima conexión del hilo actual.
+     */
+    static ClasePool actual() {
+        ClasePool elegido = ACTUAL.get();
+        if (elegido != null) {
+            return elegido;
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return ClasePool.ESCRITURA;
+        }
+        return ClasePool.LECTURA;
+    }
+
+    /**
+     * Ejecuta la tarea tomando las conexiones del pool indicado y restaura después el anterior.
+     */
+    public static <T> T en(ClasePool pool, Supplier<T> tarea) {
+        ClasePool anterior = ACTUAL.get();
+        ACTUAL.set(pool);
+        try {
+            return tarea.get();
+        } finally {
+            restaurar(anterior);
+        }
+    }
+
+    public static void en(ClasePool pool, Runnable tarea) {
+        en(pool, () -> {
+            tarea.run();
+            return null;
+        });
+    }
+
+    private static void restaurar(ClasePool anterior) {
+        if (anterior == null) {
+            ACTUAL.remove();
+        } else {
+            ACTUAL.set(anterior);
+        }
+    }
+
+    /**
+     * Aplica {@link PoolConexiones} (del método o de su clase) a las llamadas a través del proxy.
+     */
+    public static MethodInterceptor interceptor() {
+        return new Interceptor();
+    }
+
+    private static class Interceptor implements MethodInterceptor {
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            PoolConexiones anotacion = buscar(invocation);
+            if (anotacion == null) {
+                return invocation.proceed();
+            }
+            ClasePool anterior = ACTUAL.get();
+            ACTUAL.set(anotacion.value());
+            try {
+                return invocation.proceed();
+            } finally {
+                restaurar(anterior);
+            }
+        }
+
+        private static PoolConexiones buscar(MethodInvocation invocation) {
+            Class<?> clase = invocation.getThis() != null ? AopUtils.getTargetClass(invocation.getThis())
+                : invocation.getMethod().getDeclaringClass();
+            PoolConexiones anotacion = AnnotatedElementUtils.findMergedAnnotation(
+                AopUtils.getMostSpecificMethod(invocation.getMethod(), clase), PoolConexiones.class);
+            return anotacion != null ? anotacion : AnnotatedElementUtils.findMergedAnnotation(clase, PoolConexiones.class);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.universidad.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import com.universidad.cache.CacheCircuitBreaker;
+import com.universidad.idempotencia.AlmacenCompartido;
+import com.universidad.idempotencia.IdempotenciaProperties;
+import com.universidad.idempotencia.RedisAlmacenCompartido;
+
+/**
+ * Esta clase configura el almacén de claves de idempotencia.
+ * El nivel compartido se selecciona con la propiedad app.idempotencia.compartido (local | redis);
+ * con local no se declara ninguno y cada nodo guarda solo sus propias respuestas.
+ */
+@Configuration
+@EnableConfigurationProperties(IdempotenciaProperties.class)
+public class IdempotenciaConfig {
+
+    /**
+     * Nivel compartido en Redis, protegido por el mismo circuito que la caché.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.idempotencia.compartido", havingValue = "redis")
+    public AlmacenCompartido redisAlmacenCompartido(StringRedisTemplate redisTemplate, CacheCircuitBreaker cacheCircuitBreaker) {
+        return new RedisAlmacenCompartido(redisTemplate, cacheCircuitBreaker);
+    }
+}
@@ -0,0 +1,67 @@
+package com.universidad.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayConfigurationCustomizer;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+
+import com.universidad.conexiones.PoolConexiones;
+import com.universidad.conexiones.PoolsConexion;
+import com.universidad.conexiones.PoolsProperties;
+import com.universidad.conexiones.SeleccionPool;
+
+/**
+ * Esta clase configura un pool de conexiones por clase de carga (autenticación, lectura, escritura y lotes).
+ * Con app.datasource.pools.habilitado=false no se declara el DataSource y Spring Boot crea su pool único.
+ */
+@Configuration
+@EnableConfigurationProperties(PoolsProperties.class)
+public class PoolsConexionConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "app.datasource.pools.habilitado", havingValue = "true", matchIfMissing = true)
+    public PoolsConexion poolsConexion(DataSourceProperties dataSourceProperties, PoolsProperties poolsProperties) {
+        return new PoolsConexion(dataSourceProperties, poolsProperties);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.datasource.pools.habilitado", havingValue = "true", matchIfMissing = true)
+    public DataSource dataSource(PoolsConexion poolsConexion) {
+        return poolsConexion.dataSource();
+    }
+
+    /**
+     * Las migraciones toman sus conexiones del pool de lotes: una migración sobre una tabla grande
+     * no debe cortarse por el statement_timeout de las lecturas.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.datasource.pools.habilitado", havingValue = "true", matchIfMissing = true)
+    public FlywayConfigurationCustomizer flywayEnPoolDeLotes(PoolsConexion poolsConexion) {
+        return configuracion -> configuracion.dataSource(poolsConexion.lotes());
+    }
+
+    /**
+     * Aplica @PoolConexiones antes que la transacción, para que esta ya encuentre el pool elegido.
+     * Es de infraestructura para que lo use el creador de proxies que registran las transacciones y la caché.
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor poolConexionesAdvisor() {
+        ComposablePointcut pointcut = new ComposablePointcut(new AnnotationMatchingPointcut(PoolConexiones.class, true))
+            .union(AnnotationMatchingPointcut.forMethodAnnotation(PoolConexiones.class));
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(pointcut, SeleccionPool.interceptor());
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+}
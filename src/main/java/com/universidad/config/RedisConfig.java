@@ -1,34 +1,205 @@
 package com.universidad.config;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
+import org.springframework.boot.autoconfigure.data.redis.LettuceClientConfigurationBuilderCustomizer;
+import org.springframework.boot.autoconfigure.data.redis.RedisProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CachingConfigurer;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.interceptor.CacheErrorHandler;
+import org.springframework.cache.support.CompositeCacheManager;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
-import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import com.universidad.cache.CacheCircuitBreaker;
+import com.universidad.cache.CacheCodecBenchmark;
+import com.universidad.cache.CacheCodecProperties;
+import com.universidad.cache.CacheCodecRegistry;
+import com.universidad.cache.CacheInspector;
+import com.universidad.cache.CacheLease;
+import com.universidad.cache.CachePolicy;
+import com.universidad.cache.CachePolicyProperties;
+import com.universidad.cache.CacheResilienceProperties;
+import com.universidad.cache.CacheStampedeProperties;
+import com.universidad.cache.JitteredTtlFunction;
+import com.universidad.cache.LocalCacheFactory;
+import com.universidad.cache.RedisCacheLease;
+import com.universidad.cache.ResilientCacheErrorHandler;
+import com.universidad.cache.ResilientCacheManager;
+import com.universidad.cache.SingleFlightCacheManager;
+
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.SocketOptions;
+import io.lettuce.core.TimeoutOptions;
 
 @Configuration
 @EnableCaching
+@EnableConfigurationProperties({CacheCodecProperties.class, CacheStampedeProperties.class, CachePolicyProperties.class,
+    CacheResilienceProperties.class})
 public class RedisConfig {
+
+    @Bean
+    public CacheCodecRegistry cacheCodecRegistry(CacheCodecProperties cacheCodecProperties) {
+        return new CacheCodecRegistry(cacheCodecProperties);
+    }
+
+    @Bean
+    public CacheCodecBenchmark cacheCodecBenchmark(CacheCodecRegistry cacheCodecRegistry) {
+        return new CacheCodecBenchmark(cacheCodecRegistry);
+    }
+
+    /**
+     * Políticas efectivas por caché (app.cache.*), validadas al arrancar.
+     * Una configuración inválida impide el arranque con la lista de errores encontrados.
+     */
+    @Bean
+    public Map<String, CachePolicy> cachePolicies(CachePolicyProperties cachePolicyProperties,
+                                                  CacheCodecRegistry cacheCodecRegistry) {
+        List<String> errores = new ArrayList<>(cachePolicyProperties.validar());
+        cachePolicyProperties.politicasEfectivas().forEach((nombre, politica) -> {
+            if (!cacheCodecRegistry.existe(politica.getCodec())) {
+                errores.add("app.cache." + nombre + ".codec: codec desconocido " + politica.getCodec());
+            }
+        });
+        if (!errores.isEmpty()) {
+            throw new IllegalStateException("Configuración de caché inválida:\n - " + String.join("\n - ", errores));
+        }
+        return cachePolicyProperties.politicasEfectivas();
+    }
     
+    // Configuración Redis de una caché a partir de su política
+    private RedisCacheConfiguration redisConfiguration(CachePolicy politica, CacheCodecRegistry cacheCodecRegistry,
+                                                       CacheStampedeProperties cacheStampedeProperties) {
+        // El TTL lleva dispersión aleatoria para que las entradas escritas a la vez no expiren juntas
+        RedisCacheConfiguration configuracion = RedisCacheConfiguration.defaultCacheConfig()
+            .entryTtl(new JitteredTtlFunction(politica.getTtl(), cacheStampedeProperties.getRatioDispersionTtl(), politica.getTtlNegativo()))
+            .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(cacheCodecRegistry.serializer(politica.getCodec())));
+        return politica.cacheaNulos() ? configuracion : configuracion.disableCachingNullValues();
+    }
+
+    /**
+     * Opciones de Lettuce para fallar rápido: con la conexión caída los comandos se rechazan
+     * al momento en lugar de encolarse hasta agotar el tiempo de espera (spring.data.redis.timeout).
+     */
     @Bean
-    public RedisCacheConfiguration cacheConfiguration() {
-        return RedisCacheConfiguration.defaultCacheConfig()
-            .entryTtl(Duration.ofMillis(1000))
-            .disableCachingNullValues()
-            .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(new GenericJackson2JsonRedisSerializer()));
+    public LettuceClientConfigurationBuilderCustomizer redisFalloRapidoCustomizer(RedisProperties redisProperties) {
+        SocketOptions.Builder socket = SocketOptions.builder();
+        if (redisProperties.getConnectTimeout() != null) {
+            socket.connectTimeout(redisProperties.getConnectTimeout());
+        }
+        return builder -> builder.clientOptions(ClientOptions.builder()
+            .socketOptions(socket.build())
+            .timeoutOptions(TimeoutOptions.enabled())
+            .disconnectedBehavior(ClientOptions.DisconnectedBehavior.REJECT_COMMANDS)
+            .build());
     }
 
-    @Bean 
-    public CacheManager cacheManager(RedisConnectionFactory redisConnectionFactory) {
-        return RedisCacheManager.builder(redisConnectionFactory)
-            .cacheDefaults(cacheConfiguration())
-            .transactionAware()
+    // Un único circuito: todas las cachés remotas comparten el mismo servidor Redis
+    @Bean
+    public CacheCircuitBreaker cacheCircuitBreaker(CacheResilienceProperties cacheResilienceProperties) {
+        return new CacheCircuitBreaker(cacheResilienceProperties.getUmbralFallos(), cacheResilienceProperties.getAperturaMs());
+    }
+
+    // Los errores de caché que escapan a las capas anteriores se tratan como fallos de caché
+    @Bean
+    public CachingConfigurer cachingConfigurer(CacheCircuitBreaker cacheCircuitBreaker) {
+        return new CachingConfigurer() {
+            @Override
+            public CacheErrorHandler errorHandler() {
+                return new ResilientCacheErrorHandler(cacheCircuitBreaker);
+            }
+        };
+    }
+
+    @Bean
+    public CacheLease cacheLease(StringRedisTemplate stringRedisTemplate, CacheStampedeProperties cacheStampedeProperties,
+                                 CacheCircuitBreaker cacheCircuitBreaker) {
+        return new RedisCacheLease(stringRedisTemplate, Duration.ofMillis(cacheStampedeProperties.getLeaseMs()), cacheCircuitBreaker);
+    }
+
+    // Hilos para los refrescos anticipados; si la cola se llena, el refresco se descarta y la entrada expira normalmente
+    @Bean
+    public ThreadPoolTaskExecutor cacheRefrescoExecutor(CacheStampedeProperties cacheStampedeProperties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(cacheStampedeProperties.getHilosRefresco());
+        executor.setMaxPoolSize(cacheStampedeProperties.getHilosRefresco());
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("cache-refresco-");
+        return executor;
+    }
+
+    // Gestor de las cachés de nivel remoto, cada una con la configuración derivada de su política
+    private RedisCacheManager redisCacheManager(RedisConnectionFactory redisConnectionFactory,
+                                               Map<String, CachePolicy> cachePolicies,
+                                               CachePolicyProperties cachePolicyProperties,
+                                               CacheCodecRegistry cacheCodecRegistry,
+                                               CacheStampedeProperties cacheStampedeProperties) {
+        Map<String, RedisCacheConfiguration> porCache = new HashMap<>();
+        cachePolicies.forEach((nombre, politica) -> {
+            if (politica.getNivel() == CachePolicy.Nivel.REMOTO) {
+                porCache.put(nombre, redisConfiguration(politica, cacheCodecRegistry, cacheStampedeProperties));
+            }
+        });
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(redisConnectionFactory)
+            .cacheDefaults(redisConfiguration(cachePolicyProperties.politicaPorDefecto(), cacheCodecRegistry, cacheStampedeProperties))
+            .withInitialCacheConfigurations(porCache)
             .build();
+        redisCacheManager.afterPropertiesSet();
+        return redisCacheManager;
+    }
+
+    @Bean 
+    public CacheManager cacheManager(RedisConnectionFactory redisConnectionFactory,
+                                     Map<String, CachePolicy> cachePolicies,
+                                     CachePolicyProperties cachePolicyProperties,
+                                     CacheCodecRegistry cacheCodecRegistry,
+                                     CacheLease cacheLease,
+                                     ThreadPoolTaskExecutor cacheRefrescoExecutor,
+                                     CacheStampedeProperties cacheStampedeProperties,
+                                     CacheCircuitBreaker cacheCircuitBreaker,
+                                     CacheResilienceProperties cacheResilienceProperties) {
+        CachePolicy porDefecto = cachePolicyProperties.politicaPorDefecto();
+        // Las cachés de nivel local viven en memoria del proceso; el resto en Redis
+        List<Cache> locales = new ArrayList<>();
+        cachePolicies.forEach((nombre, politica) -> {
+            if (politica.getNivel() == CachePolicy.Nivel.LOCAL) {
+                locales.add(new TransactionAwareCacheDecorator(
+                    LocalCacheFactory.crear(nombre, politica, cacheCodecRegistry.serializer(politica.getCodec()))));
+            }
+        });
+        SimpleCacheManager localCacheManager = new SimpleCacheManager();
+        localCacheManager.setCaches(locales);
+        localCacheManager.initializeCaches();
+        // Las cachés remotas degradan a una copia local acotada si Redis falla (ver CacheCircuitBreaker)
+        RedisCacheManager redisCacheManager = redisCacheManager(redisConnectionFactory, cachePolicies,
+            cachePolicyProperties, cacheCodecRegistry, cacheStampedeProperties);
+        ResilientCacheManager resiliente = new ResilientCacheManager(redisCacheManager, cacheCircuitBreaker,
+            cache -> cachePolicies.getOrDefault(cache, porDefecto), cacheResilienceProperties);
+        CompositeCacheManager compuesto = new CompositeCacheManager(localCacheManager, resiliente);
+
+        // Las cargas concurrentes de una misma clave se agrupan en una sola consulta (ver @Cacheable(sync = true))
+        return new SingleFlightCacheManager(compuesto, cacheLease, cacheRefrescoExecutor,
+            cache -> cachePolicies.getOrDefault(cache, porDefecto), cacheStampedeProperties);
+    }
+
+    @Bean
+    public CacheInspector cacheInspector(CacheManager cacheManager, Map<String, CachePolicy> cachePolicies,
+                                         RedisConnectionFactory redisConnectionFactory, CacheCircuitBreaker cacheCircuitBreaker) {
+        return new CacheInspector((SingleFlightCacheManager) cacheManager, cachePolicies, redisConnectionFactory, cacheCircuitBreaker);
     }
 }
@@ -0,0 +1,80 @@
+package com.universidad.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.universidad.sql.DataSourceMedido;
+import com.universidad.sql.EstadisticasSql;
+import com.universidad.sql.OrigenSql;
+import com.universidad.sql.PresupuestosConsultas;
+import com.universidad.sql.SqlEstadisticasProperties;
+
+/**
+ * Esta clase configura la medición de las sentencias SQL (GET /api/admin/sql/sentencias).
+ * Con app.sql.estadisticas.habilitado=false el DataSource y los repositorios se usan sin envolver.
+ */
+@Configuration
+@EnableConfigurationProperties(SqlEstadisticasProperties.class)
+public class SqlEstadisticasConfig {
+
+    /**
+     * Envuelve el DataSource para medir cada sentencia. Los post-procesadores son estáticos para
+     * no adelantar la creación de esta configuración; las estadísticas se obtienen al envolver.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.sql.estadisticas.habilitado", havingValue = "true", matchIfMissing = true)
+    public static BeanPostProcessor dataSourceMedidoPostProcessor(ObjectProvider<EstadisticasSql> estadisticas,
+                                                                  ObjectProvider<SqlEstadisticasProperties> properties) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof DataSourceMedido)) {
+                    return new DataSourceMedido(dataSource, estadisticas.getObject(), properties.getObject().isContarFilas());
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Marca cada método de repositorio como origen de las sentencias que ejecuta.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.sql.estadisticas.habilitado", havingValue = "true", matchIfMissing = true)
+    public static BeanPostProcessor origenRepositorioPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> repositorio) {
+                    repositorio.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                        (proxyFactory, info) -> proxyFactory.addAdvice(OrigenSql.interceptor(info.getRepositoryInterface().getSimpleName()))));
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Mide las solicitudes que llegan a los controladores frente a su @PresupuestoConsultas.
+     * Las cuentas salen del DataSource medido, así que requiere las estadísticas habilitadas.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.sql.estadisticas.habilitado", havingValue = "true", matchIfMissing = true)
+    public WebMvcConfigurer presupuestosConsultasConfigurer(PresupuestosConsultas presupuestosConsultas) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(presupuestosConsultas).addPathPatterns("/api/**");
+            }
+        };
+    }
+}
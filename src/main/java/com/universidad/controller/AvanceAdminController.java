@@ -0,0 +1,59 @@
+package com.universidad.controller;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.universidad.avance.CalculoAvanceAcademico;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/api/admin/avance")
+@Tag(name = "Avance académico", description = "Cálculo por lotes del avance académico de los estudiantes")
+public class AvanceAdminController {
+
+    private final CalculoAvanceAcademico calculoAvance;
+
+    @Autowired
+    public AvanceAdminController(CalculoAvanceAcademico calculoAvance) {
+        this.calculoAvance = calculoAvance;
+    }
+
+    @Operation(summary = "Iniciar una corrida de avance académico sobre todos los estudiantes")
+    @PostMapping("/corridas")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CalculoAvanceAcademico.Resumen> iniciar() {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(calculoAvance.iniciar());
+    }
+
+    @Operation(summary = "Reanudar una corrida interrumpida desde sus tramos pendientes")
+    @PostMapping("/corridas/{id}/reanudar")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CalculoAvanceAcademico.Resumen> reanudar(@PathVariable Long id) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(calculoAvance.reanudar(id));
+    }
+
+    @Operation(summary = "Consultar el progreso y el rendimiento de una corrida")
+    @GetMapping("/corridas/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CalculoAvanceAcademico.Resumen> obtener(@PathVariable Long id) {
+        return ResponseEntity.ok(calculoAvance.resumen(id));
+    }
+
+    @Operation(summary = "Listar las últimas corridas")
+    @GetMapping("/corridas")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<CalculoAvanceAcademico.Resumen>> listar() {
+        return ResponseEntity.ok(calculoAvance.ultimas());
+    }
+}
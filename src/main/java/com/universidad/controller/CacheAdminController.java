@@ -0,0 +1,87 @@
+package com.universidad.controller;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.universidad.cache.CacheCodecBenchmark;
+import com.universidad.cache.CacheInspector;
+import com.universidad.cache.HibernateCacheInspector;
+import com.universidad.service.IEstudianteService;
+import com.universidad.service.IMateriaService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/api/admin/cache")
+@Tag(name = "Administración de caché", description = "Diagnóstico de la caché Redis y de la caché de segundo nivel de Hibernate")
+public class CacheAdminController {
+
+    private final CacheCodecBenchmark cacheCodecBenchmark;
+    private final CacheInspector cacheInspector;
+    private final IMateriaService materiaService;
+    private final IEstudianteService estudianteService;
+    private final HibernateCacheInspector hibernateCacheInspector;
+
+    @Autowired
+    public CacheAdminController(CacheCodecBenchmark cacheCodecBenchmark,
+                                CacheInspector cacheInspector,
+                                IMateriaService materiaService,
+                                IEstudianteService estudianteService,
+                                HibernateCacheInspector hibernateCacheInspector) {
+        this.cacheCodecBenchmark = cacheCodecBenchmark;
+        this.cacheInspector = cacheInspector;
+        this.materiaService = materiaService;
+        this.estudianteService = estudianteService;
+        this.hibernateCacheInspector = hibernateCacheInspector;
+    }
+
+    @Operation(summary = "Comparar codecs de caché sobre los catálogos actuales (materias o estudiantes)")
+    @GetMapping("/codecs/benchmark")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<CacheCodecBenchmark.Resultado>> compararCodecs(
+            @RequestParam(defaultValue = "materias") String cache,
+            @RequestParam(defaultValue = "1000") int iteraciones) {
+        Object muestra = "estudiantes".equals(cache)
+            ? estudianteService.obtenerTodosLosEstudiantes()
+            : materiaService.obtenerTodasLasMaterias();
+        return ResponseEntity.ok(cacheCodecBenchmark.comparar(muestra, Math.max(1, Math.min(iteraciones, 100_000))));
+    }
+
+    @Operation(summary = "Listar las políticas efectivas de cada caché con su ocupación actual")
+    @GetMapping("/politicas")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<CacheInspector.Estado>> obtenerPoliticas() {
+        return ResponseEntity.ok(cacheInspector.inspeccionar());
+    }
+
+    @Operation(summary = "Estado del circuito de Redis y uso del respaldo local de la caché")
+    @GetMapping("/resiliencia")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CacheInspector.Resiliencia> obtenerResiliencia() {
+        return ResponseEntity.ok(cacheInspector.resiliencia());
+    }
+
+    @Operation(summary = "Aciertos de la caché de segundo nivel de Hibernate frente a las cargas desde la base de datos, por entidad y región")
+    @GetMapping("/hibernate")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<HibernateCacheInspector.Resumen> obtenerSegundoNivel() {
+        return ResponseEntity.ok(hibernateCacheInspector.resumen());
+    }
+
+    @Operation(summary = "Reiniciar las estadísticas de Hibernate para medir un periodo concreto")
+    @DeleteMapping("/hibernate/estadisticas")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> reiniciarSegundoNivel() {
+        hibernateCacheInspector.reiniciar();
+        return ResponseEntity.noContent().build();
+    }
+}
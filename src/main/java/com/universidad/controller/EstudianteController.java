@@ -1,9 +1,13 @@
 package com.universidad.controller; // Define el paquete al que pertenece esta clase
 
+import com.universidad.cache.VersionRegistry;
 import com.universidad.dto.EstudianteDTO; // Importa la clase EstudianteDTO del paquete dto
+import com.universidad.dto.MateriaDTO;
 import com.universidad.model.Materia;
 import com.universidad.model.Estudiante;
 import com.universidad.service.IEstudianteService; // Importa la interfaz IEstudianteService del paquete service
+import com.universidad.service.IMateriaService;
+import com.universidad.sql.PresupuestoConsultas;
 
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
@@ -13,6 +17,7 @@ import org.springframework.http.ResponseEntity; // Importa la clase ResponseEnti
 import org.springframework.validation.annotation.Validated;
 import org.springframework.http.HttpStatus; // Importa la clase HttpStatus de Spring para manejar códigos de estado HTTP
 import org.springframework.web.bind.annotation.*; // Importa las anotaciones de Spring para controladores web
+import org.springframework.web.context.request.WebRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -24,42 +29,70 @@ import java.util.List; // Importa la interfaz List para manejar listas
 public class EstudianteController { // Define la clase EstudianteController
 
     private final IEstudianteService estudianteService; // Declara una variable final para el servicio de estudiantes
+    private final VersionRegistry versionRegistry; // Registro de versiones para los ETags
+    private final IMateriaService materiaService; // Servicio de materias, para las materias disponibles
     private static final Logger logger = LoggerFactory.getLogger(EstudianteController.class);
 
     @Autowired // Anotación que indica que el constructor debe ser usado para inyección de dependencias
-    public EstudianteController(IEstudianteService estudianteService) { // Constructor que recibe el servicio de estudiantes
+    public EstudianteController(IEstudianteService estudianteService, VersionRegistry versionRegistry, IMateriaService materiaService) { // Constructor que recibe el servicio de estudiantes
         this.estudianteService = estudianteService; // Asigna el servicio de estudiantes a la variable de instancia
+        this.versionRegistry = versionRegistry; // Asigna el registro de versiones
+        this.materiaService = materiaService; // Asigna el servicio de materias
     }
 
     @GetMapping // Anotación que indica que este método maneja solicitudes GET
-    public ResponseEntity<List<EstudianteDTO>> obtenerTodosLosEstudiantes() { // Método para obtener una lista de todos los EstudianteDTO
+    @PresupuestoConsultas(2)
+    public ResponseEntity<List<EstudianteDTO>> obtenerTodosLosEstudiantes(WebRequest request) { // Método para obtener una lista de todos los EstudianteDTO
+        String etag = versionRegistry.etagCatalogo("estudiantes"); // Sello del catálogo tomado antes de leer
+        if (request.checkNotModified(etag)) { // Responde 304 sin tocar la caché ni la base de datos
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(VersionRegistry.REVALIDAR).build();
+        }
         long inicio = System.currentTimeMillis();
         logger.info("[ESTUDIANTE] Inicio obtenerTodosLosEstudiantes: {}", inicio);
         List<EstudianteDTO> estudiantes = estudianteService.obtenerTodosLosEstudiantes(); // Llama al servicio para obtener todos los estudiantes
         long fin = System.currentTimeMillis();
         logger.info("[ESTUDIANTE] Fin obtenerTodosLosEstudiantes: {} (Duracion: {} ms)", fin, (fin-inicio));
-        return ResponseEntity.ok(estudiantes); // Retorna una respuesta HTTP 200 OK con la lista de estudiantes
+        return ResponseEntity.ok().eTag(etag).cacheControl(VersionRegistry.REVALIDAR).body(estudiantes); // Retorna una respuesta HTTP 200 OK con la lista de estudiantes
     }
 
     @GetMapping("/inscripcion/{numeroInscripcion}") // Anotación que indica que este método maneja solicitudes GET con un parámetro de ruta
+    @PresupuestoConsultas(1)
     public ResponseEntity<EstudianteDTO> obtenerEstudiantePorNumeroInscripcion(
-        @PathVariable String numeroInscripcion) { // Método para obtener un estudiante por su número de inscripción
+        @PathVariable String numeroInscripcion, WebRequest request) { // Método para obtener un estudiante por su número de inscripción
+        String etagConocido = versionRegistry.etagEntidad("estudiante", numeroInscripcion); // ETag si la versión ya es conocida
+        if (etagConocido != null && request.checkNotModified(etagConocido)) { // Responde 304 sin tocar la caché ni la base de datos
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etagConocido).cacheControl(VersionRegistry.REVALIDAR).build();
+        }
         long inicio = System.currentTimeMillis();
         logger.info("[ESTUDIANTE] Inicio obtenerEstudiantePorNumeroInscripcion: {}", inicio);
         EstudianteDTO estudiante = estudianteService.obtenerEstudiantePorNumeroInscripcion(numeroInscripcion); // Llama al servicio para obtener el estudiante
         long fin = System.currentTimeMillis();
         logger.info("[ESTUDIANTE] Fin obtenerEstudiantePorNumeroInscripcion: {} (Duracion: {} ms)", fin, (fin-inicio));
-        return ResponseEntity.ok(estudiante); // Retorna una respuesta HTTP 200 OK con el estudiante encontrado
+        versionRegistry.registrar("estudiante", numeroInscripcion, estudiante.getVersion()); // Recuerda la versión para próximas revalidaciones
+        return ResponseEntity.ok()
+            .eTag(versionRegistry.etag("estudiante", numeroInscripcion, estudiante.getVersion()))
+            .cacheControl(VersionRegistry.REVALIDAR)
+            .body(estudiante); // Retorna una respuesta HTTP 200 OK con el estudiante encontrado
     }
 
     @GetMapping("/{id}/materias")
+    @PresupuestoConsultas(3)
     public ResponseEntity<List<Materia>> obtenerMateriasDeEstudiante(
         @PathVariable("id") Long estudianteId) {
         List<Materia> materias = estudianteService.obtenerMateriasDeEstudiante(estudianteId);
         return ResponseEntity.ok(materias);
     }
 
+    @GetMapping("/{id}/materias-disponibles") // Materias en las que el estudiante puede inscribirse ahora
+    @PresupuestoConsultas(9)
+    public ResponseEntity<List<MateriaDTO>> obtenerMateriasDisponibles(
+        @PathVariable("id") Long estudianteId) {
+        List<MateriaDTO> disponibles = materiaService.obtenerMateriasDisponibles(estudianteId); // Evalúa todo el catálogo de una vez
+        return ResponseEntity.ok(disponibles);
+    }
+
     @GetMapping("/{id}/lock")
+    @PresupuestoConsultas(4)
     public ResponseEntity<Estudiante> getEstudianteConBloqueo(
         @PathVariable Long id) {
         Estudiante estudiante = estudianteService.obtenerEstudianteConBloqueo(id);
@@ -69,14 +102,16 @@ public class EstudianteController { // Define la clase EstudianteController
     @PostMapping // Anotación que indica que este método maneja solicitudes POST
     @Transactional // Anotación que indica que este método debe ejecutarse dentro de una transacción
     @ResponseStatus(HttpStatus.CREATED) // Anotación que indica que la respuesta HTTP debe tener un estado 201 Created
+    @PresupuestoConsultas(4)
     public ResponseEntity<EstudianteDTO> crearEstudiante(@Valid @RequestBody EstudianteDTO estudianteDTO) { // Método para crear un nuevo estudiante
         EstudianteDTO nuevoEstudiante = estudianteService.crearEstudiante(estudianteDTO); // Llama al servicio para crear el estudiante
         return ResponseEntity.status(201).body(nuevoEstudiante); // Retorna una respuesta HTTP 201 Created con el nuevo estudiante
     }
 
     @PutMapping("/{id}") // Anotación que indica que este método maneja solicitudes PUT con un parámetro de ruta
-    @Transactional // Anotación que indica que este método debe ejecutarse dentro de una transacción
+    // Sin @Transactional: el servicio abre una transacción por intento para poder repetirla ante un conflicto de versión
     @ResponseStatus(HttpStatus.OK) // Anotación que indica que la respuesta HTTP debe tener un estado 200 OK    
+    @PresupuestoConsultas(4)
     public ResponseEntity<EstudianteDTO> actualizarEstudiante(
         @PathVariable Long id,
         @RequestBody EstudianteDTO estudianteDTO) { // Método para actualizar un estudiante existente
@@ -85,8 +120,9 @@ public class EstudianteController { // Define la clase EstudianteController
     }
 
     @PutMapping("/{id}/baja") // Anotación que indica que este método maneja solicitudes PUT para dar de baja un estudiante
-    @Transactional // Anotación que indica que este método debe ejecutarse dentro de una transacción
+    // Sin @Transactional: el servicio abre una transacción por intento para poder repetirla ante un conflicto de versión
     @ResponseStatus(HttpStatus.OK) // Anotación que indica que la respuesta HTTP debe tener un estado 200 OK
+    @PresupuestoConsultas(4)
     public ResponseEntity<EstudianteDTO> eliminarEstudiante(
         @PathVariable Long id,
         @RequestBody EstudianteDTO estudianteDTO) { // Método para eliminar un estudiante
@@ -95,9 +131,14 @@ public class EstudianteController { // Define la clase EstudianteController
     }
 
     @GetMapping("/activos") // Anotación que indica que este método maneja solicitudes GET a la ruta /activos
-    public ResponseEntity<List<EstudianteDTO>> obtenerEstudianteActivo() { // Método para obtener una lista de estudiantes activos
+    @PresupuestoConsultas(2)
+    public ResponseEntity<List<EstudianteDTO>> obtenerEstudianteActivo(WebRequest request) { // Método para obtener una lista de estudiantes activos
+        String etag = versionRegistry.etagCatalogo("estudiantes"); // Los activos cambian con cualquier escritura de estudiantes
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(VersionRegistry.REVALIDAR).build();
+        }
         List<EstudianteDTO> estudiantesActivos = estudianteService.obtenerEstudianteActivo(); // Llama al servicio para obtener los estudiantes activos
-        return ResponseEntity.ok(estudiantesActivos); // Retorna una respuesta HTTP 200 OK con la lista de estudiantes activos
+        return ResponseEntity.ok().eTag(etag).cacheControl(VersionRegistry.REVALIDAR).body(estudiantesActivos); // Retorna una respuesta HTTP 200 OK con la lista de estudiantes activos
     }
 
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.universidad.controller;
 
 
+import java.net.URI;
 import java.util.List;
 
 
@@ -20,10 +21,15 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.universidad.dto.EstadisticaInscripcionDTO;
 import com.universidad.dto.InscripcionDTO;
+import com.universidad.dto.ListaEsperaDTO;
+import com.universidad.dto.SolicitudInscripcionDTO;
+import com.universidad.inscripcion.ColaInscripciones;
 import com.universidad.model.Inscripcion.EstadoInscripcion;
 import com.universidad.registro.security.JwtUtils;
 import com.universidad.service.IInscripcionService;
+import com.universidad.sql.PresupuestoConsultas;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -35,38 +41,57 @@ import jakarta.validation.Valid;
 @Tag(name = "Inscripciones", description = "Gestión de inscripciones de estudiantes")
 public class InscripcionController {
     private final IInscripcionService inscripcionService;
+    private final ColaInscripciones colaInscripciones;
     private final JwtUtils jwtUtils;
     @Autowired // Anotación que indica que el constructor debe ser usado para inyección de dependencias
-    public InscripcionController(IInscripcionService inscripcionService) { // Constructor que recibe el servicio de estudiantes
+    public InscripcionController(IInscripcionService inscripcionService, ColaInscripciones colaInscripciones) { // Constructor que recibe el servicio de estudiantes
         this.inscripcionService = inscripcionService; // Asigna el servicio de estudiantes a la variable de instancia
+        this.colaInscripciones = colaInscripciones;
         this.jwtUtils = new JwtUtils();
     }
     
     @Operation(summary = "Obtener inscripciones por estudiante")
     @GetMapping("/estudiante/{estudianteId}")
     @PreAuthorize("hasRole('ESTUDIANTE') and hasRole('ADMIN')")
+    @PresupuestoConsultas(3)
     public ResponseEntity<List<InscripcionDTO>> obtenerPorEstudiante(@PathVariable Long estudianteId){
         return ResponseEntity.ok(inscripcionService.obtenerInscripcionesPorEstudiante(estudianteId));
     }
 
-    @Operation(summary = "Crear nueva inscripción")
+    @Operation(summary = "Crear nueva inscripción",
+        description = "Con la cola asíncrona habilitada responde 202 con un ticket; el resultado se consulta en /solicitudes/{ticket}")
     @PostMapping
     @PreAuthorize("hasRole('ESTUDIANTE') and hasRole('ADMIN')")
     @CacheEvict(value = {"inscripcionesEstudiante", "estudianteInscripciones"}, allEntries = true)
-    public ResponseEntity<InscripcionDTO> crear(
+    @PresupuestoConsultas(16)
+    public ResponseEntity<?> crear(
         @Valid @RequestBody InscripcionDTO inscripcionDTO,
         HttpServletRequest request) {
-            
+            if (colaInscripciones.isHabilitada()) {
+                SolicitudInscripcionDTO solicitud = colaInscripciones.encolar(inscripcionDTO);
+                return ResponseEntity.accepted()
+                    .location(URI.create("/api/v3/inscripciones/solicitudes/" + solicitud.getTicket()))
+                    .body(solicitud);
+            }
             return ResponseEntity.status(HttpStatus.CREATED)
                 .body(inscripcionService.crear(inscripcionDTO));
     }
 
+    @Operation(summary = "Consultar el resultado de una solicitud de inscripción asíncrona")
+    @GetMapping("/solicitudes/{ticket}")
+    @PreAuthorize("hasRole('ESTUDIANTE') or hasRole('ADMIN')")
+    @PresupuestoConsultas(1)
+    public ResponseEntity<SolicitudInscripcionDTO> obtenerSolicitud(@PathVariable String ticket) {
+        return ResponseEntity.ok(colaInscripciones.obtener(ticket));
+    }
+
    
     @Operation(summary = "Actualizar estado de inscripción")
     @PutMapping("/{id}/estado")
     @PreAuthorize("hasRole('ADMIN') or hasRole('DOCENTE')")
     @CachePut(value = "inscripcion", key = "#id")
     @CacheEvict(value = {"inscripcionesEstudiante", "estudianteInscripciones"}, allEntries = true)
+    @PresupuestoConsultas(4)
     public ResponseEntity<InscripcionDTO> actualizarEstado(
             @PathVariable Long id,
             @RequestParam EstadoInscripcion estado) {
@@ -77,9 +102,30 @@ public class InscripcionController {
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ESTUDIANTE') and @inscripcionServiceImpl.validarPropietario(#id, principal.id) or hasRole('ADMIN')")
     @CacheEvict(value = {"inscripcion", "inscripcionesEstudiante", "estudianteInscripciones"}, key = "#id")
+    @PresupuestoConsultas(8)
     public ResponseEntity<Void> cancelar(
             @PathVariable Long id) {
         inscripcionService.cancelarInscripcion(id);
         return ResponseEntity.noContent().build();
     }
+
+    @Operation(summary = "Solicitar un lugar en la lista de espera de una materia sin cupos")
+    @PostMapping("/lista-espera")
+    @PreAuthorize("hasRole('ESTUDIANTE') or hasRole('ADMIN')")
+    @PresupuestoConsultas(5)
+    public ResponseEntity<ListaEsperaDTO> solicitarListaEspera(
+            @RequestParam Long estudianteId,
+            @RequestParam Long materiaId) {
+        return ResponseEntity.status(HttpStatus.CREATED)
+            .body(inscripcionService.solicitarListaEspera(estudianteId, materiaId));
+    }
+
+    @Operation(summary = "Número de inscripciones por estado de cada materia (o de una sola)")
+    @GetMapping("/estadisticas")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('DOCENTE')")
+    @PresupuestoConsultas(1)
+    public ResponseEntity<List<EstadisticaInscripcionDTO>> obtenerEstadisticas(
+            @RequestParam(required = false) Long materiaId) {
+        return ResponseEntity.ok(inscripcionService.obtenerEstadisticas(materiaId));
+    }
 }
@@ -1,21 +1,33 @@
 package com.universidad.controller;
 
+import com.universidad.cache.VersionRegistry;
 import com.universidad.model.Materia;
 import com.universidad.service.IMateriaService;
 
 import jakarta.transaction.Transactional;
+import jakarta.validation.Valid;
 
+import com.universidad.dto.CupoDTO;
+import com.universidad.dto.InscritoDTO;
 import com.universidad.dto.MateriaDTO;
+import com.universidad.sql.PresupuestoConsultas;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.web.PagedModel;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @RestController
@@ -23,26 +35,40 @@ import java.util.List;
 public class MateriaController {
 
     private final IMateriaService materiaService;
+    private final VersionRegistry versionRegistry;
     private static final Logger logger = LoggerFactory.getLogger(MateriaController.class);
 
     @Autowired
-    public MateriaController(IMateriaService materiaService) {
+    public MateriaController(IMateriaService materiaService, VersionRegistry versionRegistry) {
         this.materiaService = materiaService;
+        this.versionRegistry = versionRegistry;
     }
 
     
     @GetMapping
-    public ResponseEntity<List<MateriaDTO>> obtenerTodasLasMaterias() {
+    @PresupuestoConsultas(5)
+    public ResponseEntity<List<MateriaDTO>> obtenerTodasLasMaterias(WebRequest request) {
+        // El sello del catálogo se toma antes de leer para que una escritura concurrente fuerce la revalidación
+        String etag = versionRegistry.etagCatalogo("materias");
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(VersionRegistry.REVALIDAR).build();
+        }
         long inicio = System.currentTimeMillis();
         logger.info("[MATERIA] Inicio obtenerTodasLasMaterias: {}", inicio);
         List<MateriaDTO> result = materiaService.obtenerTodasLasMaterias();
         long fin = System.currentTimeMillis();
         logger.info("[MATERIA] Fin obtenerTodasLasMaterias: {} (Duracion: {} ms)", fin, (fin-inicio));
-        return ResponseEntity.ok(result);
+        return ResponseEntity.ok().eTag(etag).cacheControl(VersionRegistry.REVALIDAR).body(result);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<MateriaDTO> obtenerMateriaPorId(@PathVariable Long id) {
+    @PresupuestoConsultas(4)
+    public ResponseEntity<MateriaDTO> obtenerMateriaPorId(@PathVariable Long id, WebRequest request) {
+        // Si la versión ya es conocida, se responde 304 sin consultar la caché ni la base de datos
+        String etagConocido = versionRegistry.etagEntidad("materia", id);
+        if (etagConocido != null && request.checkNotModified(etagConocido)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etagConocido).cacheControl(VersionRegistry.REVALIDAR).build();
+        }
         long inicio = System.currentTimeMillis();
         logger.info("[MATERIA] Inicio obtenerMateriaPorId: {}", inicio);
         MateriaDTO materia = materiaService.obtenerMateriaPorId(id);
@@ -51,10 +77,50 @@ public class MateriaController {
         if (materia == null) {
             return ResponseEntity.notFound().build();
         }
-        return ResponseEntity.ok(materia);
+        versionRegistry.registrar("materia", id, materia.getVersion());
+        return ResponseEntity.ok()
+            .eTag(versionRegistry.etag("materia", id, materia.getVersion()))
+            .cacheControl(VersionRegistry.REVALIDAR)
+            .body(materia);
+    }
+
+    // Lista de inscritos paginada (máximo 500 por página), ordenada por apellido y nombre
+    @GetMapping("/{id}/inscritos")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('DOCENTE')")
+    @PresupuestoConsultas(2)
+    public ResponseEntity<PagedModel<InscritoDTO>> obtenerInscritos(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        PageRequest pagina = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), 500));
+        return ResponseEntity.ok(new PagedModel<>(materiaService.obtenerInscritos(id, pagina)));
+    }
+
+    // Lista de inscritos completa en CSV; las filas se escriben a medida que se leen de la base de datos
+    @GetMapping(value = "/{id}/inscritos", params = "formato=csv")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('DOCENTE')")
+    @PresupuestoConsultas(2)
+    public ResponseEntity<StreamingResponseBody> exportarInscritos(@PathVariable Long id) {
+        MateriaDTO materia = materiaService.obtenerMateriaPorId(id); // Se valida antes de empezar a escribir la respuesta
+        if (materia == null) {
+            return ResponseEntity.notFound().build();
+        }
+        StreamingResponseBody cuerpo = salida -> materiaService.exportarInscritosCsv(id, salida);
+        return ResponseEntity.ok()
+            .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"inscritos-" + materia.getCodigoUnico() + ".csv\"")
+            .body(cuerpo);
+    }
+
+    // Cupos ocupados y disponibles según el asignador de cupos; no se cachea porque cambia con cada inscripción
+    @GetMapping("/{id}/cupo")
+    @PresupuestoConsultas(3)
+    public ResponseEntity<CupoDTO> obtenerCupo(@PathVariable Long id) {
+        return ResponseEntity.ok(materiaService.obtenerCupo(id));
     }
 
     @GetMapping("/codigo/{codigoUnico}")
+    @PresupuestoConsultas(4)
     public ResponseEntity<MateriaDTO> obtenerMateriaPorCodigoUnico(@PathVariable String codigoUnico) {
         MateriaDTO materia = materiaService.obtenerMateriaPorCodigoUnico(codigoUnico);
         if (materia == null) {
@@ -64,14 +130,16 @@ public class MateriaController {
     }
 
     @PostMapping
-    public ResponseEntity<MateriaDTO> crearMateria(@RequestBody MateriaDTO materia) {
+    @PresupuestoConsultas(2)
+    public ResponseEntity<MateriaDTO> crearMateria(@Valid @RequestBody MateriaDTO materia) {
         //MateriaDTO materiaDTO = new MateriaDTO(materia.getId(), materia.getNombre(), materia.getCodigoUnico());
         MateriaDTO nueva = materiaService.crearMateria(materia);
         return ResponseEntity.status(HttpStatus.CREATED).body(nueva);
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<MateriaDTO> actualizarMateria(@PathVariable Long id, @RequestBody MateriaDTO materia) {
+    @PresupuestoConsultas(5)
+    public ResponseEntity<MateriaDTO> actualizarMateria(@PathVariable Long id, @Valid @RequestBody MateriaDTO materia) {
         //MateriaDTO materiaDTO = new MateriaDTO(materia.getId(), materia.getNombreMateria(), materia.getCodigoUnico());
         MateriaDTO actualizadaDTO = materiaService.actualizarMateria(id, materia);
         //Materia actualizada = new Materia(actualizadaDTO.getId(), actualizadaDTO.getNombre(), actualizadaDTO.getCodigoUnico());
@@ -81,6 +149,7 @@ public class MateriaController {
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     @CacheEvict(value = {"materia", "materias"}, allEntries = true)
+    @PresupuestoConsultas(6)
     public ResponseEntity<Void> eliminarMateria(@PathVariable Long id) {
         materiaService.eliminarMateria(id);
         return ResponseEntity.noContent().build();
@@ -88,6 +157,7 @@ public class MateriaController {
 
     @GetMapping("/formaria-circulo/{materiaId}/{prerequisitoId}") // Endpoint para verificar si una materia formaría un círculo con un prerequisito
     @Transactional // Anotación que indica que este método debe ejecutarse dentro de una transacción
+    @PresupuestoConsultas(4)
     public ResponseEntity<Boolean> formariaCirculo(@PathVariable Long materiaId, @PathVariable Long prerequisitoId) {
         MateriaDTO materiaDTO = materiaService.obtenerMateriaPorId(materiaId); // Obtiene la materia por su ID
         if (materiaDTO == null) { // Verifica si la materia existe
@@ -106,6 +176,7 @@ public class MateriaController {
     @PostMapping("/{id}/asignar-docente/{docenteId}")
     @PreAuthorize("hasRole('ADMIN')")
     @CacheEvict(value = {"materia", "materias", "docente"}, key = "#docenteId")
+    @PresupuestoConsultas(6)
     public ResponseEntity<MateriaDTO> asignarDocente(@PathVariable Long id, @PathVariable Long docenteId){
         return ResponseEntity.ok(materiaService.asignarDocente(id, docenteId));
     }
@@ -0,0 +1,79 @@
+package com.universidad.controller;
+
+import java.util.List;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.universidad.conexiones.PoolsConexion;
+import com.universidad.sql.EstadisticasSql;
+import com.universidad.sql.PresupuestosConsultas;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/api/admin/sql")
+@Tag(name = "Administración de SQL", description = "Estadísticas de las sentencias SQL ejecutadas por este nodo")
+public class SqlAdminController {
+
+    private final EstadisticasSql estadisticasSql;
+    private final PresupuestosConsultas presupuestosConsultas;
+    // Sin bean si app.datasource.pools.habilitado=false
+    private final ObjectProvider<PoolsConexion> poolsConexion;
+
+    @Autowired
+    public SqlAdminController(EstadisticasSql estadisticasSql, PresupuestosConsultas presupuestosConsultas,
+                              ObjectProvider<PoolsConexion> poolsConexion) {
+        this.estadisticasSql = estadisticasSql;
+        this.presupuestosConsultas = presupuestosConsultas;
+        this.poolsConexion = poolsConexion;
+    }
+
+    @Operation(summary = "Sentencias SQL con mayor tiempo total (orden: total, media, max, ejecuciones o filas)")
+    @GetMapping("/sentencias")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<EstadisticasSql.Resumen> obtenerTop(
+            @RequestParam(defaultValue = "20") int top,
+            @RequestParam(defaultValue = "total") String orden) {
+        return ResponseEntity.ok(estadisticasSql.top(Math.max(1, Math.min(top, 500)), orden));
+    }
+
+    @Operation(summary = "Reiniciar las estadísticas de SQL para medir un periodo concreto")
+    @DeleteMapping("/sentencias")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> reiniciar() {
+        estadisticasSql.reiniciar();
+        return ResponseEntity.noContent().build();
+    }
+
+    @Operation(summary = "Sentencias SQL por solicitud de cada operación medida, frente a su presupuesto")
+    @GetMapping("/presupuestos")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<PresupuestosConsultas.Operacion>> obtenerPresupuestos() {
+        return ResponseEntity.ok(presupuestosConsultas.resumen());
+    }
+
+    @Operation(summary = "Reiniciar el consumo acumulado por operación")
+    @DeleteMapping("/presupuestos")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> reiniciarPresupuestos() {
+        presupuestosConsultas.reiniciar();
+        return ResponseEntity.noContent().build();
+    }
+
+    @Operation(summary = "Estado y métricas de los pools de conexiones por clase de carga")
+    @GetMapping("/pools")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<PoolsConexion.Estado>> obtenerPools() {
+        PoolsConexion pools = poolsConexion.getIfAvailable();
+        return pools != null ? ResponseEntity.ok(pools.estado()) : ResponseEntity.notFound().build();
+    }
+}
@@ -0,0 +1,21 @@
+package com.universidad.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CupoDTO {
+    private Long materiaId;
+    /**
+     * Cupo total de la materia; null si no tiene límite.
+     */
+    private Integer cupo;
+    private Integer ocupados;
+    private Integer disponibles;
+    private Long enListaEspera;
+}
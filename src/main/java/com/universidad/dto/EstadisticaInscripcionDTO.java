@@ -0,0 +1,19 @@
+package com.universidad.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EstadisticaInscripcionDTO {
+    private Long materiaId;
+    private long pendientes;
+    private long aprobadas;
+    private long rechazadas;
+    private long canceladas;
+    private long total;
+}
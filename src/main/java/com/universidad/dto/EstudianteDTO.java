@@ -73,5 +73,7 @@ public class EstudianteDTO implements Serializable {
     @Size(min = 3, max = 100, message = "El motivo de baja debe tener entre 3 y 100 caracteres")
     @Pattern(regexp = "^(renuncia|desercion|traslado)$", message = "El motivo de baja debe ser 'renuncia', 'desercion' o 'traslado'")
     private String motivoBaja;
+    /** Versión de la entidad (@Version), usada para construir el ETag del estudiante */
+    private Long version;
     
 }
\ No newline at end of file
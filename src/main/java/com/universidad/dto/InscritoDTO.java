@@ -0,0 +1,27 @@
+package com.universidad.dto;
+
+import java.time.LocalDate;
+
+import com.universidad.model.Inscripcion.EstadoInscripcion;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Fila de la lista de inscritos de una materia, construida directamente por la consulta.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InscritoDTO {
+    private Long estudianteId;
+    private String numeroInscripcion;
+    private String apellido;
+    private String nombre;
+    private String email;
+    private EstadoInscripcion estado;
+    private LocalDate fechaInscripcion;
+}
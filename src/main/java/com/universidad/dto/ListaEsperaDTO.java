@@ -0,0 +1,23 @@
+package com.universidad.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ListaEsperaDTO {
+    private Long id;
+    private Long estudianteId;
+    private Long materiaId;
+    private LocalDateTime fechaSolicitud;
+    /**
+     * Posición en la lista de espera de la materia (1 = siguiente en recibir un cupo).
+     */
+    private Long posicion;
+}
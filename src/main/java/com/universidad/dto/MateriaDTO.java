@@ -3,6 +3,7 @@ package com.universidad.dto;
 import java.io.Serializable;
 import java.util.List;
 
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -33,6 +34,12 @@ public class MateriaDTO implements Serializable {
     @Min(1)
     private Integer creditos;
 
+    /**
+     * Cupo máximo de estudiantes; null si la materia no tiene límite.
+     */
+    @Min(1)
+    private Integer cupo;
+
     private Long docenteId;
     /**
      * Lista de IDs de materias que son prerequisitos para esta materia.
@@ -44,5 +51,16 @@ public class MateriaDTO implements Serializable {
      */
     private List<Long> esPrerequisitoDe;
 
+    /**
+     * Franjas semanales en que se dicta la materia.
+     */
+    @Valid
+    private List<HorarioDTO> horarios;
+
     private Boolean activo;
+
+    /**
+     * Versión de la entidad (@Version), usada para construir el ETag de la materia.
+     */
+    private Long version;
 }
\ No newline at end of file
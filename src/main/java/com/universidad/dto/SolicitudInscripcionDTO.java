@@ -0,0 +1,36 @@
+package com.universidad.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import com.universidad.model.SolicitudInscripcion.EstadoSolicitud;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SolicitudInscripcionDTO {
+    /**
+     * Identificador con el que el cliente consulta el resultado de la solicitud.
+     */
+    private String ticket;
+    private EstadoSolicitud estado;
+    private Long estudianteId;
+    private Long materiaId;
+    private LocalDate fechaInscripcion;
+    private LocalDateTime fechaSolicitud;
+    private LocalDateTime fechaResultado;
+    /**
+     * Inscripción creada, si la solicitud terminó INSCRITA.
+     */
+    private InscripcionDTO inscripcion;
+    /**
+     * Motivo del rechazo, si la solicitud terminó RECHAZADA.
+     */
+    private String mensaje;
+}
@@ -0,0 +1,20 @@
+package com.universidad.idempotencia;
+
+import java.time.Duration;
+
+// Nivel compartido entre nodos para las respuestas idempotentes.
+// Las implementaciones no lanzan excepciones: si no están disponibles, el almacén sigue solo con la memoria local.
+public interface AlmacenCompartido {
+
+    RespuestaGuardada buscar(String clave);
+
+    /**
+     * Reserva la clave mientras se procesa la solicitud original.
+     * @return false si otro nodo ya la está procesando
+     */
+    boolean reservar(String clave, Duration duracion);
+
+    void guardar(String clave, RespuestaGuardada respuesta, Duration ttl);
+
+    void liberar(String clave);
+}
@@ -0,0 +1,89 @@
+package com.universidad.idempotencia;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Respuestas de las solicitudes con clave de idempotencia.
+ * <ul>
+ *   <li>Nivel local: caché en memoria acotada en tamaño y con expiración.</li>
+ *   <li>Nivel compartido opcional (Redis) para que un reintento atendido por otro nodo también se repita.</li>
+ *   <li>Las solicitudes en curso se registran con un futuro, así los duplicados concurrentes
+ *       esperan el resultado de la original en lugar de ejecutarse otra vez.</li>
+ * </ul>
+ */
+@Component
+public class AlmacenIdempotencia {
+
+    private final IdempotenciaProperties properties;
+    private final Cache<String, RespuestaGuardada> locales;
+    private final AlmacenCompartido compartido;
+    private final Map<String, CompletableFuture<RespuestaGuardada>> enCurso = new ConcurrentHashMap<>();
+
+    public AlmacenIdempotencia(IdempotenciaProperties properties, ObjectProvider<AlmacenCompartido> compartido) {
+        this.properties = properties;
+        this.locales = Caffeine.newBuilder()
+            .maximumSize(properties.getMaxEntradas())
+            .expireAfterWrite(properties.getTtl())
+            .build();
+        this.compartido = compartido.getIfAvailable();
+    }
+
+    public IdempotenciaProperties getProperties() {
+        return properties;
+    }
+
+    /**
+     * Respuesta guardada para la clave, o null si no hay ninguna.
+     */
+    public RespuestaGuardada buscar(String clave) {
+        RespuestaGuardada respuesta = locales.getIfPresent(clave);
+        if (respuesta == null && compartido != null) {
+            respuesta = compartido.buscar(clave);
+            if (respuesta != null) {
+                locales.put(clave, respuesta);
+            }
+        }
+        return respuesta;
+    }
+
+    /**
+     * Registra la solicitud como en curso.
+     * @return null si esta solicitud debe ejecutarse, o el futuro de la solicitud original si es un duplicado
+     */
+    public CompletableFuture<RespuestaGuardada> iniciar(String clave, CompletableFuture<RespuestaGuardada> propia) {
+        return enCurso.putIfAbsent(clave, propia);
+    }
+
+    /**
+     * Reserva la clave en el nivel compartido.
+     * @return false si otro nodo ya está procesando la misma clave
+     */
+    public boolean reservarCompartida(String clave) {
+        return compartido == null || compartido.reservar(clave, properties.getReservaCompartida());
+    }
+
+    /**
+     * Termina la solicitud en curso: guarda la respuesta (si la hay) y despierta a los duplicados.
+     */
+    public void terminar(String clave, CompletableFuture<RespuestaGuardada> propia, RespuestaGuardada respuesta, boolean reservada) {
+        if (respuesta != null) {
+            locales.put(clave, respuesta);
+            if (compartido != null) {
+                compartido.guardar(clave, respuesta, properties.getTtl());
+            }
+        }
+        if (reservada && compartido != null) {
+            compartido.liberar(clave);
+        }
+        enCurso.remove(clave, propia);
+        propia.complete(respuesta);
+    }
+}
@@ -0,0 +1,251 @@
+package com.universidad.idempotencia;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.NonNull;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Este filtro atiende la cabecera Idempotency-Key en los POST de creación configurados.
+// Un reintento con la misma clave recibe la respuesta guardada sin llegar al controlador ni a la base
+// de datos; los duplicados concurrentes esperan a la solicitud original. La clave se asocia al usuario
+// y a la ruta, y reutilizarla con otro cuerpo se rechaza con 422.
+public class IdempotenciaFilter extends OncePerRequestFilter {
+
+    public static final String CABECERA = "Idempotency-Key";
+    private static final int LONGITUD_MAXIMA = 255;
+
+    private final AlmacenIdempotencia almacen;
+
+    public IdempotenciaFilter(AlmacenIdempotencia almacen) {
+        this.almacen = almacen;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        IdempotenciaProperties properties = almacen.getProperties();
+        return !properties.isHabilitado()
+            || !"POST".equals(request.getMethod())
+            || request.getHeader(CABECERA) == null
+            || !properties.getRutas().contains(request.getRequestURI());
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull FilterChain filterChain)
+            throws ServletException, IOException {
+        String claveCliente = request.getHeader(CABECERA);
+        if (claveCliente.isBlank() || claveCliente.length() > LONGITUD_MAXIMA) {
+            error(response, HttpServletResponse.SC_BAD_REQUEST, "La cabecera " + CABECERA + " debe tener entre 1 y " + LONGITUD_MAXIMA + " caracteres");
+            return;
+        }
+        String usuario = usuario();
+        if (usuario == null) {
+            // Sin autenticar la solicitud terminará en 401; no hay a quién asociar la clave
+            filterChain.doFilter(request, response);
+            return;
+        }
+        // El cuerpo se guarda en memoria para calcular la huella y volver a leerlo: se limita antes de leerlo
+        int maxCuerpo = (int) almacen.getProperties().getMaxCuerpo().toBytes();
+        if (request.getContentLengthLong() > maxCuerpo) {
+            cuerpoDemasiadoGrande(response, maxCuerpo);
+            return;
+        }
+        byte[] cuerpo = request.getInputStream().readNBytes(maxCuerpo + 1);
+        if (cuerpo.length > maxCuerpo) {
+            // Sin Content-Length (chunked) el tamaño solo se conoce al leer
+            cuerpoDemasiadoGrande(response, maxCuerpo);
+            return;
+        }
+        String clave = usuario + "|" + request.getRequestURI() + "|" + claveCliente;
+        String huella = huella(request, cuerpo);
+
+        RespuestaGuardada guardada = almacen.buscar(clave);
+        if (guardada != null) {
+            repetir(guardada, huella, response);
+            return;
+        }
+
+        CompletableFuture<RespuestaGuardada> propia = new CompletableFuture<>();
+        CompletableFuture<RespuestaGuardada> original = almacen.iniciar(clave, propia);
+        if (original != null) {
+            esperarOriginal(original, huella, response);
+            return;
+        }
+        RespuestaGuardada respuesta = null;
+        boolean reservada = false;
+        try {
+            // La original pudo terminar entre la búsqueda y el registro
+            guardada = almacen.buscar(clave);
+            if (guardada != null) {
+                respuesta = guardada;
+                repetir(guardada, huella, response);
+                return;
+            }
+            reservada = almacen.reservarCompartida(clave);
+            if (!reservada) {
+                error(response, HttpServletResponse.SC_CONFLICT, "Ya hay una solicitud en curso con la misma " + CABECERA);
+                return;
+            }
+            ContentCachingResponseWrapper capturada = new ContentCachingResponseWrapper(response);
+            filterChain.doFilter(new CuerpoReleible(request, cuerpo), capturada);
+            if (esGuardable(capturada.getStatus())) {
+                respuesta = new RespuestaGuardada(huella, capturada.getStatus(), capturada.getContentType(),
+                    capturada.getHeader(HttpHeaders.LOCATION), capturada.getContentAsByteArray());
+            }
+            capturada.copyBodyToResponse();
+        } finally {
+            almacen.terminar(clave, propia, respuesta, reservada);
+        }
+    }
+
+    // Se guardan los éxitos y los errores del cliente; los errores del servidor y los límites de
+    // frecuencia no, para que el reintento vuelva a ejecutarse
+    private static boolean esGuardable(int status) {
+        return status < 500 && status != 429 && status != 408;
+    }
+
+    private void esperarOriginal(CompletableFuture<RespuestaGuardada> original, String huella, HttpServletResponse response) throws IOException {
+        RespuestaGuardada respuesta;
+        try {
+            respuesta = original.get(almacen.getProperties().getEsperaDuplicado().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            respuesta = null;
+        } catch (ExecutionException | TimeoutException e) {
+            respuesta = null;
+        }
+        if (respuesta == null) {
+            error(response, HttpServletResponse.SC_CONFLICT, "La solicitud original con la misma " + CABECERA + " no terminó; reintente");
+            return;
+        }
+        repetir(respuesta, huella, response);
+    }
+
+    private static void repetir(RespuestaGuardada guardada, String huella, HttpServletResponse response) throws IOException {
+        if (!guardada.getHuella().equals(huella)) {
+            error(response, 422, "La " + CABECERA + " ya se usó con una solicitud distinta");
+            return;
+        }
+        response.setStatus(guardada.getStatus());
+        if (guardada.getContentType() != null) {
+            response.setContentType(guardada.getContentType());
+        }
+        if (guardada.getLocation() != null) {
+            response.setHeader(HttpHeaders.LOCATION, guardada.getLocation());
+        }
+        response.setHeader("Idempotent-Replayed", "true");
+        response.setContentLength(guardada.getCuerpo().length);
+        response.getOutputStream().write(guardada.getCuerpo());
+    }
+
+    private static String usuario() {
+        Authentication autenticacion = SecurityContextHolder.getContext().getAuthentication();
+        return autenticacion != null && autenticacion.isAuthenticated() && !(autenticacion instanceof AnonymousAuthenticationToken)
+            ? autenticacion.getName() : null;
+    }
+
+    private static String huella(HttpServletRequest request, byte[] cuerpo) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((request.getMethod() + " " + request.getRequestURI() + "\n").getBytes(StandardCharsets.UTF_8));
+            digest.update(cuerpo);
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void cuerpoDemasiadoGrande(HttpServletResponse response, int maxCuerpo) throws IOException {
+        error(response, HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE,
+            "El cuerpo de una solicitud con " + CABECERA + " no puede superar " + maxCuerpo + " bytes");
+    }
+
+    private static void error(HttpServletResponse response, int status, String mensaje) throws IOException {
+        response.setStatus(status);
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
+        response.getWriter().write("{\"status\":" + status + ",\"mensaje\":\"" + mensaje
+            + "\",\"timestamp\":\"" + LocalDateTime.now() + "\"}");
+    }
+
+    // Solicitud cuyo cuerpo ya se leyó para calcular la huella y puede volver a leerse
+    private static class CuerpoReleible extends HttpServletRequestWrapper {
+
+        private final byte[] cuerpo;
+
+        CuerpoReleible(HttpServletRequest request, byte[] cuerpo) {
+            super(request);
+            this.cuerpo = cuerpo;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream entrada = new ByteArrayInputStream(cuerpo);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return entrada.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return entrada.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return entrada.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // El cuerpo ya está en memoria: todo está disponible de inmediato para la lectura no bloqueante
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    try {
+                        if (!isFinished()) {
+                            listener.onDataAvailable();
+                        }
+                        if (isFinished()) {
+                            listener.onAllDataRead();
+                        }
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.universidad.idempotencia;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import lombok.Data;
+
+/**
+ * Claves de idempotencia para los POST de creación (prefijo app.idempotencia).
+ */
+@Data
+@ConfigurationProperties(prefix = "app.idempotencia")
+public class IdempotenciaProperties {
+
+    private boolean habilitado = true;
+
+    /** Rutas exactas cuyos POST aceptan la cabecera Idempotency-Key. */
+    private List<String> rutas = new ArrayList<>(List.of("/api/v3/inscripciones", "/api/estudiantes"));
+
+    /** Tiempo durante el cual un reintento con la misma clave recibe la respuesta guardada. */
+    private Duration ttl = Duration.ofHours(24);
+
+    /** Respuestas que se guardan como máximo en la memoria del proceso. */
+    private long maxEntradas = 10_000;
+
+    /** Tiempo que un duplicado concurrente espera a que termine la solicitud original. */
+    private Duration esperaDuplicado = Duration.ofSeconds(10);
+
+    /** Tamaño máximo del cuerpo de una solicitud con la cabecera; los mayores se rechazan con 413 sin leerlos enteros. */
+    private DataSize maxCuerpo = DataSize.ofKilobytes(64);
+
+    /** Nivel compartido entre nodos: local (ninguno) o redis. */
+    private String compartido = "local";
+
+    /** Duración de la reserva de una clave en el nivel compartido mientras se procesa la solicitud. */
+    private Duration reservaCompartida = Duration.ofSeconds(30);
+}
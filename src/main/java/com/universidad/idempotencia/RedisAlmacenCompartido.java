@@ -0,0 +1,84 @@
+package com.universidad.idempotencia;
+
+import java.time.Duration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.universidad.cache.CacheCircuitBreaker;
+
+// Guarda las respuestas idempotentes en Redis como JSON y reserva las claves con SET NX PX.
+// Comparte el circuito de la caché: con Redis caído no se espera a sus tiempos de espera.
+public class RedisAlmacenCompartido implements AlmacenCompartido {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisAlmacenCompartido.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final CacheCircuitBreaker circuito;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public RedisAlmacenCompartido(StringRedisTemplate redisTemplate, CacheCircuitBreaker circuito) {
+        this.redisTemplate = redisTemplate;
+        this.circuito = circuito;
+    }
+
+    @Override
+    public RespuestaGuardada buscar(String clave) {
+        if (!circuito.estaCerrado()) {
+            return null;
+        }
+        try {
+            String json = redisTemplate.opsForValue().get("idem:" + clave);
+            return json != null ? objectMapper.readValue(json, RespuestaGuardada.class) : null;
+        } catch (Exception e) {
+            fallo("buscar", clave, e);
+            return null;
+        }
+    }
+
+    @Override
+    public boolean reservar(String clave, Duration duracion) {
+        if (!circuito.estaCerrado()) {
+            return true; // Sin Redis no hay coordinación entre nodos: se procesa localmente
+        }
+        try {
+            return !Boolean.FALSE.equals(redisTemplate.opsForValue().setIfAbsent("idem:reserva:" + clave, "1", duracion));
+        } catch (Exception e) {
+            fallo("reservar", clave, e);
+            return true;
+        }
+    }
+
+    @Override
+    public void guardar(String clave, RespuestaGuardada respuesta, Duration ttl) {
+        if (!circuito.estaCerrado()) {
+            return;
+        }
+        try {
+            redisTemplate.opsForValue().set("idem:" + clave, objectMapper.writeValueAsString(respuesta), ttl);
+        } catch (Exception e) {
+            fallo("guardar", clave, e);
+        }
+    }
+
+    @Override
+    public void liberar(String clave) {
+        if (!circuito.estaCerrado()) {
+            return; // La reserva expira sola
+        }
+        try {
+            redisTemplate.delete("idem:reserva:" + clave);
+        } catch (Exception e) {
+            fallo("liberar", clave, e);
+        }
+    }
+
+    private void fallo(String operacion, String clave, Exception e) {
+        if (circuito.esFalloDeRedis(e)) {
+            circuito.registrarFallo(e);
+        }
+        logger.debug("No se pudo {} la clave de idempotencia {} en Redis: {}", operacion, clave, e.getMessage());
+    }
+}
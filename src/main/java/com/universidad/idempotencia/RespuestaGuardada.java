@@ -0,0 +1,20 @@
+package com.universidad.idempotencia;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Respuesta de una solicitud con clave de idempotencia, lista para repetirse en los reintentos.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RespuestaGuardada {
+    /** Resumen SHA-256 del método, la ruta y el cuerpo de la solicitud original. */
+    private String huella;
+    private int status;
+    private String contentType;
+    private String location;
+    private byte[] cuerpo;
+}
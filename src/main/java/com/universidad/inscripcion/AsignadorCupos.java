@@ -0,0 +1,307 @@
+package com.universidad.inscripcion;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.universidad.conexiones.ClasePool;
+import com.universidad.conexiones.SeleccionPool;
+import com.universidad.model.Materia;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Asignador de cupos por materia con concesiones por nodo.
+ * <ul>
+ *   <li>Cada nodo recibe bloques de cupos de una materia en su fila de cupo_concesion y los reserva en un
+ *       {@link ContadorCupo} en memoria, sin escribir en la base de datos por cada inscripción. La única
+ *       sentencia por reserva es un bloqueo FOR KEY SHARE de la fila de la concesión en la transacción de la
+ *       inscripción: no compite con otras inscripciones ni con el volcado, solo retrasa hasta el commit la
+ *       revocación o el borrado por vencimiento de la concesión.</li>
+ *   <li>Un bloque se concede en una transacción corta propia, con la fila de cupo_materia bloqueada para que los
+ *       nodos no se concedan los mismos cupos: cupo de la materia menos inscripciones en curso menos los cupos
+ *       concedidos a todos los nodos, leídos en una sola consulta.</li>
+ *   <li>El volcado periódico escribe en cada fila los cupos concedidos que el nodo aún no confirmó y renueva su
+ *       vigencia; una concesión sin reservas desde el volcado anterior se devuelve. La de un nodo caído vence y
+ *       la borra el siguiente nodo que pide un bloque de esa materia.</li>
+ *   <li>Una reserva cuya transacción hace rollback vuelve al contador de la concesión.</li>
+ * </ul>
+ * Un cupo liberado en un nodo se puede conceder a otro a partir del siguiente volcado de su concesión.
+ */
+@Component
+public class AsignadorCupos {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsignadorCupos.class);
+
+    private static final String OCUPADOS_MATERIA = "SELECT COUNT(*) FROM inscripciones "
+        + "WHERE materia_id = ? AND activo = true AND estado = 'PENDIENTE'";
+    private static final String CONFIRMAR_CONCESION = "SELECT id FROM cupo_concesion WHERE id = ? FOR KEY SHARE";
+    // Bloquea la materia para las concesiones y borra las vencidas de otros nodos que nadie está usando
+    private static final String BLOQUEAR_MATERIA = "WITH vencidas AS (DELETE FROM cupo_concesion WHERE id IN ("
+        + "SELECT id FROM cupo_concesion WHERE id_materia = ? AND nodo <> ? AND vence < LOCALTIMESTAMP FOR UPDATE SKIP LOCKED)) "
+        + "INSERT INTO cupo_materia (id_materia, ocupados, actualizado) VALUES (?, 0, LOCALTIMESTAMP) "
+        + "ON CONFLICT (id_materia) DO UPDATE SET actualizado = EXCLUDED.actualizado";
+    private static final String DISPONIBILIDAD = "SELECT m.cupo, "
+        + "(SELECT COUNT(*) FROM inscripciones i WHERE i.materia_id = m.id_materia AND i.activo = true AND i.estado = 'PENDIENTE'), "
+        + "(SELECT COALESCE(SUM(c.cupos), 0) FROM cupo_concesion c WHERE c.id_materia = m.id_materia) "
+        + "FROM materia m WHERE m.id_materia = ?";
+    private static final String CONCEDER = "WITH concesion AS (INSERT INTO cupo_concesion (id_materia, nodo, cupos, vence) "
+        + "VALUES (?, ?, ?, LOCALTIMESTAMP + make_interval(secs => ?)) ON CONFLICT (id_materia, nodo) DO UPDATE "
+        + "SET cupos = cupo_concesion.cupos + EXCLUDED.cupos, vence = EXCLUDED.vence RETURNING id), "
+        + "recuento AS (UPDATE cupo_materia SET ocupados = ? WHERE id_materia = ?) SELECT id FROM concesion";
+    // Las sentencias sobre la fila propia saltan la fila si la está borrando una revocación: nunca esperan
+    // a las inscripciones en curso mientras este nodo retiene el candado de la materia
+    private static final String RENOVAR = "UPDATE cupo_concesion SET cupos = ?, vence = LOCALTIMESTAMP + make_interval(secs => ?) "
+        + "WHERE id = (SELECT id FROM cupo_concesion WHERE id = ? FOR NO KEY UPDATE SKIP LOCKED)";
+    private static final String DEVOLVER = "DELETE FROM cupo_concesion "
+        + "WHERE id = (SELECT id FROM cupo_concesion WHERE id = ? FOR UPDATE SKIP LOCKED)";
+    private static final String EXISTE = "SELECT COUNT(*) FROM cupo_concesion WHERE id = ?";
+    private static final String REVOCAR = "DELETE FROM cupo_concesion WHERE id_materia = ?";
+    private static final String DEVOLVER_NODO = "DELETE FROM cupo_concesion WHERE nodo = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate nuevaTransaccion;
+    private final int franjas;
+    private final int bloque;
+    private final double vigenciaSegundos;
+    private final String nodo = UUID.randomUUID().toString();
+
+    private final Map<Long, Concesion> concesiones = new ConcurrentHashMap<>();
+    // Serializa por materia las concesiones y el volcado de este nodo
+    private final Map<Long, Object> candados = new ConcurrentHashMap<>();
+
+    public AsignadorCupos(JdbcTemplate jdbcTemplate,
+                          TransactionTemplate transactionTemplate,
+                          @Value("${app.inscripcion.cupos.franjas:0}") int franjas,
+                          @Value("${app.inscripcion.cupos.bloque:10}") int bloque,
+                          @Value("${app.inscripcion.cupos.concesion:30s}") Duration concesion) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.nuevaTransaccion = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.nuevaTransaccion.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.franjas = franjas > 0 ? franjas : Runtime.getRuntime().availableProcessors();
+        this.bloque = Math.max(1, bloque);
+        this.vigenciaSegundos = concesion.toMillis() / 1000.0;
+    }
+
+    /**
+     * Reserva un cupo de la materia para la transacción actual.
+     * @return false si la materia no tiene cupos libres; true si se reservó o la materia no tiene cupo
+     */
+    public boolean reservar(Materia materia) {
+        if (materia.getCupo() == null) {
+            return true;
+        }
+        Long materiaId = materia.getId();
+        while (true) {
+            Concesion concesion = concesiones.get(materiaId);
+            if (concesion == null || !concesion.contador.reservar()) {
+                if (!ampliar(materiaId, concesion)) {
+                    return false;
+                }
+                continue;
+            }
+            concesion.usada.set(true);
+            if (jdbcTemplate.queryForList(CONFIRMAR_CONCESION, Long.class, concesion.id).isEmpty()) {
+                // La concesión venció o fue revocada: se pide otra
+                concesion.contador.liberar();
+                concesiones.remove(materiaId, concesion);
+                continue;
+            }
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        if (status == STATUS_COMMITTED) {
+                            concesion.confirmados.incrementAndGet();
+                        } else {
+                            concesion.contador.liberar(); // La inscripción no llegó a guardarse
+                        }
+                    }
+                });
+            } else {
+                concesion.confirmados.incrementAndGet();
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Retira las concesiones de la materia en la transacción actual, que espera a las inscripciones en curso
+     * con cupos concedidos; después del commit los nodos piden bloques nuevos con el cupo vigente.
+     */
+    public void revocar(Long materiaId) {
+        jdbcTemplate.update(REVOCAR, materiaId);
+        TrasCommit.ejecutar(() -> concesiones.remove(materiaId));
+    }
+
+    /**
+     * Aplica un cambio del cupo de la materia. Al reducirlo o quitarlo se revocan las concesiones: los cupos
+     * ya concedidos podrían superar el nuevo cupo. Al ampliarlo basta con que los nodos pidan más bloques.
+     */
+    public void actualizarCupo(Long materiaId, Integer cupoAnterior, Integer cupo) {
+        if (cupoAnterior != null && (cupo == null || cupo < cupoAnterior)) {
+            revocar(materiaId);
+        }
+    }
+
+    /**
+     * Cupos ocupados de la materia (inscripciones en curso), o null si la materia no tiene cupo.
+     */
+    public Integer ocupados(Materia materia) {
+        if (materia.getCupo() == null) {
+            return null;
+        }
+        return jdbcTemplate.queryForObject(OCUPADOS_MATERIA, Integer.class, materia.getId());
+    }
+
+    /**
+     * Escribe en cada concesión sus cupos sin confirmar y renueva su vigencia, o la devuelve si no se usó
+     * desde el volcado anterior. Si la fila ya no está, la concesión se descarta; si la retiene una
+     * inscripción en curso o una revocación, se deja para el siguiente volcado.
+     */
+    @Scheduled(fixedDelayString = "${app.inscripcion.cupos.volcado-ms:5000}")
+    public void volcar() {
+        concesiones.forEach((materiaId, concesion) -> {
+            synchronized (candado(materiaId)) {
+                if (concesiones.get(materiaId) != concesion) {
+                    return;
+                }
+                try {
+                    SeleccionPool.en(ClasePool.LOTES, () -> {
+                        boolean descartar;
+                        if (concesion.usada.getAndSet(false)) {
+                            descartar = jdbcTemplate.update(RENOVAR, concesion.pendientes(), vigenciaSegundos, concesion.id) == 0
+                                && !existe(concesion.id);
+                        } else {
+                            descartar = jdbcTemplate.update(DEVOLVER, concesion.id) > 0 || !existe(concesion.id);
+                        }
+                        if (descartar) {
+                            concesiones.remove(materiaId, concesion);
+                        }
+                    });
+                } catch (DataAccessException e) {
+                    logger.warn("No se pudo volcar la concesión de cupos de la materia {}: {}", materiaId, e.getMessage());
+                }
+            }
+        });
+    }
+
+    @PreDestroy
+    public void devolverTodo() {
+        if (concesiones.isEmpty()) {
+            return; // Nada que devolver: no se espera una conexión al detener el nodo
+        }
+        try {
+            SeleccionPool.en(ClasePool.LOTES, () -> jdbcTemplate.update(DEVOLVER_NODO, nodo));
+        } catch (DataAccessException e) {
+            logger.warn("No se pudieron devolver las concesiones de cupos del nodo {}: {}", nodo, e.getMessage());
+        }
+        concesiones.clear();
+    }
+
+    /**
+     * Pide a la base de datos un bloque más de cupos de la materia para este nodo; la memoria se actualiza
+     * después del commit de la concesión.
+     * @return true si hay cupos nuevos que intentar reservar; false si la materia no tiene cupos libres
+     */
+    private boolean ampliar(Long materiaId, Concesion vista) {
+        synchronized (candado(materiaId)) {
+            Concesion vigente = concesiones.get(materiaId);
+            if (vigente != vista) {
+                return true; // Otro hilo ya la amplió o la reemplazó
+            }
+            Bloque bloqueConcedido = SeleccionPool.en(ClasePool.LOTES,
+                () -> nuevaTransaccion.execute(status -> conceder(materiaId, vigente)));
+            if (bloqueConcedido == null) {
+                // Sin cupos libres, salvo que la concesión propia ya no exista: entonces se pide una nueva
+                if (vigente != null && !existe(vigente.id)) {
+                    concesiones.remove(materiaId, vigente);
+                    return true;
+                }
+                return false;
+            }
+            if (vigente != null && vigente.id == bloqueConcedido.id) {
+                vigente.contador.redimensionar(vigente.contador.getCupo() + bloqueConcedido.cupos);
+            } else {
+                concesiones.put(materiaId, new Concesion(bloqueConcedido.id, bloqueConcedido.cupos,
+                    Math.min(franjas, bloqueConcedido.cupos)));
+            }
+            return true;
+        }
+    }
+
+    // Transacción de la concesión: antes de contar, la fila propia pasa a reflejar sus cupos sin confirmar
+    private Bloque conceder(Long materiaId, Concesion vigente) {
+        jdbcTemplate.update(BLOQUEAR_MATERIA, materiaId, nodo, materiaId);
+        if (vigente != null && jdbcTemplate.update(RENOVAR, vigente.pendientes(), vigenciaSegundos, vigente.id) == 0) {
+            return null;
+        }
+        int[] disponibilidad = jdbcTemplate.query(DISPONIBILIDAD, rs -> rs.next() && rs.getObject(1) != null
+            ? new int[] {rs.getInt(1), rs.getInt(2), rs.getInt(3)} : null, materiaId);
+        if (disponibilidad == null) {
+            return null; // Materia eliminada o sin cupo
+        }
+        int cupos = Math.min(bloque, disponibilidad[0] - disponibilidad[1] - disponibilidad[2]);
+        if (cupos <= 0) {
+            return null;
+        }
+        Long id = jdbcTemplate.queryForObject(CONCEDER, Long.class,
+            materiaId, nodo, cupos, vigenciaSegundos, disponibilidad[1], materiaId);
+        return new Bloque(id, cupos);
+    }
+
+    private boolean existe(long id) {
+        Integer filas = jdbcTemplate.queryForObject(EXISTE, Integer.class, id);
+        return filas != null && filas > 0;
+    }
+
+    private Object candado(Long materiaId) {
+        return candados.computeIfAbsent(materiaId, id -> new Object());
+    }
+
+    // Cupos concedidos a este nodo para una materia: fila propia de cupo_concesion y contador en memoria
+    private static final class Concesion {
+
+        private final long id;
+        // Cupo: total concedido a la concesión; ocupados: reservas en curso o confirmadas
+        private final ContadorCupo contador;
+        private final AtomicInteger confirmados = new AtomicInteger();
+        private final AtomicBoolean usada = new AtomicBoolean(true);
+
+        private Concesion(long id, int cupos, int franjas) {
+            this.id = id;
+            this.contador = new ContadorCupo(cupos, 0, franjas);
+        }
+
+        // Lo que la fila debe reflejar: cupos libres más los reservados por transacciones sin terminar
+        private int pendientes() {
+            return contador.getCupo() - confirmados.get();
+        }
+    }
+
+    private static final class Bloque {
+
+        private final long id;
+        private final int cupos;
+
+        private Bloque(long id, int cupos) {
+            this.id = id;
+            this.cupos = cupos;
+        }
+    }
+}
@@ -0,0 +1,464 @@
+package com.universidad.inscripcion;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.universidad.dto.InscripcionDTO;
+import com.universidad.dto.SolicitudInscripcionDTO;
+import com.universidad.model.SolicitudInscripcion;
+import com.universidad.model.SolicitudInscripcion.EstadoSolicitud;
+import com.universidad.repository.SolicitudInscripcionRepository;
+import com.universidad.service.IInscripcionService;
+import com.universidad.validation.ColaLlenaException;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+
+/**
+ * Cola de inscripciones asíncronas (opcional, app.inscripcion.cola.habilitada).
+ * <ul>
+ *   <li>La solicitud se acepta de inmediato en una cola acotada y el cliente recibe un ticket;
+ *       con la cola llena se responde 503 para que reintente más tarde.</li>
+ *   <li>Un hilo despachador vacía la cola por lotes y los agrupa por materia. Cada grupo se inscribe
+ *       con {@link IInscripcionService#crearLote} en una sola transacción, que también registra el resultado.</li>
+ *   <li>Los grupos de una misma materia van siempre al mismo procesador, así se atienden en orden
+ *       de llegada sin competir por sus cupos; materias distintas se procesan en paralelo.</li>
+ * </ul>
+ * Mientras los procesadores están ocupados la cola sigue creciendo, de modo que los lotes
+ * se agrandan justo cuando hay más demanda. Si la cola es persistente (app.inscripcion.cola.persistente)
+ * cada solicitud se guarda en solicitud_inscripcion reclamada por el nodo que la encoló, que renueva el
+ * reclamo mientras la tiene pendiente. Al arrancar y en cada renovación, un nodo reclama con una
+ * actualización condicional las solicitudes EN_COLA sin reclamo vigente (las de un nodo caído o detenido)
+ * y las encola; las que otro nodo tiene reclamadas no se tocan. El resultado solo se guarda si la
+ * solicitud sigue EN_COLA, en la misma transacción que la inscripción, así una solicitud atendida por dos
+ * nodos se inscribe una sola vez. Si la cola no es persistente, las solicitudes encoladas se pierden al
+ * detener el nodo.
+ */
+@Component
+public class ColaInscripciones implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(ColaInscripciones.class);
+
+    private static final String MARCAR = "UPDATE solicitud_inscripcion SET estado = ?, inscripcion_id = ?, mensaje = ?, fecha_resultado = ? "
+        + "WHERE ticket = ? AND estado = 'EN_COLA'";
+    // Solicitudes pendientes sin reclamo vigente, en orden de llegada; las que otro nodo está reclamando se saltan
+    private static final String RECLAMAR = "UPDATE solicitud_inscripcion SET nodo = ?, reclamada_hasta = LOCALTIMESTAMP + make_interval(secs => ?) "
+        + "WHERE id IN (SELECT id FROM solicitud_inscripcion WHERE estado = 'EN_COLA' "
+        + "AND (reclamada_hasta IS NULL OR reclamada_hasta < LOCALTIMESTAMP) ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED) "
+        + "RETURNING id, ticket, estudiante_id, materia_id, fecha_inscripcion, fecha_solicitud";
+    private static final String RENOVAR = "UPDATE solicitud_inscripcion SET reclamada_hasta = LOCALTIMESTAMP + make_interval(secs => ?) "
+        + "WHERE nodo = ? AND estado = 'EN_COLA' AND ticket = ANY (?)";
+    private static final String LIBERAR = "UPDATE solicitud_inscripcion SET nodo = NULL, reclamada_hasta = NULL "
+        + "WHERE ticket = ? AND nodo = ? AND estado = 'EN_COLA'";
+    private static final String LIBERAR_NODO = "UPDATE solicitud_inscripcion SET nodo = NULL, reclamada_hasta = NULL "
+        + "WHERE nodo = ? AND estado = 'EN_COLA'";
+
+    private final IInscripcionService inscripcionService;
+    private final SolicitudInscripcionRepository solicitudRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean habilitada;
+    private final boolean persistente;
+    private final int tamanoLote;
+    private final Duration reclamo;
+    // Identifica las solicitudes reclamadas por esta instancia; al reiniciar, el nodo es otro
+    private final String nodo = UUID.randomUUID().toString();
+    // Tickets reclamados por este nodo y aún sin resultado: son los que se renuevan
+    private final Set<String> reclamadas = ConcurrentHashMap.newKeySet();
+
+    private final BlockingQueue<Pendiente> cola;
+    // ticket -> estado de la solicitud, para las consultas del cliente
+    private final Cache<String, SolicitudInscripcionDTO> solicitudes;
+    // Un procesador de un solo hilo por partición de materias: orden de llegada dentro de cada materia
+    private final ExecutorService[] procesadores;
+    // Grupos entregados a los procesadores y aún sin terminar; acota el trabajo fuera de la cola
+    private final Semaphore gruposEnCurso;
+    private Thread despachador;
+    private volatile boolean activa;
+
+    public ColaInscripciones(IInscripcionService inscripcionService,
+                             SolicitudInscripcionRepository solicitudRepository,
+                             TransactionTemplate transactionTemplate,
+                             JdbcTemplate jdbcTemplate,
+                             @Value("${app.inscripcion.cola.habilitada:false}") boolean habilitada,
+                             @Value("${app.inscripcion.cola.persistente:false}") boolean persistente,
+                             @Value("${app.inscripcion.cola.capacidad:10000}") int capacidad,
+                             @Value("${app.inscripcion.cola.tamano-lote:200}") int tamanoLote,
+                             @Value("${app.inscripcion.cola.hilos:2}") int hilos,
+                             @Value("${app.inscripcion.cola.ttl-resultados:1h}") Duration ttlResultados,
+                             @Value("${app.inscripcion.cola.reclamo:30s}") Duration reclamo) {
+        this.inscripcionService = inscripcionService;
+        this.solicitudRepository = solicitudRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.jdbcTemplate = jdbcTemplate;
+        this.habilitada = habilitada;
+        this.persistente = persistente;
+        this.tamanoLote = Math.max(1, tamanoLote);
+        this.reclamo = reclamo;
+        this.cola = new ArrayBlockingQueue<>(Math.max(1, capacidad));
+        // Las solicitudes en cola no deben expulsarse antes de procesarse: el límite deja sitio a todas ellas
+        this.solicitudes = Caffeine.newBuilder()
+            .maximumSize(capacidad * 10L)
+            .expireAfterWrite(ttlResultados)
+            .build();
+        int n = Math.max(1, hilos);
+        this.procesadores = new ExecutorService[n];
+        for (int i = 0; i < n; i++) {
+            int indice = i;
+            procesadores[i] = Executors.newSingleThreadExecutor(r -> new Thread(r, "cola-inscripciones-" + indice));
+        }
+        this.gruposEnCurso = new Semaphore(n * 2);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!habilitada) {
+            return;
+        }
+        if (persistente) {
+            reclamarPendientes();
+        }
+        activa = true;
+        despachador = new Thread(this::despachar, "cola-inscripciones");
+        despachador.setDaemon(true);
+        despachador.start();
+    }
+
+    public boolean isHabilitada() {
+        return habilitada;
+    }
+
+    /**
+     * Acepta la solicitud sin procesarla.
+     * @return la solicitud EN_COLA con su ticket
+     * @throws ColaLlenaException si la cola no admite más solicitudes
+     */
+    public SolicitudInscripcionDTO encolar(InscripcionDTO inscripcionDTO) {
+        if (cola.remainingCapacity() == 0) {
+            throw new ColaLlenaException("Hay demasiadas solicitudes de inscripción en espera; reintente en unos segundos");
+        }
+        SolicitudInscripcionDTO solicitud = SolicitudInscripcionDTO.builder()
+            .ticket(UUID.randomUUID().toString())
+            .estado(EstadoSolicitud.EN_COLA)
+            .estudianteId(inscripcionDTO.getEstudianteId())
+            .materiaId(inscripcionDTO.getMateriaId())
+            .fechaInscripcion(inscripcionDTO.getFechaInscripcion())
+            .fechaSolicitud(LocalDateTime.now())
+            .build();
+        if (persistente) {
+            solicitudRepository.save(SolicitudInscripcion.builder()
+                .ticket(solicitud.getTicket())
+                .estudianteId(solicitud.getEstudianteId())
+                .materiaId(solicitud.getMateriaId())
+                .fechaInscripcion(solicitud.getFechaInscripcion())
+                .estado(EstadoSolicitud.EN_COLA)
+                .fechaSolicitud(solicitud.getFechaSolicitud())
+                .nodo(nodo)
+                .reclamadaHasta(solicitud.getFechaSolicitud().plus(reclamo))
+                .build());
+            reclamadas.add(solicitud.getTicket());
+        }
+        solicitudes.put(solicitud.getTicket(), solicitud);
+        if (!cola.offer(new Pendiente(solicitud.getTicket(), inscripcionDTO, solicitud.getFechaSolicitud()))) {
+            // Otra solicitud ocupó el último lugar entre la comprobación y el encolado
+            solicitudes.invalidate(solicitud.getTicket());
+            if (persistente) {
+                reclamadas.remove(solicitud.getTicket());
+                solicitudRepository.findByTicket(solicitud.getTicket()).ifPresent(solicitudRepository::delete);
+            }
+            throw new ColaLlenaException("Hay demasiadas solicitudes de inscripción en espera; reintente en unos segundos");
+        }
+        return solicitud;
+    }
+
+    /**
+     * Estado actual de una solicitud.
+     * @throws EntityNotFoundException si el ticket no existe o su resultado ya expiró
+     */
+    public SolicitudInscripcionDTO obtener(String ticket) {
+        SolicitudInscripcionDTO solicitud = solicitudes.getIfPresent(ticket);
+        if (solicitud == null && persistente) {
+            solicitud = solicitudRepository.findByTicket(ticket).map(this::convertToDTO).orElse(null);
+        }
+        if (solicitud == null) {
+            throw new EntityNotFoundException("Solicitud de inscripción no encontrada");
+        }
+        return solicitud;
+    }
+
+    public int enCola() {
+        return cola.size();
+    }
+
+    private void despachar() {
+        List<Pendiente> lote = new ArrayList<>(tamanoLote);
+        while (activa) {
+            try {
+                Pendiente primera = cola.poll(1, TimeUnit.SECONDS);
+                if (primera == null) {
+                    continue;
+                }
+                lote.add(primera);
+                cola.drainTo(lote, tamanoLote - 1);
+                // Agrupar por materia conservando el orden de llegada dentro de cada grupo
+                Map<Long, List<Pendiente>> grupos = new LinkedHashMap<>();
+                for (Pendiente pendiente : lote) {
+                    grupos.computeIfAbsent(pendiente.inscripcion.getMateriaId(), k -> new ArrayList<>()).add(pendiente);
+                }
+                lote.clear();
+                for (Map.Entry<Long, List<Pendiente>> grupo : grupos.entrySet()) {
+                    gruposEnCurso.acquire();
+                    procesadores[Math.floorMod(grupo.getKey().hashCode(), procesadores.length)].execute(() -> {
+                        try {
+                            procesarGrupo(grupo.getKey(), grupo.getValue());
+                        } finally {
+                            gruposEnCurso.release();
+                        }
+                    });
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                logger.error("Error en el despachador de la cola de inscripciones", e);
+            }
+        }
+    }
+
+    private void procesarGrupo(Long materiaId, List<Pendiente> grupo) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> registrar(grupo,
+                inscripcionService.crearLote(materiaId, grupo.stream().map(p -> p.inscripcion).toList())));
+        } catch (RuntimeException e) {
+            // Un error técnico deshace el lote completo: se reintenta cada solicitud por separado
+            // para que una sola solicitud problemática no arrastre a las demás
+            logger.warn("Falló el lote de {} inscripciones en la materia {}; se procesan una a una: {}",
+                grupo.size(), materiaId, e.getMessage());
+            for (Pendiente pendiente : grupo) {
+                procesarSola(materiaId, pendiente);
+            }
+        }
+    }
+
+    private void procesarSola(Long materiaId, Pendiente pendiente) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> registrar(List.of(pendiente),
+                inscripcionService.crearLote(materiaId, List.of(pendiente.inscripcion))));
+        } catch (SolicitudYaAtendida e) {
+            olvidar(pendiente.ticket);
+        } catch (RuntimeException e) {
+            logger.error("No se pudo procesar la solicitud de inscripción {}", pendiente.ticket, e);
+            SolicitudInscripcionDTO fallida = SolicitudInscripcionDTO.builder()
+                .estado(EstadoSolicitud.RECHAZADA)
+                .estudianteId(pendiente.inscripcion.getEstudianteId())
+                .materiaId(materiaId)
+                .fechaInscripcion(pendiente.inscripcion.getFechaInscripcion())
+                .mensaje("No se pudo procesar la solicitud; vuelva a enviarla")
+                .build();
+            try {
+                registrar(List.of(pendiente), List.of(fallida));
+            } catch (SolicitudYaAtendida ex) {
+                olvidar(pendiente.ticket);
+            } catch (RuntimeException ex) {
+                // La solicitud queda EN_COLA en la tabla: al vencer su reclamo la vuelve a encolar un nodo
+                olvidar(pendiente.ticket);
+            }
+        }
+    }
+
+    // Guarda los resultados del grupo: en la tabla dentro de la transacción del lote y en memoria tras el commit
+    private void registrar(List<Pendiente> grupo, List<SolicitudInscripcionDTO> resultados) {
+        LocalDateTime ahora = LocalDateTime.now();
+        List<SolicitudInscripcionDTO> completas = new ArrayList<>(grupo.size());
+        for (int i = 0; i < grupo.size(); i++) {
+            SolicitudInscripcionDTO resultado = completar(grupo.get(i), resultados.get(i));
+            resultado.setFechaResultado(ahora);
+            completas.add(resultado);
+        }
+        if (persistente) {
+            int[][] marcadas = jdbcTemplate.batchUpdate(MARCAR, completas, completas.size(), (ps, r) -> {
+                ps.setString(1, r.getEstado().name());
+                ps.setObject(2, r.getInscripcion() != null ? r.getInscripcion().getId() : null);
+                ps.setString(3, r.getMensaje());
+                ps.setTimestamp(4, Timestamp.valueOf(r.getFechaResultado()));
+                ps.setString(5, r.getTicket());
+            });
+            for (int i = 0; i < marcadas[0].length; i++) {
+                if (marcadas[0][i] == 0) {
+                    // Otro nodo la reclamó y ya guardó su resultado: se deshace esta inscripción
+                    throw new SolicitudYaAtendida(completas.get(i).getTicket());
+                }
+            }
+        }
+        TrasCommit.ejecutar(() -> completas.forEach(r -> {
+            solicitudes.put(r.getTicket(), r);
+            reclamadas.remove(r.getTicket());
+        }));
+    }
+
+    // Deja de seguir una solicitud cuyo estado vigente está en la tabla
+    private void olvidar(String ticket) {
+        reclamadas.remove(ticket);
+        solicitudes.invalidate(ticket);
+    }
+
+    private SolicitudInscripcionDTO completar(Pendiente pendiente, SolicitudInscripcionDTO resultado) {
+        resultado.setTicket(pendiente.ticket);
+        resultado.setFechaSolicitud(pendiente.fechaSolicitud);
+        return resultado;
+    }
+
+    /**
+     * Renueva el reclamo de las solicitudes pendientes de este nodo y reclama las que quedaron sin reclamo vigente.
+     */
+    @Scheduled(fixedDelayString = "${app.inscripcion.cola.renovacion-ms:10000}")
+    public void renovarReclamos() {
+        if (!activa || !persistente) {
+            return;
+        }
+        if (!reclamadas.isEmpty()) {
+            Object[] tickets = reclamadas.toArray();
+            try {
+                jdbcTemplate.update(RENOVAR, ps -> {
+                    ps.setDouble(1, reclamo.toMillis() / 1000.0);
+                    ps.setString(2, nodo);
+                    ps.setArray(3, ps.getConnection().createArrayOf("varchar", tickets));
+                });
+            } catch (RuntimeException e) {
+                logger.warn("No se pudo renovar el reclamo de las solicitudes de inscripción: {}", e.getMessage());
+            }
+        }
+        reclamarPendientes();
+    }
+
+    private void reclamarPendientes() {
+        int libres = cola.remainingCapacity();
+        if (libres == 0) {
+            return; // El resto sigue EN_COLA en la tabla y se reclama en una próxima renovación
+        }
+        try {
+            List<SolicitudInscripcion> pendientes = new ArrayList<>(jdbcTemplate.query(RECLAMAR, (rs, fila) -> SolicitudInscripcion.builder()
+                .id(rs.getLong("id"))
+                .ticket(rs.getString("ticket"))
+                .estudianteId(rs.getLong("estudiante_id"))
+                .materiaId(rs.getLong("materia_id"))
+                .fechaInscripcion(rs.getDate("fecha_inscripcion").toLocalDate())
+                .fechaSolicitud(rs.getTimestamp("fecha_solicitud").toLocalDateTime())
+                .estado(EstadoSolicitud.EN_COLA)
+                .build(), nodo, reclamo.toMillis() / 1000.0, libres));
+            pendientes.sort(Comparator.comparing(SolicitudInscripcion::getId));
+            int reencoladas = 0;
+            for (SolicitudInscripcion pendiente : pendientes) {
+                InscripcionDTO inscripcion = InscripcionDTO.builder()
+                    .estudianteId(pendiente.getEstudianteId())
+                    .materiaId(pendiente.getMateriaId())
+                    .fechaInscripcion(pendiente.getFechaInscripcion())
+                    .build();
+                reclamadas.add(pendiente.getTicket());
+                if (!cola.offer(new Pendiente(pendiente.getTicket(), inscripcion, pendiente.getFechaSolicitud()))) {
+                    // Sin lugar en la cola: se libera para que la encole otro nodo
+                    reclamadas.remove(pendiente.getTicket());
+                    jdbcTemplate.update(LIBERAR, pendiente.getTicket(), nodo);
+                    continue;
+                }
+                solicitudes.put(pendiente.getTicket(), convertToDTO(pendiente));
+                reencoladas++;
+            }
+            if (!pendientes.isEmpty()) {
+                logger.info("Cola de inscripciones: {} de {} solicitudes pendientes reclamadas y reencoladas", reencoladas, pendientes.size());
+            }
+        } catch (RuntimeException e) {
+            logger.warn("No se pudieron reclamar las solicitudes de inscripción pendientes: {}", e.getMessage());
+        }
+    }
+
+    private SolicitudInscripcionDTO convertToDTO(SolicitudInscripcion solicitud) {
+        return SolicitudInscripcionDTO.builder()
+            .ticket(solicitud.getTicket())
+            .estado(solicitud.getEstado())
+            .estudianteId(solicitud.getEstudianteId())
+            .materiaId(solicitud.getMateriaId())
+            .fechaInscripcion(solicitud.getFechaInscripcion())
+            .fechaSolicitud(solicitud.getFechaSolicitud())
+            .fechaResultado(solicitud.getFechaResultado())
+            .inscripcion(solicitud.getInscripcionId() != null
+                ? InscripcionDTO.builder().id(solicitud.getInscripcionId()).build() : null)
+            .mensaje(solicitud.getMensaje())
+            .build();
+    }
+
+    @PreDestroy
+    public void detener() {
+        activa = false;
+        if (despachador != null) {
+            despachador.interrupt();
+        }
+        for (ExecutorService procesador : procesadores) {
+            procesador.shutdown();
+        }
+        try {
+            for (ExecutorService procesador : procesadores) {
+                procesador.awaitTermination(10, TimeUnit.SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!cola.isEmpty()) {
+            logger.warn("Cola de inscripciones detenida con {} solicitudes sin procesar{}", cola.size(),
+                persistente ? " (las reclamará otro nodo)" : "");
+        }
+        if (persistente && !reclamadas.isEmpty()) {
+            try {
+                // Sin esperar a que venza el reclamo
+                jdbcTemplate.update(LIBERAR_NODO, nodo);
+            } catch (RuntimeException e) {
+                logger.warn("No se pudo liberar el reclamo de las solicitudes de inscripción: {}", e.getMessage());
+            }
+        }
+    }
+
+    // El resultado de la solicitud ya no puede guardarse porque dejó de estar EN_COLA
+    private static final class SolicitudYaAtendida extends RuntimeException {
+        SolicitudYaAtendida(String ticket) {
+            super("La solicitud " + ticket + " ya fue atendida por otro nodo");
+        }
+    }
+
+    private static final class Pendiente {
+        private final String ticket;
+        private final InscripcionDTO inscripcion;
+        private final LocalDateTime fechaSolicitud;
+
+        Pendiente(String ticket, InscripcionDTO inscripcion, LocalDateTime fechaSolicitud) {
+            this.ticket = ticket;
+            this.inscripcion = inscripcion;
+            this.fechaSolicitud = fechaSolicitud;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.universidad.inscripcion;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.universidad.model.CargaCreditos;
+import com.universidad.repository.CargaCreditosRepository;
+import com.universidad.repository.InscripcionRepository;
+import com.universidad.validation.ReglaNegocioException;
+
+/**
+ * Carga de créditos en curso por estudiante y límite máximo por periodo.
+ * El total se guarda en la tabla carga_creditos y se actualiza en la misma transacción que la
+ * inscripción con un UPDATE condicional por clave primaria, que es a la vez la comprobación del
+ * límite: no hace falta sumar los créditos de todas las inscripciones en cada alta.
+ * Una copia en memoria permite rechazar al momento las inscripciones que superan el límite.
+ * Debe invocarse dentro de una transacción.
+ */
+@Component
+public class ContadorCreditos {
+
+    // Suma solo si el total no supera el máximo; no devuelve filas si se supera o si no existe el registro
+    private static final String SUMAR_SI_CABE = "UPDATE carga_creditos SET creditos = creditos + ? "
+        + "WHERE estudiante_id = ? AND creditos + ? <= ? RETURNING creditos";
+    private static final String RESTAR = "UPDATE carga_creditos SET creditos = GREATEST(creditos - ?, 0) "
+        + "WHERE estudiante_id = ? RETURNING creditos";
+
+    private final CargaCreditosRepository cargaCreditosRepository;
+    private final InscripcionRepository inscripcionRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final int maxCreditos;
+    private final Cache<Long, Integer> cargas;
+
+    public ContadorCreditos(CargaCreditosRepository cargaCreditosRepository,
+                            InscripcionRepository inscripcionRepository,
+                            JdbcTemplate jdbcTemplate,
+                            @Value("${app.inscripcion.max-creditos:30}") int maxCreditos,
+                            @Value("${app.inscripcion.creditos.max-estudiantes:10000}") long maxEstudiantes,
+                            @Value("${app.inscripcion.creditos.ttl:10m}") Duration ttl) {
+        this.cargaCreditosRepository = cargaCreditosRepository;
+        this.inscripcionRepository = inscripcionRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxCreditos = maxCreditos;
+        this.cargas = Caffeine.newBuilder()
+            .maximumSize(maxEstudiantes)
+            .expireAfterWrite(ttl)
+            .build();
+    }
+
+    /**
+     * Suma los créditos de una materia a la carga del estudiante.
+     * @throws ReglaNegocioException si la carga resultante supera el máximo permitido
+     */
+    public void sumar(Long estudianteId, int creditos) {
+        Integer enMemoria = cargas.getIfPresent(estudianteId);
+        // La copia en memoria puede haber quedado alta si otro nodo restó créditos: se confirma en la base de datos
+        if (enMemoria != null && enMemoria + creditos > maxCreditos) {
+            int actual = cargaActual(estudianteId);
+            cargas.put(estudianteId, actual);
+            if (actual + creditos > maxCreditos) {
+                throw limiteSuperado(actual, creditos);
+            }
+        }
+        Integer nueva = actualizar(SUMAR_SI_CABE, creditos, estudianteId, creditos, maxCreditos);
+        if (nueva == null) {
+            // No existe el registro todavía o se supera el límite
+            int actual = cargaActual(estudianteId);
+            if (actual + creditos > maxCreditos) {
+                cargas.put(estudianteId, actual);
+                throw limiteSuperado(actual, creditos);
+            }
+            nueva = actualizar(SUMAR_SI_CABE, creditos, estudianteId, creditos, maxCreditos);
+        }
+        publicar(estudianteId, nueva);
+    }
+
+    /**
+     * Resta los créditos de una materia que deja de estar en curso.
+     */
+    public void restar(Long estudianteId, int creditos) {
+        Integer nueva = actualizar(RESTAR, creditos, estudianteId);
+        if (nueva == null) {
+            // Sin registro: se crea desde las inscripciones, que ya no incluyen la materia restada
+            nueva = cargaActual(estudianteId);
+        }
+        publicar(estudianteId, nueva);
+    }
+
+    /**
+     * Ajusta la carga de los estudiantes que cursan una materia cuyos créditos cambiaron.
+     */
+    public void ajustarMateria(Long materiaId, int diferencia) {
+        if (diferencia != 0) {
+            cargaCreditosRepository.ajustarPorMateria(materiaId, diferencia);
+            TrasCommit.ejecutar(cargas::invalidateAll);
+        }
+    }
+
+    /**
+     * Descarta la copia en memoria de un estudiante (tras una corrección de la reconciliación).
+     */
+    public void invalidar(Long estudianteId) {
+        cargas.invalidate(estudianteId);
+    }
+
+    public int getMaxCreditos() {
+        return maxCreditos;
+    }
+
+    private Integer actualizar(String sql, Object... parametros) {
+        return jdbcTemplate.query(sql, rs -> rs.next() ? rs.getInt(1) : null, parametros);
+    }
+
+    // La copia en memoria refleja el valor confirmado, por eso se actualiza tras el commit
+    private void publicar(Long estudianteId, Integer carga) {
+        if (carga != null) {
+            TrasCommit.ejecutar(() -> cargas.put(estudianteId, carga));
+        }
+    }
+
+    // Lee la carga guardada; si el estudiante aún no tiene registro, la calcula desde sus inscripciones
+    private int cargaActual(Long estudianteId) {
+        return cargaCreditosRepository.findById(estudianteId)
+            .map(CargaCreditos::getCreditos)
+            .orElseGet(() -> {
+                int creditos = (int) inscripcionRepository.sumarCreditosEnCurso(estudianteId);
+                cargaCreditosRepository.saveAndFlush(new CargaCreditos(estudianteId, creditos));
+                return creditos;
+            });
+    }
+
+    private ReglaNegocioException limiteSuperado(int actual, int creditos) {
+        return new ReglaNegocioException("Se supera el máximo de " + maxCreditos + " créditos por periodo: el estudiante tiene "
+            + actual + " y la materia suma " + creditos);
+    }
+}
@@ -0,0 +1,109 @@
+package com.universidad.inscripcion;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Contador de cupos de una materia repartido en franjas independientes.
+ * El cupo total se divide entre las franjas y cada reserva intenta primero una franja elegida
+ * al azar y luego las demás, con CAS sobre contadores distintos: las inscripciones concurrentes
+ * a la misma materia no compiten por una única variable ni por la fila de la materia.
+ * La suma de los ocupados nunca supera la suma de los cupos de las franjas.
+ */
+public class ContadorCupo {
+
+    private final AtomicInteger[] ocupados;
+    private final AtomicInteger[] cupos;
+
+    public ContadorCupo(int cupo, int ocupadosIniciales, int franjas) {
+        int n = Math.max(1, Math.min(franjas, cupo));
+        this.ocupados = new AtomicInteger[n];
+        this.cupos = new AtomicInteger[n];
+        for (int i = 0; i < n; i++) {
+            ocupados[i] = new AtomicInteger();
+            cupos[i] = new AtomicInteger();
+        }
+        redimensionar(cupo);
+        ajustar(ocupadosIniciales);
+    }
+
+    /**
+     * Reserva un cupo si queda alguno libre en cualquiera de las franjas.
+     */
+    public boolean reservar() {
+        int n = ocupados.length;
+        int inicio = ThreadLocalRandom.current().nextInt(n);
+        for (int k = 0; k < n; k++) {
+            int i = (inicio + k) % n;
+            AtomicInteger franja = ocupados[i];
+            int actual;
+            while ((actual = franja.get()) < cupos[i].get()) {
+                if (franja.compareAndSet(actual, actual + 1)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Libera un cupo de cualquier franja que tenga alguno ocupado.
+     */
+    public void liberar() {
+        int n = ocupados.length;
+        int inicio = ThreadLocalRandom.current().nextInt(n);
+        for (int k = 0; k < n; k++) {
+            AtomicInteger franja = ocupados[(inicio + k) % n];
+            int actual;
+            while ((actual = franja.get()) > 0) {
+                if (franja.compareAndSet(actual, actual - 1)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Suma (o resta, si es negativo) cupos ocupados; lo usa la carga inicial.
+     * Los ocupados que no caben en ninguna franja se acumulan en la primera, que queda llena.
+     */
+    public void ajustar(int diferencia) {
+        for (; diferencia > 0; diferencia--) {
+            if (!reservar()) {
+                ocupados[0].addAndGet(diferencia);
+                return;
+            }
+        }
+        for (; diferencia < 0; diferencia++) {
+            liberar();
+        }
+    }
+
+    /**
+     * Reparte un nuevo cupo total entre las franjas. Si el nuevo cupo es menor que los ocupados,
+     * no se anula ninguna reserva: simplemente no se admiten más hasta que se liberen cupos.
+     * Al ampliarlo ninguna franja pierde cupos, así la suma de ocupados sigue sin superar el total.
+     */
+    public void redimensionar(int cupo) {
+        int n = cupos.length;
+        for (int i = 0; i < n; i++) {
+            cupos[i].set(cupo / n + (i < cupo % n ? 1 : 0));
+        }
+    }
+
+    public int getOcupados() {
+        int total = 0;
+        for (AtomicInteger franja : ocupados) {
+            total += franja.get();
+        }
+        return total;
+    }
+
+    public int getCupo() {
+        int total = 0;
+        for (AtomicInteger franja : cupos) {
+            total += franja.get();
+        }
+        return total;
+    }
+}
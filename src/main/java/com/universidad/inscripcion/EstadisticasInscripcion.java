@@ -0,0 +1,206 @@
+package com.universidad.inscripcion;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.universidad.conexiones.ClasePool;
+import com.universidad.conexiones.SeleccionPool;
+import com.universidad.dto.EstadisticaInscripcionDTO;
+import com.universidad.model.Inscripcion.EstadoInscripcion;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Número de inscripciones por materia y estado, compartido por todos los nodos en la tabla estadistica_inscripcion.
+ * <ul>
+ *   <li>Los servicios aplican las altas y los cambios de estado después del commit sobre incrementos en memoria
+ *       ({@link LongAdder}), sin escribir en la base de datos en cada inscripción.</li>
+ *   <li>Los incrementos se vuelcan por lotes sumándolos a la tabla (cantidad = cantidad + incremento), así
+ *       cada nodo aporta solo lo que atendió y ninguno sobrescribe lo que volcaron los demás. Cada volcado es
+ *       una transacción en el pool de lotes: si falla no queda aplicado en parte y se reintenta entero. Los
+ *       incrementos pendientes se vuelcan también al detener el nodo.</li>
+ *   <li>La tabla parte del conteo de las inscripciones (migración V5) y las consultas se responden desde ella,
+ *       con el retraso de un volcado como máximo.</li>
+ *   <li>Los incrementos de un nodo que se cae sin detenerse se pierden: un recuento programado vuelve a
+ *       calcular la tabla desde las inscripciones. Un bloqueo consultivo lo limita a un nodo a la vez y
+ *       espera a los volcados en curso, que toman el mismo bloqueo en modo compartido.</li>
+ * </ul>
+ * Lo que otros nodos tengan sin volcar al recontar ya está en el recuento y se suma de nuevo en su
+ * siguiente volcado (como mucho un intervalo de volcado de actividad); por eso el recuento se programa
+ * en horas de poca actividad.
+ */
+@Component
+public class EstadisticasInscripcion {
+
+    private static final Logger logger = LoggerFactory.getLogger(EstadisticasInscripcion.class);
+
+    private static final EstadoInscripcion[] ESTADOS = EstadoInscripcion.values();
+
+    private static final String CONSULTAR = "SELECT materia_id, estado, cantidad FROM estadistica_inscripcion";
+    private static final String CONSULTAR_MATERIA = CONSULTAR + " WHERE materia_id = ?";
+    private static final String VOLCAR = "INSERT INTO estadistica_inscripcion (materia_id, estado, cantidad, actualizado) VALUES (?, ?, ?, ?) "
+        + "ON CONFLICT (materia_id, estado) DO UPDATE SET cantidad = estadistica_inscripcion.cantidad + EXCLUDED.cantidad, "
+        + "actualizado = EXCLUDED.actualizado";
+    private static final String BLOQUEAR_VOLCADO = "SELECT pg_advisory_xact_lock_shared(hashtext('estadistica_inscripcion'))";
+    private static final String BLOQUEAR_TABLA = "SELECT pg_advisory_xact_lock(hashtext('estadistica_inscripcion'))";
+    private static final String RESERVAR_RECUENTO = "SELECT pg_try_advisory_xact_lock(hashtext('estadistica_inscripcion.recuento'))";
+    private static final String VACIAR = "DELETE FROM estadistica_inscripcion";
+    // La misma consulta de la migración V5
+    private static final String RECONTAR = "INSERT INTO estadistica_inscripcion (materia_id, estado, cantidad, actualizado) "
+        + "SELECT materia_id, estado, count(*), localtimestamp FROM inscripciones WHERE estado IS NOT NULL GROUP BY materia_id, estado";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    // materia -> incremento pendiente de volcar por estado, indexado por el ordinal de EstadoInscripcion
+    private final Map<Long, LongAdder[]> incrementos = new ConcurrentHashMap<>();
+
+    public EstadisticasInscripcion(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Registra, después del commit, una nueva inscripción.
+     */
+    public void registrarAlta(Long materiaId, EstadoInscripcion estado) {
+        TrasCommit.ejecutar(() -> aplicar(materiaId, null, estado));
+    }
+
+    /**
+     * Registra, después del commit, que una inscripción pasó de un estado a otro.
+     */
+    public void registrarCambio(Long materiaId, EstadoInscripcion anterior, EstadoInscripcion nuevo) {
+        if (anterior != nuevo) {
+            TrasCommit.ejecutar(() -> aplicar(materiaId, anterior, nuevo));
+        }
+    }
+
+    public EstadisticaInscripcionDTO obtener(Long materiaId) {
+        long[] cantidades = new long[ESTADOS.length];
+        jdbcTemplate.query(CONSULTAR_MATERIA, rs -> {
+            cantidades[EstadoInscripcion.valueOf(rs.getString(2)).ordinal()] = rs.getLong(3);
+        }, materiaId);
+        return aDTO(materiaId, cantidades);
+    }
+
+    public List<EstadisticaInscripcionDTO> obtenerTodas() {
+        Map<Long, long[]> porMateria = new HashMap<>();
+        jdbcTemplate.query(CONSULTAR, rs -> {
+            long[] cantidades = porMateria.computeIfAbsent(rs.getLong(1), id -> new long[ESTADOS.length]);
+            cantidades[EstadoInscripcion.valueOf(rs.getString(2)).ordinal()] = rs.getLong(3);
+        });
+        List<EstadisticaInscripcionDTO> resultado = new ArrayList<>(porMateria.size());
+        porMateria.forEach((materiaId, cantidades) -> resultado.add(aDTO(materiaId, cantidades)));
+        resultado.sort(Comparator.comparing(EstadisticaInscripcionDTO::getMateriaId));
+        return resultado;
+    }
+
+    @Scheduled(fixedDelayString = "${app.inscripcion.estadisticas.volcado-ms:10000}")
+    public void volcar() {
+        if (incrementos.isEmpty()) {
+            return;
+        }
+        Timestamp ahora = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> lote = new ArrayList<>();
+        for (Map.Entry<Long, LongAdder[]> entrada : incrementos.entrySet()) {
+            LongAdder[] porEstado = entrada.getValue();
+            for (EstadoInscripcion estado : ESTADOS) {
+                long incremento = porEstado[estado.ordinal()].sumThenReset();
+                if (incremento != 0) {
+                    lote.add(new Object[] {entrada.getKey(), estado.name(), incremento, ahora});
+                }
+            }
+        }
+        if (lote.isEmpty()) {
+            return;
+        }
+        try {
+            SeleccionPool.en(ClasePool.LOTES, () -> transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.execute(BLOQUEAR_VOLCADO);
+                jdbcTemplate.batchUpdate(VOLCAR, lote);
+            }));
+        } catch (RuntimeException e) {
+            // Nada del lote quedó aplicado: los incrementos vuelven a quedar pendientes y se reintentan en el siguiente volcado
+            for (Object[] fila : lote) {
+                incrementos.computeIfAbsent((Long) fila[0], id -> nuevosContadores())[EstadoInscripcion.valueOf((String) fila[1]).ordinal()]
+                    .add((Long) fila[2]);
+            }
+            logger.warn("No se pudieron volcar las estadísticas de inscripción: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void volcarAlDetener() {
+        volcar();
+    }
+
+    @Scheduled(cron = "${app.inscripcion.estadisticas.recuento.cron:0 45 3 * * *}")
+    public void recontarProgramado() {
+        if (recontar()) {
+            logger.info("Estadísticas de inscripción recalculadas desde las inscripciones");
+        }
+    }
+
+    /**
+     * Vuelve a calcular estadistica_inscripcion desde las inscripciones, después de volcar lo pendiente en este nodo.
+     * @return false si otro nodo está haciendo el recuento
+     */
+    public boolean recontar() {
+        volcar();
+        return Boolean.TRUE.equals(SeleccionPool.en(ClasePool.LOTES, () -> transactionTemplate.execute(status -> {
+            if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(RESERVAR_RECUENTO, Boolean.class))) {
+                return false;
+            }
+            jdbcTemplate.execute(BLOQUEAR_TABLA);
+            jdbcTemplate.update(VACIAR);
+            jdbcTemplate.update(RECONTAR);
+            return true;
+        })));
+    }
+
+    private void aplicar(Long materiaId, EstadoInscripcion anterior, EstadoInscripcion nuevo) {
+        LongAdder[] porEstado = incrementos.computeIfAbsent(materiaId, id -> nuevosContadores());
+        if (anterior != null) {
+            porEstado[anterior.ordinal()].decrement();
+        }
+        porEstado[nuevo.ordinal()].increment();
+    }
+
+    private static LongAdder[] nuevosContadores() {
+        LongAdder[] porEstado = new LongAdder[ESTADOS.length];
+        for (int i = 0; i < porEstado.length; i++) {
+            porEstado[i] = new LongAdder();
+        }
+        return porEstado;
+    }
+
+    private static EstadisticaInscripcionDTO aDTO(Long materiaId, long[] cantidades) {
+        long total = 0;
+        for (long cantidad : cantidades) {
+            total += cantidad;
+        }
+        return EstadisticaInscripcionDTO.builder()
+            .materiaId(materiaId)
+            .pendientes(cantidades[EstadoInscripcion.PENDIENTE.ordinal()])
+            .aprobadas(cantidades[EstadoInscripcion.APROBADA.ordinal()])
+            .rechazadas(cantidades[EstadoInscripcion.RECHAZADA.ordinal()])
+            .canceladas(cantidades[EstadoInscripcion.CANCELADA.ordinal()])
+            .total(total)
+            .build();
+    }
+}
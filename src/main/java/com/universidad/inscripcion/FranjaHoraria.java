@@ -0,0 +1,45 @@
+package com.universidad.inscripcion;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Franja semanal ocupada por una materia, expresada también en minutos desde el lunes 00:00
+ * para poder compararla como un intervalo semiabierto [inicio, fin).
+ */
+@Getter
+@AllArgsConstructor
+public class FranjaHoraria {
+
+    private static final int MINUTOS_DIA = 24 * 60;
+
+    private final Long materiaId;
+    private final String nombreMateria;
+    private final DayOfWeek diaSemana;
+    private final LocalTime horaInicio;
+    private final LocalTime horaFin;
+
+    public int inicioSemanal() {
+        return (diaSemana.getValue() - 1) * MINUTOS_DIA + horaInicio.getHour() * 60 + horaInicio.getMinute();
+    }
+
+    public int finSemanal() {
+        return (diaSemana.getValue() - 1) * MINUTOS_DIA + horaFin.getHour() * 60 + horaFin.getMinute();
+    }
+
+    public int duracion() {
+        return finSemanal() - inicioSemanal();
+    }
+
+    public boolean seSolapaCon(FranjaHoraria otra) {
+        return inicioSemanal() < otra.finSemanal() && otra.inicioSemanal() < finSemanal();
+    }
+
+    @Override
+    public String toString() {
+        return nombreMateria + " (" + diaSemana + " " + horaInicio + "-" + horaFin + ")";
+    }
+}
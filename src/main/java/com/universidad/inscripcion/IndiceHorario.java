@@ -0,0 +1,62 @@
+package com.universidad.inscripcion;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Índice de intervalos con las franjas ocupadas por un estudiante.
+ * Las franjas se ordenan por inicio y se guarda la duración máxima: una franja que empieza antes
+ * de (inicio - duración máxima) no puede solaparse con la consultada, así que basta recorrer el
+ * rango (inicio - duración máxima, fin) del árbol. La consulta es O(log n + k), donde k es el
+ * número de franjas de ese rango (pocas, ya que las franjas de un estudiante no se solapan).
+ */
+public class IndiceHorario {
+
+    // inicio semanal (minutos) -> franjas que empiezan en ese minuto
+    private final TreeMap<Integer, List<FranjaHoraria>> porInicio = new TreeMap<>();
+    private int duracionMaxima;
+
+    public IndiceHorario(List<FranjaHoraria> franjas) {
+        franjas.forEach(this::agregar);
+    }
+
+    public synchronized void agregar(FranjaHoraria franja) {
+        porInicio.computeIfAbsent(franja.inicioSemanal(), k -> new ArrayList<>(1)).add(franja);
+        duracionMaxima = Math.max(duracionMaxima, franja.duracion());
+    }
+
+    /**
+     * Quita todas las franjas de una materia (al cancelar la inscripción).
+     * La duración máxima se conserva: sobrestimarla solo amplía el rango recorrido.
+     */
+    public synchronized void quitarMateria(Long materiaId) {
+        Iterator<Map.Entry<Integer, List<FranjaHoraria>>> it = porInicio.entrySet().iterator();
+        while (it.hasNext()) {
+            List<FranjaHoraria> franjas = it.next().getValue();
+            franjas.removeIf(f -> f.getMateriaId().equals(materiaId));
+            if (franjas.isEmpty()) {
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Primera franja ocupada que se solapa con la dada, si existe.
+     */
+    public synchronized Optional<FranjaHoraria> buscarConflicto(FranjaHoraria franja) {
+        int inicio = franja.inicioSemanal();
+        int fin = franja.finSemanal();
+        for (List<FranjaHoraria> candidatas : porInicio.subMap(inicio - duracionMaxima, false, fin, false).values()) {
+            for (FranjaHoraria candidata : candidatas) {
+                if (candidata.finSemanal() > inicio) {
+                    return Optional.of(candidata);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,147 @@
+package com.universidad.inscripcion;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.universidad.model.HorarioClase;
+import com.universidad.model.Materia;
+import com.universidad.repository.InscripcionRepository;
+import com.universidad.validation.ReglaNegocioException;
+
+/**
+ * Índices de horario por estudiante, construidos a demanda con una sola consulta sobre sus
+ * inscripciones vigentes y guardados en memoria. Las inscripciones hechas en este nodo se
+ * aplican al índice tras el commit; los cambios hechos en otros nodos se ven al expirar la entrada.
+ */
+@Component
+public class IndiceHorarios {
+
+    private final InscripcionRepository inscripcionRepository;
+    private final Cache<Long, IndiceHorario> indices;
+
+    public IndiceHorarios(InscripcionRepository inscripcionRepository,
+                          @Value("${app.inscripcion.horarios.max-estudiantes:10000}") long maxEstudiantes,
+                          @Value("${app.inscripcion.horarios.ttl:10m}") Duration ttl) {
+        this.inscripcionRepository = inscripcionRepository;
+        this.indices = Caffeine.newBuilder()
+            .maximumSize(maxEstudiantes)
+            .expireAfterWrite(ttl)
+            .build();
+    }
+
+    /**
+     * Comprueba que los horarios de la materia no se solapen con los de las materias
+     * en las que el estudiante ya está inscrito.
+     * @throws ReglaNegocioException si hay un conflicto de horario
+     */
+    public void verificarSinConflictos(Long estudianteId, Materia materia) {
+        List<FranjaHoraria> nuevas = franjas(materia);
+        if (nuevas.isEmpty()) {
+            return;
+        }
+        IndiceHorario indice = indice(estudianteId);
+        for (FranjaHoraria nueva : nuevas) {
+            Optional<FranjaHoraria> conflicto = indice.buscarConflicto(nueva);
+            if (conflicto.isPresent()) {
+                throw new ReglaNegocioException("Conflicto de horario: " + nueva + " se solapa con " + conflicto.get());
+            }
+        }
+    }
+
+    /**
+     * Indica si algún horario de la materia se solapa con las materias en curso del estudiante.
+     */
+    public boolean tieneConflicto(Long estudianteId, Materia materia) {
+        List<FranjaHoraria> nuevas = franjas(materia);
+        if (nuevas.isEmpty()) {
+            return false;
+        }
+        IndiceHorario indice = indice(estudianteId);
+        return nuevas.stream().anyMatch(nueva -> indice.buscarConflicto(nueva).isPresent());
+    }
+
+    /**
+     * Construye con una sola consulta los índices de los estudiantes que aún no están en memoria,
+     * antes de verificar un lote de inscripciones en la materia. No hace nada si la materia no tiene horarios.
+     */
+    public void precargar(Materia materia, Collection<Long> estudianteIds) {
+        if (!franjas(materia).isEmpty()) {
+            indices.getAll(estudianteIds, this::cargar);
+        }
+    }
+
+    /**
+     * Añade al índice los horarios de una nueva inscripción, después del commit.
+     */
+    public void registrarInscripcion(Long estudianteId, Materia materia) {
+        List<FranjaHoraria> nuevas = franjas(materia);
+        TrasCommit.ejecutar(() -> {
+            IndiceHorario indice = indices.getIfPresent(estudianteId);
+            if (indice != null) {
+                nuevas.forEach(indice::agregar);
+            }
+        });
+    }
+
+    /**
+     * Quita del índice los horarios de una inscripción que deja de estar vigente, después del commit.
+     */
+    public void quitarInscripcion(Long estudianteId, Long materiaId) {
+        TrasCommit.ejecutar(() -> {
+            IndiceHorario indice = indices.getIfPresent(estudianteId);
+            if (indice != null) {
+                indice.quitarMateria(materiaId);
+            }
+        });
+    }
+
+    /**
+     * Descarta todos los índices; se usa cuando cambian los horarios de una materia,
+     * ya que no se sabe qué estudiantes la tienen.
+     */
+    public void invalidarTodo() {
+        TrasCommit.ejecutar(indices::invalidateAll);
+    }
+
+    private Map<Long, IndiceHorario> cargar(Set<? extends Long> estudianteIds) {
+        Map<Long, List<FranjaHoraria>> franjas = new HashMap<>();
+        for (Long estudianteId : estudianteIds) {
+            franjas.put(estudianteId, new ArrayList<>());
+        }
+        for (Object[] fila : inscripcionRepository.findFranjasVigentesByEstudianteIds(List.copyOf(estudianteIds))) {
+            franjas.get((Long) fila[0]).add(new FranjaHoraria((Long) fila[1], (String) fila[2],
+                (DayOfWeek) fila[3], (LocalTime) fila[4], (LocalTime) fila[5]));
+        }
+        Map<Long, IndiceHorario> resultado = new HashMap<>();
+        franjas.forEach((estudianteId, lista) -> resultado.put(estudianteId, new IndiceHorario(lista)));
+        return resultado;
+    }
+
+    private IndiceHorario indice(Long estudianteId) {
+        return indices.get(estudianteId,
+            id -> new IndiceHorario(inscripcionRepository.findFranjasVigentesByEstudianteId(id)));
+    }
+
+    private List<FranjaHoraria> franjas(Materia materia) {
+        List<HorarioClase> horarios = materia.getHorarios();
+        if (horarios == null) {
+            return List.of();
+        }
+        return horarios.stream()
+            .map(h -> new FranjaHoraria(materia.getId(), materia.getNombreMateria(), h.getDiaSemana(), h.getHoraInicio(), h.getHoraFin()))
+            .toList();
+    }
+}
@@ -0,0 +1,116 @@
+package com.universidad.inscripcion;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import com.universidad.dto.InscripcionDTO;
+import com.universidad.dto.ListaEsperaDTO;
+import com.universidad.model.SolicitudListaEspera;
+import com.universidad.repository.ListaEsperaRepository;
+import com.universidad.service.IInscripcionService;
+import com.universidad.validation.CupoAgotadoException;
+import com.universidad.validation.ReglaNegocioException;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+
+/**
+ * Lista de espera por materia (opcional, app.inscripcion.lista-espera.habilitada).
+ * Cuando una cancelación libera un cupo, un hilo dedicado inscribe a la primera solicitud de
+ * la cola con las mismas validaciones que una inscripción normal. Si el cupo ya fue tomado,
+ * la solicitud sigue esperando; si el estudiante no puede inscribirse por otro motivo
+ * (horario, créditos, ya inscrito), se descarta y se prueba con la siguiente.
+ */
+@Component
+public class ListaEspera {
+
+    private static final Logger logger = LoggerFactory.getLogger(ListaEspera.class);
+
+    private final ListaEsperaRepository listaEsperaRepository;
+    private final IInscripcionService inscripcionService;
+    private final boolean habilitada;
+    // Un solo hilo: las promociones de una materia se atienden en orden y sin competir entre sí
+    private final ExecutorService promotor = Executors.newSingleThreadExecutor(r -> new Thread(r, "lista-espera"));
+
+    public ListaEspera(ListaEsperaRepository listaEsperaRepository,
+                       @Lazy IInscripcionService inscripcionService,
+                       @Value("${app.inscripcion.lista-espera.habilitada:false}") boolean habilitada) {
+        this.listaEsperaRepository = listaEsperaRepository;
+        this.inscripcionService = inscripcionService;
+        this.habilitada = habilitada;
+    }
+
+    public ListaEsperaDTO solicitar(Long estudianteId, Long materiaId) {
+        if (!habilitada) {
+            throw new ReglaNegocioException("La lista de espera no está habilitada");
+        }
+        if (listaEsperaRepository.existsByMateriaIdAndEstudianteId(materiaId, estudianteId)) {
+            throw new ReglaNegocioException("El estudiante ya está en la lista de espera de esta materia");
+        }
+        SolicitudListaEspera solicitud = listaEsperaRepository.save(SolicitudListaEspera.builder()
+            .estudianteId(estudianteId)
+            .materiaId(materiaId)
+            .fechaSolicitud(LocalDateTime.now())
+            .build());
+        return ListaEsperaDTO.builder()
+            .id(solicitud.getId())
+            .estudianteId(estudianteId)
+            .materiaId(materiaId)
+            .fechaSolicitud(solicitud.getFechaSolicitud())
+            .posicion(listaEsperaRepository.countByMateriaIdAndIdLessThanEqual(materiaId, solicitud.getId()))
+            .build();
+    }
+
+    public long enEspera(Long materiaId) {
+        return habilitada ? listaEsperaRepository.countByMateriaId(materiaId) : 0;
+    }
+
+    /**
+     * Programa la promoción de la lista de espera de la materia tras el commit de la cancelación.
+     */
+    public void promoverTrasCommit(Long materiaId) {
+        if (habilitada) {
+            TrasCommit.ejecutar(() -> promotor.execute(() -> promover(materiaId)));
+        }
+    }
+
+    private void promover(Long materiaId) {
+        Optional<SolicitudListaEspera> siguiente;
+        while ((siguiente = listaEsperaRepository.findFirstByMateriaIdOrderByIdAsc(materiaId)).isPresent()) {
+            SolicitudListaEspera solicitud = siguiente.get();
+            try {
+                inscripcionService.crear(InscripcionDTO.builder()
+                    .estudianteId(solicitud.getEstudianteId())
+                    .materiaId(materiaId)
+                    .fechaInscripcion(LocalDate.now())
+                    .build());
+                listaEsperaRepository.delete(solicitud);
+                logger.info("Estudiante {} inscrito en la materia {} desde la lista de espera", solicitud.getEstudianteId(), materiaId);
+                return;
+            } catch (CupoAgotadoException e) {
+                return; // Otro estudiante tomó el cupo; la solicitud conserva su lugar
+            } catch (ReglaNegocioException | EntityNotFoundException e) {
+                logger.info("Solicitud de lista de espera {} descartada: {}", solicitud.getId(), e.getMessage());
+                listaEsperaRepository.delete(solicitud);
+            } catch (RuntimeException e) {
+                // Error técnico: la solicitud se conserva y se reintenta con la próxima cancelación
+                logger.warn("No se pudo promover la lista de espera de la materia {}: {}", materiaId, e.getMessage());
+                return;
+            }
+        }
+    }
+
+    @PreDestroy
+    public void detener() {
+        promotor.shutdown();
+    }
+}
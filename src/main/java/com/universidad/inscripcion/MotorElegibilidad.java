@@ -0,0 +1,230 @@
+package com.universidad.inscripcion;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.universidad.model.Materia;
+import com.universidad.repository.InscripcionRepository;
+import com.universidad.repository.MateriaRepository;
+import com.universidad.validation.ReglaNegocioException;
+
+/**
+ * Motor de elegibilidad por prerequisitos basado en conjuntos de bits.
+ * Cada materia recibe un ordinal denso; las materias aprobadas de un estudiante y los
+ * prerequisitos de una materia se guardan como {@link BitSet} indexados por ese ordinal.
+ * Un estudiante es elegible si (prerequisitos AND NOT aprobadas) queda vacío.
+ * Los conjuntos se cargan a demanda desde la base de datos y nunca se modifican una vez
+ * publicados: los cambios reemplazan el conjunto por una copia, así las lecturas no se bloquean.
+ * <p>
+ * Los conjuntos en memoria son de este nodo: hasta que caducan (app.inscripcion.elegibilidad.ttl) no ven
+ * las aprobaciones ni los cambios de prerequisitos hechos en otro nodo. Sirven para listar las materias
+ * disponibles; al inscribir, {@link #verificar} y {@link #leerPrerequisitos} leen de la base de datos.
+ */
+@Component
+public class MotorElegibilidad {
+
+    private final InscripcionRepository inscripcionRepository;
+    private final MateriaRepository materiaRepository;
+
+    // id de materia -> ordinal denso; los ordinales no se reutilizan
+    private final Map<Long, Integer> ordinales = new ConcurrentHashMap<>();
+    private final AtomicInteger siguienteOrdinal = new AtomicInteger();
+
+    private final Cache<Long, BitSet> aprobadasPorEstudiante;
+    private final Cache<Long, BitSet> prerequisitosPorMateria;
+
+    public MotorElegibilidad(InscripcionRepository inscripcionRepository,
+                             MateriaRepository materiaRepository,
+                             @Value("${app.inscripcion.elegibilidad.max-estudiantes:10000}") long maxEstudiantes,
+                             @Value("${app.inscripcion.elegibilidad.ttl:10m}") Duration ttl) {
+        this.inscripcionRepository = inscripcionRepository;
+        this.materiaRepository = materiaRepository;
+        this.aprobadasPorEstudiante = Caffeine.newBuilder()
+            .maximumSize(maxEstudiantes)
+            .expireAfterWrite(ttl)
+            .build();
+        this.prerequisitosPorMateria = Caffeine.newBuilder()
+            .expireAfterWrite(ttl)
+            .build();
+    }
+
+    /**
+     * Prerequisitos de la materia y los que de ellos aprobó cada estudiante, leídos de la base de datos.
+     */
+    public static final class Prerequisitos {
+
+        // id de prerequisito -> nombre, en el orden de la consulta
+        private final Map<Long, String> nombres;
+        private final Map<Long, Set<Long>> aprobadosPorEstudiante;
+
+        private Prerequisitos(Map<Long, String> nombres, Map<Long, Set<Long>> aprobadosPorEstudiante) {
+            this.nombres = nombres;
+            this.aprobadosPorEstudiante = aprobadosPorEstudiante;
+        }
+
+        /**
+         * @throws ReglaNegocioException con los prerequisitos que faltan al estudiante
+         */
+        public void verificar(Long estudianteId) {
+            Set<Long> aprobados = aprobadosPorEstudiante.getOrDefault(estudianteId, Set.of());
+            String faltantes = nombres.entrySet().stream()
+                .filter(p -> !aprobados.contains(p.getKey()))
+                .map(Map.Entry::getValue)
+                .collect(Collectors.joining(", "));
+            if (!faltantes.isEmpty()) {
+                throw new ReglaNegocioException("No cumple con los prerequisitos necesarios. Faltan: " + faltantes);
+            }
+        }
+    }
+
+    /**
+     * Comprueba que el estudiante tenga aprobados todos los prerequisitos de la materia, leyendo de la base
+     * de datos. Se llama al inscribir, con la fila del estudiante ya bloqueada.
+     * @throws ReglaNegocioException con los prerequisitos que faltan
+     */
+    public void verificar(Long estudianteId, Materia materia) {
+        leerPrerequisitos(materia.getId(), List.of(estudianteId)).verificar(estudianteId);
+    }
+
+    /**
+     * Lee de la base de datos, con una consulta para los prerequisitos y otra para todo el lote, lo necesario
+     * para verificar las inscripciones de varios estudiantes en la materia. La segunda consulta se omite si la
+     * materia no tiene prerequisitos. Los prerequisitos leídos reemplazan a los que este nodo tenía en memoria.
+     */
+    public Prerequisitos leerPrerequisitos(Long materiaId, Collection<Long> estudianteIds) {
+        Map<Long, String> nombres = new LinkedHashMap<>();
+        for (Object[] prerequisito : materiaRepository.findPrerequisitosConNombre(materiaId)) {
+            nombres.put((Long) prerequisito[0], (String) prerequisito[1]);
+        }
+        prerequisitosPorMateria.put(materiaId, aBits(nombres.keySet()));
+        Map<Long, Set<Long>> aprobados = new HashMap<>();
+        if (!nombres.isEmpty() && !estudianteIds.isEmpty()) {
+            for (Object[] par : inscripcionRepository.findParesAprobadas(estudianteIds, nombres.keySet())) {
+                aprobados.computeIfAbsent((Long) par[0], id -> new HashSet<>()).add((Long) par[1]);
+            }
+        }
+        return new Prerequisitos(nombres, aprobados);
+    }
+
+    public boolean esElegible(Long estudianteId, Long materiaId) {
+        return faltantes(estudianteId, materiaId).isEmpty();
+    }
+
+    /**
+     * Filtra las materias que el estudiante puede cursar: las que no aprobó ni tiene ya
+     * inscritas y cuyos prerequisitos aprobó todos. Los prerequisitos que falten en memoria
+     * se cargan con una sola consulta para todo el catálogo.
+     * @param tomadas ids de las materias con inscripción vigente del estudiante
+     */
+    public List<Materia> filtrarElegibles(Long estudianteId, List<Materia> candidatas, Collection<Long> tomadas) {
+        Map<Long, BitSet> prerequisitos = prerequisitosPorMateria.getAll(
+            candidatas.stream().map(Materia::getId).toList(), this::cargarPrerequisitos);
+        BitSet aprobadas = aprobadas(estudianteId);
+        BitSet excluidas = aBits(tomadas);
+        excluidas.or(aprobadas);
+
+        List<Materia> elegibles = new ArrayList<>();
+        BitSet faltantes = new BitSet();
+        for (Materia materia : candidatas) {
+            if (excluidas.get(ordinal(materia.getId()))) {
+                continue;
+            }
+            faltantes.clear();
+            faltantes.or(prerequisitos.get(materia.getId()));
+            faltantes.andNot(aprobadas);
+            if (faltantes.isEmpty()) {
+                elegibles.add(materia);
+            }
+        }
+        return elegibles;
+    }
+
+    /**
+     * Registra, después del commit, que el estudiante aprobó la materia.
+     */
+    public void registrarAprobada(Long estudianteId, Long materiaId) {
+        int ordinal = ordinal(materiaId);
+        TrasCommit.ejecutar(() -> aprobadasPorEstudiante.asMap().computeIfPresent(estudianteId, (id, aprobadas) -> {
+            BitSet copia = (BitSet) aprobadas.clone();
+            copia.set(ordinal);
+            return copia;
+        }));
+    }
+
+    /**
+     * Registra, después del commit, que una materia aprobada deja de estarlo.
+     */
+    public void quitarAprobada(Long estudianteId, Long materiaId) {
+        int ordinal = ordinal(materiaId);
+        TrasCommit.ejecutar(() -> aprobadasPorEstudiante.asMap().computeIfPresent(estudianteId, (id, aprobadas) -> {
+            BitSet copia = (BitSet) aprobadas.clone();
+            copia.clear(ordinal);
+            return copia;
+        }));
+    }
+
+    /**
+     * Descarta los prerequisitos conocidos de una materia (al modificarla o eliminarla).
+     */
+    public void invalidarMateria(Long materiaId) {
+        TrasCommit.ejecutar(() -> prerequisitosPorMateria.invalidate(materiaId));
+    }
+
+    // Prerequisitos de la materia que el estudiante aún no aprobó
+    private BitSet faltantes(Long estudianteId, Long materiaId) {
+        BitSet prerequisitos = prerequisitosPorMateria.get(materiaId,
+            id -> aBits(materiaRepository.findPrerequisitoIds(id)));
+        if (prerequisitos.isEmpty()) {
+            return prerequisitos;
+        }
+        BitSet faltantes = (BitSet) prerequisitos.clone();
+        faltantes.andNot(aprobadas(estudianteId));
+        return faltantes;
+    }
+
+    private BitSet aprobadas(Long estudianteId) {
+        return aprobadasPorEstudiante.get(estudianteId,
+            id -> aBits(inscripcionRepository.findMateriaIdsAprobadas(id)));
+    }
+
+    // Carga en bloque: se leen todos los pares materia-prerequisito y se devuelven también
+    // los de materias no pedidas, que quedan en memoria para las siguientes consultas
+    private Map<Long, BitSet> cargarPrerequisitos(Set<? extends Long> materiaIds) {
+        Map<Long, BitSet> resultado = new HashMap<>();
+        for (Object[] par : materiaRepository.findParesPrerequisito()) {
+            resultado.computeIfAbsent((Long) par[0], id -> new BitSet()).set(ordinal((Long) par[1]));
+        }
+        for (Long materiaId : materiaIds) {
+            resultado.putIfAbsent(materiaId, new BitSet());
+        }
+        return resultado;
+    }
+
+    private BitSet aBits(Collection<Long> materiaIds) {
+        BitSet bits = new BitSet();
+        for (Long materiaId : materiaIds) {
+            bits.set(ordinal(materiaId));
+        }
+        return bits;
+    }
+
+    private int ordinal(Long materiaId) {
+        return ordinales.computeIfAbsent(materiaId, id -> siguienteOrdinal.getAndIncrement());
+    }
+}
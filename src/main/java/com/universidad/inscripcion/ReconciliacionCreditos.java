@@ -0,0 +1,164 @@
+package com.universidad.inscripcion;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.universidad.conexiones.ClasePool;
+import com.universidad.conexiones.PoolConexiones;
+import com.universidad.conexiones.SeleccionPool;
+import com.universidad.model.CargaCreditos;
+import com.universidad.repository.CargaCreditosRepository;
+import com.universidad.repository.EstudianteRepository;
+import com.universidad.repository.InscripcionRepository;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Tarea periódica que compara la carga de créditos guardada con la suma real de las inscripciones.
+ * El rango de estudiantes se divide en tramos que se comparan en paralelo con dos consultas
+ * agrupadas por tramo; solo los estudiantes con diferencias se corrigen, uno a uno y bajo el
+ * bloqueo del estudiante para no pisar una inscripción concurrente.
+ */
+@Component
+@PoolConexiones(ClasePool.LOTES)
+public class ReconciliacionCreditos {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReconciliacionCreditos.class);
+
+    private static final String RANGO = "SELECT MIN(id), MAX(id) FROM ("
+        + "SELECT estudiante_id AS id FROM inscripciones UNION ALL SELECT estudiante_id FROM carga_creditos) t";
+    private static final String SUMAS_TRAMO = "SELECT i.estudiante_id, SUM(m.creditos) FROM inscripciones i "
+        + "JOIN materia m ON m.id_materia = i.materia_id "
+        + "WHERE i.activo = true AND i.estado = 'PENDIENTE' AND i.estudiante_id BETWEEN ? AND ? "
+        + "GROUP BY i.estudiante_id";
+    private static final String CARGAS_TRAMO = "SELECT estudiante_id, creditos FROM carga_creditos WHERE estudiante_id BETWEEN ? AND ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EstudianteRepository estudianteRepository;
+    private final InscripcionRepository inscripcionRepository;
+    private final CargaCreditosRepository cargaCreditosRepository;
+    private final ContadorCreditos contadorCreditos;
+    private final int tamanoTramo;
+    private final int hilos;
+
+    public ReconciliacionCreditos(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                  EstudianteRepository estudianteRepository, InscripcionRepository inscripcionRepository,
+                                  CargaCreditosRepository cargaCreditosRepository, ContadorCreditos contadorCreditos,
+                                  @Value("${app.inscripcion.creditos.reconciliacion.tamano-tramo:5000}") int tamanoTramo,
+                                  @Value("${app.inscripcion.creditos.reconciliacion.hilos:4}") int hilos) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.estudianteRepository = estudianteRepository;
+        this.inscripcionRepository = inscripcionRepository;
+        this.cargaCreditosRepository = cargaCreditosRepository;
+        this.contadorCreditos = contadorCreditos;
+        this.tamanoTramo = Math.max(1, tamanoTramo);
+        this.hilos = Math.max(1, hilos);
+    }
+
+    @Data
+    @Builder
+    public static class Resultado {
+        private int tramos;
+        private long revisados;
+        private long corregidos;
+        private long duracionMs;
+    }
+
+    @Scheduled(cron = "${app.inscripcion.creditos.reconciliacion.cron:0 30 3 * * *}")
+    public void ejecutarProgramada() {
+        Resultado resultado = reconciliar();
+        if (resultado.getCorregidos() > 0) {
+            logger.warn("Reconciliación de créditos: {} de {} estudiantes corregidos", resultado.getCorregidos(), resultado.getRevisados());
+        } else {
+            logger.info("Reconciliación de créditos sin diferencias ({} estudiantes, {} ms)", resultado.getRevisados(), resultado.getDuracionMs());
+        }
+    }
+
+    public Resultado reconciliar() {
+        long inicio = System.currentTimeMillis();
+        Long[] rango = jdbcTemplate.queryForObject(RANGO, (rs, n) -> new Long[] {(Long) rs.getObject(1), (Long) rs.getObject(2)});
+        if (rango == null || rango[0] == null) {
+            return Resultado.builder().duracionMs(System.currentTimeMillis() - inicio).build();
+        }
+        LongAdder revisados = new LongAdder();
+        LongAdder corregidos = new LongAdder();
+        List<CompletableFuture<Void>> tramos = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(hilos);
+        try {
+            for (long desde = rango[0]; desde <= rango[1]; desde += tamanoTramo) {
+                long d = desde;
+                long h = Math.min(desde + tamanoTramo - 1, rango[1]);
+                tramos.add(CompletableFuture.runAsync(() -> SeleccionPool.en(ClasePool.LOTES, () -> reconciliarTramo(d, h, revisados, corregidos)), executor));
+            }
+            CompletableFuture.allOf(tramos.toArray(CompletableFuture[]::new)).join();
+        } finally {
+            executor.shutdown();
+        }
+        return Resultado.builder()
+            .tramos(tramos.size())
+            .revisados(revisados.sum())
+            .corregidos(corregidos.sum())
+            .duracionMs(System.currentTimeMillis() - inicio)
+            .build();
+    }
+
+    private void reconciliarTramo(long desde, long hasta, LongAdder revisados, LongAdder corregidos) {
+        Map<Long, Integer> sumas = new HashMap<>();
+        jdbcTemplate.query(SUMAS_TRAMO, rs -> {
+            sumas.put(rs.getLong(1), rs.getInt(2));
+        }, desde, hasta);
+        Map<Long, Integer> guardadas = new HashMap<>();
+        jdbcTemplate.query(CARGAS_TRAMO, rs -> {
+            guardadas.put(rs.getLong(1), rs.getInt(2));
+        }, desde, hasta);
+
+        Set<Long> estudiantes = new HashSet<>(sumas.keySet());
+        estudiantes.addAll(guardadas.keySet());
+        revisados.add(estudiantes.size());
+        for (Long estudianteId : estudiantes) {
+            // Un estudiante sin registro se inicializa en su próxima inscripción; no es una diferencia
+            if (guardadas.containsKey(estudianteId)
+                    && !Objects.equals(sumas.getOrDefault(estudianteId, 0), guardadas.get(estudianteId))
+                    && corregir(estudianteId)) {
+                corregidos.increment();
+            }
+        }
+    }
+
+    // Recalcula la carga bajo el bloqueo del estudiante; la diferencia pudo deberse a una inscripción en curso
+    private boolean corregir(Long estudianteId) {
+        Boolean corregido = transactionTemplate.execute(status -> {
+            estudianteRepository.findByIdForUpdate(estudianteId);
+            int real = (int) inscripcionRepository.sumarCreditosEnCurso(estudianteId);
+            CargaCreditos carga = cargaCreditosRepository.findById(estudianteId).orElse(null);
+            if (carga == null || carga.getCreditos() == real) {
+                return false;
+            }
+            logger.warn("Carga de créditos del estudiante {} corregida: {} -> {}", estudianteId, carga.getCreditos(), real);
+            carga.setCreditos(real);
+            return true;
+        });
+        contadorCreditos.invalidar(estudianteId);
+        return Boolean.TRUE.equals(corregido);
+    }
+}
@@ -0,0 +1,68 @@
+package com.universidad.inscripcion;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Ejecuta una modificación en su propia transacción apoyándose en los campos @Version de las entidades:
+ * las lecturas no bloquean filas y, si otra transacción modificó la misma entidad antes del commit,
+ * la operación completa se repite con los datos recién leídos. Los cambios en memoria de cada intento
+ * fallido no se aplican, porque se registran con {@link TrasCommit} o se compensan al hacer rollback.
+ * Si ya hay una transacción activa la operación se ejecuta una sola vez: el conflicto lo resuelve quien
+ * la abrió, ya que repetir solo una parte dejaría el resto de la transacción con datos antiguos.
+ */
+@Component
+public class ReintentoOptimista {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReintentoOptimista.class);
+
+    private final TransactionTemplate transactionTemplate;
+    private final int maxIntentos;
+
+    public ReintentoOptimista(TransactionTemplate transactionTemplate,
+                              @Value("${app.concurrencia.reintentos-optimistas:3}") int maxIntentos) {
+        this.transactionTemplate = transactionTemplate;
+        this.maxIntentos = Math.max(1, maxIntentos);
+    }
+
+    public <T> T ejecutar(Supplier<T> operacion) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return operacion.get();
+        }
+        for (int intento = 1; ; intento++) {
+            try {
+                return transactionTemplate.execute(status -> operacion.get());
+            } catch (OptimisticLockingFailureException e) {
+                if (intento >= maxIntentos) {
+                    throw e;
+                }
+                logger.debug("Conflicto de versión en el intento {} de {}: {}", intento, maxIntentos, e.getMessage());
+                esperar(intento);
+            }
+        }
+    }
+
+    public void ejecutar(Runnable operacion) {
+        ejecutar(() -> {
+            operacion.run();
+            return null;
+        });
+    }
+
+    // Espera creciente y aleatoria para que los escritores en conflicto no vuelvan a coincidir
+    private static void esperar(int intento) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(5, 20L * intento + 5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.universidad.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "avance_academico", uniqueConstraints = @UniqueConstraint(columnNames = {"corrida_id", "estudiante_id"}))
+// Esta clase es la foto del avance académico de un estudiante en una corrida.
+// Se escribe por lotes con JDBC; la entidad solo describe la tabla.
+public class AvanceAcademico {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "corrida_id", nullable = false)
+    private Long corridaId;
+
+    @Column(name = "estudiante_id", nullable = false)
+    private Long estudianteId;
+
+    @Column(name = "materias_aprobadas", nullable = false)
+    private Integer materiasAprobadas;
+
+    @Column(name = "creditos_aprobados", nullable = false)
+    private Integer creditosAprobados;
+
+    @Column(name = "inscripciones_activas", nullable = false) // Inscripciones vigentes en cualquier estado
+    private Integer inscripcionesActivas;
+
+    @Column(name = "creditos_en_curso", nullable = false) // Créditos de las inscripciones pendientes
+    private Integer creditosEnCurso;
+
+    @Column(name = "materias_bloqueadas", nullable = false) // Materias activas no aprobadas con prerequisitos sin aprobar
+    private Integer materiasBloqueadas;
+
+    @Column(name = "prerequisitos_pendientes", nullable = false) // Materias distintas que faltan aprobar para desbloquearlas
+    private Integer prerequisitosPendientes;
+}
@@ -0,0 +1,26 @@
+package com.universidad.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "carga_creditos")
+// Esta clase guarda el total de créditos en curso de cada estudiante (suma de los créditos de sus
+// inscripciones pendientes), mantenido de forma incremental para no recalcularlo en cada inscripción
+public class CargaCreditos {
+
+    @Id
+    @Column(name = "estudiante_id") // Un registro por estudiante
+    private Long estudianteId;
+
+    @Column(name = "creditos", nullable = false) // Créditos en curso del estudiante
+    private Integer creditos;
+}
@@ -0,0 +1,60 @@
+package com.universidad.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "avance_corrida")
+// Esta clase representa una ejecución del cálculo de avance académico de todos los estudiantes.
+// El rango de ids y el tamaño de tramo se fijan al crearla, así los tramos son siempre los mismos
+// y una corrida interrumpida puede reanudarse desde sus tramos pendientes.
+public class CorridaAvance {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "estado", nullable = false)
+    private EstadoCorrida estado;
+
+    @Column(name = "desde_id", nullable = false) // Menor id de estudiante al crear la corrida
+    private Long desdeId;
+
+    @Column(name = "hasta_id", nullable = false) // Mayor id de estudiante al crear la corrida
+    private Long hastaId;
+
+    @Column(name = "tamano_tramo", nullable = false)
+    private Integer tamanoTramo;
+
+    @Column(name = "tramos_total", nullable = false)
+    private Integer tramosTotal;
+
+    @Column(name = "inicio", nullable = false)
+    private LocalDateTime inicio;
+
+    @Column(name = "fin")
+    private LocalDateTime fin;
+
+    public enum EstadoCorrida {
+        EN_CURSO,
+        COMPLETADA,
+        FALLIDA
+    }
+}
@@ -0,0 +1,31 @@
+package com.universidad.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "cupo_materia")
+// Esta clase guarda, por materia, la fila que bloquea el asignador al conceder cupos a un nodo (cupo_concesion).
+// Solo se escribe en cada concesión; la fuente de verdad siguen siendo las inscripciones.
+public class CupoMateria {
+
+    @Id
+    @Column(name = "id_materia")
+    private Long idMateria;
+
+    @Column(name = "ocupados", nullable = false) // Inscripciones en curso contadas en la última concesión
+    private Integer ocupados;
+
+    @Column(name = "actualizado", nullable = false) // Momento de la última concesión
+    private LocalDateTime actualizado;
+}
@@ -16,6 +16,7 @@ import java.util.List;
 @SuperBuilder
 @Entity
 @Table(name = "docente") // Nombre de la tabla en la base de datos  
+@Cacheable // Se lee al asignar materias y cambia poco: caché de segundo nivel (región persona)
 public class Docente extends Persona {
     @Column(name = "nro_empleado", nullable = false, unique = true) // Columna no nula y con valor único    
     private String nroEmpleado;
@@ -0,0 +1,40 @@
+package com.universidad.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "estadistica_inscripcion", uniqueConstraints = @UniqueConstraint(columnNames = {"materia_id", "estado"}))
+// Esta clase guarda el número de inscripciones de cada materia por estado según los contadores en memoria.
+// Se escribe por lotes y de forma periódica; la fuente de verdad siguen siendo las inscripciones.
+public class EstadisticaInscripcion {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "materia_id", nullable = false)
+    private Long materiaId;
+
+    @Column(name = "estado", nullable = false, length = 20)
+    private String estado;
+
+    @Column(name = "cantidad", nullable = false)
+    private Long cantidad;
+
+    @Column(name = "actualizado", nullable = false) // Momento del último volcado
+    private LocalDateTime actualizado;
+}
@@ -30,6 +30,7 @@ import jakarta.persistence.*; // Importa las anotaciones de JPA para la persiste
  */
 @Entity // Anotación que indica que esta clase es una entidad JPA
 @Table(name = "estudiante") // Nombre de la tabla en la base de datos
+@Cacheable(false) // Fuera de la caché de segundo nivel de la jerarquía Persona: se lee con bloqueo al inscribir
 public class Estudiante extends Persona { // Define la clase Estudiante que extiende de Persona
     
     /**
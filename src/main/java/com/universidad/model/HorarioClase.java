@@ -0,0 +1,35 @@
+package com.universidad.model;
+
+import java.io.Serializable;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Embeddable
+// Esta clase representa una franja semanal de clase de una materia (por ejemplo, LUNES 08:00-10:00)
+public class HorarioClase implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "dia_semana", nullable = false, length = 10) // Día de la semana en que se dicta la clase
+    private DayOfWeek diaSemana;
+
+    @Column(name = "hora_inicio", nullable = false) // Hora de inicio de la clase
+    private LocalTime horaInicio;
+
+    @Column(name = "hora_fin", nullable = false) // Hora de fin de la clase (exclusiva)
+    private LocalTime horaFin;
+}
@@ -9,11 +9,13 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
 import jakarta.persistence.Temporal;
 import jakarta.persistence.TemporalType;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -25,7 +27,7 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@Table(name = "inscripciones")
+@Table(name = "inscripciones", indexes = @Index(name = "idx_inscripciones_materia_activo", columnList = "materia_id, activo"))
 public class Inscripcion {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -51,6 +53,9 @@ public class Inscripcion {
     @Builder.Default
     private Boolean activo = true;
 
+    @Version // Detecta cambios concurrentes sobre la misma inscripción sin bloquear su fila
+    private Long version;
+
     public enum EstadoInscripcion {
         PENDIENTE, APROBADA, RECHAZADA, CANCELADA
     }
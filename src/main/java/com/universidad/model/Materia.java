@@ -1,6 +1,9 @@
 package com.universidad.model;
 
 import jakarta.persistence.*;
+
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -21,6 +24,8 @@ import java.util.List;
 @Builder
 @Entity
 @Table(name = "materia") // Nombre de la tabla en la base de datos
+@Cacheable // Se lee en cada inscripción y cambia poco: caché de segundo nivel
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "materia")
 // Esta clase representa una materia en el sistema de gestión de estudiantes
 public class Materia implements Serializable {
     
@@ -56,6 +61,11 @@ public class Materia implements Serializable {
     // El número de créditos de la materia no puede ser nulo
     private Integer creditos;
 
+    @Min(value = 1, message = "El cupo debe ser de al menos 1")
+    @Column(name = "cupo") // Columna opcional: sin valor, la materia no tiene límite de inscritos
+    // Número máximo de estudiantes con la materia en curso
+    private Integer cupo;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "docente_id")
     private Docente docente;
@@ -72,14 +82,24 @@ public class Materia implements Serializable {
         joinColumns = @JoinColumn(name = "id_materia"),
         inverseJoinColumns = @JoinColumn(name = "id_prerequisito") // Nombre de la columna en la tabla inversa
     )
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "materia-prerequisitos")
     private List<Materia> prerequisitos;
 
     /**
      * Lista de materias para las que esta materia es prerequisito.
      */
     @ManyToMany(mappedBy = "prerequisitos")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "materia-es-prerequisito-de") // Lado inverso: se invalida a mano
     private List<Materia> esPrerequisitoDe;
 
+    /**
+     * Franjas semanales en que se dicta la materia.
+     */
+    @ElementCollection
+    @CollectionTable(name = "materia_horario", joinColumns = @JoinColumn(name = "id_materia"))
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "materia-horarios")
+    private List<HorarioClase> horarios;
+
     /**
      * Verifica si agregar la materia con el ID dado como prerequisito formaría un ciclo.
      * @param prerequisitoId ID de la materia candidata a prerequisito
@@ -5,6 +5,9 @@ import java.time.LocalDate;
 import org.hibernate.validator.constraints.Length;
 
 import jakarta.persistence.*;
+
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.Getter;
@@ -21,6 +24,9 @@ import lombok.experimental.SuperBuilder;
 @Entity // Anotación que indica que esta clase es una entidad JPA
 @Table(name = "persona") // Nombre de la tabla en la base de datos
 @Inheritance(strategy = InheritanceType.JOINED) // Estrategia de herencia para JPA
+// La región de segundo nivel se declara en la raíz de la jerarquía; las subclases que no
+// deben guardarse en ella (Estudiante) lo indican con @Cacheable(false)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "persona")
 public abstract class Persona {
     // Atributos de la clase Persona
 
@@ -0,0 +1,73 @@
+package com.universidad.model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "solicitud_inscripcion", indexes = @Index(name = "idx_solicitud_inscripcion_estado", columnList = "estado, id"))
+// Esta clase representa una solicitud de inscripción recibida en modo asíncrono (app.inscripcion.cola).
+// Solo se guarda si la cola es persistente: las solicitudes EN_COLA las encola el nodo que las tiene reclamadas
+// y, si su reclamo vence, el primer nodo que las vuelva a reclamar.
+public class SolicitudInscripcion {
+
+    public enum EstadoSolicitud {
+        EN_COLA, INSCRITA, RECHAZADA
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "ticket", nullable = false, unique = true, length = 36)
+    private String ticket;
+
+    @Column(name = "estudiante_id", nullable = false)
+    private Long estudianteId;
+
+    @Column(name = "materia_id", nullable = false)
+    private Long materiaId;
+
+    @Column(name = "fecha_inscripcion", nullable = false)
+    private LocalDate fechaInscripcion;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "estado", nullable = false, length = 20)
+    private EstadoSolicitud estado;
+
+    @Column(name = "fecha_solicitud", nullable = false)
+    private LocalDateTime fechaSolicitud;
+
+    @Column(name = "fecha_resultado")
+    private LocalDateTime fechaResultado;
+
+    @Column(name = "inscripcion_id")
+    private Long inscripcionId;
+
+    @Column(name = "mensaje", length = 500)
+    private String mensaje;
+
+    // Nodo que tiene la solicitud encolada y hasta cuándo vale su reclamo (lo renueva mientras la tiene pendiente)
+    @Column(name = "nodo", length = 36)
+    private String nodo;
+
+    @Column(name = "reclamada_hasta")
+    private LocalDateTime reclamadaHasta;
+}
@@ -0,0 +1,39 @@
+package com.universidad.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "lista_espera", uniqueConstraints = @UniqueConstraint(columnNames = {"materia_id", "estudiante_id"}))
+// Esta clase representa la solicitud de un estudiante para ocupar un cupo de una materia llena.
+// Las solicitudes se atienden por orden de llegada (id creciente) cuando se libera un cupo.
+public class SolicitudListaEspera {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "materia_id", nullable = false)
+    private Long materiaId;
+
+    @Column(name = "estudiante_id", nullable = false)
+    private Long estudianteId;
+
+    @Column(name = "fecha_solicitud", nullable = false)
+    private LocalDateTime fechaSolicitud;
+}
@@ -0,0 +1,46 @@
+package com.universidad.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "avance_tramo", uniqueConstraints = @UniqueConstraint(columnNames = {"corrida_id", "desde_id"}))
+// Esta clase es el punto de control de una corrida de avance académico: cada tramo terminado se
+// registra en la misma transacción que sus resultados, de modo que nunca queda a medias.
+public class TramoAvance {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "corrida_id", nullable = false)
+    private Long corridaId;
+
+    @Column(name = "desde_id", nullable = false)
+    private Long desdeId;
+
+    @Column(name = "hasta_id", nullable = false)
+    private Long hastaId;
+
+    @Column(name = "estudiantes", nullable = false) // Estudiantes procesados en el tramo
+    private Integer estudiantes;
+
+    @Column(name = "duracion_ms", nullable = false)
+    private Long duracionMs;
+
+    @Column(name = "completado", nullable = false)
+    private LocalDateTime completado;
+}
@@ -0,0 +1,52 @@
+package com.universidad.registro.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import com.universidad.registro.security.LocalRevocationChannel;
+import com.universidad.registro.security.RedisRevocationChannel;
+import com.universidad.registro.security.RevocationChannel;
+
+/**
+ * Esta clase selecciona el canal de replicación de la lista de revocación de tokens.
+ * Se configura con la propiedad app.security.revocation.channel (local | redis).
+ */
+@Configuration
+public class RevocationConfig {
+
+    /**
+     * Canal por defecto: las revocaciones solo se aplican en el nodo que las recibe.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.security.revocation.channel", havingValue = "local", matchIfMissing = true)
+    public RevocationChannel localRevocationChannel() {
+        return new LocalRevocationChannel();
+    }
+
+    /**
+     * Canal que replica las revocaciones a todos los nodos mediante Redis pub/sub.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.security.revocation.channel", havingValue = "redis")
+    public RevocationChannel redisRevocationChannel(StringRedisTemplate redisTemplate,
+                                                    RedisMessageListenerContainer revocationListenerContainer,
+                                                    @Value("${app.security.revocation.topic:auth:revocaciones}") String topic) {
+        return new RedisRevocationChannel(redisTemplate, revocationListenerContainer, topic);
+    }
+
+    /**
+     * Contenedor de suscripciones de Redis usado por el canal de revocaciones.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.security.revocation.channel", havingValue = "redis")
+    public RedisMessageListenerContainer revocationListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
+}
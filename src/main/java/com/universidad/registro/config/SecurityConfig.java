@@ -1,7 +1,13 @@
 package com.universidad.registro.config;
 
+import com.universidad.idempotencia.AlmacenIdempotencia;
+import com.universidad.idempotencia.IdempotenciaFilter;
 import com.universidad.registro.security.JwtAuthenticationEntryPoint;
 import com.universidad.registro.security.JwtAuthenticationFilter;
+import com.universidad.registro.security.RateLimitFilter;
+import com.universidad.registro.security.RateLimitProperties;
+import com.universidad.registro.security.RateLimiter;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -13,13 +19,12 @@ import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
-import org.springframework.session.jdbc.config.annotation.web.http.EnableJdbcHttpSession;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity(prePostEnabled = true)
-@EnableJdbcHttpSession
+@EnableConfigurationProperties(RateLimitProperties.class)
 /** 
  * Esta clase configura la seguridad de la aplicación utilizando Spring Security.
  * Se encarga de definir las reglas de autorización y autenticación para los endpoints de la API.
@@ -68,7 +73,8 @@ public class SecurityConfig {
      * Se utiliza para definir las reglas de autorización y autenticación para los endpoints de la API.
      */
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, RateLimiter rateLimiter,
+                                                   AlmacenIdempotencia almacenIdempotencia) throws Exception {
         http
             .cors(cors -> cors.disable())
             .csrf(csrf -> csrf.disable())
@@ -87,6 +93,14 @@ public class SecurityConfig {
         // Usar el bean jwtAuthenticationFilter directamente
         http.addFilterBefore(jwtAuthenticationFilter(), UsernamePasswordAuthenticationFilter.class);
 
+        // Límites de frecuencia: por IP antes de validar el token y por usuario una vez autenticado.
+        // No se declaran como beans para que no se registren también fuera de la cadena de seguridad.
+        http.addFilterBefore(new RateLimitFilter(rateLimiter, RateLimitProperties.Clave.IP), JwtAuthenticationFilter.class);
+        // Claves de idempotencia: tras autenticar (la clave se asocia al usuario) y antes del límite por usuario,
+        // para que los reintentos respondidos desde el almacén no consuman tokens
+        http.addFilterAfter(new IdempotenciaFilter(almacenIdempotencia), JwtAuthenticationFilter.class);
+        http.addFilterAfter(new RateLimitFilter(rateLimiter, RateLimitProperties.Clave.USUARIO), JwtAuthenticationFilter.class);
+
         return http.build();
     }
 }
@@ -1,15 +1,20 @@
 package com.universidad.registro.controller;
 
 
+import com.universidad.conexiones.ClasePool;
+import com.universidad.conexiones.PoolConexiones;
 import com.universidad.registro.dto.AuthDTO.JwtResponse;
 import com.universidad.registro.dto.AuthDTO.LoginRequest;
 import com.universidad.registro.dto.AuthDTO.MessageResponse;
 import com.universidad.registro.dto.AuthDTO.SignupRequest;
-import com.universidad.registro.model.Rol;
 import com.universidad.registro.model.Usuario;
-import com.universidad.registro.repository.RolRepository;
 import com.universidad.registro.repository.UsuarioRepository;
 import com.universidad.registro.security.JwtUtils;
+import com.universidad.registro.security.TokenRevocationStore;
+import com.universidad.registro.service.RegistroRoles;
+
+import io.jsonwebtoken.Claims;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -34,6 +39,7 @@ import java.util.stream.Collectors;
 // Este controlador maneja las solicitudes relacionadas con la autenticación y el registro de usuarios en la aplicación.
 @CrossOrigin(origins = "*", maxAge = 3600) // Permite solicitudes de cualquier origen (CORS)
 @RestController
+@PoolConexiones(ClasePool.AUTENTICACION) // Login y registro usan su propio pool de conexiones
 @RequestMapping("/api/auth") // Configura el controlador para manejar solicitudes HTTP en la ruta "/api/auth"
 public class AuthController {
     
@@ -47,10 +53,10 @@ public class AuthController {
     @Autowired
     UsuarioRepository usuarioRepository;
 
-    // Inyecta el repositorio de roles para acceder a los datos de los roles en la base de datos
-    // Este repositorio proporciona métodos para buscar roles por su nombre y verificar la existencia de roles en la base de datos.
+    // Inyecta el registro de roles cargado al iniciar la aplicación
+    // Permite asignar los roles a los nuevos usuarios sin consultar la base de datos en cada registro.
     @Autowired
-    RolRepository rolRepository;
+    RegistroRoles registroRoles;
 
     // Inyecta el PasswordEncoder para codificar las contraseñas de los usuarios
     // Este componente es responsable de codificar las contraseñas antes de almacenarlas en la base de datos,
@@ -62,6 +68,10 @@ public class AuthController {
     @Autowired
     JwtUtils jwtUtils;
 
+    // Inyecta la lista de revocación de tokens para invalidar el token al cerrar sesión
+    @Autowired
+    TokenRevocationStore tokenRevocationStore;
+
     /**
      * Endpoint para autenticar a un usuario.
      * @param loginRequest Contiene el nombre de usuario y la contraseña del usuario.
@@ -134,38 +144,9 @@ public class AuthController {
         usuario.setApellido(signUpRequest.getApellido());
 
         
-        Set<String> strRoles = signUpRequest.getRoles();
-        Set<Rol> roles = new HashSet<>();
-
-        // Verifica si se han proporcionado roles en la solicitud de registro
+        // Los roles se resuelven en memoria desde el registro cargado al iniciar
         // Si no se proporcionan roles, asigna el rol de estudiante por defecto.
-        if (strRoles == null) {
-            Rol estudianteRol = rolRepository.findByNombre(Rol.NombreRol.ROL_ESTUDIANTE)
-                    .orElseThrow(() -> new RuntimeException("Error: Rol no encontrado."));
-            roles.add(estudianteRol);
-        } else {
-            strRoles.forEach(role -> {
-                switch (role) {
-                case "admin":
-                    Rol adminRol = rolRepository.findByNombre(Rol.NombreRol.ROL_ADMIN)
-                            .orElseThrow(() -> new RuntimeException("Error: Rol no encontrado."));
-                    roles.add(adminRol);
-                    break;
-                case "docente":
-                    Rol docRol = rolRepository.findByNombre(Rol.NombreRol.ROL_DOCENTE)
-                            .orElseThrow(() -> new RuntimeException("Error: Rol no encontrado."));
-                    roles.add(docRol);
-                    break;
-                default:
-                    Rol estudianteRol = rolRepository.findByNombre(Rol.NombreRol.ROL_ESTUDIANTE)
-                            .orElseThrow(() -> new RuntimeException("Error: Rol no encontrado."));
-                    roles.add(estudianteRol);
-                }
-            });
-        }
-
-
-        usuario.setRoles(roles);
+        usuario.setRoles(registroRoles.resolver(signUpRequest.getRoles()));
         usuarioRepository.save(usuario);
 
 
@@ -211,7 +192,13 @@ public class AuthController {
      */
     // Este endpoint maneja las solicitudes POST para cerrar la sesión del usuario autenticado.
     @PostMapping("/logout")
-    public ResponseEntity<?> logoutUser() {
+    public ResponseEntity<?> logoutUser(HttpServletRequest request) {
+        // Revoca el token actual hasta su expiración para que no pueda reutilizarse
+        String jwt = jwtUtils.parseJwt(request);
+        Claims claims = jwt != null ? jwtUtils.parseClaims(jwt) : null;
+        if (claims != null && claims.getExpiration() != null) {
+            tokenRevocationStore.revoke(claims.getId(), claims.getExpiration().getTime());
+        }
         SecurityContextHolder.clearContext();
         return ResponseEntity.ok(new MessageResponse("Sesión cerrada exitosamente!"));
     }
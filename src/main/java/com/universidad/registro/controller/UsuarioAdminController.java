@@ -0,0 +1,42 @@
+package com.universidad.registro.controller;
+
+
+import com.universidad.registro.dto.AuthDTO.AltaMasivaRequest;
+import com.universidad.registro.dto.AuthDTO.AltaMasivaResponse;
+import com.universidad.registro.service.AltaMasivaUsuarios;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+
+import javax.validation.Valid;
+
+
+@RestController
+@RequestMapping("/api/admin/usuarios")
+@Tag(name = "Administración de usuarios", description = "Alta masiva de cuentas de usuario")
+public class UsuarioAdminController {
+
+    private final AltaMasivaUsuarios altaMasivaUsuarios;
+
+    @Autowired
+    public UsuarioAdminController(AltaMasivaUsuarios altaMasivaUsuarios) {
+        this.altaMasivaUsuarios = altaMasivaUsuarios;
+    }
+
+    @Operation(summary = "Crear usuarios en bloque; los inválidos o ya existentes se devuelven como rechazados")
+    @PostMapping("/lote")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<AltaMasivaResponse> crearLote(@Valid @RequestBody AltaMasivaRequest request) {
+        if (request.getUsuarios() == null || request.getUsuarios().isEmpty()) {
+            throw new IllegalArgumentException("La lista de usuarios no puede estar vacía");
+        }
+        return ResponseEntity.ok(altaMasivaUsuarios.crear(request.getUsuarios()));
+    }
+}
@@ -6,10 +6,13 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 
+import javax.validation.Valid;
 import javax.validation.constraints.Email;
 import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.Size;
 //import jakarta.validation.constraints.*;
+import java.util.List;
 import java.util.Set;
 
 
@@ -93,4 +96,42 @@ public class AuthDTO { // DTO para autenticación y autorización de usuarios
     public static class MessageResponse {
         private String message;
     }
+
+    /**
+     * Clase que representa la solicitud de alta masiva de usuarios (solo administradores).
+     */
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class AltaMasivaRequest {
+        @NotEmpty
+        @Valid
+        private List<SignupRequest> usuarios;
+    }
+
+    /**
+     * Clase que representa un usuario no creado en un alta masiva y el motivo.
+     */
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class UsuarioRechazado {
+        // Posición del usuario en la solicitud
+        private int indice;
+        private String username;
+        private String motivo;
+    }
+
+    /**
+     * Clase que representa el resultado de un alta masiva de usuarios.
+     */
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class AltaMasivaResponse {
+        private int solicitados;
+        private int creados;
+        private List<UsuarioRechazado> rechazados;
+        private long duracionMs;
+    }
 }
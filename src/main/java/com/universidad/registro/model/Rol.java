@@ -6,8 +6,15 @@ import lombok.NoArgsConstructor;
 
 import jakarta.persistence.*;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Immutable;
+
 @Entity
 @Table(name = "roles")
+@Immutable // Los roles no cambian una vez creados: caché de segundo nivel de solo lectura
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = "rol")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -5,6 +5,9 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import jakarta.persistence.*;
+
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -40,5 +43,6 @@ public class Usuario {
         joinColumns = @JoinColumn(name = "usuario_id"), // Columna que referencia al usuario
         inverseJoinColumns = @JoinColumn(name = "rol_id") // Columna que referencia al rol
     )
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "usuario-roles") // Ids de los roles por usuario; los roles salen de la región rol
     private Set<Rol> roles = new HashSet<>();
 }
@@ -2,14 +2,20 @@ package com.universidad.registro.repository;
 
 
 import com.universidad.registro.model.Rol;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 
+import jakarta.persistence.QueryHint;
+
 import java.util.Optional;
 
 
 @Repository
 public interface RolRepository extends JpaRepository<Rol, Long> {
+    // Se consulta en cada registro de usuario: el resultado queda en la caché de consultas
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Rol> findByNombre(Rol.NombreRol nombre);
 }
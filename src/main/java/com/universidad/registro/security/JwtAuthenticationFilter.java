@@ -9,12 +9,13 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
-import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 
 import com.universidad.registro.service.UserDetailsServiceImpl;
 
+import io.jsonwebtoken.Claims;
+
 
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -36,6 +37,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsServiceImpl userDetailsService;
 
+    // Lista de revocación consultada en O(1) para rechazar tokens de sesiones cerradas
+    @Autowired
+    private TokenRevocationStore tokenRevocationStore;
+
     // Logger para registrar información y errores
     // Utiliza SLF4J para registrar mensajes de información y errors
     // en la consola o en un archivo de registro, según la configuración del logger
@@ -49,9 +54,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             // Extrae el token JWT del encabezado de autorización de la solicitud HTTP
             // y lo valida utilizando el método parseJwt
-            String jwt = parseJwt(request);
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
+            // El token se parsea una sola vez y se descarta si su jti fue revocado en un logout
+            String jwt = jwtUtils.parseJwt(request);
+            Claims claims = jwt != null ? jwtUtils.parseClaims(jwt) : null;
+            if (claims != null && !tokenRevocationStore.isRevoked(claims.getId())) {
+                String username = claims.getSubject();
 
                 // Si el token es válido, carga los detalles del usuario utilizando el nombre de usuario extraído del token
                 // y establece la autenticación del usuario en el contexto de seguridad de Spring
@@ -73,21 +80,4 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
-    // Método para extraer el token JWT del encabezado de autorización de la solicitud HTTP
-    // Verifica si el encabezado tiene el prefijo "Bearer " y extrae el token
-    private String parseJwt(HttpServletRequest request) { 
-        // Obtener el encabezado de autorización de la solicitud HTTP
-        String headerAuth = request.getHeader("Authorization"); // Obtener el encabezado de autorización
-
-        // Verificar si el encabezado no está vacío y si comienza con el prefijo "Bearer "
-        // Si el encabezado tiene el prefijo "Bearer ", extraer el token JWT del encabezado
-        if (StringUtils.hasText(headerAuth) && headerAuth.startsWith("Bearer ")) { 
-            return headerAuth.substring(7); 
-        }
-
-
-        return null;
-    }
-
-    
 }
@@ -14,6 +14,7 @@ import io.jsonwebtoken.security.SignatureException;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.util.StringUtils;
 import java.util.Date;
+import java.util.UUID;
 
 
 @Component
@@ -41,7 +42,9 @@ public class JwtUtils {
 
         // Se utiliza para generar un nuevo token JWT utilizando la información del usuario autenticado
         // Se establece el sujeto del token como el nombre de usuario del usuario autenticado
+        // y un identificador único (jti) que permite revocar el token al cerrar sesión
         return Jwts.builder()
+                .setId(UUID.randomUUID().toString())
                 .setSubject((userPrincipal.getUsername()))
                 .setIssuedAt(new Date())
                 .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
@@ -56,6 +59,37 @@ public class JwtUtils {
         return Jwts.parserBuilder().setSigningKey(jwtSecret.getBytes()).build().parseClaimsJws(token).getBody().getSubject();
     }
 
+    // Este método valida el token y devuelve sus claims en una sola pasada de parseo
+    // Si el token no es válido, se registra el motivo y se devuelve null
+    public Claims parseClaims(String authToken) {
+        try {
+            return Jwts.parserBuilder().setSigningKey(jwtSecret.getBytes()).build().parseClaimsJws(authToken).getBody();
+        } catch (SignatureException e) {
+            logger.error("Invalid JWT signature: {}", e.getMessage());
+        } catch (MalformedJwtException e) {
+            logger.error("Invalid JWT token: {}", e.getMessage());
+        } catch (ExpiredJwtException e) {
+            logger.error("JWT token is expired: {}", e.getMessage());
+        } catch (UnsupportedJwtException e) {
+            logger.error("JWT token is unsupported: {}", e.getMessage());
+        } catch (IllegalArgumentException e) {
+            logger.error("JWT claims string is empty: {}", e.getMessage());
+        }
+
+
+        return null;
+    }
+
+    // Extrae el token JWT del encabezado "Authorization: Bearer <token>" de la solicitud
+    // Devuelve null si el encabezado no está presente o no tiene el formato correcto
+    public String parseJwt(HttpServletRequest request) {
+        String headerAuth = request.getHeader("Authorization");
+        if (StringUtils.hasText(headerAuth) && headerAuth.startsWith("Bearer ")) {
+            return headerAuth.substring(7);
+        }
+        return null;
+    }
+
     
     public boolean validateJwtToken(String authToken) { // Este método se utiliza para validar el token JWT
         // Se utiliza para verificar la firma del token y asegurarse de que no haya sido modificado
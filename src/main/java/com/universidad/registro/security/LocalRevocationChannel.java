@@ -0,0 +1,18 @@
+package com.universidad.registro.security;
+
+import java.util.function.BiConsumer;
+
+// Canal por defecto para despliegues de un solo nodo: no replica nada,
+// las revocaciones solo viven en la memoria del proceso actual.
+public class LocalRevocationChannel implements RevocationChannel {
+
+    @Override
+    public void publish(String jti, long expiraEnMs) {
+        // Nada que replicar en un único nodo
+    }
+
+    @Override
+    public void subscribe(BiConsumer<String, Long> receptor) {
+        // No hay otros nodos de los que recibir revocaciones
+    }
+}
@@ -0,0 +1,79 @@
+package com.universidad.registro.security;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.lang.NonNull;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Este filtro aplica los límites de frecuencia de un tipo de clave. Se registran dos instancias:
+// la de IP antes del filtro JWT, para rechazar a los clientes abusivos sin validar su token, y la de
+// usuario después, cuando ya se conoce el usuario autenticado. Una solicitud admitida no crea objetos.
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimiter rateLimiter;
+    private final RateLimitProperties.Clave clave;
+
+    public RateLimitFilter(RateLimiter rateLimiter, RateLimitProperties.Clave clave) {
+        this.rateLimiter = rateLimiter;
+        this.clave = clave;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull FilterChain filterChain)
+            throws ServletException, IOException {
+        String metodo = request.getMethod();
+        String uri = request.getRequestURI();
+        for (RateLimiter.ReglaActiva regla : rateLimiter.reglas(clave)) {
+            if (!regla.aplica(metodo, uri)) {
+                continue;
+            }
+            String valorClave = clave == RateLimitProperties.Clave.IP ? request.getRemoteAddr() : usuarioAutenticado();
+            if (valorClave == null) {
+                continue; // Sin usuario autenticado la solicitud la rechazará la propia seguridad
+            }
+            long resultado = regla.consumir(valorClave, System.nanoTime());
+            response.setIntHeader("X-RateLimit-Limit", regla.capacidad);
+            if (resultado < 0) {
+                rechazar(response, regla, -resultado);
+                return;
+            }
+            response.setIntHeader("X-RateLimit-Remaining", (int) resultado);
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    // Cada instancia necesita su propia marca de "ya filtrado"; por defecto la comparten por ser la misma clase
+    @Override
+    protected String getAlreadyFilteredAttributeName() {
+        return RateLimitFilter.class.getName() + "." + clave + ".FILTERED";
+    }
+
+    private static String usuarioAutenticado() {
+        Authentication autenticacion = SecurityContextHolder.getContext().getAuthentication();
+        if (autenticacion == null || !autenticacion.isAuthenticated() || autenticacion instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return autenticacion.getName();
+    }
+
+    private static void rechazar(HttpServletResponse response, RateLimiter.ReglaActiva regla, long esperaNanos) throws IOException {
+        long segundos = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(esperaNanos + 999_999_999L));
+        response.setStatus(429);
+        response.setIntHeader("X-RateLimit-Remaining", 0);
+        response.setHeader("Retry-After", Long.toString(segundos));
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
+        response.getWriter().write("{\"status\":429,\"mensaje\":\"Demasiadas solicitudes (" + regla.nombre
+            + "); intente de nuevo en " + segundos + " s\",\"timestamp\":\"" + LocalDateTime.now() + "\"}");
+    }
+}
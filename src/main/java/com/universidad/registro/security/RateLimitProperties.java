@@ -0,0 +1,52 @@
+package com.universidad.registro.security;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Límites de frecuencia por endpoint (prefijo app.rate-limit).
+ * Cada regla tiene su propio conjunto de cubetas de tokens, una por IP o por usuario.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+
+    private boolean habilitado = true;
+
+    /** Claves (IPs o usuarios) que se recuerdan como máximo por regla; las menos usadas se descartan. */
+    private long maxClaves = 100_000;
+
+    /**
+     * Tiempo sin solicitudes tras el cual se olvida la cubeta de una clave. Debe ser al menos el
+     * tiempo de recarga completa de la regla más lenta, para que olvidar una cubeta no regale tokens.
+     */
+    private Duration inactividad = Duration.ofMinutes(10);
+
+    private List<Regla> reglas = new ArrayList<>();
+
+    public enum Clave {
+        /** Dirección del cliente; se evalúa antes de autenticar el token. */
+        IP,
+        /** Usuario autenticado; se evalúa después del filtro JWT. */
+        USUARIO
+    }
+
+    @Data
+    public static class Regla {
+        private String nombre;
+        /** Método HTTP; vacío para cualquiera. */
+        private String metodo;
+        /** Ruta exacta, o prefijo si termina en "/**". */
+        private String ruta;
+        private Clave clave = Clave.IP;
+        /** Solicitudes que se admiten de golpe. */
+        private int capacidad = 10;
+        /** Tokens que se recuperan por segundo. */
+        private double recargaPorSegundo = 1;
+    }
+}
@@ -0,0 +1,91 @@
+package com.universidad.registro.security;
+
+import java.util.List;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Limitador de frecuencia en memoria del proceso. Cada regla guarda sus cubetas de tokens en un
+ * mapa concurrente acotado en tamaño y que olvida las claves inactivas. Los límites son locales a
+ * cada nodo: con N nodos detrás de un balanceador, el límite efectivo es hasta N veces el configurado.
+ */
+@Component
+public class RateLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimiter.class);
+
+    private static final ReglaActiva[] SIN_REGLAS = new ReglaActiva[0];
+
+    private final boolean habilitado;
+    private final ReglaActiva[] porIp;
+    private final ReglaActiva[] porUsuario;
+
+    public RateLimiter(RateLimitProperties properties) {
+        this.habilitado = properties.isHabilitado();
+        List<ReglaActiva> reglas = properties.getReglas().stream()
+            .map(regla -> new ReglaActiva(regla, properties))
+            .toList();
+        this.porIp = reglas.stream().filter(r -> r.clave == RateLimitProperties.Clave.IP).toArray(ReglaActiva[]::new);
+        this.porUsuario = reglas.stream().filter(r -> r.clave == RateLimitProperties.Clave.USUARIO).toArray(ReglaActiva[]::new);
+        reglas.forEach(r -> logger.info("Límite de frecuencia '{}': {} {} por {}, {} de golpe y {}/s",
+            r.nombre, r.metodo == null ? "*" : r.metodo, r.ruta, r.clave, r.capacidad, r.recargaPorSegundo));
+    }
+
+    ReglaActiva[] reglas(RateLimitProperties.Clave clave) {
+        if (!habilitado) {
+            return SIN_REGLAS;
+        }
+        return clave == RateLimitProperties.Clave.IP ? porIp : porUsuario;
+    }
+
+    // Regla preparada para evaluarse sin crear objetos en cada solicitud
+    static final class ReglaActiva {
+        final String nombre;
+        final String metodo;
+        final String ruta;
+        final boolean prefijo;
+        private final String rutaConBarra;
+        final RateLimitProperties.Clave clave;
+        final int capacidad;
+        final double recargaPorSegundo;
+        private final Cache<String, TokenBucket> cubetas;
+        private final Function<String, TokenBucket> nuevaCubeta;
+
+        private ReglaActiva(RateLimitProperties.Regla regla, RateLimitProperties properties) {
+            if (regla.getRuta() == null || regla.getCapacidad() < 1 || regla.getRecargaPorSegundo() <= 0) {
+                throw new IllegalStateException("Regla de límite de frecuencia inválida: " + regla);
+            }
+            this.nombre = regla.getNombre() != null ? regla.getNombre() : regla.getRuta();
+            this.metodo = regla.getMetodo() == null || regla.getMetodo().isBlank() ? null : regla.getMetodo().toUpperCase();
+            this.prefijo = regla.getRuta().endsWith("/**");
+            this.ruta = prefijo ? regla.getRuta().substring(0, regla.getRuta().length() - 3) : regla.getRuta();
+            this.rutaConBarra = ruta + "/";
+            this.clave = regla.getClave();
+            this.capacidad = regla.getCapacidad();
+            this.recargaPorSegundo = regla.getRecargaPorSegundo();
+            double tokensPorNano = recargaPorSegundo / 1_000_000_000d;
+            this.cubetas = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxClaves())
+                .expireAfterAccess(properties.getInactividad())
+                .build();
+            this.nuevaCubeta = k -> new TokenBucket(capacidad, tokensPorNano, System.nanoTime());
+        }
+
+        boolean aplica(String metodoSolicitud, String uri) {
+            if (metodo != null && !metodo.equals(metodoSolicitud)) {
+                return false;
+            }
+            return uri.equals(ruta) || (prefijo && uri.startsWith(rutaConBarra));
+        }
+
+        long consumir(String clave, long ahoraNanos) {
+            return cubetas.get(clave, nuevaCubeta).consumir(ahoraNanos);
+        }
+    }
+}
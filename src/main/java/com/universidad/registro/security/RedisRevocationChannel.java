@@ -0,0 +1,56 @@
+package com.universidad.registro.security;
+
+import java.nio.charset.StandardCharsets;
+import java.util.function.BiConsumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+// Replica las revocaciones entre nodos usando Redis pub/sub.
+// El mensaje tiene el formato "<jti>:<expiracionMs>".
+public class RedisRevocationChannel implements RevocationChannel {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisRevocationChannel.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ChannelTopic topic;
+
+    public RedisRevocationChannel(StringRedisTemplate redisTemplate,
+                                  RedisMessageListenerContainer listenerContainer,
+                                  String topic) {
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.topic = new ChannelTopic(topic);
+    }
+
+    @Override
+    public void publish(String jti, long expiraEnMs) {
+        try {
+            redisTemplate.convertAndSend(topic.getTopic(), jti + ":" + expiraEnMs);
+        } catch (Exception e) {
+            // La revocación local ya está aplicada; solo se pierde la réplica hacia otros nodos
+            logger.error("No se pudo publicar la revocación del token {}: {}", jti, e.getMessage());
+        }
+    }
+
+    @Override
+    public void subscribe(BiConsumer<String, Long> receptor) {
+        listenerContainer.addMessageListener((message, pattern) -> {
+            String cuerpo = new String(message.getBody(), StandardCharsets.UTF_8);
+            int separador = cuerpo.lastIndexOf(':');
+            if (separador <= 0) {
+                logger.warn("Mensaje de revocación inválido: {}", cuerpo);
+                return;
+            }
+            try {
+                receptor.accept(cuerpo.substring(0, separador), Long.parseLong(cuerpo.substring(separador + 1)));
+            } catch (NumberFormatException e) {
+                logger.warn("Mensaje de revocación inválido: {}", cuerpo);
+            }
+        }, topic);
+    }
+}
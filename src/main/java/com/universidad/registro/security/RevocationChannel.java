@@ -0,0 +1,23 @@
+package com.universidad.registro.security;
+
+import java.util.function.BiConsumer;
+
+/**
+ * Canal por el que se replican las revocaciones de tokens entre los nodos de la aplicación.
+ * Cada implementación decide el transporte (memoria local, Redis pub/sub, etc.).
+ */
+public interface RevocationChannel {
+
+    /**
+     * Publica la revocación de un token para que el resto de nodos la aplique.
+     * @param jti identificador único del token revocado
+     * @param expiraEnMs instante de expiración del token en milisegundos epoch
+     */
+    void publish(String jti, long expiraEnMs);
+
+    /**
+     * Registra el receptor que aplica las revocaciones llegadas desde otros nodos.
+     * @param receptor función que recibe el jti y la expiración del token revocado
+     */
+    void subscribe(BiConsumer<String, Long> receptor);
+}
@@ -0,0 +1,36 @@
+package com.universidad.registro.security;
+
+// Cubeta de tokens de una clave. Se recarga de forma perezosa al consumir, así no hace falta
+// ningún hilo que la rellene; consumir no crea objetos.
+final class TokenBucket {
+
+    private final int capacidad;
+    private final double tokensPorNano;
+    private double tokens;
+    private long ultimaRecarga;
+
+    TokenBucket(int capacidad, double tokensPorNano, long ahoraNanos) {
+        this.capacidad = capacidad;
+        this.tokensPorNano = tokensPorNano;
+        this.tokens = capacidad;
+        this.ultimaRecarga = ahoraNanos;
+    }
+
+    /**
+     * Intenta consumir un token.
+     * @return los tokens que quedan (>= 0) si se admitió, o menos los nanosegundos que faltan
+     *         para el siguiente token (< 0) si se rechazó
+     */
+    synchronized long consumir(long ahoraNanos) {
+        long transcurrido = ahoraNanos - ultimaRecarga;
+        if (transcurrido > 0) {
+            tokens = Math.min(capacidad, tokens + transcurrido * tokensPorNano);
+            ultimaRecarga = ahoraNanos;
+        }
+        if (tokens >= 1) {
+            tokens -= 1;
+            return (long) tokens;
+        }
+        return -(long) Math.ceil((1 - tokens) / tokensPorNano);
+    }
+}
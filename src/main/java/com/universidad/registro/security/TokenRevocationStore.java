@@ -0,0 +1,101 @@
+package com.universidad.registro.security;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Lista de revocación de tokens JWT en memoria, indexada por el jti del token.
+ * Las entradas se agrupan en cubetas de tiempo según la expiración del token, de modo que
+ * una revocación desaparece en cuanto el propio token habría dejado de ser válido.
+ * Las revocaciones se replican al resto de nodos a través de un {@link RevocationChannel}.
+ */
+@Component
+public class TokenRevocationStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationStore.class);
+
+    // jti -> expiración del token (ms epoch); permite consultar en O(1) desde el filtro JWT
+    private final Map<String, Long> revocados = new ConcurrentHashMap<>();
+
+    // cubeta de expiración -> jti que expiran en ella; permite purgar por rangos de tiempo
+    private final ConcurrentSkipListMap<Long, Set<String>> cubetas = new ConcurrentSkipListMap<>();
+
+    private final RevocationChannel canal;
+
+    private final long anchoCubetaMs;
+
+    public TokenRevocationStore(RevocationChannel canal,
+                                @Value("${app.security.revocation.bucket-ms:60000}") long anchoCubetaMs) {
+        this.canal = canal;
+        this.anchoCubetaMs = anchoCubetaMs;
+        // Las revocaciones que llegan de otros nodos se aplican sin volver a publicarse
+        this.canal.subscribe(this::registrar);
+    }
+
+    /**
+     * Revoca un token hasta su expiración y propaga la revocación al resto de nodos.
+     * @param jti identificador único del token
+     * @param expiraEnMs instante de expiración del token en milisegundos epoch
+     */
+    public void revoke(String jti, long expiraEnMs) {
+        if (jti == null || expiraEnMs <= System.currentTimeMillis()) {
+            return; // Sin jti no se puede revocar y un token expirado ya no es válido
+        }
+        registrar(jti, expiraEnMs);
+        canal.publish(jti, expiraEnMs);
+    }
+
+    /**
+     * Indica si el token identificado por el jti ha sido revocado.
+     * @param jti identificador único del token
+     * @return true si el token está revocado y todavía no ha expirado
+     */
+    public boolean isRevoked(String jti) {
+        if (jti == null) {
+            return false;
+        }
+        Long expiraEnMs = revocados.get(jti);
+        return expiraEnMs != null && expiraEnMs > System.currentTimeMillis();
+    }
+
+    public int size() {
+        return revocados.size();
+    }
+
+    // Elimina las cubetas cuyo tiempo ya pasó junto con todos sus jti
+    @Scheduled(fixedDelayString = "${app.security.revocation.bucket-ms:60000}")
+    public void purgarExpirados() {
+        ConcurrentNavigableMap<Long, Set<String>> vencidas = cubetas.headMap(cubeta(System.currentTimeMillis()));
+        int eliminados = 0;
+        for (Map.Entry<Long, Set<String>> entrada : vencidas.entrySet()) {
+            for (String jti : entrada.getValue()) {
+                revocados.remove(jti);
+                eliminados++;
+            }
+            cubetas.remove(entrada.getKey());
+        }
+        if (eliminados > 0) {
+            logger.debug("Revocaciones expiradas purgadas: {}", eliminados);
+        }
+    }
+
+    private void registrar(String jti, Long expiraEnMs) {
+        if (revocados.putIfAbsent(jti, expiraEnMs) == null) {
+            // La cubeta siguiente a la expiración garantiza que no se purgue antes de tiempo
+            cubetas.computeIfAbsent(cubeta(expiraEnMs) + 1, k -> ConcurrentHashMap.newKeySet()).add(jti);
+        }
+    }
+
+    private long cubeta(long instanteMs) {
+        return instanteMs / anchoCubetaMs;
+    }
+}
@@ -0,0 +1,278 @@
+package com.universidad.registro.service;
+
+
+import com.universidad.conexiones.ClasePool;
+import com.universidad.conexiones.PoolConexiones;
+import com.universidad.registro.dto.AuthDTO.AltaMasivaResponse;
+import com.universidad.registro.dto.AuthDTO.SignupRequest;
+import com.universidad.registro.dto.AuthDTO.UsuarioRechazado;
+import com.universidad.registro.model.Rol;
+import com.universidad.registro.repository.UsuarioRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+
+import jakarta.annotation.PreDestroy;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+
+/**
+ * Alta masiva de usuarios (por ejemplo las cuentas de cada inicio de año).
+ * <ul>
+ *   <li>Los roles salen del {@link RegistroRoles} en memoria, sin consultas por usuario.</li>
+ *   <li>La unicidad de username y email se comprueba con una consulta por conjunto en cada tramo.</li>
+ *   <li>Las contraseñas se codifican con BCrypt en paralelo en un {@link ForkJoinPool} propio.</li>
+ *   <li>Los usuarios y sus filas de usuario_roles se insertan por lotes JDBC, un tramo por transacción.</li>
+ *   <li>Las conexiones salen del pool de lotes, sin ocupar las de las solicitudes en línea.</li>
+ * </ul>
+ */
+@Service
+@PoolConexiones(ClasePool.LOTES)
+public class AltaMasivaUsuarios {
+
+    private static final Logger logger = LoggerFactory.getLogger(AltaMasivaUsuarios.class);
+
+    private static final String INSERTAR_USUARIO = "INSERT INTO usuarios (username, password, email, nombre, apellido, activo) "
+        + "VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String INSERTAR_ROL = "INSERT INTO usuario_roles (usuario_id, rol_id) VALUES (?, ?)";
+    // Contraseñas por tarea de codificación antes de dejar de dividir
+    private static final int UMBRAL_HASH = 4;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final UsuarioRepository usuarioRepository;
+    private final RegistroRoles registroRoles;
+    private final PasswordEncoder passwordEncoder;
+    private final int tamanoTramo;
+    private final int maxUsuarios;
+    // BCrypt es costoso a propósito: un hilo por núcleo salvo que se configure otro número
+    private final ForkJoinPool pool;
+
+    public AltaMasivaUsuarios(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                              UsuarioRepository usuarioRepository, RegistroRoles registroRoles,
+                              PasswordEncoder passwordEncoder,
+                              @Value("${app.usuarios.alta-masiva.tamano-tramo:500}") int tamanoTramo,
+                              @Value("${app.usuarios.alta-masiva.max-usuarios:20000}") int maxUsuarios,
+                              @Value("${app.usuarios.alta-masiva.hilos:0}") int hilos) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.usuarioRepository = usuarioRepository;
+        this.registroRoles = registroRoles;
+        this.passwordEncoder = passwordEncoder;
+        this.tamanoTramo = Math.max(1, tamanoTramo);
+        this.maxUsuarios = Math.max(1, maxUsuarios);
+        this.pool = new ForkJoinPool(hilos > 0 ? hilos : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        pool.shutdown();
+    }
+
+    // Usuario de la solicitud que superó las validaciones
+    private static class Pendiente {
+        private final int indice;
+        private final SignupRequest solicitud;
+        private final Set<Rol> roles;
+        private String hash;
+
+        private Pendiente(int indice, SignupRequest solicitud, Set<Rol> roles) {
+            this.indice = indice;
+            this.solicitud = solicitud;
+            this.roles = roles;
+        }
+    }
+
+    /**
+     * Crea los usuarios de la solicitud. Los que no pueden crearse (datos inválidos, repetidos en la
+     * solicitud o ya existentes) se informan como rechazados sin impedir el alta del resto.
+     */
+    public AltaMasivaResponse crear(List<SignupRequest> usuarios) {
+        if (usuarios.size() > maxUsuarios) {
+            throw new IllegalArgumentException("El alta masiva admite como máximo " + maxUsuarios + " usuarios por solicitud");
+        }
+        long inicio = System.nanoTime();
+        List<UsuarioRechazado> rechazados = new ArrayList<>();
+        List<Pendiente> validos = new ArrayList<>(usuarios.size());
+        Set<String> usernames = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        for (int i = 0; i < usuarios.size(); i++) {
+            SignupRequest solicitud = usuarios.get(i);
+            String motivo = validar(solicitud);
+            if (motivo == null && !usernames.add(solicitud.getUsername())) {
+                motivo = "Error: El nombre de usuario está repetido en la solicitud.";
+            } else if (motivo == null && !emails.add(solicitud.getEmail())) {
+                motivo = "Error: El email está repetido en la solicitud.";
+            }
+            if (motivo != null) {
+                rechazados.add(new UsuarioRechazado(i, solicitud != null ? solicitud.getUsername() : null, motivo));
+            } else {
+                validos.add(new Pendiente(i, solicitud, registroRoles.resolver(solicitud.getRoles())));
+            }
+        }
+
+        int creados = 0;
+        for (int desde = 0; desde < validos.size(); desde += tamanoTramo) {
+            creados += procesarTramo(validos.subList(desde, Math.min(desde + tamanoTramo, validos.size())), rechazados);
+        }
+        rechazados.sort(Comparator.comparingInt(UsuarioRechazado::getIndice));
+        long duracionMs = Duration.ofNanos(System.nanoTime() - inicio).toMillis();
+        logger.info("Alta masiva: {} usuarios creados de {} en {} ms", creados, usuarios.size(), duracionMs);
+        return new AltaMasivaResponse(usuarios.size(), creados, rechazados, duracionMs);
+    }
+
+    // Las mismas restricciones que SignupRequest, comprobadas aquí para rechazar solo el usuario inválido
+    private String validar(SignupRequest solicitud) {
+        if (solicitud == null) {
+            return "Error: Usuario vacío.";
+        }
+        String username = solicitud.getUsername();
+        if (username == null || username.isBlank() || username.length() < 3 || username.length() > 20) {
+            return "Error: El nombre de usuario debe tener entre 3 y 20 caracteres.";
+        }
+        String email = solicitud.getEmail();
+        if (email == null || email.isBlank() || email.length() > 50 || email.indexOf('@') <= 0) {
+            return "Error: El email no es válido.";
+        }
+        String password = solicitud.getPassword();
+        if (password == null || password.isBlank() || password.length() < 6 || password.length() > 40) {
+            return "Error: La contraseña debe tener entre 6 y 40 caracteres.";
+        }
+        return null;
+    }
+
+    private int procesarTramo(List<Pendiente> tramo, List<UsuarioRechazado> rechazados) {
+        List<Pendiente> nuevos = descartarExistentes(tramo, rechazados);
+        if (nuevos.isEmpty()) {
+            return 0;
+        }
+        pool.invoke(new TareaHash(nuevos, 0, nuevos.size()));
+        try {
+            insertar(nuevos);
+            return nuevos.size();
+        } catch (DataIntegrityViolationException e) {
+            // Un registro concurrente ocupó un username o email tras la comprobación: se repite el tramo sin ellos
+            List<Pendiente> reintento = descartarExistentes(nuevos, rechazados);
+            try {
+                if (!reintento.isEmpty()) {
+                    insertar(reintento);
+                }
+                return reintento.size();
+            } catch (DataIntegrityViolationException otra) {
+                logger.warn("Alta masiva: tramo de {} usuarios descartado por conflicto de unicidad", reintento.size());
+                for (Pendiente p : reintento) {
+                    rechazados.add(new UsuarioRechazado(p.indice, p.solicitud.getUsername(),
+                        "Error: Conflicto al registrar el usuario; reintente la solicitud."));
+                }
+                return 0;
+            }
+        }
+    }
+
+    // Dos consultas por tramo en lugar de dos por usuario
+    private List<Pendiente> descartarExistentes(List<Pendiente> tramo, List<UsuarioRechazado> rechazados) {
+        List<String> usernames = new ArrayList<>(tramo.size());
+        List<String> emails = new ArrayList<>(tramo.size());
+        for (Pendiente p : tramo) {
+            usernames.add(p.solicitud.getUsername());
+            emails.add(p.solicitud.getEmail());
+        }
+        Set<String> usernamesExistentes = new HashSet<>(usuarioRepository.findUsernamesExistentes(usernames));
+        Set<String> emailsExistentes = new HashSet<>(usuarioRepository.findEmailsExistentes(emails));
+        if (usernamesExistentes.isEmpty() && emailsExistentes.isEmpty()) {
+            return tramo;
+        }
+        List<Pendiente> nuevos = new ArrayList<>(tramo.size());
+        for (Pendiente p : tramo) {
+            if (usernamesExistentes.contains(p.solicitud.getUsername())) {
+                rechazados.add(new UsuarioRechazado(p.indice, p.solicitud.getUsername(), "Error: El nombre de usuario ya está en uso."));
+            } else if (emailsExistentes.contains(p.solicitud.getEmail())) {
+                rechazados.add(new UsuarioRechazado(p.indice, p.solicitud.getUsername(), "Error: El email ya está en uso."));
+            } else {
+                nuevos.add(p);
+            }
+        }
+        return nuevos;
+    }
+
+    // Usuarios y roles del tramo en una transacción; los ids generados se leen del mismo lote
+    private void insertar(List<Pendiente> tramo) {
+        transactionTemplate.executeWithoutResult(status -> {
+            GeneratedKeyHolder claves = new GeneratedKeyHolder();
+            jdbcTemplate.batchUpdate(con -> con.prepareStatement(INSERTAR_USUARIO, new String[] {"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        SignupRequest s = tramo.get(i).solicitud;
+                        ps.setString(1, s.getUsername());
+                        ps.setString(2, tramo.get(i).hash);
+                        ps.setString(3, s.getEmail());
+                        ps.setString(4, s.getNombre());
+                        ps.setString(5, s.getApellido());
+                        ps.setBoolean(6, true);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return tramo.size();
+                    }
+                }, claves);
+            List<Map<String, Object>> ids = claves.getKeyList();
+            List<Object[]> filas = new ArrayList<>();
+            for (int i = 0; i < tramo.size(); i++) {
+                Long usuarioId = ((Number) ids.get(i).get("id")).longValue();
+                for (Rol rol : tramo.get(i).roles) {
+                    filas.add(new Object[] {usuarioId, rol.getId()});
+                }
+            }
+            if (!filas.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERTAR_ROL, filas);
+            }
+        });
+    }
+
+    // Divide las contraseñas del tramo hasta UMBRAL_HASH por tarea
+    private class TareaHash extends RecursiveAction {
+
+        private final List<Pendiente> pendientes;
+        private final int desde;
+        private final int hasta;
+
+        private TareaHash(List<Pendiente> pendientes, int desde, int hasta) {
+            this.pendientes = pendientes;
+            this.desde = desde;
+            this.hasta = hasta;
+        }
+
+        @Override
+        protected void compute() {
+            if (hasta - desde <= UMBRAL_HASH) {
+                for (int i = desde; i < hasta; i++) {
+                    Pendiente p = pendientes.get(i);
+                    p.hash = passwordEncoder.encode(p.solicitud.getPassword());
+                }
+                return;
+            }
+            int medio = (desde + hasta) >>> 1;
+            invokeAll(new TareaHash(pendientes, desde, medio), new TareaHash(pendientes, medio, hasta));
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.universidad.registro.service;
+
+
+import com.universidad.registro.model.Rol;
+import com.universidad.registro.repository.RolRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+
+/**
+ * Registro inmutable de los roles, cargado una vez al iniciar la aplicación por el DatabaseInitializer.
+ * Los roles no cambian en tiempo de ejecución, así que el registro y el alta masiva los resuelven
+ * en memoria en lugar de consultar rolRepository.findByNombre por cada rol de cada usuario.
+ */
+@Component
+public class RegistroRoles {
+
+    @Autowired
+    private RolRepository rolRepository;
+
+    // Se reemplaza completo al cargar; nunca se modifica después
+    private volatile Map<Rol.NombreRol, Rol> roles;
+
+    /**
+     * Carga los roles desde la base de datos. Lo llama el DatabaseInitializer tras crear los roles.
+     */
+    public synchronized void cargar() {
+        Map<Rol.NombreRol, Rol> cargados = new EnumMap<>(Rol.NombreRol.class);
+        for (Rol rol : rolRepository.findAll()) {
+            cargados.put(rol.getNombre(), rol);
+        }
+        roles = Collections.unmodifiableMap(cargados);
+    }
+
+    public Rol obtener(Rol.NombreRol nombre) {
+        Map<Rol.NombreRol, Rol> actuales = roles;
+        if (actuales == null) {
+            // Petición atendida antes de que terminara el arranque
+            cargar();
+            actuales = roles;
+        }
+        Rol rol = actuales.get(nombre);
+        if (rol == null) {
+            throw new RuntimeException("Error: Rol no encontrado.");
+        }
+        return rol;
+    }
+
+    /**
+     * Traduce los nombres de rol de una solicitud de registro ("admin", "docente" o cualquier otro
+     * para estudiante); sin roles se asigna el de estudiante.
+     */
+    public Set<Rol> resolver(Set<String> nombres) {
+        Set<Rol> resultado = new HashSet<>();
+        if (nombres == null) {
+            resultado.add(obtener(Rol.NombreRol.ROL_ESTUDIANTE));
+            return resultado;
+        }
+        for (String nombre : nombres) {
+            switch (nombre) {
+            case "admin":
+                resultado.add(obtener(Rol.NombreRol.ROL_ADMIN));
+                break;
+            case "docente":
+                resultado.add(obtener(Rol.NombreRol.ROL_DOCENTE));
+                break;
+            default:
+                resultado.add(obtener(Rol.NombreRol.ROL_ESTUDIANTE));
+            }
+        }
+        return resultado;
+    }
+}
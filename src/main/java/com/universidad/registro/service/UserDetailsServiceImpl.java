@@ -1,6 +1,8 @@
 package com.universidad.registro.service;
 
 
+import com.universidad.conexiones.ClasePool;
+import com.universidad.conexiones.PoolConexiones;
 import com.universidad.registro.model.Usuario;
 import com.universidad.registro.repository.UsuarioRepository;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,6 +20,7 @@ import java.util.stream.Collectors;
 
 
 @Service
+@PoolConexiones(ClasePool.AUTENTICACION) // El filtro JWT lo llama en cada solicitud: no compite con el resto
 public class UserDetailsServiceImpl implements UserDetailsService {
     // Inyectar el repositorio de Usuario para acceder a los datos de usuario
     // y sus roles 
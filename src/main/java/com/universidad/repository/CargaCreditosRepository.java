@@ -0,0 +1,20 @@
+package com.universidad.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.universidad.model.CargaCreditos;
+
+@Repository
+public interface CargaCreditosRepository extends JpaRepository<CargaCreditos, Long> {
+
+    // Ajusta la carga de todos los estudiantes con la materia en curso cuando cambian sus créditos
+    @Modifying
+    @Query(value = "UPDATE carga_creditos SET creditos = GREATEST(creditos + :diferencia, 0) " +
+                   "WHERE estudiante_id IN (SELECT i.estudiante_id FROM inscripciones i " +
+                   "WHERE i.materia_id = :materiaId AND i.activo = true AND i.estado = 'PENDIENTE')", nativeQuery = true)
+    int ajustarPorMateria(@Param("materiaId") Long materiaId, @Param("diferencia") int diferencia);
+}
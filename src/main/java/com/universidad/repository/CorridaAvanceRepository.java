@@ -0,0 +1,14 @@
+package com.universidad.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.universidad.model.CorridaAvance;
+
+@Repository
+public interface CorridaAvanceRepository extends JpaRepository<CorridaAvance, Long> {
+
+    List<CorridaAvance> findTop20ByOrderByIdDesc();
+}
@@ -4,7 +4,11 @@ import com.universidad.model.Estudiante; // Importa la clase Estudiante del paqu
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository; // Importa la anotación Repository de Spring
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import jakarta.persistence.LockModeType;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository // Anotación que indica que esta clase es un repositorio de Spring
@@ -20,9 +24,16 @@ public interface EstudianteRepository extends JpaRepository<Estudiante, Long> {
     // Método para encontrar un estudiante por su estado
     Estudiante findByEstado(String estado); // Método para encontrar un estudiante por su estado
 
+    // findById no bloquea: las lecturas no esperan a los escritores y las modificaciones usan la versión.
+    // Solo las operaciones que deben serializarse sobre el estudiante (sus inscripciones) lo bloquean
     @Lock(LockModeType.PESSIMISTIC_WRITE)
-    Optional<Estudiante> findById(Long id); // Método para encontrar un estudiante por su ID con bloqueo pesimista
-    // Este método se utiliza para evitar condiciones de carrera al actualizar el estudiante
+    @Query("SELECT e FROM Estudiante e WHERE e.id = :id")
+    Optional<Estudiante> findByIdForUpdate(@Param("id") Long id);
+
+    // Bloquea varios estudiantes a la vez; el orden por id evita interbloqueos entre lotes que se solapan
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM Estudiante e WHERE e.id IN :ids ORDER BY e.id")
+    List<Estudiante> bloquearPorIds(@Param("ids") Collection<Long> ids);
     
 
 }
\ No newline at end of file
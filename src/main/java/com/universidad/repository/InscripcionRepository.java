@@ -1,18 +1,23 @@
 package com.universidad.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import com.universidad.model.Estudiante;
+import com.universidad.dto.InscritoDTO;
+import com.universidad.inscripcion.FranjaHoraria;
 import com.universidad.model.Inscripcion;
 
-import io.lettuce.core.dynamic.annotation.Param;
-import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 
 @Repository
 public interface InscripcionRepository extends JpaRepository<Inscripcion, Long> {
@@ -20,13 +25,64 @@ public interface InscripcionRepository extends JpaRepository<Inscripcion, Long>
     @Query("SELECT i FROM Inscripcion i WHERE i.estudiante.id = :estudianteId AND i.activo = true")
     List<Inscripcion> findByEstudianteId(@Param("estudianteId") Long estudianteId);
 
-    @Lock(LockModeType.PESSIMISTIC_WRITE)
-    Optional<Inscripcion> findByIdAndActivoTrue(Long id); 
+    Optional<Inscripcion> findByIdAndActivoTrue(Long id);
 
     boolean existsByEstudianteIdAndMateriaIdAndActivoTrue(Long estudianteId, Long materiaId);
-    @Query("SELECT COUNT(i) > 0 FROM Inscripcion i " +
-           "WHERE i.estudiante.id = :estudianteId " +
-           "AND i.materia.id IN (SELECT p.id FROM Materia m JOIN m.prerequisitos p WHERE m.id = :materiaId) " +
-           "AND i.estado = 'APROBADA'")
+    // Verdadero solo si el estudiante tiene aprobados todos los prerequisitos de la materia
+    @Query("SELECT COUNT(p) = 0 FROM Materia m JOIN m.prerequisitos p " +
+           "WHERE m.id = :materiaId " +
+           "AND p.id NOT IN (SELECT i.materia.id FROM Inscripcion i " +
+           "WHERE i.estudiante.id = :estudianteId AND i.estado = 'APROBADA')")
     boolean verificarPrerequisitosCompletos(@Param("estudianteId") Long estudianteId, @Param("materiaId") Long materiaId);
-}
\ No newline at end of file
+
+    // Franjas horarias de las materias en curso del estudiante (inscripciones vigentes y pendientes)
+    @Query("SELECT new com.universidad.inscripcion.FranjaHoraria(m.id, m.nombreMateria, h.diaSemana, h.horaInicio, h.horaFin) " +
+           "FROM Inscripcion i JOIN i.materia m JOIN m.horarios h " +
+           "WHERE i.estudiante.id = :estudianteId AND i.activo = true AND i.estado = 'PENDIENTE'")
+    List<FranjaHoraria> findFranjasVigentesByEstudianteId(@Param("estudianteId") Long estudianteId);
+
+    // Créditos en curso del estudiante calculados desde las inscripciones (fuente de la carga de créditos)
+    @Query("SELECT COALESCE(SUM(i.materia.creditos), 0) FROM Inscripcion i " +
+           "WHERE i.estudiante.id = :estudianteId AND i.activo = true AND i.estado = 'PENDIENTE'")
+    long sumarCreditosEnCurso(@Param("estudianteId") Long estudianteId);
+
+    // Ids de las materias aprobadas por el estudiante
+    @Query("SELECT i.materia.id FROM Inscripcion i WHERE i.estudiante.id = :estudianteId AND i.estado = 'APROBADA'")
+    List<Long> findMateriaIdsAprobadas(@Param("estudianteId") Long estudianteId);
+
+    // Pares (estudiante, materia aprobada) de varios estudiantes entre las materias dadas, para verificar sus prerequisitos en bloque
+    @Query("SELECT i.estudiante.id, i.materia.id FROM Inscripcion i " +
+           "WHERE i.estudiante.id IN :estudianteIds AND i.materia.id IN :materiaIds AND i.estado = 'APROBADA'")
+    List<Object[]> findParesAprobadas(@Param("estudianteIds") Collection<Long> estudianteIds,
+                                      @Param("materiaIds") Collection<Long> materiaIds);
+
+    // Franjas en curso de varios estudiantes: (estudiante, materia, nombre, día, hora de inicio, hora de fin)
+    @Query("SELECT i.estudiante.id, m.id, m.nombreMateria, h.diaSemana, h.horaInicio, h.horaFin " +
+           "FROM Inscripcion i JOIN i.materia m JOIN m.horarios h " +
+           "WHERE i.estudiante.id IN :estudianteIds AND i.activo = true AND i.estado = 'PENDIENTE'")
+    List<Object[]> findFranjasVigentesByEstudianteIds(@Param("estudianteIds") Collection<Long> estudianteIds);
+
+    // Cuáles de los estudiantes ya tienen una inscripción vigente en la materia
+    @Query("SELECT i.estudiante.id FROM Inscripcion i " +
+           "WHERE i.materia.id = :materiaId AND i.activo = true AND i.estudiante.id IN :estudianteIds")
+    List<Long> findEstudianteIdsInscritos(@Param("materiaId") Long materiaId, @Param("estudianteIds") Collection<Long> estudianteIds);
+
+    // Ids de las materias con inscripción vigente del estudiante (las que no puede volver a inscribir)
+    @Query("SELECT i.materia.id FROM Inscripcion i WHERE i.estudiante.id = :estudianteId AND i.activo = true")
+    List<Long> findMateriaIdsVigentes(@Param("estudianteId") Long estudianteId);
+
+    // Inscritos vigentes de una materia: una sola consulta sobre inscripciones, estudiante y persona
+    // que usa el índice (materia_id, activo) y construye las filas sin cargar entidades
+    String INSCRITOS = "SELECT new com.universidad.dto.InscritoDTO(e.id, e.numeroInscripcion, e.apellido, e.nombre, e.email, " +
+           "i.estado, i.fechaInscripcion) FROM Inscripcion i JOIN i.estudiante e " +
+           "WHERE i.materia.id = :materiaId AND i.activo = true ORDER BY e.apellido, e.nombre, e.id";
+
+    @Query(value = INSCRITOS,
+           countQuery = "SELECT COUNT(i) FROM Inscripcion i WHERE i.materia.id = :materiaId AND i.activo = true")
+    Page<InscritoDTO> findInscritosByMateriaId(@Param("materiaId") Long materiaId, Pageable pageable);
+
+    // Misma consulta recorrida con cursor; debe consumirse dentro de una transacción
+    @Query(INSCRITOS)
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<InscritoDTO> streamInscritosByMateriaId(@Param("materiaId") Long materiaId);
+}
@@ -0,0 +1,22 @@
+package com.universidad.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.universidad.model.SolicitudListaEspera;
+
+@Repository
+public interface ListaEsperaRepository extends JpaRepository<SolicitudListaEspera, Long> {
+
+    // Primera solicitud en espera para la materia (orden de llegada)
+    Optional<SolicitudListaEspera> findFirstByMateriaIdOrderByIdAsc(Long materiaId);
+
+    boolean existsByMateriaIdAndEstudianteId(Long materiaId, Long estudianteId);
+
+    long countByMateriaId(Long materiaId);
+
+    // Posición de una solicitud en la cola de su materia
+    long countByMateriaIdAndIdLessThanEqual(Long materiaId, Long id);
+}
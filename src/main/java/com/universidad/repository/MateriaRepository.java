@@ -1,16 +1,39 @@
 package com.universidad.repository;
 
 import com.universidad.model.Materia;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
-import org.springframework.data.jpa.repository.Lock;
-import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import jakarta.persistence.QueryHint;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface MateriaRepository extends JpaRepository<Materia, Long> {
     Materia findByCodigoUnico(String codigoUnico);
 
-    @Lock(LockModeType.PESSIMISTIC_WRITE) // Bloqueo pesimista para evitar condiciones de carrera
-    Optional<Materia> findById(Long id);
+    // Lectura sin bloqueo: las inscripciones no deben serializarse sobre la fila de la materia.
+    // No sale de la caché de segundo nivel, que es de cada nodo: el cupo pudo cambiar o la materia
+    // eliminarse en otro nodo. La materia leída renueva la entrada de la caché de este nodo
+    @Query("SELECT m FROM Materia m WHERE m.id = :id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "REFRESH"))
+    Optional<Materia> buscarSinBloqueo(@Param("id") Long id);
+
+    // Ids de los prerequisitos directos de la materia
+    @Query("SELECT p.id FROM Materia m JOIN m.prerequisitos p WHERE m.id = :id")
+    List<Long> findPrerequisitoIds(@Param("id") Long id);
+
+    // Pares (id, nombre) de los prerequisitos directos de la materia, leídos sin la caché de la colección
+    @Query("SELECT p.id, p.nombreMateria FROM Materia m JOIN m.prerequisitos p WHERE m.id = :id ORDER BY p.id")
+    List<Object[]> findPrerequisitosConNombre(@Param("id") Long id);
+
+    // Todos los pares (materia, prerequisito) del catálogo
+    @Query("SELECT m.id, p.id FROM Materia m JOIN m.prerequisitos p")
+    List<Object[]> findParesPrerequisito();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Materia> findByActivoTrue();
 }
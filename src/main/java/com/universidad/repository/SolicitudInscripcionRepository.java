@@ -0,0 +1,14 @@
+package com.universidad.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.universidad.model.SolicitudInscripcion;
+
+@Repository
+public interface SolicitudInscripcionRepository extends JpaRepository<SolicitudInscripcion, Long> {
+
+    Optional<SolicitudInscripcion> findByTicket(String ticket);
+}
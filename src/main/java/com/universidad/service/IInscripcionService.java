@@ -2,7 +2,10 @@ package com.universidad.service;
 
 import java.util.List;
 
+import com.universidad.dto.EstadisticaInscripcionDTO;
 import com.universidad.dto.InscripcionDTO;
+import com.universidad.dto.ListaEsperaDTO;
+import com.universidad.dto.SolicitudInscripcionDTO;
 import com.universidad.model.Inscripcion.EstadoInscripcion;
 
 public interface IInscripcionService {
@@ -12,9 +15,25 @@ public interface IInscripcionService {
 
     InscripcionDTO crear(InscripcionDTO inscripcionDTO);
 
+    /**
+     * Inscribe en una sola transacción un lote de solicitudes para la misma materia.
+     * Los estudiantes, sus inscripciones en la materia y sus datos de elegibilidad se cargan en bloque;
+     * las solicitudes que no cumplen alguna validación se rechazan sin afectar al resto del lote.
+     * @return el resultado de cada solicitud, en el mismo orden (INSCRITA o RECHAZADA)
+     */
+    List<SolicitudInscripcionDTO> crearLote(Long materiaId, List<InscripcionDTO> solicitudes);
+
     InscripcionDTO actualizarEstado(Long id, EstadoInscripcion estado);
 
     void cancelarInscripcion(Long id);
 
+    ListaEsperaDTO solicitarListaEspera(Long estudianteId, Long materiaId);
+
+    /**
+     * Número de inscripciones por estado de una materia, o de todas si materiaId es null.
+     * Se lee de los contadores en memoria, sin consultar las inscripciones.
+     */
+    List<EstadisticaInscripcionDTO> obtenerEstadisticas(Long materiaId);
+
 
 }
@@ -1,9 +1,16 @@
 package com.universidad.service;
 
+import com.universidad.dto.CupoDTO;
+import com.universidad.dto.InscritoDTO;
 import com.universidad.dto.MateriaDTO;
 import com.universidad.model.Materia;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
 public interface IMateriaService {
     List<MateriaDTO> obtenerTodasLasMaterias();
     MateriaDTO obtenerMateriaPorId(Long id);
@@ -12,4 +19,21 @@ public interface IMateriaService {
     MateriaDTO actualizarMateria(Long id, MateriaDTO materia);
     void eliminarMateria(Long id);
     MateriaDTO asignarDocente(Long id, Long docenteId);
+    CupoDTO obtenerCupo(Long id);
+
+    /**
+     * Materias activas en las que el estudiante puede inscribirse ahora: no aprobadas ni
+     * inscritas, con todos sus prerequisitos aprobados y sin conflicto de horario.
+     */
+    List<MateriaDTO> obtenerMateriasDisponibles(Long estudianteId);
+
+    /**
+     * Página de los estudiantes inscritos (inscripciones vigentes) en la materia.
+     */
+    Page<InscritoDTO> obtenerInscritos(Long id, Pageable pageable);
+
+    /**
+     * Escribe en CSV todos los inscritos de la materia, fila a fila, sin cargarlos en memoria.
+     */
+    void exportarInscritosCsv(Long id, OutputStream salida) throws IOException;
 }
@@ -1,6 +1,8 @@
 package com.universidad.service.impl; // Define el paquete al que pertenece esta clase
 
+import com.universidad.cache.VersionRegistry;
 import com.universidad.dto.EstudianteDTO; // Importa la clase EstudianteDTO del paquete dto
+import com.universidad.inscripcion.ReintentoOptimista;
 import com.universidad.model.Estudiante; // Importa la clase Estudiante del paquete model
 import com.universidad.model.Materia;
 import com.universidad.repository.EstudianteRepository; // Importa la clase EstudianteRepository del paquete repository
@@ -26,6 +28,12 @@ public class EstudianteServiceImpl implements IEstudianteService { // Define la
 
     @Autowired // Inyección de dependencias del validador de estudiantes
     private EstudianteValidator estudianteValidator; // Declara una variable para el validador de estudiantes
+
+    @Autowired // Registro de versiones usado para los ETags de estudiantes
+    private VersionRegistry versionRegistry;
+
+    @Autowired // Repite las modificaciones que chocan con otra escritura del mismo estudiante
+    private ReintentoOptimista reintentoOptimista;
     
     public EstudianteServiceImpl(EstudianteRepository estudianteRepository, EstudianteValidator estudianteValidator) {
         this.estudianteRepository = estudianteRepository;
@@ -37,7 +45,7 @@ public class EstudianteServiceImpl implements IEstudianteService { // Define la
     }*/
 
     @Override
-    @Cacheable(value = "estudiantes")
+    @Cacheable(value = "estudiantes", sync = true)
     public List<EstudianteDTO> obtenerTodosLosEstudiantes() {
         // Obtiene todos los estudiantes y los convierte a DTO
         return estudianteRepository.findAll().stream() // Obtiene todos los estudiantes de la base de datos
@@ -46,7 +54,7 @@ public class EstudianteServiceImpl implements IEstudianteService { // Define la
     }
 
     @Override
-    @Cacheable(value = "estudiante", key = "#numeroInscripcion")
+    @Cacheable(value = "estudiante", key = "#numeroInscripcion", sync = true)
     public EstudianteDTO obtenerEstudiantePorNumeroInscripcion(String numeroInscripcion) {
         // Busca un estudiante por su número de inscripción y lo convierte a DTO
         Estudiante estudiante = estudianteRepository.findByNumeroInscripcion(numeroInscripcion); // Busca el estudiante por su número de inscripción
@@ -54,7 +62,7 @@ public class EstudianteServiceImpl implements IEstudianteService { // Define la
     }
 
     @Override
-    @Cacheable(value = "estudiantesActivos")
+    @Cacheable(value = "estudiantesActivos", sync = true)
     public List<EstudianteDTO> obtenerEstudianteActivo() { // Método para obtener una lista de estudiantes activos
         // Busca todos los estudiantes activos y los convierte a DTO
         return estudianteRepository.findAll().stream() // Obtiene todos los estudiantes de la base de datos
@@ -65,7 +73,7 @@ public class EstudianteServiceImpl implements IEstudianteService { // Define la
 
 
     @Override
-    @Cacheable(value = "materiasEstudiante", key = "#estudianteId")
+    @Cacheable(value = "materiasEstudiante", key = "#estudianteId", sync = true)
     public List<Materia> obtenerMateriasDeEstudiante(Long estudianteId) { // Método para obtener las materias de un estudiante por su ID
         // Busca el estudiante por su ID y obtiene sus materias
         Estudiante estudiante = estudianteRepository.findById(estudianteId)
@@ -83,6 +91,7 @@ public class EstudianteServiceImpl implements IEstudianteService { // Define la
         // Convierte el DTO a entidad, guarda el estudiante y lo convierte de nuevo a DTO
         Estudiante estudiante = convertToEntity(estudianteDTO); // Convierte el EstudianteDTO a Estudiante
         Estudiante estudianteGuardado = estudianteRepository.save(estudiante); // Guarda el estudiante en la base de datos
+        registrarEscritura(estudianteGuardado); // Actualiza la versión conocida para los ETags
         return convertToDTO(estudianteGuardado); // Convierte el Estudiante guardado a EstudianteDTO y lo retorna
     }
 
@@ -90,9 +99,15 @@ public class EstudianteServiceImpl implements IEstudianteService { // Define la
     @CachePut(value = "estudiante", key = "#id")
     @CacheEvict(value = {"estudiantes", "estudiantesActivos"}, allEntries = true)
     public EstudianteDTO actualizarEstudiante(Long id, EstudianteDTO estudianteDTO) { // Método para actualizar un estudiante existente
+        // La lectura no bloquea al estudiante: un conflicto de versión repite la actualización con los datos nuevos
+        return reintentoOptimista.ejecutar(() -> aplicarActualizacion(id, estudianteDTO));
+    }
+
+    private EstudianteDTO aplicarActualizacion(Long id, EstudianteDTO estudianteDTO) {
         // Busca el estudiante por su ID, actualiza sus datos y lo guarda de nuevo
         Estudiante estudianteExistente = estudianteRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Estudiante no encontrado")); // Lanza una excepción si el estudiante no se encuentra
+        versionRegistry.invalidar("estudiante", estudianteExistente.getNumeroInscripcion()); // El número de inscripción puede cambiar
         estudianteExistente.setNombre(estudianteDTO.getNombre()); // Actualiza el nombre
         estudianteExistente.setApellido(estudianteDTO.getApellido()); // Actualiza el apellido
         estudianteExistente.setEmail(estudianteDTO.getEmail()); // Actualiza el email
@@ -101,13 +116,18 @@ public class EstudianteServiceImpl implements IEstudianteService { // Define la
         estudianteExistente.setUsuarioModificacion("admin"); // Actualiza el usuario de modificación
         estudianteExistente.setFechaModificacion(LocalDate.now()); // Actualiza la fecha de modificación
 
-        Estudiante estudianteActualizado = estudianteRepository.save(estudianteExistente); // Guarda el estudiante actualizado en la base de datos
+        Estudiante estudianteActualizado = estudianteRepository.saveAndFlush(estudianteExistente); // Guarda el estudiante actualizado (flush para obtener la nueva versión)
+        registrarEscritura(estudianteActualizado); // Actualiza la versión conocida para los ETags
         return convertToDTO(estudianteActualizado); // Convierte el Estudiante actualizado a EstudianteDTO y lo retorna
     }
 
     @Override
     @CacheEvict(value = {"estudiante", "estudiantes", "estudiantesActivos"}, allEntries = true)
     public EstudianteDTO eliminarEstudiante(Long id, EstudianteDTO estudianteDTO) { // Método para eliminar (de manera lógica) un estudiante por su ID
+        return reintentoOptimista.ejecutar(() -> aplicarBaja(id, estudianteDTO));
+    }
+
+    private EstudianteDTO aplicarBaja(Long id, EstudianteDTO estudianteDTO) {
         Estudiante estudianteExistente = estudianteRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Estudiante no encontrado")); // Lanza una excepción si el estudiante no se encuentra
         estudianteExistente.setEstado("inactivo"); // Actualiza el estado a inactivo
@@ -115,13 +135,15 @@ public class EstudianteServiceImpl implements IEstudianteService { // Define la
         estudianteExistente.setFechaBaja(LocalDate.now()); // Actualiza la fecha de baja
         estudianteExistente.setMotivoBaja(estudianteDTO.getMotivoBaja()); // Actualiza el motivo de baja
 
-        Estudiante estudianteInactivo = estudianteRepository.save(estudianteExistente); // Guarda el estudiante inactivo en la base de datos
+        Estudiante estudianteInactivo = estudianteRepository.saveAndFlush(estudianteExistente); // Guarda el estudiante inactivo (flush para obtener la nueva versión)
+        registrarEscritura(estudianteInactivo); // Actualiza la versión conocida para los ETags
         return convertToDTO(estudianteInactivo); // Convierte el Estudiante inactivo a EstudianteDTO y lo retorna
     }
 
     @Transactional
     public Estudiante obtenerEstudianteConBloqueo(Long id) {
-        Estudiante est = estudianteRepository.findById(id)
+        // Bloqueo explícito: solo detiene a otras escrituras del estudiante, las lecturas no lo esperan
+        Estudiante est = estudianteRepository.findByIdForUpdate(id)
             .orElseThrow(() -> new RuntimeException("Estudiante no encontrado"));
         // Simula un tiempo de procesamiento prolongado
         // Esto es solo para demostrar el bloqueo, en un caso real no se debería hacer esto
@@ -130,6 +152,11 @@ public class EstudianteServiceImpl implements IEstudianteService { // Define la
         return est;
     }
 
+    // Método auxiliar que registra la nueva versión del estudiante y el sello del catálogo
+    private void registrarEscritura(Estudiante estudiante) {
+        versionRegistry.registrarEscritura("estudiante", estudiante.getNumeroInscripcion(), estudiante.getVersion(), "estudiantes");
+    }
+
     // Método auxiliar para convertir entidad a DTO
     private EstudianteDTO convertToDTO(Estudiante estudiante) { // Método para convertir un Estudiante a EstudianteDTO
         return EstudianteDTO.builder() // Usa el patrón builder para crear un EstudianteDTO
@@ -146,6 +173,7 @@ public class EstudianteServiceImpl implements IEstudianteService { // Define la
                 .usuarioBaja(estudiante.getUsuarioBaja()) // Asigna el usuario de baja (puede ser null si no se desea mostrar)
                 .fechaBaja(estudiante.getFechaBaja()) // Asigna la fecha de baja (puede ser null si no se desea mostrar)
                 .motivoBaja(estudiante.getMotivoBaja()) // Asigna el motivo de baja (puede ser null si no se desea mostrar)
+                .version(estudiante.getVersion()) // Asigna la versión usada para el ETag
                 .build(); // Construye el objeto EstudianteDTO
     }
     
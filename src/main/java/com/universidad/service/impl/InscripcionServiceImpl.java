@@ -1,27 +1,50 @@
 package com.universidad.service.impl;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service; // Importa la anotación Service de Spring
 
+import com.universidad.dto.EstadisticaInscripcionDTO;
 import com.universidad.dto.InscripcionDTO;
+import com.universidad.dto.ListaEsperaDTO;
+import com.universidad.dto.SolicitudInscripcionDTO;
+import com.universidad.inscripcion.AsignadorCupos;
+import com.universidad.inscripcion.ContadorCreditos;
+import com.universidad.inscripcion.EstadisticasInscripcion;
+import com.universidad.inscripcion.IndiceHorarios;
+import com.universidad.inscripcion.ListaEspera;
+import com.universidad.inscripcion.MotorElegibilidad;
+import com.universidad.inscripcion.ReintentoOptimista;
+import com.universidad.inscripcion.TrasCommit;
 import com.universidad.model.Estudiante;
 import com.universidad.model.Inscripcion;
 import com.universidad.model.Inscripcion.EstadoInscripcion;
 import com.universidad.model.Materia;
+import com.universidad.model.SolicitudInscripcion.EstadoSolicitud;
 import com.universidad.repository.EstudianteRepository;
 import com.universidad.repository.InscripcionRepository;
 import com.universidad.repository.MateriaRepository;
 import com.universidad.service.IInscripcionService;
+import com.universidad.validation.CupoAgotadoException;
+import com.universidad.validation.ReglaNegocioException;
 
 
 import jakarta.persistence.EntityNotFoundException;
 
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.transaction.annotation.Transactional;
 
 
 
@@ -34,9 +57,25 @@ public class InscripcionServiceImpl implements IInscripcionService {
     private final EstudianteRepository estudianteRepository = null;
     @Autowired
     private final MateriaRepository materiaRepository = null;
+    @Autowired
+    private final IndiceHorarios indiceHorarios = null;
+    @Autowired
+    private final ContadorCreditos contadorCreditos = null;
+    @Autowired
+    private final AsignadorCupos asignadorCupos = null;
+    @Autowired
+    private final ListaEspera listaEspera = null;
+    @Autowired
+    private final MotorElegibilidad motorElegibilidad = null;
+    @Autowired
+    private final CacheManager cacheManager = null;
+    @Autowired
+    private final EstadisticasInscripcion estadisticas = null;
+    @Autowired
+    private final ReintentoOptimista reintentoOptimista = null;
 
     @Override 
-    @Cacheable(value = "inscripcionesEstudiante", key = "#estudianteId")
+    @Cacheable(value = "inscripcionesEstudiante", key = "#estudianteId", sync = true)
     public List<InscripcionDTO> obtenerInscripcionesPorEstudiante(Long estudianteId) {
         return inscripcionRepository.findByEstudianteId(estudianteId).stream()
             .map(this::convertToDTO)
@@ -44,7 +83,7 @@ public class InscripcionServiceImpl implements IInscripcionService {
     }
 
     @Override
-    @Cacheable(value = "inscripcion", key = "#id")
+    @Cacheable(value = "inscripcion", key = "#id", sync = true)
     public InscripcionDTO obtenerPorId(Long id) {
         Inscripcion inscripcion = inscripcionRepository.findByIdAndActivoTrue(id)
             .orElseThrow(() -> new EntityNotFoundException("Inscripcion no encontrada"));
@@ -52,28 +91,34 @@ public class InscripcionServiceImpl implements IInscripcionService {
     }
 
     @Override
+    @Transactional // El bloqueo del estudiante se mantiene hasta el commit, serializando sus inscripciones concurrentes
     @CacheEvict(value = {"inscripcionesEstudiante", "estudianteInscripciones"}, allEntries = true)
     public InscripcionDTO crear(InscripcionDTO inscripcionDTO) {
         // Validar estudiante
-        Estudiante estudiante = estudianteRepository.findById(inscripcionDTO.getEstudianteId())
+        Estudiante estudiante = estudianteRepository.findByIdForUpdate(inscripcionDTO.getEstudianteId())
             .orElseThrow(() -> new EntityNotFoundException("Estudiante no encontrado o inactivo"));
 
-        // Validar materia
-        Materia materia = materiaRepository.findById(inscripcionDTO.getMateriaId())
+        // Validar materia (sin bloquear su fila: el cupo lo controla el asignador en memoria)
+        Materia materia = materiaRepository.buscarSinBloqueo(inscripcionDTO.getMateriaId())
             .orElseThrow(() -> new EntityNotFoundException("Materia no encontrada o inactiva"));
 
         // Validar inscripción existente
         if (inscripcionRepository.existsByEstudianteIdAndMateriaIdAndActivoTrue(
                 estudiante.getId(), materia.getId())) {
-            throw new RuntimeException("El estudiante ya está inscrito en esta materia");
+            throw new ReglaNegocioException("El estudiante ya está inscrito en esta materia");
         }
 
-        // Validar prerequisitos
-        if (!materia.getPrerequisitos().isEmpty() && 
-            !inscripcionRepository.verificarPrerequisitosCompletos(
-                estudiante.getId(), materia.getId())) {
-            throw new RuntimeException("No cumple con los prerequisitos necesarios");
-        }
+        // Validar que tenga aprobados todos los prerequisitos (en la base de datos: otro nodo pudo aprobar o cambiar alguno)
+        motorElegibilidad.verificar(estudiante.getId(), materia);
+
+        // Validar que los horarios no se solapen con las materias en curso del estudiante
+        indiceHorarios.verificarSinConflictos(estudiante.getId(), materia);
+
+        // Sumar los créditos a la carga del estudiante; falla si se supera el máximo del periodo
+        contadorCreditos.sumar(estudiante.getId(), materia.getCreditos());
+
+        // Reservar un cupo; si la transacción hace rollback, el cupo se devuelve solo
+        reservarCupo(materia);
 
         Inscripcion inscripcion = Inscripcion.builder()
             .estudiante(estudiante)
@@ -84,13 +129,95 @@ public class InscripcionServiceImpl implements IInscripcionService {
             .build();
 
         Inscripcion saved = inscripcionRepository.save(inscripcion);
+        indiceHorarios.registrarInscripcion(estudiante.getId(), materia);
+        estadisticas.registrarAlta(materia.getId(), saved.getEstado());
+        invalidarDisponibles(estudiante.getId());
         return convertToDTO(saved);
     }
 
+    @Override
+    @Transactional // Los estudiantes del lote se bloquean juntos hasta el commit, como en crear
+    @CacheEvict(value = {"inscripcionesEstudiante", "estudianteInscripciones"}, allEntries = true)
+    public List<SolicitudInscripcionDTO> crearLote(Long materiaId, List<InscripcionDTO> solicitudes) {
+        Materia materia = materiaRepository.buscarSinBloqueo(materiaId).orElse(null);
+        if (materia == null) {
+            return solicitudes.stream().map(s -> rechazada(s, "Materia no encontrada o inactiva")).toList();
+        }
+
+        // Una consulta por lote en lugar de una por solicitud
+        Set<Long> estudianteIds = solicitudes.stream().map(InscripcionDTO::getEstudianteId).collect(Collectors.toCollection(TreeSet::new));
+        Map<Long, Estudiante> estudiantes = estudianteRepository.bloquearPorIds(estudianteIds).stream()
+            .collect(Collectors.toMap(Estudiante::getId, e -> e));
+        Set<Long> inscritos = new HashSet<>(inscripcionRepository.findEstudianteIdsInscritos(materiaId, estudianteIds));
+        // Los prerequisitos se verifican contra la base de datos, no contra la memoria de este nodo
+        MotorElegibilidad.Prerequisitos prerequisitos = motorElegibilidad.leerPrerequisitos(materiaId, estudiantes.keySet());
+        indiceHorarios.precargar(materia, estudiantes.keySet());
+
+        SolicitudInscripcionDTO[] resultados = new SolicitudInscripcionDTO[solicitudes.size()];
+        List<Inscripcion> nuevas = new ArrayList<>();
+        List<Integer> posiciones = new ArrayList<>();
+        for (int i = 0; i < solicitudes.size(); i++) {
+            InscripcionDTO solicitud = solicitudes.get(i);
+            Estudiante estudiante = estudiantes.get(solicitud.getEstudianteId());
+            try {
+                if (estudiante == null) {
+                    throw new EntityNotFoundException("Estudiante no encontrado o inactivo");
+                }
+                if (inscritos.contains(estudiante.getId())) {
+                    throw new ReglaNegocioException("El estudiante ya está inscrito en esta materia");
+                }
+                prerequisitos.verificar(estudiante.getId());
+                indiceHorarios.verificarSinConflictos(estudiante.getId(), materia);
+                contadorCreditos.sumar(estudiante.getId(), materia.getCreditos());
+                try {
+                    reservarCupo(materia);
+                } catch (CupoAgotadoException e) {
+                    // La transacción sigue adelante con el resto del lote: se deshace la suma de créditos
+                    contadorCreditos.restar(estudiante.getId(), materia.getCreditos());
+                    throw e;
+                }
+            } catch (ReglaNegocioException | EntityNotFoundException e) {
+                resultados[i] = rechazada(solicitud, e.getMessage());
+                continue;
+            }
+            inscritos.add(estudiante.getId());
+            nuevas.add(Inscripcion.builder()
+                .estudiante(estudiante)
+                .materia(materia)
+                .fechaInscripcion(solicitud.getFechaInscripcion())
+                .estado(EstadoInscripcion.PENDIENTE)
+                .activo(true)
+                .build());
+            posiciones.add(i);
+        }
+
+        List<Inscripcion> guardadas = inscripcionRepository.saveAll(nuevas);
+        for (int j = 0; j < guardadas.size(); j++) {
+            Inscripcion saved = guardadas.get(j);
+            Long estudianteId = saved.getEstudiante().getId();
+            indiceHorarios.registrarInscripcion(estudianteId, materia);
+            estadisticas.registrarAlta(materiaId, saved.getEstado());
+            invalidarDisponibles(estudianteId);
+            resultados[posiciones.get(j)] = SolicitudInscripcionDTO.builder()
+                .estado(EstadoSolicitud.INSCRITA)
+                .estudianteId(estudianteId)
+                .materiaId(materiaId)
+                .fechaInscripcion(saved.getFechaInscripcion())
+                .inscripcion(convertToDTO(saved))
+                .build();
+        }
+        return Arrays.asList(resultados);
+    }
+
     @Override
     @CachePut(value = "inscripcion", key = "#id")
     @CacheEvict(value = {"inscripcionesEstudiante", "estudianteInscripciones"}, allEntries = true)
     public InscripcionDTO actualizarEstado(Long id, EstadoInscripcion estado) {
+        // Sin bloquear la inscripción: si cambió mientras tanto, el cambio de estado se repite sobre la versión nueva
+        return reintentoOptimista.ejecutar(() -> aplicarEstado(id, estado));
+    }
+
+    private InscripcionDTO aplicarEstado(Long id, EstadoInscripcion estado) {
         Inscripcion inscripcion = inscripcionRepository.findById(id)
             .orElseThrow(() -> new EntityNotFoundException("Inscripción no encontrada"));
         
@@ -98,13 +225,40 @@ public class InscripcionServiceImpl implements IInscripcionService {
             throw new RuntimeException("No se puede modificar una inscripción inactiva");
         }
         
+        EstadoInscripcion anterior = inscripcion.getEstado();
+        Long estudianteId = inscripcion.getEstudiante().getId();
+        Materia materia = inscripcion.getMateria();
+        // Solo las inscripciones pendientes (materias en curso) ocupan horario y suman créditos
+        if (anterior != EstadoInscripcion.PENDIENTE && estado == EstadoInscripcion.PENDIENTE) {
+            contadorCreditos.sumar(estudianteId, materia.getCreditos());
+            reservarCupo(materia);
+            indiceHorarios.registrarInscripcion(estudianteId, materia);
+        }
+        // Las materias aprobadas habilitan las materias de las que son prerequisito
+        if (anterior != EstadoInscripcion.APROBADA && estado == EstadoInscripcion.APROBADA) {
+            motorElegibilidad.registrarAprobada(estudianteId, materia.getId());
+        } else if (anterior == EstadoInscripcion.APROBADA && estado != EstadoInscripcion.APROBADA) {
+            motorElegibilidad.quitarAprobada(estudianteId, materia.getId());
+        }
         inscripcion.setEstado(estado);
-        return convertToDTO(inscripcionRepository.save(inscripcion));
+        Inscripcion actualizada = inscripcionRepository.save(inscripcion);
+        if (anterior == EstadoInscripcion.PENDIENTE && estado != EstadoInscripcion.PENDIENTE) {
+            contadorCreditos.restar(estudianteId, materia.getCreditos());
+            liberarCupo(materia);
+            indiceHorarios.quitarInscripcion(estudianteId, materia.getId());
+        }
+        estadisticas.registrarCambio(materia.getId(), anterior, estado);
+        invalidarDisponibles(estudianteId);
+        return convertToDTO(actualizada);
     }
 
     @Override
     @CacheEvict(value = {"inscripcion", "inscripcionesEstudiante", "estudianteInscripciones"}, key = "#id")
     public void cancelarInscripcion(Long id) {
+        reintentoOptimista.ejecutar(() -> aplicarCancelacion(id));
+    }
+
+    private void aplicarCancelacion(Long id) {
         Inscripcion inscripcion = inscripcionRepository.findById(id)
             .orElseThrow(() -> new EntityNotFoundException("Inscripción no encontrada"));
         
@@ -112,9 +266,70 @@ public class InscripcionServiceImpl implements IInscripcionService {
             throw new RuntimeException("No se puede cancelar una inscripción aprobada");
         }
         
+        if (!inscripcion.getActivo()) {
+            return; // Ya estaba cancelada: no se vuelven a restar sus créditos
+        }
+        EstadoInscripcion anterior = inscripcion.getEstado();
+        boolean enCurso = anterior == EstadoInscripcion.PENDIENTE;
         inscripcion.setEstado(EstadoInscripcion.CANCELADA);
         inscripcion.setActivo(false);
         inscripcionRepository.save(inscripcion);
+        if (enCurso) {
+            contadorCreditos.restar(inscripcion.getEstudiante().getId(), inscripcion.getMateria().getCreditos());
+            liberarCupo(inscripcion.getMateria());
+            indiceHorarios.quitarInscripcion(inscripcion.getEstudiante().getId(), inscripcion.getMateria().getId());
+        }
+        estadisticas.registrarCambio(inscripcion.getMateria().getId(), anterior, EstadoInscripcion.CANCELADA);
+        invalidarDisponibles(inscripcion.getEstudiante().getId());
+    }
+
+    @Override
+    public ListaEsperaDTO solicitarListaEspera(Long estudianteId, Long materiaId) {
+        if (!estudianteRepository.existsById(estudianteId)) {
+            throw new EntityNotFoundException("Estudiante no encontrado");
+        }
+        Materia materia = materiaRepository.buscarSinBloqueo(materiaId)
+            .orElseThrow(() -> new EntityNotFoundException("Materia no encontrada"));
+        if (materia.getCupo() == null) {
+            throw new ReglaNegocioException("La materia no tiene cupo limitado");
+        }
+        return listaEspera.solicitar(estudianteId, materiaId);
+    }
+
+    @Override
+    public List<EstadisticaInscripcionDTO> obtenerEstadisticas(Long materiaId) {
+        return materiaId != null ? List.of(estadisticas.obtener(materiaId)) : estadisticas.obtenerTodas();
+    }
+
+    private SolicitudInscripcionDTO rechazada(InscripcionDTO solicitud, String mensaje) {
+        return SolicitudInscripcionDTO.builder()
+            .estado(EstadoSolicitud.RECHAZADA)
+            .estudianteId(solicitud.getEstudianteId())
+            .materiaId(solicitud.getMateriaId())
+            .fechaInscripcion(solicitud.getFechaInscripcion())
+            .mensaje(mensaje)
+            .build();
+    }
+
+    private void reservarCupo(Materia materia) {
+        if (!asignadorCupos.reservar(materia)) {
+            throw new CupoAgotadoException("No hay cupos disponibles en la materia " + materia.getNombreMateria());
+        }
+    }
+
+    // El cupo queda libre con el commit de la inscripción; el lugar se ofrece a la lista de espera
+    private void liberarCupo(Materia materia) {
+        if (materia.getCupo() != null) {
+            listaEspera.promoverTrasCommit(materia.getId());
+        }
+    }
+
+    // Las materias disponibles del estudiante cambian con cualquiera de sus inscripciones
+    private void invalidarDisponibles(Long estudianteId) {
+        Cache disponibles = cacheManager.getCache("materiasDisponibles");
+        if (disponibles != null) {
+            TrasCommit.ejecutar(() -> disponibles.evict(estudianteId));
+        }
     }
 
     private InscripcionDTO convertToDTO(Inscripcion inscripcion) {
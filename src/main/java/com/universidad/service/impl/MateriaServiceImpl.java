@@ -1,23 +1,54 @@
 package com.universidad.service.impl;
 
+import com.universidad.cache.VersionRegistry;
+import com.universidad.conexiones.ClasePool;
+import com.universidad.conexiones.PoolConexiones;
+import com.universidad.dto.CupoDTO;
+import com.universidad.dto.HorarioDTO;
+import com.universidad.dto.InscritoDTO;
+import com.universidad.inscripcion.AsignadorCupos;
+import com.universidad.inscripcion.ContadorCreditos;
+import com.universidad.inscripcion.FranjaHoraria;
+import com.universidad.inscripcion.IndiceHorarios;
+import com.universidad.inscripcion.ListaEspera;
+import com.universidad.inscripcion.MotorElegibilidad;
+import com.universidad.inscripcion.ReintentoOptimista;
+import com.universidad.inscripcion.TrasCommit;
+import com.universidad.model.HorarioClase;
 import com.universidad.model.Docente;
 import com.universidad.model.Materia;
 import com.universidad.repository.DocenteRepository;
+import com.universidad.repository.EstudianteRepository;
+import com.universidad.repository.InscripcionRepository;
 import com.universidad.repository.MateriaRepository;
 import com.universidad.service.IMateriaService;
 
+import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.EntityNotFoundException;
 
 import com.universidad.dto.MateriaDTO;
+import org.hibernate.Cache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class MateriaServiceImpl implements IMateriaService {
@@ -26,6 +57,26 @@ public class MateriaServiceImpl implements IMateriaService {
     private MateriaRepository materiaRepository;
     @Autowired
     private DocenteRepository docenteRepository;
+    @Autowired
+    private EstudianteRepository estudianteRepository;
+    @Autowired
+    private InscripcionRepository inscripcionRepository;
+    @Autowired
+    private VersionRegistry versionRegistry;
+    @Autowired
+    private IndiceHorarios indiceHorarios;
+    @Autowired
+    private ContadorCreditos contadorCreditos;
+    @Autowired
+    private AsignadorCupos asignadorCupos;
+    @Autowired
+    private ListaEspera listaEspera;
+    @Autowired
+    private MotorElegibilidad motorElegibilidad;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private ReintentoOptimista reintentoOptimista;
     
     
 
@@ -37,27 +88,33 @@ public class MateriaServiceImpl implements IMateriaService {
                 .nombreMateria(materia.getNombreMateria())
                 .codigoUnico(materia.getCodigoUnico())
                 .creditos(materia.getCreditos())
+                .cupo(materia.getCupo())
+                .version(materia.getVersion())
                 .prerequisitos(materia.getPrerequisitos() != null ?
                     materia.getPrerequisitos().stream().map(Materia::getId).collect(Collectors.toList()) : null)
                 .esPrerequisitoDe(materia.getEsPrerequisitoDe() != null ?
                     materia.getEsPrerequisitoDe().stream().map(Materia::getId).collect(Collectors.toList()) : null)
+                .horarios(materia.getHorarios() != null ?
+                    materia.getHorarios().stream()
+                        .map(h -> new HorarioDTO(h.getDiaSemana(), h.getHoraInicio(), h.getHoraFin()))
+                        .collect(Collectors.toList()) : null)
                 .build();
     }
 
     @Override
-    @Cacheable(value = "materias")
+    @Cacheable(value = "materias", sync = true)
     public List<MateriaDTO> obtenerTodasLasMaterias() {
         return materiaRepository.findAll().stream().map(this::mapToDTO).collect(Collectors.toList());
     }
 
     @Override
-    @Cacheable(value = "materia", key = "#id")
+    @Cacheable(value = "materia", key = "#id", sync = true)
     public MateriaDTO obtenerMateriaPorId(Long id) {
         return materiaRepository.findById(id).map(this::mapToDTO).orElse(null);
     }
 
     @Override
-    @Cacheable(value = "materia", key = "#codigoUnico")
+    @Cacheable(value = "materia", key = "#codigoUnico", sync = true)
     public MateriaDTO obtenerMateriaPorCodigoUnico(String codigoUnico) {
         Materia materia = materiaRepository.findByCodigoUnico(codigoUnico);
         return mapToDTO(materia);
@@ -65,46 +122,185 @@ public class MateriaServiceImpl implements IMateriaService {
 
     @Override
     @CachePut(value = "materia", key = "#result.id")
-    @CacheEvict(value = "materias", allEntries = true)
+    @CacheEvict(value = {"materias", "materiasDisponibles"}, allEntries = true)
     public MateriaDTO crearMateria(MateriaDTO materiaDTO) {
         Materia materia = new Materia();
         materia.setNombreMateria(materiaDTO.getNombreMateria());
         materia.setCodigoUnico(materiaDTO.getCodigoUnico());
         materia.setCreditos(materiaDTO.getCreditos());
+        materia.setCupo(materiaDTO.getCupo());
+        materia.setHorarios(mapHorarios(materiaDTO.getHorarios()));
         // Map other fields as necessary
         Materia savedMateria = materiaRepository.save(materia);
+        registrarEscritura(savedMateria);
         return mapToDTO(savedMateria);
     }
 
     @Override
     @CachePut(value = "materia", key = "#id")
-    @CacheEvict(value = "materias", allEntries = true)
+    @CacheEvict(value = {"materias", "materiasDisponibles"}, allEntries = true)
     public MateriaDTO actualizarMateria(Long id, MateriaDTO materiaDTO) {
+        // La carga de créditos de los estudiantes se ajusta en la misma transacción que la materia;
+        // ante un conflicto de versión se repite completa, con los créditos y el cupo recién leídos
+        return reintentoOptimista.ejecutar(() -> aplicarActualizacion(id, materiaDTO));
+    }
+
+    private MateriaDTO aplicarActualizacion(Long id, MateriaDTO materiaDTO) {
         Materia materia = materiaRepository.findById(id).orElseThrow(() -> new IllegalArgumentException("Materia not found"));
         materia.setNombreMateria(materiaDTO.getNombreMateria());
         materia.setCodigoUnico(materiaDTO.getCodigoUnico());
+        if (materiaDTO.getCreditos() == null) {
+            throw new IllegalArgumentException("Los créditos de la materia son obligatorios");
+        }
+        contadorCreditos.ajustarMateria(id, materiaDTO.getCreditos() - materia.getCreditos());
         materia.setCreditos(materiaDTO.getCreditos());
+        Integer cupoAnterior = materia.getCupo();
+        materia.setCupo(materiaDTO.getCupo());
+        asignadorCupos.actualizarCupo(id, cupoAnterior, materiaDTO.getCupo());
+        // Cada cupo nuevo se ofrece a la lista de espera
+        if (cupoAnterior != null && materiaDTO.getCupo() != null) {
+            for (int i = cupoAnterior; i < materiaDTO.getCupo(); i++) {
+                listaEspera.promoverTrasCommit(id);
+            }
+        }
+        if (materiaDTO.getHorarios() != null) {
+            materia.setHorarios(mapHorarios(materiaDTO.getHorarios()));
+            // Los índices de horario de los estudiantes inscritos quedan desactualizados
+            indiceHorarios.invalidarTodo();
+        }
         // Map other fields as necessary
-        Materia updatedMateria = materiaRepository.save(materia);
+        Materia updatedMateria = materiaRepository.saveAndFlush(materia); // Flush para obtener la nueva versión dentro de la transacción
+        registrarEscritura(updatedMateria);
         return mapToDTO(updatedMateria);
     }
 
      
     @Override
-    @CacheEvict(value = {"materia", "materias"}, allEntries = true)
+    @CacheEvict(value = {"materia", "materias", "materiasDisponibles"}, allEntries = true)
     public void eliminarMateria(Long id) {
         materiaRepository.deleteById(id);
+        asignadorCupos.revocar(id);
+        // Hibernate solo invalida las colecciones del lado propietario: las listas esPrerequisitoDe
+        // de los prerequisitos de la materia seguirían incluyéndola en la caché de segundo nivel
+        TrasCommit.ejecutar(() -> entityManagerFactory.getCache().unwrap(Cache.class)
+            .evictCollectionData(Materia.class.getName() + ".esPrerequisitoDe"));
+        motorElegibilidad.invalidarMateria(id);
+        versionRegistry.invalidar("materia", id);
+        versionRegistry.incrementarCatalogo("materias");
     }
 
     @Override
     @CachePut(value = {"materia", "docente"}, key = "{#id, #docenteId}")
     public MateriaDTO asignarDocente(Long id, Long docenteId) {
+        return reintentoOptimista.ejecutar(() -> aplicarDocente(id, docenteId));
+    }
+
+    private MateriaDTO aplicarDocente(Long id, Long docenteId) {
         Materia materia = materiaRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Materia not found"));
         Docente docente = docenteRepository.findById(docenteId)
             .orElseThrow(() -> new IllegalArgumentException("Docente not found"));
         materia.setDocente(docente);
-        return mapToDTO(materiaRepository.save(materia));
+        Materia actualizada = materiaRepository.saveAndFlush(materia); // Flush para obtener la nueva versión dentro de la transacción
+        registrarEscritura(actualizada);
+        return mapToDTO(actualizada);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @Cacheable(value = "materiasDisponibles", key = "#estudianteId", sync = true)
+    public List<MateriaDTO> obtenerMateriasDisponibles(Long estudianteId) {
+        if (!estudianteRepository.existsById(estudianteId)) {
+            throw new EntityNotFoundException("Estudiante no encontrado");
+        }
+        List<Materia> elegibles = motorElegibilidad.filtrarElegibles(estudianteId,
+            materiaRepository.findByActivoTrue(), inscripcionRepository.findMateriaIdsVigentes(estudianteId));
+        return elegibles.stream()
+            .filter(materia -> !indiceHorarios.tieneConflicto(estudianteId, materia))
+            .map(this::mapToDTO)
+            .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<InscritoDTO> obtenerInscritos(Long id, Pageable pageable) {
+        if (!materiaRepository.existsById(id)) {
+            throw new EntityNotFoundException("Materia no encontrada");
+        }
+        return inscripcionRepository.findInscritosByMateriaId(id, pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true) // El cursor de la consulta vive mientras dura la transacción
+    @PoolConexiones(ClasePool.LOTES) // Una exportación larga no retiene conexiones del pool de lectura
+    public void exportarInscritosCsv(Long id, OutputStream salida) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8));
+        writer.write("numero_inscripcion,apellido,nombre,email,estado,fecha_inscripcion\r\n");
+        try (Stream<InscritoDTO> filas = inscripcionRepository.streamInscritosByMateriaId(id)) {
+            Iterator<InscritoDTO> iterador = filas.iterator();
+            while (iterador.hasNext()) {
+                InscritoDTO inscrito = iterador.next();
+                writer.write(campoCsv(inscrito.getNumeroInscripcion()) + ","
+                    + campoCsv(inscrito.getApellido()) + ","
+                    + campoCsv(inscrito.getNombre()) + ","
+                    + campoCsv(inscrito.getEmail()) + ","
+                    + campoCsv(inscrito.getEstado()) + ","
+                    + campoCsv(inscrito.getFechaInscripcion()) + "\r\n");
+            }
+        }
+        writer.flush();
+    }
+
+    // Entrecomilla el valor si contiene separadores, comillas o saltos de línea (RFC 4180)
+    private static String campoCsv(Object valor) {
+        if (valor == null) {
+            return "";
+        }
+        String texto = valor.toString();
+        if (texto.indexOf(',') < 0 && texto.indexOf('"') < 0 && texto.indexOf('\n') < 0 && texto.indexOf('\r') < 0) {
+            return texto;
+        }
+        return "\"" + texto.replace("\"", "\"\"") + "\"";
+    }
+
+    @Override
+    public CupoDTO obtenerCupo(Long id) {
+        Materia materia = materiaRepository.buscarSinBloqueo(id)
+            .orElseThrow(() -> new EntityNotFoundException("Materia no encontrada"));
+        Integer ocupados = asignadorCupos.ocupados(materia);
+        return CupoDTO.builder()
+            .materiaId(id)
+            .cupo(materia.getCupo())
+            .ocupados(ocupados)
+            .disponibles(ocupados != null ? Math.max(materia.getCupo() - ocupados, 0) : null)
+            .enListaEspera(listaEspera.enEspera(id))
+            .build();
+    }
+
+    // Convierte y valida los horarios: cada franja debe terminar después de empezar y no solaparse con otra de la misma materia
+    private List<HorarioClase> mapHorarios(List<HorarioDTO> horariosDTO) {
+        List<HorarioClase> horarios = new ArrayList<>();
+        if (horariosDTO == null) {
+            return horarios;
+        }
+        List<FranjaHoraria> franjas = new ArrayList<>();
+        for (HorarioDTO dto : horariosDTO) {
+            if (!dto.getHoraFin().isAfter(dto.getHoraInicio())) {
+                throw new IllegalArgumentException("La hora de fin debe ser posterior a la de inicio: " + dto.getDiaSemana() + " " + dto.getHoraInicio() + "-" + dto.getHoraFin());
+            }
+            FranjaHoraria franja = new FranjaHoraria(null, "", dto.getDiaSemana(), dto.getHoraInicio(), dto.getHoraFin());
+            if (franjas.stream().anyMatch(franja::seSolapaCon)) {
+                throw new IllegalArgumentException("Los horarios de la materia se solapan entre sí: " + dto.getDiaSemana() + " " + dto.getHoraInicio() + "-" + dto.getHoraFin());
+            }
+            franjas.add(franja);
+            horarios.add(new HorarioClase(dto.getDiaSemana(), dto.getHoraInicio(), dto.getHoraFin()));
+        }
+        return horarios;
+    }
+
+    // Actualiza la versión conocida de la materia y el sello del catálogo tras una escritura
+    private void registrarEscritura(Materia materia) {
+        versionRegistry.registrarEscritura("materia", materia.getId(), materia.getVersion(), "materias");
     }
     
 }
@@ -0,0 +1,80 @@
+package com.universidad.sql;
+
+/**
+ * Sentencias SQL y tiempo de base de datos de la solicitud que atiende el hilo actual.
+ * Solo se cuenta mientras hay una medición abierta ({@link #iniciar}); DataSourceMedido lo alimenta.
+ */
+public final class ConsumoSql {
+
+    private static final ThreadLocal<ConsumoSql> ACTUAL = new ThreadLocal<>();
+
+    private final String operacion;
+    // Negativo si la operación no tiene presupuesto
+    private final int presupuesto;
+    private final boolean estricto;
+    private int sentencias;
+    private long nanos;
+
+    private ConsumoSql(String operacion, int presupuesto, boolean estricto) {
+        this.operacion = operacion;
+        this.presupuesto = presupuesto;
+        this.estricto = estricto;
+    }
+
+    /**
+     * Abre la medición del hilo actual. En modo estricto la sentencia que supera el presupuesto no se ejecuta.
+     */
+    static void iniciar(String operacion, int presupuesto, boolean estricto) {
+        ACTUAL.set(new ConsumoSql(operacion, presupuesto, estricto));
+    }
+
+    /**
+     * Cierra la medición del hilo actual y la devuelve (null si no había ninguna).
+     */
+    static ConsumoSql terminar() {
+        ConsumoSql consumo = ACTUAL.get();
+        ACTUAL.remove();
+        return consumo;
+    }
+
+    // Antes de ejecutar cada sentencia
+    static void contarSentencia() {
+        ConsumoSql consumo = ACTUAL.get();
+        if (consumo == null) {
+            return;
+        }
+        consumo.sentencias++;
+        if (consumo.estricto && consumo.excedido()) {
+            throw new PresupuestoExcedidoException("La operación " + consumo.operacion + " superó su presupuesto de "
+                + consumo.presupuesto + " sentencias SQL");
+        }
+    }
+
+    // Después de ejecutar cada sentencia
+    static void sumarTiempo(long nanos) {
+        ConsumoSql consumo = ACTUAL.get();
+        if (consumo != null) {
+            consumo.nanos += nanos;
+        }
+    }
+
+    public String getOperacion() {
+        return operacion;
+    }
+
+    public int getPresupuesto() {
+        return presupuesto;
+    }
+
+    public int getSentencias() {
+        return sentencias;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+
+    public boolean excedido() {
+        return presupuesto >= 0 && sentencias > presupuesto;
+    }
+}
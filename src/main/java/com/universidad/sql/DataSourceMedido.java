@@ -0,0 +1,263 @@
+package com.universidad.sql;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * DataSource que mide cada sentencia ejecutada por sus conexiones y la registra en {@link EstadisticasSql}.
+ * Las conexiones, sentencias y ResultSet se envuelven con proxies dinámicos; el resto de métodos
+ * se delegan sin cambios. Cada ejecución se suma también al {@link ConsumoSql} de la solicitud en curso.
+ */
+public class DataSourceMedido extends DelegatingDataSource {
+
+    private final EstadisticasSql estadisticas;
+    private final boolean contarFilas;
+
+    public DataSourceMedido(DataSource destino, EstadisticasSql estadisticas, boolean contarFilas) {
+        super(destino);
+        this.estadisticas = estadisticas;
+        this.contarFilas = contarFilas;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Connection conexion = super.getConnection();
+        return envolver(Connection.class, new ConexionMedida(conexion));
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        Connection conexion = super.getConnection(username, password);
+        return envolver(Connection.class, new ConexionMedida(conexion));
+    }
+
+    private static <T> T envolver(Class<T> tipo, InvocationHandler handler) {
+        return tipo.cast(Proxy.newProxyInstance(DataSourceMedido.class.getClassLoader(), new Class<?>[] {tipo}, handler));
+    }
+
+    private static Object invocar(Object destino, Method metodo, Object[] args) throws Throwable {
+        try {
+            return metodo.invoke(destino, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    // Identidad del proxy: los pools y Hibernate guardan conexiones y sentencias en mapas
+    private static Object identidad(Object proxy, Method metodo, Object[] args) {
+        switch (metodo.getName()) {
+        case "equals":
+            return proxy == args[0];
+        case "hashCode":
+            return System.identityHashCode(proxy);
+        default:
+            return null;
+        }
+    }
+
+    private class ConexionMedida implements InvocationHandler {
+
+        private final Connection destino;
+
+        private ConexionMedida(Connection destino) {
+            this.destino = destino;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method metodo, Object[] args) throws Throwable {
+            Object propio = identidad(proxy, metodo, args);
+            if (propio != null) {
+                return propio;
+            }
+            Object resultado = invocar(destino, metodo, args);
+            if (resultado instanceof Statement sentencia) {
+                // prepareStatement/prepareCall reciben la sentencia; createStatement la recibe al ejecutar
+                String sql = args != null && args.length > 0 && args[0] instanceof String texto ? texto : null;
+                Class<?> tipo = sentencia instanceof CallableStatement ? CallableStatement.class
+                    : sentencia instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+                return envolver(tipo, new SentenciaMedida(sentencia, sql));
+            }
+            return resultado;
+        }
+    }
+
+    // Consulta ejecutada cuyo resultado aún se está leyendo: se registra al cerrar el ResultSet
+    private static class Pendiente {
+        private final String sql;
+        private final long nanos;
+        private final String origen;
+        private long filas;
+
+        private Pendiente(String sql, long nanos, String origen) {
+            this.sql = sql;
+            this.nanos = nanos;
+            this.origen = origen;
+        }
+    }
+
+    private class SentenciaMedida implements InvocationHandler {
+
+        private final Statement destino;
+        private final String sql;
+        // Última sentencia añadida a un lote de un Statement simple
+        private String sqlLote;
+        private Pendiente pendiente;
+
+        private SentenciaMedida(Statement destino, String sql) {
+            this.destino = destino;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method metodo, Object[] args) throws Throwable {
+            Object propio = identidad(proxy, metodo, args);
+            if (propio != null) {
+                return propio;
+            }
+            String nombre = metodo.getName();
+            switch (nombre) {
+            case "executeQuery":
+            case "executeUpdate":
+            case "executeLargeUpdate":
+            case "execute":
+            case "executeBatch":
+            case "executeLargeBatch":
+                return ejecutar(metodo, args, nombre);
+            case "addBatch":
+                if (args != null && args.length == 1 && args[0] instanceof String texto) {
+                    sqlLote = texto;
+                }
+                return invocar(destino, metodo, args);
+            case "getResultSet":
+                return contar((ResultSet) invocar(destino, metodo, args));
+            case "close":
+                registrarPendiente();
+                return invocar(destino, metodo, args);
+            default:
+                return invocar(destino, metodo, args);
+            }
+        }
+
+        private Object ejecutar(Method metodo, Object[] args, String nombre) throws Throwable {
+            registrarPendiente();
+            String texto = args != null && args.length > 0 && args[0] instanceof String s ? s : sql != null ? sql : sqlLote;
+            String origen = OrigenSql.actual();
+            ConsumoSql.contarSentencia();
+            long inicio = System.nanoTime();
+            Object resultado;
+            try {
+                resultado = invocar(destino, metodo, args);
+            } catch (Throwable e) {
+                long nanos = System.nanoTime() - inicio;
+                ConsumoSql.sumarTiempo(nanos);
+                estadisticas.registrar(texto, nanos, 0, true, origen);
+                throw e;
+            }
+            long nanos = System.nanoTime() - inicio;
+            ConsumoSql.sumarTiempo(nanos);
+            if (resultado instanceof ResultSet rs) {
+                if (!contarFilas) {
+                    estadisticas.registrar(texto, nanos, 0, false, origen);
+                    return rs;
+                }
+                pendiente = new Pendiente(texto, nanos, origen);
+                return contar(rs);
+            }
+            if ("execute".equals(nombre) && Boolean.TRUE.equals(resultado) && contarFilas) {
+                // El resultado se obtiene después con getResultSet
+                pendiente = new Pendiente(texto, nanos, origen);
+                return resultado;
+            }
+            estadisticas.registrar(texto, nanos, filasModificadas(resultado, nombre), false, origen);
+            return resultado;
+        }
+
+        private long filasModificadas(Object resultado, String nombre) throws SQLException {
+            if (resultado instanceof int[] conteos) {
+                long total = 0;
+                for (int c : conteos) {
+                    total += Math.max(0, c);
+                }
+                return total;
+            }
+            if (resultado instanceof long[] conteos) {
+                long total = 0;
+                for (long c : conteos) {
+                    total += Math.max(0, c);
+                }
+                return total;
+            }
+            if (resultado instanceof Number numero) {
+                return Math.max(0, numero.longValue());
+            }
+            if ("execute".equals(nombre)) {
+                return Math.max(0, destino.getUpdateCount());
+            }
+            return 0;
+        }
+
+        private ResultSet contar(ResultSet rs) {
+            if (rs == null || pendiente == null) {
+                return rs;
+            }
+            return envolver(ResultSet.class, new ResultadoContado(rs, pendiente, this));
+        }
+
+        private void registrarPendiente() {
+            if (pendiente != null) {
+                Pendiente p = pendiente;
+                pendiente = null;
+                estadisticas.registrar(p.sql, p.nanos, p.filas, false, p.origen);
+            }
+        }
+    }
+
+    private static class ResultadoContado implements InvocationHandler {
+
+        private final ResultSet destino;
+        private final Pendiente pendiente;
+        private final SentenciaMedida sentencia;
+
+        private ResultadoContado(ResultSet destino, Pendiente pendiente, SentenciaMedida sentencia) {
+            this.destino = destino;
+            this.pendiente = pendiente;
+            this.sentencia = sentencia;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method metodo, Object[] args) throws Throwable {
+            Object propio = identidad(proxy, metodo, args);
+            if (propio != null) {
+                return propio;
+            }
+            Object resultado = invocar(destino, metodo, args);
+            switch (metodo.getName()) {
+            case "next":
+                if (Boolean.TRUE.equals(resultado)) {
+                    pendiente.filas++;
+                }
+                break;
+            case "close":
+                if (sentencia.pendiente == pendiente) {
+                    sentencia.registrarPendiente();
+                }
+                break;
+            default:
+                break;
+            }
+            return resultado;
+        }
+    }
+}
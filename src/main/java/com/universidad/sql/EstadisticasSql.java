@@ -0,0 +1,182 @@
+package com.universidad.sql;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Estadísticas por sentencia SQL normalizada: ejecuciones, tiempo total y máximo, filas y errores.
+ * Sustituye a spring.jpa.show-sql: en lugar de escribir cada sentencia solo se registran en el log
+ * las que superan app.sql.estadisticas.umbral-lenta, con el método que las originó.
+ * Los contadores son locales a cada nodo y se acumulan desde el arranque o el último reinicio.
+ */
+@Component
+public class EstadisticasSql {
+
+    private static final Logger logger = LoggerFactory.getLogger(EstadisticasSql.class);
+
+    private static final String OTRAS = "(otras sentencias)";
+
+    private final long umbralLentaNanos;
+    private final int maxSentencias;
+    private final Map<String, Acumulado> sentencias = new ConcurrentHashMap<>();
+    // Las sentencias de Hibernate y de los repositorios se repiten con el mismo texto: se normalizan una vez
+    private final Cache<String, String> normalizadas;
+    private volatile Instant desde = Instant.now();
+
+    public EstadisticasSql(SqlEstadisticasProperties properties) {
+        this.umbralLentaNanos = properties.getUmbralLenta().toNanos();
+        this.maxSentencias = Math.max(1, properties.getMaxSentencias());
+        this.normalizadas = Caffeine.newBuilder().maximumSize(maxSentencias * 4L).build();
+    }
+
+    // Contadores de una sentencia normalizada
+    private static class Acumulado {
+        private final LongAdder ejecuciones = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        private final LongAdder filas = new LongAdder();
+        private final LongAdder errores = new LongAdder();
+        // Último método que la ejecutó
+        private volatile String origen;
+    }
+
+    @Data
+    @Builder
+    public static class Sentencia {
+        private String sql;
+        /** Último repositorio o método de la aplicación que la ejecutó. */
+        private String origen;
+        private long ejecuciones;
+        private double totalMs;
+        private double mediaMs;
+        private double maxMs;
+        /** Filas leídas (consultas) o modificadas (actualizaciones y lotes). */
+        private long filas;
+        private long errores;
+    }
+
+    @Data
+    @Builder
+    public static class Resumen {
+        /** Inicio del periodo medido (arranque o último reinicio). */
+        private Instant desde;
+        private long umbralLentaMs;
+        private int sentenciasDistintas;
+        private long ejecuciones;
+        private double totalMs;
+        private List<Sentencia> sentencias;
+    }
+
+    /**
+     * Registra una ejecución. El origen es el del momento de la ejecución (null si no hay repositorio en curso).
+     */
+    void registrar(String sql, long nanos, long filas, boolean error, String origen) {
+        String normalizada = normalizadas.get(sql != null ? sql : "", NormalizadorSql::normalizar);
+        Acumulado acumulado = sentencias.get(normalizada);
+        if (acumulado == null) {
+            String clave = sentencias.size() >= maxSentencias ? OTRAS : normalizada;
+            acumulado = sentencias.computeIfAbsent(clave, k -> new Acumulado());
+        }
+        boolean lenta = nanos >= umbralLentaNanos;
+        if (origen == null && (acumulado.origen == null || lenta)) {
+            origen = OrigenSql.desdePila();
+        }
+        if (origen != null) {
+            acumulado.origen = origen;
+        }
+        acumulado.ejecuciones.increment();
+        acumulado.nanos.add(nanos);
+        acumulado.maxNanos.accumulate(nanos);
+        acumulado.filas.add(filas);
+        if (error) {
+            acumulado.errores.increment();
+        }
+        if (lenta) {
+            logger.warn("SQL lenta: {} ms, {} filas{}, desde {}: {}", TimeUnit.NANOSECONDS.toMillis(nanos), filas,
+                error ? " (con error)" : "", origen, normalizada);
+        }
+    }
+
+    /**
+     * Las n sentencias con mayor valor del criterio: total (por defecto), media, max, ejecuciones o filas.
+     */
+    public Resumen top(int n, String orden) {
+        List<Sentencia> todas = new ArrayList<>(sentencias.size());
+        long ejecuciones = 0;
+        double totalMs = 0;
+        for (Map.Entry<String, Acumulado> entrada : sentencias.entrySet()) {
+            Sentencia sentencia = aSentencia(entrada.getKey(), entrada.getValue());
+            ejecuciones += sentencia.getEjecuciones();
+            totalMs += sentencia.getTotalMs();
+            todas.add(sentencia);
+        }
+        todas.sort(criterio(orden).reversed());
+        return Resumen.builder()
+            .desde(desde)
+            .umbralLentaMs(Duration.ofNanos(umbralLentaNanos).toMillis())
+            .sentenciasDistintas(todas.size())
+            .ejecuciones(ejecuciones)
+            .totalMs(totalMs)
+            .sentencias(todas.subList(0, Math.min(Math.max(0, n), todas.size())))
+            .build();
+    }
+
+    /**
+     * Pone a cero los contadores, para medir un periodo concreto.
+     */
+    public void reiniciar() {
+        sentencias.clear();
+        desde = Instant.now();
+    }
+
+    private static Comparator<Sentencia> criterio(String orden) {
+        if (orden == null) {
+            return Comparator.comparingDouble(Sentencia::getTotalMs);
+        }
+        switch (orden) {
+        case "media":
+            return Comparator.comparingDouble(Sentencia::getMediaMs);
+        case "max":
+            return Comparator.comparingDouble(Sentencia::getMaxMs);
+        case "ejecuciones":
+            return Comparator.comparingLong(Sentencia::getEjecuciones);
+        case "filas":
+            return Comparator.comparingLong(Sentencia::getFilas);
+        default:
+            return Comparator.comparingDouble(Sentencia::getTotalMs);
+        }
+    }
+
+    private static Sentencia aSentencia(String sql, Acumulado acumulado) {
+        long ejecuciones = acumulado.ejecuciones.sum();
+        double totalMs = acumulado.nanos.sum() / 1_000_000.0;
+        return Sentencia.builder()
+            .sql(sql)
+            .origen(acumulado.origen)
+            .ejecuciones(ejecuciones)
+            .totalMs(totalMs)
+            .mediaMs(ejecuciones > 0 ? totalMs / ejecuciones : 0)
+            .maxMs(acumulado.maxNanos.get() / 1_000_000.0)
+            .filas(acumulado.filas.sum())
+            .errores(acumulado.errores.sum())
+            .build();
+    }
+}
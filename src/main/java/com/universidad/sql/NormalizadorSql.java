@@ -0,0 +1,78 @@
+package com.universidad.sql;
+
+import java.util.regex.Pattern;
+
+/**
+ * Reduce una sentencia SQL a su forma normalizada para agrupar las ejecuciones:
+ * los literales pasan a ?, los espacios se colapsan y las listas de parámetros
+ * de longitud variable (IN (?, ?, ?)) se escriben como una sola.
+ */
+final class NormalizadorSql {
+
+    private static final Pattern LISTA_PARAMETROS = Pattern.compile("\\(\\?(?:\\s*,\\s*\\?)+\\)");
+
+    private NormalizadorSql() {
+    }
+
+    static String normalizar(String sql) {
+        if (sql == null) {
+            return "(sin sentencia)";
+        }
+        StringBuilder resultado = new StringBuilder(sql.length());
+        int n = sql.length();
+        int i = 0;
+        boolean espacio = false;
+        while (i < n) {
+            char c = sql.charAt(i);
+            if (Character.isWhitespace(c)) {
+                espacio = true;
+                i++;
+                continue;
+            }
+            if (espacio && resultado.length() > 0) {
+                resultado.append(' ');
+            }
+            espacio = false;
+            if (c == '\'') {
+                // Literal de cadena, con '' como comilla escapada
+                i++;
+                while (i < n) {
+                    if (sql.charAt(i) == '\'') {
+                        if (i + 1 < n && sql.charAt(i + 1) == '\'') {
+                            i += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    i++;
+                }
+                resultado.append('?');
+                i++;
+            } else if (Character.isDigit(c) && !parteDeIdentificador(resultado)) {
+                while (i < n && (Character.isDigit(sql.charAt(i)) || sql.charAt(i) == '.')) {
+                    i++;
+                }
+                resultado.append('?');
+            } else if (Character.isLetter(c) || c == '_' || c == '"') {
+                // Identificadores y palabras clave (con sus dígitos, p. ej. i1_0.id)
+                while (i < n && (Character.isLetterOrDigit(sql.charAt(i)) || sql.charAt(i) == '_'
+                        || sql.charAt(i) == '"' || sql.charAt(i) == '$')) {
+                    resultado.append(sql.charAt(i));
+                    i++;
+                }
+            } else {
+                resultado.append(c);
+                i++;
+            }
+        }
+        return LISTA_PARAMETROS.matcher(resultado).replaceAll("(?...)");
+    }
+
+    private static boolean parteDeIdentificador(StringBuilder previo) {
+        if (previo.length() == 0) {
+            return false;
+        }
+        char anterior = previo.charAt(previo.length() - 1);
+        return Character.isLetterOrDigit(anterior) || anterior == '_';
+    }
+}
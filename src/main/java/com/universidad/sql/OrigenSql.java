@@ -0,0 +1,77 @@
+package com.universidad.sql;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+/**
+ * Método que origina las sentencias SQL del hilo actual.
+ * Los repositorios de Spring Data lo marcan al invocarse (Repositorio.metodo); para el resto
+ * (JdbcTemplate, flush al confirmar una transacción) se busca en la pila el primer método de la aplicación.
+ */
+public final class OrigenSql {
+
+    private static final ThreadLocal<String> ACTUAL = new ThreadLocal<>();
+    private static final StackWalker PILA = StackWalker.getInstance();
+
+    private OrigenSql() {
+    }
+
+    static String actual() {
+        return ACTUAL.get();
+    }
+
+    /**
+     * Primer método de la aplicación en la pila, fuera de este paquete. Recorrer la pila es costoso:
+     * solo se hace para sentencias nuevas o lentas.
+     */
+    static String desdePila() {
+        return PILA.walk(frames -> frames
+            .filter(f -> f.getClassName().startsWith("com.universidad.") && !f.getClassName().startsWith("com.universidad.sql."))
+            .findFirst()
+            .map(f -> nombreSimple(f.getClassName()) + "." + f.getMethodName())
+            .orElse(null));
+    }
+
+    private static String nombreSimple(String clase) {
+        String simple = clase.substring(clase.lastIndexOf('.') + 1);
+        // Proxies de Spring (Clase$$SpringCGLIB$$0) y clases internas
+        int proxy = simple.indexOf("$$");
+        return proxy > 0 ? simple.substring(0, proxy) : simple;
+    }
+
+    /**
+     * Interceptor que marca las invocaciones del repositorio como origen de las sentencias que ejecutan.
+     */
+    public static MethodInterceptor interceptor(String repositorio) {
+        return new Interceptor(repositorio);
+    }
+
+    private static class Interceptor implements MethodInterceptor {
+
+        private final String repositorio;
+        private final Map<Method, String> nombres = new ConcurrentHashMap<>();
+
+        private Interceptor(String repositorio) {
+            this.repositorio = repositorio;
+        }
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            String anterior = ACTUAL.get();
+            ACTUAL.set(nombres.computeIfAbsent(invocation.getMethod(), m -> repositorio + "." + m.getName()));
+            try {
+                return invocation.proceed();
+            } finally {
+                if (anterior == null) {
+                    ACTUAL.remove();
+                } else {
+                    ACTUAL.set(anterior);
+                }
+            }
+        }
+    }
+}
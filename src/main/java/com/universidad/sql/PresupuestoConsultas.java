@@ -0,0 +1,23 @@
+package com.universidad.sql;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Número máximo de sentencias SQL que puede ejecutar una solicitud atendida por el método del controlador.
+ * Cuenta desde que la solicitud llega al controlador (la autenticación queda fuera) hasta que se escribe
+ * la respuesta, incluidas las asociaciones perezosas que se cargan al serializarla. Debe cubrir también
+ * la primera solicitud de un nodo recién arrancado, cuando los índices y contadores en memoria se cargan.
+ * Según app.sql.estadisticas.presupuesto.modo un exceso se registra en el log o hace fallar la solicitud.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface PresupuestoConsultas {
+
+    /** Sentencias permitidas por solicitud. */
+    int value();
+}
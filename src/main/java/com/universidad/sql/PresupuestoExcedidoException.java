@@ -0,0 +1,12 @@
+package com.universidad.sql;
+
+/**
+ * Una solicitud ejecutó más sentencias SQL que su {@link PresupuestoConsultas} en modo estricto.
+ * Se lanza al intentar ejecutar la sentencia que lo excede, para que la traza apunte a la consulta sobrante.
+ */
+public class PresupuestoExcedidoException extends RuntimeException {
+
+    public PresupuestoExcedidoException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,167 @@
+package com.universidad.sql;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Cuenta las sentencias SQL y el tiempo de base de datos de cada solicitud medida y lo compara con el
+ * {@link PresupuestoConsultas} del método del controlador, para detectar regresiones N+1 de las
+ * asociaciones perezosas de Inscripcion, Materia y Estudiante.
+ * <ul>
+ *   <li>muestreo: se mide una fracción de las solicitudes; los excesos se registran en el log.</li>
+ *   <li>estricto: se miden todas y la sentencia que excede el presupuesto falla (para pruebas).</li>
+ * </ul>
+ * El consumo de cada solicitud medida queda en los atributos {@link #ATRIBUTO_SENTENCIAS} y
+ * {@link #ATRIBUTO_TIEMPO_MS}, y el acumulado por operación en GET /api/admin/sql/presupuestos.
+ * En los controladores asíncronos (StreamingResponseBody, DeferredResult) solo se mide la parte del método
+ * del controlador: la medición se cierra al liberar el hilo, porque afterCompletion no vuelve a ejecutarse en él.
+ */
+@Component
+public class PresupuestosConsultas implements AsyncHandlerInterceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(PresupuestosConsultas.class);
+
+    public static final String ATRIBUTO_SENTENCIAS = "sql.sentencias";
+    public static final String ATRIBUTO_TIEMPO_MS = "sql.tiempoMs";
+
+    private final SqlEstadisticasProperties.Presupuesto properties;
+    private final Map<String, Acumulado> operaciones = new ConcurrentHashMap<>();
+
+    public PresupuestosConsultas(SqlEstadisticasProperties properties) {
+        this.properties = properties.getPresupuesto();
+    }
+
+    // Consumo de las solicitudes medidas de una operación
+    private static class Acumulado {
+        private final int presupuesto;
+        private final LongAdder solicitudes = new LongAdder();
+        private final LongAdder sentencias = new LongAdder();
+        private final LongAccumulator maxSentencias = new LongAccumulator(Math::max, 0);
+        private final LongAdder nanos = new LongAdder();
+        private final LongAdder excesos = new LongAdder();
+
+        private Acumulado(int presupuesto) {
+            this.presupuesto = presupuesto;
+        }
+    }
+
+    @Data
+    @Builder
+    public static class Operacion {
+        /** Controlador.metodo */
+        private String operacion;
+        /** Sentencias permitidas; null si el método no declara presupuesto. */
+        private Integer presupuesto;
+        private long solicitudes;
+        private double mediaSentencias;
+        private long maxSentencias;
+        private double mediaMs;
+        private long excesos;
+    }
+
+    @Override
+    public boolean preHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull Object handler) {
+        // El despacho asíncrono posterior no abre una medición nueva: la solicitud ya se contó
+        if (!(handler instanceof HandlerMethod metodo) || request.getDispatcherType() == DispatcherType.ASYNC || !medir()) {
+            return true;
+        }
+        PresupuestoConsultas presupuesto = metodo.getMethodAnnotation(PresupuestoConsultas.class);
+        String operacion = metodo.getBeanType().getSimpleName() + "." + metodo.getMethod().getName();
+        ConsumoSql.iniciar(operacion, presupuesto != null ? presupuesto.value() : -1,
+            properties.getModo() == SqlEstadisticasProperties.Modo.ESTRICTO);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                @NonNull Object handler, Exception ex) {
+        registrar(request, ConsumoSql.terminar());
+    }
+
+    // El hilo vuelve al contenedor sin pasar por afterCompletion: la medición no debe quedar en él
+    @Override
+    public void afterConcurrentHandlingStarted(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                               @NonNull Object handler) {
+        registrar(request, ConsumoSql.terminar());
+    }
+
+    private void registrar(HttpServletRequest request, ConsumoSql consumo) {
+        if (consumo == null) {
+            return;
+        }
+        double ms = consumo.getNanos() / 1_000_000.0;
+        request.setAttribute(ATRIBUTO_SENTENCIAS, consumo.getSentencias());
+        request.setAttribute(ATRIBUTO_TIEMPO_MS, ms);
+        Acumulado acumulado = operaciones.computeIfAbsent(consumo.getOperacion(), k -> new Acumulado(consumo.getPresupuesto()));
+        acumulado.solicitudes.increment();
+        acumulado.sentencias.add(consumo.getSentencias());
+        acumulado.maxSentencias.accumulate(consumo.getSentencias());
+        acumulado.nanos.add(consumo.getNanos());
+        if (consumo.excedido()) {
+            acumulado.excesos.increment();
+            logger.warn("Presupuesto SQL excedido en {} {} ({}): {} sentencias de {} permitidas, {} ms",
+                request.getMethod(), request.getRequestURI(), consumo.getOperacion(), consumo.getSentencias(),
+                consumo.getPresupuesto(), TimeUnit.NANOSECONDS.toMillis(consumo.getNanos()));
+        } else if (logger.isDebugEnabled()) {
+            logger.debug("{} {} ({}): {} sentencias SQL, {} ms", request.getMethod(), request.getRequestURI(),
+                consumo.getOperacion(), consumo.getSentencias(), String.format("%.1f", ms));
+        }
+    }
+
+    /**
+     * Consumo acumulado por operación, de más a menos sentencias por solicitud.
+     */
+    public List<Operacion> resumen() {
+        List<Operacion> resultado = new ArrayList<>(operaciones.size());
+        for (Map.Entry<String, Acumulado> entrada : operaciones.entrySet()) {
+            Acumulado a = entrada.getValue();
+            long solicitudes = a.solicitudes.sum();
+            resultado.add(Operacion.builder()
+                .operacion(entrada.getKey())
+                .presupuesto(a.presupuesto >= 0 ? a.presupuesto : null)
+                .solicitudes(solicitudes)
+                .mediaSentencias(solicitudes > 0 ? (double) a.sentencias.sum() / solicitudes : 0)
+                .maxSentencias(a.maxSentencias.get())
+                .mediaMs(solicitudes > 0 ? a.nanos.sum() / 1_000_000.0 / solicitudes : 0)
+                .excesos(a.excesos.sum())
+                .build());
+        }
+        resultado.sort(Comparator.comparingDouble(Operacion::getMediaSentencias).reversed());
+        return resultado;
+    }
+
+    public void reiniciar() {
+        operaciones.clear();
+    }
+
+    private boolean medir() {
+        switch (properties.getModo()) {
+        case ESTRICTO:
+            return true;
+        case MUESTREO:
+            return ThreadLocalRandom.current().nextDouble() < properties.getFraccion();
+        default:
+            return false;
+        }
+    }
+}
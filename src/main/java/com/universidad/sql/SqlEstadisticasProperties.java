@@ -0,0 +1,49 @@
+package com.universidad.sql;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Estadísticas de las sentencias SQL ejecutadas (prefijo app.sql.estadisticas).
+ */
+@Data
+@ConfigurationProperties(prefix = "app.sql.estadisticas")
+public class SqlEstadisticasProperties {
+
+    /** Mide las sentencias envolviendo el DataSource; sin medir no hay coste por sentencia. */
+    private boolean habilitado = true;
+
+    /** Las sentencias que tardan al menos esto se registran en el log con su origen. */
+    private Duration umbralLenta = Duration.ofMillis(200);
+
+    /** Sentencias normalizadas distintas que se guardan; el resto se acumula en "(otras sentencias)". */
+    private int maxSentencias = 2000;
+
+    /** Cuenta las filas leídas de cada consulta (envuelve los ResultSet). */
+    private boolean contarFilas = true;
+
+    private Presupuesto presupuesto = new Presupuesto();
+
+    /**
+     * Presupuestos de sentencias por solicitud ({@link PresupuestoConsultas}).
+     */
+    @Data
+    public static class Presupuesto {
+
+        /** desactivado, muestreo (se mide una fracción de las solicitudes y los excesos se registran en el log)
+         *  o estricto (se miden todas y la sentencia que excede el presupuesto falla; para pruebas). */
+        private Modo modo = Modo.MUESTREO;
+
+        /** Fracción de solicitudes medidas en modo muestreo, entre 0 y 1. */
+        private double fraccion = 0.1;
+    }
+
+    public enum Modo {
+        DESACTIVADO,
+        MUESTREO,
+        ESTRICTO
+    }
+}
@@ -0,0 +1,11 @@
+package com.universidad.validation;
+
+/**
+ * La cola de inscripciones asíncronas está llena. Se responde con 503 Service Unavailable y Retry-After.
+ */
+public class ColaLlenaException extends RuntimeException {
+
+    public ColaLlenaException(String mensaje) {
+        super(mensaje);
+    }
+}
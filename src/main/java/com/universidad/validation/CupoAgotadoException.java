@@ -0,0 +1,11 @@
+package com.universidad.validation;
+
+/**
+ * La materia no tiene cupos libres. Se responde con 409 Conflict, como cualquier regla de negocio.
+ */
+public class CupoAgotadoException extends ReglaNegocioException {
+
+    public CupoAgotadoException(String mensaje) {
+        super(mensaje);
+    }
+}
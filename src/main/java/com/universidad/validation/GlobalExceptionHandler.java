@@ -1,5 +1,9 @@
 package com.universidad.validation;
 
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -208,6 +212,54 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(apiError);
     }
 
+    // 11. Maneja violaciones de reglas de negocio (conflictos de horario, inscripciones duplicadas, etc.)
+    @ExceptionHandler(ReglaNegocioException.class)
+    public ResponseEntity<ApiError> handleReglaNegocio(ReglaNegocioException ex) {
+        ApiError apiError = new ApiError(
+            HttpStatus.CONFLICT.value(),
+            "Regla de negocio no cumplida",
+            ex.getMessage(),
+            LocalDateTime.now()
+        );
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(apiError);
+    }
+
+    // 12. Maneja la cola de inscripciones llena: el cliente puede reintentar en unos segundos
+    @ExceptionHandler(ColaLlenaException.class)
+    public ResponseEntity<ApiError> handleColaLlena(ColaLlenaException ex) {
+        ApiError apiError = new ApiError(
+            HttpStatus.SERVICE_UNAVAILABLE.value(),
+            "Servicio saturado",
+            ex.getMessage(),
+            LocalDateTime.now()
+        );
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "5").body(apiError);
+    }
+
+    // 13. Maneja la falta de conexiones: el pool de su clase de carga se agotó o la base de datos no responde
+    @ExceptionHandler({DataAccessResourceFailureException.class, TransientDataAccessResourceException.class})
+    public ResponseEntity<ApiError> handleSinConexion(RuntimeException ex) {
+        ApiError apiError = new ApiError(
+            HttpStatus.SERVICE_UNAVAILABLE.value(),
+            "Servicio saturado",
+            "No hay conexiones disponibles con la base de datos. Intente nuevamente en unos segundos.",
+            LocalDateTime.now()
+        );
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "2").body(apiError);
+    }
+
+    // 14. Maneja conflictos de versión que siguieron ocurriendo tras los reintentos: otra escritura ganó la carrera
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ApiError> handleConflictoVersion(OptimisticLockingFailureException ex) {
+        ApiError apiError = new ApiError(
+            HttpStatus.CONFLICT.value(),
+            "Modificación concurrente",
+            "El recurso fue modificado por otra operación al mismo tiempo. Vuelva a consultarlo e intente nuevamente.",
+            LocalDateTime.now()
+        );
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(apiError);
+    }
+
     public class RecursoNoDisponibleException extends RuntimeException {
         public RecursoNoDisponibleException(String mensaje) {
             super(mensaje);
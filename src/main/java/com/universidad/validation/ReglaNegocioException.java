@@ -0,0 +1,12 @@
+package com.universidad.validation;
+
+/**
+ * Excepción para operaciones válidas en formato que violan una regla de negocio
+ * (conflicto de horario, inscripción duplicada, etc.). Se responde con 409 Conflict.
+ */
+public class ReglaNegocioException extends RuntimeException {
+
+    public ReglaNegocioException(String mensaje) {
+        super(mensaje);
+    }
+}
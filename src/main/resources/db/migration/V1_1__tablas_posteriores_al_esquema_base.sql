@@ -0,0 +1,106 @@
+-- Tablas y columnas que la aplicación añadió después del esquema base (horarios, cupos, lista de espera,
+-- créditos, avance académico, estadísticas y cola de inscripciones). Con "if not exists" porque las bases
+-- que siguieron con ddl-auto=update hasta las migraciones ya las tienen y se marcan igualmente en la V1.
+
+alter table materia add column if not exists cupo integer check (cupo>=1);
+
+create table if not exists avance_academico (
+    creditos_aprobados integer not null,
+    creditos_en_curso integer not null,
+    inscripciones_activas integer not null,
+    materias_aprobadas integer not null,
+    materias_bloqueadas integer not null,
+    prerequisitos_pendientes integer not null,
+    corrida_id bigint not null,
+    estudiante_id bigint not null,
+    id bigint generated by default as identity,
+    primary key (id),
+    unique (corrida_id, estudiante_id)
+);
+
+create table if not exists avance_corrida (
+    tamano_tramo integer not null,
+    tramos_total integer not null,
+    desde_id bigint not null,
+    fin timestamp(6),
+    hasta_id bigint not null,
+    id bigint generated by default as identity,
+    inicio timestamp(6) not null,
+    estado varchar(255) not null check (estado in ('EN_CURSO','COMPLETADA','FALLIDA')),
+    primary key (id)
+);
+
+create table if not exists avance_tramo (
+    estudiantes integer not null,
+    completado timestamp(6) not null,
+    corrida_id bigint not null,
+    desde_id bigint not null,
+    duracion_ms bigint not null,
+    hasta_id bigint not null,
+    id bigint generated by default as identity,
+    primary key (id),
+    unique (corrida_id, desde_id)
+);
+
+create table if not exists carga_creditos (
+    creditos integer not null,
+    estudiante_id bigint not null,
+    primary key (estudiante_id)
+);
+
+create table if not exists cupo_materia (
+    ocupados integer not null,
+    actualizado timestamp(6) not null,
+    id_materia bigint not null,
+    primary key (id_materia)
+);
+
+create table if not exists estadistica_inscripcion (
+    actualizado timestamp(6) not null,
+    cantidad bigint not null,
+    id bigint generated by default as identity,
+    materia_id bigint not null,
+    estado varchar(20) not null,
+    primary key (id),
+    unique (materia_id, estado)
+);
+
+create table if not exists lista_espera (
+    estudiante_id bigint not null,
+    fecha_solicitud timestamp(6) not null,
+    id bigint generated by default as identity,
+    materia_id bigint not null,
+    primary key (id),
+    unique (materia_id, estudiante_id)
+);
+
+create table if not exists materia_horario (
+    hora_fin time(6) not null,
+    hora_inicio time(6) not null,
+    id_materia bigint not null,
+    dia_semana varchar(10) not null check (dia_semana in ('MONDAY','TUESDAY','WEDNESDAY','THURSDAY','FRIDAY','SATURDAY','SUNDAY'))
+);
+
+create table if not exists solicitud_inscripcion (
+    fecha_inscripcion date not null,
+    estudiante_id bigint not null,
+    fecha_resultado timestamp(6),
+    fecha_solicitud timestamp(6) not null,
+    id bigint generated by default as identity,
+    inscripcion_id bigint,
+    materia_id bigint not null,
+    estado varchar(20) not null check (estado in ('EN_COLA','INSCRITA','RECHAZADA')),
+    ticket varchar(36) not null unique,
+    mensaje varchar(500),
+    primary key (id)
+);
+
+-- Índices declarados en las entidades
+create index if not exists idx_inscripciones_materia_activo on inscripciones (materia_id, activo);
+create index if not exists idx_solicitud_inscripcion_estado on solicitud_inscripcion (estado, id);
+
+-- Clave foránea con el nombre generado por Hibernate; se reemplaza si ddl-auto=update ya la creó
+alter table materia_horario
+    drop constraint if exists FKli9dl5f9licu4hgbr9sa0446j;
+alter table materia_horario
+    add constraint FKli9dl5f9licu4hgbr9sa0446j foreign key (id_materia) references materia;
@@ -0,0 +1,123 @@
+-- Esquema base: el mismo que generaba spring.jpa.hibernate.ddl-auto=update antes de las migraciones.
+-- Las bases de datos creadas entonces se marcan en esta versión (spring.flyway.baseline-on-migrate)
+-- y continúan desde la V1.1, que añade las tablas posteriores.
+
+create table docente (
+    id_persona bigint not null,
+    departamento varchar(255) not null,
+    nro_empleado varchar(255) not null unique,
+    primary key (id_persona)
+);
+
+create table estudiante (
+    fecha_alta date not null,
+    fecha_baja date,
+    fecha_modificacion date,
+    id_persona bigint not null,
+    estado varchar(255),
+    motivo_baja varchar(255),
+    numero_inscripcion varchar(255) not null unique,
+    usuario_alta varchar(255),
+    usuario_baja varchar(255),
+    usuario_modificacion varchar(255),
+    primary key (id_persona)
+);
+
+create table estudiante_materia (
+    id_estudiante bigint not null,
+    id_materia bigint not null
+);
+
+create table evaluacion_docente (
+    fecha date,
+    puntuacion integer,
+    docente_id bigint not null,
+    id bigint generated by default as identity,
+    comentario varchar(255),
+    primary key (id)
+);
+
+create table inscripciones (
+    activo boolean,
+    fecha_inscripcion date not null,
+    estudiante_id bigint not null,
+    id bigint generated by default as identity,
+    materia_id bigint not null,
+    estado varchar(255) check (estado in ('PENDIENTE','APROBADA','RECHAZADA','CANCELADA')),
+    primary key (id)
+);
+
+create table materia (
+    activo boolean,
+    creditos integer not null check (creditos>=1),
+    docente_id bigint,
+    id_materia bigint generated by default as identity,
+    version bigint,
+    nombre_materia varchar(100) not null,
+    codigo_unico varchar(255) not null unique,
+    primary key (id_materia)
+);
+
+create table materia_prerequisito (
+    id_materia bigint not null,
+    id_prerequisito bigint not null
+);
+
+create table persona (
+    fecha_nacimiento date not null,
+    id_persona bigint generated by default as identity,
+    version bigint,
+    apellido varchar(50) not null,
+    nombre varchar(50) not null,
+    email varchar(255) not null unique,
+    primary key (id_persona)
+);
+
+create table roles (
+    id bigint generated by default as identity,
+    nombre varchar(20) check (nombre in ('ROL_ESTUDIANTE','ROL_DOCENTE','ROL_ADMIN')),
+    primary key (id)
+);
+
+create table usuario_roles (
+    rol_id bigint not null,
+    usuario_id bigint not null,
+    primary key (rol_id, usuario_id)
+);
+
+create table usuarios (
+    activo boolean not null,
+    id bigint generated by default as identity,
+    apellido varchar(255),
+    email varchar(255) not null unique,
+    nombre varchar(255),
+    password varchar(255) not null,
+    username varchar(255) not null unique,
+    primary key (id)
+);
+
+-- Claves foráneas (con los nombres generados por Hibernate, como en las bases existentes)
+alter table docente
+    add constraint FKivfm9r2g4r0jmxoepjykrhccr foreign key (id_persona) references persona;
+alter table estudiante
+    add constraint FKhffieau25rgbm9yn18j9d68ba foreign key (id_persona) references persona;
+alter table estudiante_materia
+    add constraint FKb2jry9002dtsjlmphvkayteqe foreign key (id_materia) references materia;
+alter table estudiante_materia
+    add constraint FK1dhntry5dfuo441rek0h6df2f foreign key (id_estudiante) references estudiante;
+alter table evaluacion_docente
+    add constraint FK50hn6rqg8ecty0mnd4o9afquw foreign key (docente_id) references docente;
+alter table inscripciones
+    add constraint FKe1bjf4osl2wicgmrwg84v8524 foreign key (estudiante_id) references estudiante;
+alter table inscripciones
+    add constraint FKagu4276rdflno7y2qj9cktgrd foreign key (materia_id) references materia;
+alter table materia
+    add constraint FKjpm7iqo7yjybgdl1ych6sqr8f foreign key (docente_id) references docente;
+alter table materia_prerequisito
+    add constraint FKfuesuexu1im62yl7xdbs24pqg foreign key (id_prerequisito) references materia;
+alter table materia_prerequisito
+    add constraint FK6xri56dw6aa2f49dl3ywyaida foreign key (id_materia) references materia;
+alter table usuario_roles
+    add constraint FKbt9i9yrb9ug88xnh82n9m60pr foreign key (rol_id) references roles;
+alter table usuario_roles
+    add constraint FKuu9tea04xb29m2km5lwe46ua foreign key (usuario_id) references usuarios;
@@ -0,0 +1,36 @@
+-- Índices para las consultas frecuentes de inscripción, elegibilidad y evaluación.
+-- Los índices parciales solo contienen las filas que las consultas filtran, así se mantienen
+-- pequeños y las inscripciones canceladas o históricas no los engordan.
+
+-- Una sola inscripción vigente por estudiante y materia, garantizada también frente a inscripciones
+-- concurrentes. Atiende existsByEstudianteIdAndMateriaIdAndActivoTrue, findByEstudianteId,
+-- findMateriaIdsVigentes y las franjas y créditos en curso del estudiante.
+-- Requiere que no haya duplicados vigentes en los datos existentes.
+create unique index if not exists ux_inscripciones_estudiante_materia_vigente
+    on inscripciones (estudiante_id, materia_id) where activo;
+
+-- Materias aprobadas por estudiante: la subconsulta de verificarPrerequisitosCompletos,
+-- findMateriaIdsAprobadas y la carga en bloque de la elegibilidad (solo lectura del índice)
+create index if not exists idx_inscripciones_estudiante_aprobadas
+    on inscripciones (estudiante_id, materia_id) where estado = 'APROBADA';
+
+-- Tablas intermedias: sin clave primaria propia, cada carga de colección recorría la tabla entera
+create unique index if not exists ux_materia_prerequisito
+    on materia_prerequisito (id_materia, id_prerequisito);
+create index if not exists idx_materia_prerequisito_prerequisito
+    on materia_prerequisito (id_prerequisito);
+create index if not exists idx_materia_horario_materia
+    on materia_horario (id_materia);
+create index if not exists idx_estudiante_materia_estudiante
+    on estudiante_materia (id_estudiante, id_materia);
+-- La clave primaria empieza por rol_id; los roles se cargan por usuario en cada inicio de sesión
+create index if not exists idx_usuario_roles_usuario
+    on usuario_roles (usuario_id);
+
+-- EvaluacionDocenteRepository.findByDocente (PostgreSQL no indexa las claves foráneas)
+create index if not exists idx_evaluacion_docente_docente
+    on evaluacion_docente (docente_id);
+
+-- Primera solicitud y posición en la lista de espera de una materia
+create index if not exists idx_lista_espera_materia_orden
+    on lista_espera (materia_id, id);
@@ -0,0 +1,3 @@
+-- Versión para el bloqueo optimista de las inscripciones: los cambios de estado y las cancelaciones
+-- ya no bloquean la fila al leerla, detectan en el commit si otra transacción la modificó.
+alter table inscripciones add column version bigint not null default 0;
@@ -0,0 +1,10 @@
+-- cupo_materia pasa a ser el registro compartido de los cupos ocupados: cada inscripción lo actualiza
+-- en su transacción con un incremento condicional, así el cupo se respeta con cualquier número de nodos.
+-- Se parte de las inscripciones en curso de todas las materias con cupo.
+insert into cupo_materia (id_materia, ocupados, actualizado)
+select m.id_materia, count(i.id), localtimestamp
+from materia m
+left join inscripciones i on i.materia_id = m.id_materia and i.activo = true and i.estado = 'PENDIENTE'
+where m.cupo is not null
+group by m.id_materia
+on conflict (id_materia) do update set ocupados = excluded.ocupados, actualizado = excluded.actualizado;
@@ -0,0 +1,8 @@
+-- estadistica_inscripcion pasa a acumular los incrementos que vuelca cada nodo (cantidad = cantidad + ?)
+-- en lugar de los conteos absolutos del último nodo que volcó. Se parte del conteo de las inscripciones.
+delete from estadistica_inscripcion;
+insert into estadistica_inscripcion (materia_id, estado, cantidad, actualizado)
+select materia_id, estado, count(*), localtimestamp
+from inscripciones
+where estado is not null
+group by materia_id, estado;
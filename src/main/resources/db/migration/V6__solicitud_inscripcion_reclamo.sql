@@ -0,0 +1,4 @@
+-- Reclamo por nodo de las solicitudes de la cola persistente: un nodo solo vuelve a encolar las solicitudes
+-- EN_COLA sin reclamo vigente, no las que otro nodo vivo tiene pendientes.
+alter table solicitud_inscripcion add column nodo varchar(36);
+alter table solicitud_inscripcion add column reclamada_hasta timestamp(6);
@@ -0,0 +1,17 @@
+-- Concesiones de cupos por nodo: cada nodo reserva en memoria de un bloque de cupos concedido en esta tabla,
+-- sin escribir en la base de datos por cada inscripción. La fila guarda los cupos concedidos que el nodo aún
+-- no confirmó como inscripciones (libres o en transacciones en curso) y se vuelca y renueva por lotes.
+-- Un bloque se concede con la fila de cupo_materia bloqueada durante una transacción corta: cupo de la materia
+-- menos las inscripciones en curso menos las concesiones de todos los nodos. La concesión de un nodo caído
+-- deja de renovarse y se borra al vencer; sus inscripciones confirmadas ya están en el recuento.
+-- cupo_materia deja de actualizarse en cada inscripción (V4): su fila es el candado de las concesiones de la
+-- materia y guarda las inscripciones en curso contadas en la última concesión.
+create table cupo_concesion (
+    cupos integer not null,
+    id bigint generated by default as identity,
+    id_materia bigint not null,
+    vence timestamp(6) not null,
+    nodo varchar(36) not null,
+    primary key (id),
+    unique (id_materia, nodo)
+);
@@ -0,0 +1,5 @@
+-- Sellos de los catálogos para los ETags: cada nodo avanza la secuencia del catálogo después de cada escritura
+-- confirmada y la lee al construir el ETag, así todos los nodos dan el mismo ETag para los mismos datos.
+-- Una secuencia no es transaccional ni bloquea filas: las escrituras concurrentes no se esperan entre sí.
+create sequence sello_materias;
+create sequence sello_estudiantes;
@@ -0,0 +1,114 @@
+package com.universidad;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import javax.sql.DataSource;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.output.MigrateResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+class MigracionesTest {
+
+    private JdbcTemplate jdbcTemplate;
+    // nombre del índice -> definición según pg_indexes
+    private Map<String, String> indices;
+
+    @BeforeEach
+    void migrar() {
+        jdbcTemplate = new JdbcTemplate(PostgresPruebas.dataSource());
+        indices = jdbcTemplate.queryForList("SELECT indexname, indexdef FROM pg_indexes WHERE schemaname = 'public'")
+            .stream()
+            .collect(Collectors.toMap(f -> (String) f.get("indexname"), f -> (String) f.get("indexdef")));
+    }
+
+    @Test
+    void todasLasMigracionesQuedanAplicadas() {
+        Flyway flyway = Flyway.configure()
+            .dataSource(PostgresPruebas.dataSource())
+            .locations("classpath:db/migration")
+            .load();
+
+        assertThat(flyway.info().pending()).isEmpty();
+        assertThat(flyway.validateWithResult().validationSuccessful).isTrue();
+    }
+
+    @Test
+    void laInscripcionVigenteEsUnicaPorEstudianteYMateria() {
+        assertThat(indices.get("ux_inscripciones_estudiante_materia_vigente"))
+            .startsWith("CREATE UNIQUE INDEX")
+            .contains("(estudiante_id, materia_id)")
+            .contains("WHERE activo");
+    }
+
+    @Test
+    void lasAprobadasTienenIndiceParcial() {
+        assertThat(indices.get("idx_inscripciones_estudiante_aprobadas"))
+            .contains("(estudiante_id, materia_id)")
+            .contains("WHERE ((estado)::text = 'APROBADA'::text)");
+    }
+
+    @Test
+    void lasInscripcionesActivasSeBuscanPorMateria() {
+        assertThat(indices.get("idx_inscripciones_materia_activo"))
+            .contains("inscripciones")
+            .contains("(materia_id, activo)");
+    }
+
+    @Test
+    void lasTablasIntermediasYLasConsultasFrecuentesTienenIndice() {
+        assertThat(indices.get("ux_materia_prerequisito"))
+            .startsWith("CREATE UNIQUE INDEX")
+            .contains("materia_prerequisito")
+            .contains("(id_materia, id_prerequisito)");
+        assertThat(indices.get("idx_materia_prerequisito_prerequisito")).contains("materia_prerequisito").contains("(id_prerequisito)");
+        assertThat(indices.get("idx_materia_horario_materia")).contains("materia_horario").contains("(id_materia)");
+        assertThat(indices.get("idx_estudiante_materia_estudiante")).contains("estudiante_materia").contains("(id_estudiante, id_materia)");
+        assertThat(indices.get("idx_usuario_roles_usuario")).contains("usuario_roles").contains("(usuario_id)");
+        assertThat(indices.get("idx_evaluacion_docente_docente")).contains("evaluacion_docente").contains("(docente_id)");
+        assertThat(indices.get("idx_lista_espera_materia_orden")).contains("lista_espera").contains("(materia_id, id)");
+    }
+
+    // Una base creada por la aplicación original con ddl-auto=update, sin historial de Flyway, se marca en
+    // la V1 (spring.flyway.baseline-*) y las migraciones posteriores la dejan igual que una base nueva
+    @Test
+    void unaBaseDeLaAplicacionOriginalSeMarcaYQuedaIgualQueUnaNueva() {
+        DataSource original = new DriverManagerDataSource(PostgresPruebas.baseVacia("esquema_original"), "postgres", "postgres");
+        ResourceDatabasePopulator esquema = new ResourceDatabasePopulator(new ClassPathResource("migraciones/esquema-original.sql"));
+        esquema.setSqlScriptEncoding("UTF-8");
+        esquema.execute(original);
+
+        MigrateResult resultado = Flyway.configure()
+            .dataSource(original)
+            .locations("classpath:db/migration")
+            .baselineOnMigrate(true)
+            .baselineVersion("1")
+            .load()
+            .migrate();
+
+        assertThat(resultado.success).isTrue();
+        assertThat(resultado.migrations).extracting(m -> m.version).first().isEqualTo("1.1");
+        assertThat(columnas(original)).isEqualTo(columnas(PostgresPruebas.dataSource()));
+        JdbcTemplate migrada = new JdbcTemplate(original);
+        assertThat(migrada.queryForList("SELECT materia_id || ' ' || estado || ' ' || cantidad FROM estadistica_inscripcion "
+            + "ORDER BY materia_id, estado", String.class))
+            .containsExactly("1 APROBADA 1", "1 CANCELADA 1", "1 PENDIENTE 1", "2 PENDIENTE 1");
+        assertThat(migrada.queryForObject("SELECT count(*) FROM inscripciones WHERE version = 0", Integer.class)).isEqualTo(4);
+    }
+
+    // tabla.columna tipo nulable de todas las columnas del esquema public
+    private static List<String> columnas(DataSource dataSource) {
+        return new JdbcTemplate(dataSource).queryForList(
+            "SELECT table_name || '.' || column_name || ' ' || data_type || ' ' || is_nullable FROM information_schema.columns "
+                + "WHERE table_schema = 'public' ORDER BY table_name, column_name", String.class);
+    }
+}
@@ -0,0 +1,85 @@
+package com.universidad;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Assumptions;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * PostgreSQL embebido para las pruebas que necesitan la base de datos real, con las migraciones de
+ * db/migration aplicadas. Se arranca una sola vez por JVM y lo comparten todas las pruebas.
+ * PostgreSQL se niega a arrancar como root: con ese usuario las pruebas que lo usan se omiten
+ * (las que levantan el contexto de Spring lo indican con @DisabledIfSystemProperty).
+ */
+public final class PostgresPruebas {
+
+    private static EmbeddedPostgres postgres;
+    private static final Map<String, String> bases = new HashMap<>();
+
+    private PostgresPruebas() {
+    }
+
+    public static synchronized DataSource dataSource() {
+        Assumptions.assumeFalse("root".equals(System.getProperty("user.name")),
+            "PostgreSQL embebido no arranca como root");
+        if (postgres == null) {
+            try {
+                postgres = EmbeddedPostgres.builder().start();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    postgres.close();
+                } catch (IOException e) {
+                    // La JVM termina de todos modos
+                }
+            }));
+            Flyway.configure()
+                .dataSource(postgres.getPostgresDatabase())
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+        }
+        return postgres.getPostgresDatabase();
+    }
+
+    public static String jdbcUrl() {
+        dataSource();
+        return postgres.getJdbcUrl("postgres", "postgres");
+    }
+
+    /**
+     * Base de datos propia con las migraciones aplicadas, para las pruebas que modifican datos y no deben
+     * ver los de otras clases de prueba. Se crea la primera vez que se pide cada nombre.
+     * @return la URL JDBC de la base (usuario y contraseña postgres)
+     */
+    public static synchronized String nuevaBase(String nombre) {
+        return bases.computeIfAbsent(nombre, n -> {
+            String url = baseVacia(n);
+            Flyway.configure()
+                .dataSource(url, "postgres", "postgres")
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+            return url;
+        });
+    }
+
+    /**
+     * Base de datos nueva sin ninguna tabla, para las pruebas que preparan el esquema por su cuenta.
+     * @return la URL JDBC de la base (usuario y contraseña postgres)
+     */
+    public static synchronized String baseVacia(String nombre) {
+        new JdbcTemplate(dataSource()).execute("CREATE DATABASE " + nombre);
+        return postgres.getJdbcUrl("postgres", nombre);
+    }
+}
@@ -0,0 +1,51 @@
+package com.universidad.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import com.universidad.dto.HorarioDTO;
+import com.universidad.dto.MateriaDTO;
+
+class JacksonCacheCodecTest {
+
+    private static final List<JacksonCacheCodec> CODECS =
+        List.of(JacksonCacheCodec.json(), JacksonCacheCodec.smile(), JacksonCacheCodec.cbor());
+
+    @Test
+    void unLongConservaSuTipo() {
+        for (JacksonCacheCodec codec : CODECS) {
+            assertThat(codec.decode(codec.encode(7L))).as(codec.nombre()).isInstanceOf(Long.class).isEqualTo(7L);
+            assertThat(codec.decode(codec.encode(List.of(7L, 8L)))).as(codec.nombre()).isEqualTo(List.of(7L, 8L));
+        }
+    }
+
+    @Test
+    void losDtosSeLeenConSuTipo() {
+        MateriaDTO materia = MateriaDTO.builder()
+            .id(1L)
+            .nombreMateria("Compiladores")
+            .codigoUnico("COM301")
+            .creditos(4)
+            .version(3L)
+            .horarios(List.of(new HorarioDTO(DayOfWeek.MONDAY, LocalTime.of(8, 0), LocalTime.of(10, 0))))
+            .build();
+        for (JacksonCacheCodec codec : CODECS) {
+            assertThat(codec.decode(codec.encode(List.of(materia)))).as(codec.nombre()).isEqualTo(List.of(materia));
+        }
+    }
+
+    @Test
+    void rechazaTiposFueraDeLosPermitidos() {
+        byte[] archivo = "[\"java.io.File\",\"/etc/passwd\"]".getBytes(StandardCharsets.UTF_8);
+
+        assertThatThrownBy(() -> JacksonCacheCodec.json().decode(archivo)).isInstanceOf(SerializationException.class);
+    }
+}
@@ -0,0 +1,320 @@
+package com.universidad.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.data.redis.RedisProperties;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.universidad.config.RedisConfig;
+
+/**
+ * La caché resiliente contra un Redis de prueba local al que se le inyectan fallos: deja de responder
+ * o cierra todas sus conexiones. El cliente Lettuce se configura como en la aplicación, con el tiempo de
+ * espera de spring.data.redis.timeout y las opciones de fallo rápido de {@link RedisConfig}.
+ */
+class ResilientCacheTest {
+
+    private static final int UMBRAL_FALLOS = 3;
+    private static final long APERTURA_MS = 300;
+    private static final int MAX_ENTRADAS_RESPALDO = 5;
+
+    private RedisFalso redis;
+    private LettuceConnectionFactory conexiones;
+    private CacheCircuitBreaker circuito;
+    private ResilientCache cache;
+    private Duration tiempoEspera;
+
+    @BeforeEach
+    void conectar() throws IOException {
+        Properties aplicacion = PropertiesLoaderUtils.loadProperties(new ClassPathResource("application.properties"));
+        tiempoEspera = DurationStyle.detectAndParse(aplicacion.getProperty("spring.data.redis.timeout"));
+        RedisProperties redisProperties = new RedisProperties();
+        redisProperties.setConnectTimeout(DurationStyle.detectAndParse(aplicacion.getProperty("spring.data.redis.connect-timeout")));
+
+        redis = new RedisFalso();
+        LettuceClientConfiguration.LettuceClientConfigurationBuilder cliente = LettuceClientConfiguration.builder()
+            .commandTimeout(tiempoEspera);
+        new RedisConfig().redisFalloRapidoCustomizer(redisProperties).customize(cliente);
+        conexiones = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", redis.puerto), cliente.build());
+        conexiones.afterPropertiesSet();
+        conexiones.start();
+
+        circuito = new CacheCircuitBreaker(UMBRAL_FALLOS, APERTURA_MS);
+        CacheResilienceProperties properties = new CacheResilienceProperties();
+        properties.setMaxEntradasRespaldo(MAX_ENTRADAS_RESPALDO);
+        CachePolicy politica = new CachePolicy();
+        politica.setTtl(Duration.ofMinutes(1));
+        ResilientCacheManager manager = new ResilientCacheManager(RedisCacheManager.create(conexiones), circuito,
+            nombre -> politica, properties);
+        manager.getCache("materia");
+        cache = manager.getResilientes().get("materia");
+    }
+
+    @AfterEach
+    void desconectar() {
+        conexiones.destroy();
+        redis.close();
+    }
+
+    @Test
+    void unRedisQueNoRespondeAgotaElTiempoDeEsperaYAbreElCircuito() {
+        cache.put("a", "redis");
+        assertThat(cache.get("a", String.class)).isEqualTo("redis");
+        redis.modo = Modo.LENTO;
+
+        for (int i = 0; i < UMBRAL_FALLOS; i++) {
+            long inicio = System.nanoTime();
+            assertThat(cache.get("a")).as("sin copia local todavía").isNull();
+            long ms = Duration.ofNanos(System.nanoTime() - inicio).toMillis();
+            assertThat(ms).as("espera del intento %d", i).isBetween(tiempoEspera.toMillis() - 50, tiempoEspera.toMillis() + 500);
+        }
+        assertThat(circuito.getEstado()).isEqualTo(CacheCircuitBreaker.Estado.ABIERTO);
+
+        // Con el circuito abierto no se espera a Redis: lecturas y escrituras van al respaldo local
+        long inicio = System.nanoTime();
+        cache.put("b", "local");
+        assertThat(cache.get("b", String.class)).isEqualTo("local");
+        assertThat(Duration.ofNanos(System.nanoTime() - inicio).toMillis()).isLessThan(50);
+        assertThat(cache.getLecturasRespaldo()).isEqualTo(UMBRAL_FALLOS + 1L);
+        assertThat(cache.getEscriturasRespaldo()).isEqualTo(1);
+        assertThat(redis.datos).doesNotContainKey("materia::b");
+    }
+
+    @Test
+    void elRespaldoLocalEstaAcotado() {
+        redis.cerrar();
+        abrirCircuito();
+
+        for (int i = 0; i < 50; i++) {
+            cache.put("clave" + i, "valor" + i);
+        }
+        Cache<?, ?> respaldo = (Cache<?, ?>) cache.getRespaldo().getNativeCache();
+        respaldo.cleanUp();
+        assertThat(respaldo.estimatedSize()).isLessThanOrEqualTo(MAX_ENTRADAS_RESPALDO);
+        assertThat(cache.getEscriturasRespaldo()).isEqualTo(50);
+    }
+
+    @Test
+    void seRecuperaEnSemiabiertoYAplicaLasInvalidacionesPendientes() throws Exception {
+        cache.put("a", "antiguo");
+        redis.cerrar();
+        abrirCircuito();
+        cache.evict("a"); // No llega a Redis: queda pendiente
+        cache.put("b", "local");
+        assertThat(cache.getInvalidacionesPendientes()).isEqualTo(1);
+
+        redis.levantar();
+        long limite = System.currentTimeMillis() + 10_000;
+        while (circuito.getEstado() != CacheCircuitBreaker.Estado.CERRADO && System.currentTimeMillis() < limite) {
+            Thread.sleep(APERTURA_MS / 3);
+            cache.get("a");
+        }
+
+        assertThat(circuito.getEstado()).isEqualTo(CacheCircuitBreaker.Estado.CERRADO);
+        assertThat(circuito.resumen().getTransiciones())
+            .containsKeys("CERRADO->ABIERTO", "ABIERTO->SEMIABIERTO", "SEMIABIERTO->CERRADO");
+        assertThat(redis.datos).as("la invalidación se aplicó en Redis").doesNotContainKey("materia::a");
+        assertThat(cache.getInvalidacionesPendientes()).isZero();
+        assertThat(cache.get("b")).as("el respaldo se descarta al cerrar").isNull();
+    }
+
+    private void abrirCircuito() {
+        for (int i = 0; i < UMBRAL_FALLOS; i++) {
+            cache.get("x");
+        }
+        assertThat(circuito.getEstado()).isEqualTo(CacheCircuitBreaker.Estado.ABIERTO);
+    }
+
+    enum Modo {
+        NORMAL,
+        /** Lee los comandos pero no responde ninguno. */
+        LENTO
+    }
+
+    /**
+     * Servidor RESP mínimo en memoria (PING, GET, SET, DEL). Responde con error al resto de comandos,
+     * incluido el HELLO del saludo, así que el cliente usa RESP2.
+     */
+    static final class RedisFalso implements AutoCloseable {
+
+        final Map<String, byte[]> datos = new ConcurrentHashMap<>();
+        final int puerto;
+        volatile Modo modo = Modo.NORMAL;
+
+        private final Set<Socket> clientes = ConcurrentHashMap.newKeySet();
+        private volatile ServerSocket servidor;
+
+        RedisFalso() throws IOException {
+            servidor = new ServerSocket(0);
+            puerto = servidor.getLocalPort();
+            aceptar(servidor);
+        }
+
+        // Cierra el puerto y todas las conexiones abiertas, como un servidor caído
+        void cerrar() {
+            try {
+                servidor.close();
+            } catch (IOException e) {
+                // Ya cerrado
+            }
+            for (Socket cliente : clientes) {
+                try {
+                    cliente.close();
+                } catch (IOException e) {
+                    // Ya cerrado
+                }
+            }
+        }
+
+        void levantar() throws IOException {
+            modo = Modo.NORMAL;
+            ServerSocket nuevo = new ServerSocket();
+            nuevo.setReuseAddress(true);
+            nuevo.bind(new InetSocketAddress(puerto));
+            servidor = nuevo;
+            aceptar(nuevo);
+        }
+
+        @Override
+        public void close() {
+            cerrar();
+        }
+
+        private void aceptar(ServerSocket socket) {
+            iniciar("redis-falso-" + puerto, () -> {
+                while (!socket.isClosed()) {
+                    try {
+                        Socket cliente = socket.accept();
+                        clientes.add(cliente);
+                        iniciar("redis-falso-cliente", () -> atender(cliente));
+                    } catch (IOException e) {
+                        return;
+                    }
+                }
+            });
+        }
+
+        private void atender(Socket cliente) {
+            try (cliente) {
+                DataInputStream entrada = new DataInputStream(new BufferedInputStream(cliente.getInputStream()));
+                OutputStream salida = cliente.getOutputStream();
+                List<byte[]> comando;
+                while ((comando = leer(entrada)) != null) {
+                    if (modo == Modo.LENTO) {
+                        continue;
+                    }
+                    salida.write(responder(comando));
+                    salida.flush();
+                }
+            } catch (IOException e) {
+                // Conexión cerrada por el cliente o por cerrar()
+            } finally {
+                clientes.remove(cliente);
+            }
+        }
+
+        private byte[] responder(List<byte[]> comando) {
+            String nombre = texto(comando.get(0)).toUpperCase();
+            switch (nombre) {
+            case "PING":
+                return resp("+PONG");
+            case "GET":
+                byte[] valor = datos.get(texto(comando.get(1)));
+                return valor != null ? bulk(valor) : resp("$-1");
+            case "SET":
+                String clave = texto(comando.get(1));
+                boolean siNoExiste = comando.stream().skip(3).anyMatch(opcion -> texto(opcion).equalsIgnoreCase("NX"));
+                if (siNoExiste && datos.putIfAbsent(clave, comando.get(2)) != null) {
+                    return resp("$-1");
+                }
+                datos.put(clave, comando.get(2));
+                return resp("+OK");
+            case "DEL":
+                long borradas = comando.stream().skip(1).filter(k -> datos.remove(texto(k)) != null).count();
+                return resp(":" + borradas);
+            default:
+                return resp("-ERR unknown command '" + nombre + "'");
+            }
+        }
+
+        // Un comando es un array de cadenas: *N, y por cada una $longitud y los bytes
+        private static List<byte[]> leer(DataInputStream entrada) throws IOException {
+            String cabecera = linea(entrada);
+            if (cabecera == null) {
+                return null;
+            }
+            int partes = Integer.parseInt(cabecera.substring(1));
+            List<byte[]> comando = new ArrayList<>(partes);
+            for (int i = 0; i < partes; i++) {
+                byte[] parte = new byte[Integer.parseInt(linea(entrada).substring(1))];
+                entrada.readFully(parte);
+                entrada.readFully(new byte[2]);
+                comando.add(parte);
+            }
+            return comando;
+        }
+
+        private static String linea(DataInputStream entrada) throws IOException {
+            StringBuilder linea = new StringBuilder();
+            int c;
+            while ((c = entrada.read()) != '\r') {
+                if (c < 0) {
+                    return null;
+                }
+                linea.append((char) c);
+            }
+            entrada.read();
+            return linea.toString();
+        }
+
+        private static byte[] bulk(byte[] valor) {
+            byte[] cabecera = resp("$" + valor.length);
+            byte[] respuesta = new byte[cabecera.length + valor.length + 2];
+            System.arraycopy(cabecera, 0, respuesta, 0, cabecera.length);
+            System.arraycopy(valor, 0, respuesta, cabecera.length, valor.length);
+            respuesta[respuesta.length - 2] = '\r';
+            respuesta[respuesta.length - 1] = '\n';
+            return respuesta;
+        }
+
+        private static byte[] resp(String linea) {
+            return (linea + "\r\n").getBytes(StandardCharsets.ISO_8859_1);
+        }
+
+        private static String texto(byte[] bytes) {
+            return new String(bytes, StandardCharsets.ISO_8859_1);
+        }
+
+        private static void iniciar(String nombre, Runnable tarea) {
+            Thread hilo = new Thread(tarea, nombre);
+            hilo.setDaemon(true);
+            hilo.start();
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.universidad.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+class SingleFlightCacheTest {
+
+    private static final int LECTORES = 500;
+    private static final int CLAVES = 5;
+    private static final Duration TTL = Duration.ofMillis(300);
+
+    // Arrendamiento de un solo nodo: siempre se concede
+    private static final CacheLease SIN_COMPETENCIA = new CacheLease() {
+        @Override
+        public String tryAcquire(String cache, Object key) {
+            return UUID.randomUUID().toString();
+        }
+
+        @Override
+        public void release(String cache, Object key, String token) {
+        }
+    };
+
+    private final Map<Object, AtomicInteger> cargasPorClave = new ConcurrentHashMap<>();
+    private ExecutorService lectores;
+    private SingleFlightCache cache;
+
+    @BeforeEach
+    void preparar() {
+        lectores = Executors.newFixedThreadPool(LECTORES);
+        CaffeineCache delegada = new CaffeineCache("prueba", Caffeine.newBuilder().expireAfterWrite(TTL).build(), true);
+        // Sin refresco anticipado: cada carga se debe a un fallo de la clave
+        cache = new SingleFlightCache(delegada, SIN_COMPETENCIA, Runnable::run, 0, 500, false);
+    }
+
+    @AfterEach
+    void cerrar() {
+        lectores.shutdownNow();
+    }
+
+    @Test
+    void quinientosLectoresConcurrentesProvocanUnaCargaPorClave() throws Exception {
+        List<String> valores = oleada();
+
+        assertThat(valores).hasSize(LECTORES);
+        for (int i = 0; i < LECTORES; i++) {
+            assertThat(valores.get(i)).isEqualTo("valor-" + (i % CLAVES));
+        }
+        assertThat(cargasPorClave).hasSize(CLAVES);
+        cargasPorClave.values().forEach(cargas -> assertThat(cargas.get()).isEqualTo(1));
+        assertThat(cache.getCargas()).isEqualTo(CLAVES);
+        assertThat(cache.getCoalescidas()).isPositive();
+    }
+
+    @Test
+    void cadaExpiracionProvocaUnaSolaCargaPorClave() throws Exception {
+        oleada();
+        Thread.sleep(TTL.toMillis() + 100);
+        oleada();
+
+        cargasPorClave.values().forEach(cargas -> assertThat(cargas.get()).isEqualTo(2));
+        assertThat(cache.getCargas()).isEqualTo(2L * CLAVES);
+    }
+
+    @Test
+    void laPoliticaSinRefrescoAnticipadoNoRecargaLosAciertos() throws Exception {
+        CachePolicy conRefresco = new CachePolicy();
+        conRefresco.setTtl(TTL);
+        CachePolicy sinRefresco = new CachePolicy();
+        sinRefresco.setTtl(TTL);
+        sinRefresco.setRefrescoAnticipado(false);
+        SingleFlightCacheManager manager = new SingleFlightCacheManager(new ConcurrentMapCacheManager(), SIN_COMPETENCIA,
+            Runnable::run, nombre -> "entidades".equals(nombre) ? sinRefresco : conRefresco, new CacheStampedeProperties());
+
+        for (String nombre : List.of("dtos", "entidades")) {
+            manager.getCache(nombre).get("1", () -> cargar(nombre));
+        }
+        Thread.sleep(TTL.toMillis());
+        for (String nombre : List.of("dtos", "entidades")) {
+            manager.getCache(nombre).get("1", () -> cargar(nombre));
+        }
+
+        assertThat(manager.getCacheDecorada("dtos").getRefrescos()).isEqualTo(1);
+        assertThat(manager.getCacheDecorada("entidades").getRefrescos()).isZero();
+        assertThat(cargasPorClave.get("entidades").get()).isEqualTo(1);
+    }
+
+    // Lanza los lectores a la vez sobre las claves vacías o expiradas y devuelve lo que leyó cada uno
+    private List<String> oleada() throws Exception {
+        CountDownLatch salida = new CountDownLatch(1);
+        List<Future<String>> lecturas = new ArrayList<>(LECTORES);
+        for (int i = 0; i < LECTORES; i++) {
+            String clave = Integer.toString(i % CLAVES);
+            lecturas.add(lectores.submit(() -> {
+                salida.await();
+                return cache.get(clave, () -> cargar(clave));
+            }));
+        }
+        salida.countDown();
+        List<String> valores = new ArrayList<>(LECTORES);
+        for (Future<String> lectura : lecturas) {
+            valores.add(lectura.get(10, TimeUnit.SECONDS));
+        }
+        return valores;
+    }
+
+    // Simula la consulta a la base de datos
+    private String cargar(String clave) throws InterruptedException {
+        cargasPorClave.computeIfAbsent(clave, k -> new AtomicInteger()).incrementAndGet();
+        Thread.sleep(50);
+        return "valor-" + clave;
+    }
+}
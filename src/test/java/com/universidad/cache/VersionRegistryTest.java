@@ -0,0 +1,46 @@
+package com.universidad.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledIfSystemProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import com.universidad.PostgresPruebas;
+
+/**
+ * Dos registros sobre la misma base de datos hacen de dos nodos: el ETag de un catálogo sale del
+ * sello compartido y no depende del nodo ni del momento.
+ */
+@DisabledIfSystemProperty(named = "user.name", matches = "root", disabledReason = "PostgreSQL embebido no arranca como root")
+class VersionRegistryTest {
+
+    private static JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void prepararBase() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(PostgresPruebas.nuevaBase("sellos_catalogo"), "postgres", "postgres"));
+    }
+
+    @Test
+    void todosLosNodosDanElMismoEtagDeCatalogo() throws InterruptedException {
+        VersionRegistry nodoA = new VersionRegistry(jdbcTemplate, Duration.ofMillis(200));
+        VersionRegistry nodoB = new VersionRegistry(jdbcTemplate, Duration.ofMillis(200));
+
+        String inicial = nodoA.etagCatalogo("materias");
+        assertThat(nodoB.etagCatalogo("materias")).isEqualTo(inicial);
+        Thread.sleep(300);
+        assertThat(nodoA.etagCatalogo("materias")).as("no cambia con el tiempo").isEqualTo(inicial);
+
+        nodoA.incrementarCatalogo("materias");
+        String trasEscritura = nodoA.etagCatalogo("materias");
+        assertThat(trasEscritura).as("la escritura propia se ve al instante").isNotEqualTo(inicial);
+        Thread.sleep(300);
+        assertThat(nodoB.etagCatalogo("materias")).as("la de otro nodo, al caducar el sello leído").isEqualTo(trasEscritura);
+        assertThat(nodoB.etagCatalogo("estudiantes")).isEqualTo(nodoA.etagCatalogo("estudiantes"));
+    }
+}
@@ -0,0 +1,50 @@
+package com.universidad.conexiones;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import javax.sql.DataSource;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.universidad.PostgresPruebas;
+
+/**
+ * Las migraciones no heredan el statement_timeout del pool de lectura, al que irían por ejecutarse
+ * fuera de una transacción.
+ */
+@SpringBootTest
+@DisabledIfSystemProperty(named = "user.name", matches = "root", disabledReason = "PostgreSQL embebido no arranca como root")
+class PoolsConexionTest {
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private PoolsConexion poolsConexion;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void baseDeDatos(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> PostgresPruebas.nuevaBase("pools_conexion"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+    }
+
+    @Test
+    void lasMigracionesUsanElPoolDeLotesSinLimitePorSentencia() {
+        DataSource migraciones = flyway.getConfiguration().getDataSource();
+
+        assertThat(migraciones).isSameAs(poolsConexion.lotes());
+        assertThat(new JdbcTemplate(migraciones).queryForObject("SHOW statement_timeout", String.class)).isEqualTo("0");
+        assertThat(jdbcTemplate.queryForObject("SHOW statement_timeout", String.class)).as("pool de lectura").isEqualTo("10s");
+    }
+}
@@ -0,0 +1,71 @@
+package com.universidad.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.Sql.ExecutionPhase;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.universidad.PostgresPruebas;
+
+/**
+ * Tras actualizar una materia, la respuesta (y la entrada de caché que se guarda con ella) lleva la versión
+ * nueva y el ETag anterior deja de ser válido.
+ */
+@SpringBootTest(properties = "app.rate-limit.habilitado=false")
+@AutoConfigureMockMvc
+@DisabledIfSystemProperty(named = "user.name", matches = "root", disabledReason = "PostgreSQL embebido no arranca como root")
+@WithMockUser(username = "admin", roles = {"ADMIN"})
+@Sql(statements = "insert into materia (id_materia, nombre_materia, codigo_unico, creditos, cupo, activo, version) "
+    + "values (3401, 'Compiladores', 'COM301', 4, 30, true, 0)", executionPhase = ExecutionPhase.BEFORE_TEST_CLASS)
+class MateriaControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void baseDeDatos(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> PostgresPruebas.nuevaBase("materia_etag"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+    }
+
+    @Test
+    void elEtagAnteriorNoDevuelve304TrasActualizar() throws Exception {
+        String anterior = mockMvc.perform(get("/api/materias/3401"))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        MvcResult actualizada = mockMvc.perform(put("/api/materias/3401").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"nombreMateria\":\"Compiladores II\",\"codigoUnico\":\"COM301\",\"creditos\":5,\"version\":0}"))
+            .andExpect(status().isOk())
+            .andReturn();
+        Long guardada = jdbcTemplate.queryForObject("select version from materia where id_materia = 3401", Long.class);
+        assertThat(actualizada.getResponse().getContentAsString()).contains("\"version\":" + guardada);
+
+        String nuevo = mockMvc.perform(get("/api/materias/3401").header(HttpHeaders.IF_NONE_MATCH, anterior))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(nuevo).isNotEqualTo(anterior);
+        mockMvc.perform(get("/api/materias/3401").header(HttpHeaders.IF_NONE_MATCH, nuevo))
+            .andExpect(status().isNotModified());
+    }
+}
@@ -0,0 +1,84 @@
+package com.universidad.idempotencia;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.unit.DataSize;
+
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+
+class IdempotenciaFilterTest {
+
+    private IdempotenciaFilter filtro;
+
+    @BeforeEach
+    void preparar() {
+        IdempotenciaProperties properties = new IdempotenciaProperties();
+        properties.setMaxCuerpo(DataSize.ofBytes(16));
+        filtro = new IdempotenciaFilter(new AlmacenIdempotencia(properties,
+            new StaticListableBeanFactory().getBeanProvider(AlmacenCompartido.class)));
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken("admin", null, List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))));
+    }
+
+    @AfterEach
+    void limpiar() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void rechazaConContentLengthMayorQueElMaximo() throws Exception {
+        MockFilterChain cadena = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filtro.doFilter(solicitud("{\"estudianteId\":1001,\"materiaId\":1}"), response, cadena);
+
+        assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE);
+        assertThat(cadena.getRequest()).as("no llega al controlador").isNull();
+    }
+
+    @Test
+    void rechazaSinContentLengthAlSuperarElMaximo() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Como un cuerpo chunked: el tamaño no se conoce de antemano
+        filtro.doFilter(new HttpServletRequestWrapper(solicitud("{\"estudianteId\":1001,\"materiaId\":1}")) {
+            @Override
+            public long getContentLengthLong() {
+                return -1;
+            }
+        }, response, new MockFilterChain());
+
+        assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE);
+    }
+
+    @Test
+    void dejaPasarLosCuerposDentroDelMaximo() throws Exception {
+        MockFilterChain cadena = new MockFilterChain();
+
+        filtro.doFilter(solicitud("{\"materiaId\":1}"), new MockHttpServletResponse(), cadena);
+
+        assertThat(cadena.getRequest().getInputStream().readAllBytes()).asString().isEqualTo("{\"materiaId\":1}");
+    }
+
+    private static MockHttpServletRequest solicitud(String cuerpo) {
+        MockHttpServletRequest solicitud = new MockHttpServletRequest("POST", "/api/v3/inscripciones");
+        solicitud.addHeader(IdempotenciaFilter.CABECERA, "clave-1");
+        solicitud.setContentType("application/json");
+        solicitud.setContent(cuerpo.getBytes(StandardCharsets.UTF_8));
+        return solicitud;
+    }
+}
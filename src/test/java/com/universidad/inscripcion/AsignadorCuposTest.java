@@ -0,0 +1,122 @@
+package com.universidad.inscripcion;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledIfSystemProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.universidad.PostgresPruebas;
+import com.universidad.model.Materia;
+
+/**
+ * Dos asignadores con nodos distintos sobre la misma base de datos: el cupo se respeta entre ambos
+ * con los bloques concedidos en cupo_concesion.
+ */
+@DisabledIfSystemProperty(named = "user.name", matches = "root", disabledReason = "PostgreSQL embebido no arranca como root")
+class AsignadorCuposTest {
+
+    private static JdbcTemplate jdbcTemplate;
+    private static TransactionTemplate transactionTemplate;
+
+    @BeforeAll
+    static void prepararBase() {
+        DataSource dataSource = new DriverManagerDataSource(PostgresPruebas.nuevaBase("asignador_cupos"), "postgres", "postgres");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        jdbcTemplate.update("insert into persona (id_persona, nombre, apellido, email, fecha_nacimiento, version) "
+            + "select 4000 + n, 'Estudiante', 'Prueba', 'e' || n || '@universidad.test', '2001-01-01', 0 from generate_series(1, 6) n");
+        jdbcTemplate.update("insert into estudiante (id_persona, numero_inscripcion, estado, fecha_alta, usuario_alta) "
+            + "select 4000 + n, 'INS' || (4000 + n), 'activo', '2024-02-01', 'admin' from generate_series(1, 6) n");
+        jdbcTemplate.update("insert into materia (id_materia, nombre_materia, codigo_unico, creditos, cupo, activo, version) values "
+            + "(4001, 'Compiladores', 'COM401', 4, 5, true, 0), (4002, 'Redes', 'RED401', 4, 2, true, 0)");
+    }
+
+    @BeforeEach
+    void limpiar() {
+        jdbcTemplate.update("delete from inscripciones");
+        jdbcTemplate.update("delete from cupo_concesion");
+    }
+
+    @Test
+    void dosNodosNoSuperanElCupo() {
+        Materia materia = materia(4001L, 5);
+        AsignadorCupos nodoA = asignador(Duration.ofSeconds(30));
+        AsignadorCupos nodoB = asignador(Duration.ofSeconds(30));
+
+        assertThat(inscribir(nodoA, materia, 4001L)).isTrue(); // Bloque de 2 para A
+        assertThat(inscribir(nodoB, materia, 4002L)).isTrue(); // Bloque de 2 para B
+        assertThat(inscribir(nodoA, materia, 4003L)).isTrue();
+        assertThat(inscribir(nodoB, materia, 4004L)).isTrue();
+        // B aún figura con sus 2 cupos concedidos: hasta su volcado no se puede repartir el último
+        assertThat(inscribir(nodoA, materia, 4005L)).isFalse();
+
+        nodoB.volcar();
+        assertThat(inscribir(nodoA, materia, 4005L)).isTrue();
+        assertThat(inscribir(nodoB, materia, 4006L)).isFalse();
+        assertThat(inscritos(4001L)).isEqualTo(5);
+    }
+
+    @Test
+    void laConcesionVencidaDeOtroNodoSeReparte() {
+        Materia materia = materia(4002L, 2);
+        AsignadorCupos caido = asignador(Duration.ZERO);
+        AsignadorCupos activo = asignador(Duration.ofSeconds(30));
+
+        assertThat(inscribir(caido, materia, 4001L)).isTrue();
+        assertThat(inscribir(activo, materia, 4002L)).isTrue();
+        assertThat(inscribir(caido, materia, 4003L)).as("su concesión ya no existe y no quedan cupos").isFalse();
+        assertThat(inscritos(4002L)).isEqualTo(2);
+    }
+
+    @Test
+    void unaReservaConRollbackVuelveALaConcesion() {
+        Materia materia = materia(4001L, 5);
+        AsignadorCupos nodo = asignador(Duration.ofSeconds(30));
+
+        for (int i = 0; i < 5; i++) {
+            transactionTemplate.executeWithoutResult(status -> {
+                assertThat(nodo.reservar(materia)).isTrue();
+                status.setRollbackOnly();
+            });
+        }
+        assertThat(jdbcTemplate.queryForObject("select sum(cupos) from cupo_concesion where id_materia = 4001", Integer.class))
+            .as("los cupos devueltos se vuelven a usar sin pedir más bloques").isEqualTo(2);
+    }
+
+    private boolean inscribir(AsignadorCupos asignador, Materia materia, Long estudianteId) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            if (!asignador.reservar(materia)) {
+                return false;
+            }
+            jdbcTemplate.update("insert into inscripciones (estudiante_id, materia_id, fecha_inscripcion, estado, activo, version) "
+                + "values (?, ?, current_date, 'PENDIENTE', true, 0)", estudianteId, materia.getId());
+            return true;
+        }));
+    }
+
+    private static int inscritos(Long materiaId) {
+        return jdbcTemplate.queryForObject("select count(*) from inscripciones where materia_id = ? and activo and estado = 'PENDIENTE'",
+            Integer.class, materiaId);
+    }
+
+    private static AsignadorCupos asignador(Duration concesion) {
+        return new AsignadorCupos(jdbcTemplate, transactionTemplate, 2, 2, concesion);
+    }
+
+    private static Materia materia(Long id, int cupo) {
+        Materia materia = new Materia();
+        materia.setId(id);
+        materia.setCupo(cupo);
+        return materia;
+    }
+}
@@ -0,0 +1,95 @@
+package com.universidad.inscripcion;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledIfSystemProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.universidad.PostgresPruebas;
+import com.universidad.model.Inscripcion.EstadoInscripcion;
+
+/**
+ * Dos instancias sobre la misma base de datos hacen de dos nodos que vuelcan sus incrementos en
+ * estadistica_inscripcion.
+ */
+@DisabledIfSystemProperty(named = "user.name", matches = "root", disabledReason = "PostgreSQL embebido no arranca como root")
+class EstadisticasInscripcionTest {
+
+    private static JdbcTemplate jdbcTemplate;
+    private static TransactionTemplate transactionTemplate;
+
+    @BeforeAll
+    static void prepararBase() {
+        DataSource dataSource = new DriverManagerDataSource(PostgresPruebas.nuevaBase("estadisticas_inscripcion"), "postgres", "postgres");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        jdbcTemplate.update("insert into persona (id_persona, nombre, apellido, email, fecha_nacimiento, version) "
+            + "select 5000 + n, 'Estudiante', 'Prueba', 'e' || n || '@universidad.test', '2001-01-01', 0 from generate_series(1, 3) n");
+        jdbcTemplate.update("insert into estudiante (id_persona, numero_inscripcion, estado, fecha_alta, usuario_alta) "
+            + "select 5000 + n, 'INS' || (5000 + n), 'activo', '2024-02-01', 'admin' from generate_series(1, 3) n");
+        jdbcTemplate.update("insert into materia (id_materia, nombre_materia, codigo_unico, creditos, cupo, activo, version) values "
+            + "(5001, 'Bases de datos', 'BDD501', 4, 30, true, 0), (5002, 'Criptografía', 'CRI501', 4, 30, true, 0)");
+    }
+
+    @BeforeEach
+    void limpiar() {
+        jdbcTemplate.update("delete from inscripciones");
+        jdbcTemplate.update("delete from estadistica_inscripcion");
+    }
+
+    @Test
+    void unVolcadoFallidoNoQuedaAplicadoEnParte() {
+        EstadisticasInscripcion nodo = new EstadisticasInscripcion(jdbcTemplate, transactionTemplate);
+        nodo.registrarAlta(5001L, EstadoInscripcion.PENDIENTE);
+        nodo.registrarAlta(5002L, EstadoInscripcion.PENDIENTE);
+        jdbcTemplate.execute("create function rechazar_criptografia() returns trigger language plpgsql as $$ begin "
+            + "if new.materia_id = 5002 then raise exception 'volcado rechazado'; end if; return new; end $$");
+        jdbcTemplate.execute("create trigger rechazar_criptografia before insert on estadistica_inscripcion "
+            + "for each row execute function rechazar_criptografia()");
+        try {
+            nodo.volcar();
+            assertThat(nodo.obtener(5001L).getPendientes()).as("la fila que no falló tampoco se aplicó").isZero();
+        } finally {
+            jdbcTemplate.execute("drop trigger rechazar_criptografia on estadistica_inscripcion");
+            jdbcTemplate.execute("drop function rechazar_criptografia()");
+        }
+
+        nodo.volcar();
+
+        assertThat(nodo.obtener(5001L).getPendientes()).isEqualTo(1);
+        assertThat(nodo.obtener(5002L).getPendientes()).isEqualTo(1);
+    }
+
+    @Test
+    void elRecuentoRecuperaLoQueUnNodoCaidoNoVolco() {
+        EstadisticasInscripcion caido = new EstadisticasInscripcion(jdbcTemplate, transactionTemplate);
+        EstadisticasInscripcion activo = new EstadisticasInscripcion(jdbcTemplate, transactionTemplate);
+        inscribir(5001L, 5001L, EstadoInscripcion.PENDIENTE);
+        activo.registrarAlta(5001L, EstadoInscripcion.PENDIENTE);
+        inscribir(5002L, 5001L, EstadoInscripcion.APROBADA);
+        caido.registrarAlta(5001L, EstadoInscripcion.APROBADA); // Nunca se vuelca
+        inscribir(5003L, 5002L, EstadoInscripcion.PENDIENTE);
+        activo.registrarAlta(5002L, EstadoInscripcion.PENDIENTE);
+        activo.volcar();
+        assertThat(activo.obtener(5001L).getAprobadas()).isZero();
+
+        assertThat(activo.recontar()).isTrue();
+
+        assertThat(activo.obtener(5001L).getPendientes()).isEqualTo(1);
+        assertThat(activo.obtener(5001L).getAprobadas()).isEqualTo(1);
+        assertThat(activo.obtener(5002L).getTotal()).isEqualTo(1);
+    }
+
+    private static void inscribir(Long estudianteId, Long materiaId, EstadoInscripcion estado) {
+        jdbcTemplate.update("insert into inscripciones (estudiante_id, materia_id, fecha_inscripcion, estado, activo, version) "
+            + "values (?, ?, current_date, ?, true, 0)", estudianteId, materiaId, estado.name());
+    }
+}
@@ -0,0 +1,70 @@
+package com.universidad.inscripcion;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.Sql.ExecutionPhase;
+
+import com.universidad.PostgresPruebas;
+import com.universidad.model.Materia;
+import com.universidad.validation.ReglaNegocioException;
+
+/**
+ * Las aprobaciones hechas en otro nodo (aquí, directamente en la base de datos) no llegan a los conjuntos
+ * en memoria de este nodo hasta que caducan, pero la verificación al inscribir ya las ve.
+ */
+@SpringBootTest
+@DisabledIfSystemProperty(named = "user.name", matches = "root", disabledReason = "PostgreSQL embebido no arranca como root")
+@Sql(statements = {
+    "insert into persona (id_persona, nombre, apellido, email, fecha_nacimiento, version) "
+        + "values (3301, 'Tomás', 'Ibarra', 'tomas@universidad.test', '2002-03-08', 0)",
+    "insert into estudiante (id_persona, numero_inscripcion, estado, fecha_alta, usuario_alta) "
+        + "values (3301, 'INS3301', 'activo', '2024-02-01', 'admin')",
+    "insert into materia (id_materia, nombre_materia, codigo_unico, creditos, cupo, activo, version) "
+        + "values (3301, 'Algoritmos I', 'ALG101', 4, 30, true, 0), (3302, 'Algoritmos II', 'ALG201', 4, 30, true, 0)",
+    "insert into materia_prerequisito (id_materia, id_prerequisito) values (3302, 3301)",
+    "insert into inscripciones (id, estudiante_id, materia_id, fecha_inscripcion, estado, activo, version) "
+        + "values (3301, 3301, 3301, '2024-02-01', 'PENDIENTE', true, 0)"
+}, executionPhase = ExecutionPhase.BEFORE_TEST_CLASS)
+class MotorElegibilidadTest {
+
+    @Autowired
+    private MotorElegibilidad motorElegibilidad;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void baseDeDatos(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> PostgresPruebas.nuevaBase("motor_elegibilidad"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+    }
+
+    @Test
+    void laVerificacionAlInscribirVeLasAprobacionesDeOtroNodo() {
+        Materia algoritmosII = new Materia();
+        algoritmosII.setId(3302L);
+        assertThat(motorElegibilidad.esElegible(3301L, 3302L)).isFalse(); // Queda en memoria
+
+        jdbcTemplate.update("update inscripciones set estado = 'APROBADA', version = version + 1 where id = 3301");
+
+        assertThat(motorElegibilidad.esElegible(3301L, 3302L)).as("la memoria de este nodo aún no lo sabe").isFalse();
+        assertThatCode(() -> motorElegibilidad.verificar(3301L, algoritmosII)).doesNotThrowAnyException();
+
+        jdbcTemplate.update("update inscripciones set estado = 'RECHAZADA', version = version + 1 where id = 3301");
+
+        assertThatThrownBy(() -> motorElegibilidad.verificar(3301L, algoritmosII))
+            .isInstanceOf(ReglaNegocioException.class)
+            .hasMessageContaining("Algoritmos I");
+    }
+}
@@ -0,0 +1,118 @@
+package com.universidad.inscripcion;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.Sql.ExecutionPhase;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.universidad.PostgresPruebas;
+import com.universidad.model.Estudiante;
+import com.universidad.repository.EstudianteRepository;
+
+/**
+ * Conflictos de versión reales contra PostgreSQL: otra transacción modifica el estudiante entre la
+ * lectura y la escritura de la operación.
+ */
+@SpringBootTest(properties = "app.concurrencia.reintentos-optimistas=3")
+@DisabledIfSystemProperty(named = "user.name", matches = "root", disabledReason = "PostgreSQL embebido no arranca como root")
+@Sql(statements = {
+    "insert into persona (id_persona, nombre, apellido, email, fecha_nacimiento, version) values "
+        + "(3101, 'Mario', 'Molina', 'mario@universidad.test', '2000-08-03', 0), "
+        + "(3102, 'Nora', 'Navarro', 'nora@universidad.test', '2002-01-27', 0), "
+        + "(3103, 'Óscar', 'Ortiz', 'oscar@universidad.test', '1999-06-18', 0)",
+    "insert into estudiante (id_persona, numero_inscripcion, estado, fecha_alta, usuario_alta) values "
+        + "(3101, 'INS3101', 'activo', '2024-02-01', 'admin'), "
+        + "(3102, 'INS3102', 'activo', '2024-02-01', 'admin'), "
+        + "(3103, 'INS3103', 'activo', '2024-02-01', 'admin')"
+}, executionPhase = ExecutionPhase.BEFORE_TEST_CLASS)
+class ReintentoOptimistaTest {
+
+    @Autowired
+    private ReintentoOptimista reintentoOptimista;
+
+    @Autowired
+    private EstudianteRepository estudianteRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @DynamicPropertySource
+    static void baseDeDatos(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> PostgresPruebas.nuevaBase("reintento_optimista"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+    }
+
+    @Test
+    void repiteLaOperacionConLosDatosNuevosTrasUnConflicto() {
+        AtomicInteger intentos = new AtomicInteger();
+
+        reintentoOptimista.ejecutar(() -> {
+            int intento = intentos.incrementAndGet();
+            Estudiante estudiante = estudianteRepository.findById(3101L).orElseThrow();
+            if (intento == 1) {
+                modificarEnOtraTransaccion(3101L, "concurrente");
+            }
+            estudiante.setUsuarioModificacion("intento" + intento);
+            estudianteRepository.saveAndFlush(estudiante);
+        });
+
+        assertThat(intentos).hasValue(2);
+        Estudiante guardado = estudianteRepository.findById(3101L).orElseThrow();
+        assertThat(guardado.getEstado()).isEqualTo("concurrente");
+        assertThat(guardado.getUsuarioModificacion()).isEqualTo("intento2");
+        assertThat(guardado.getVersion()).isEqualTo(2L);
+    }
+
+    @Test
+    void propagaElConflictoAlAgotarLosIntentos() {
+        AtomicInteger intentos = new AtomicInteger();
+
+        assertThatThrownBy(() -> reintentoOptimista.ejecutar(() -> {
+            int intento = intentos.incrementAndGet();
+            Estudiante estudiante = estudianteRepository.findById(3102L).orElseThrow();
+            modificarEnOtraTransaccion(3102L, "concurrente" + intento);
+            estudiante.setUsuarioModificacion("intento" + intento);
+            estudianteRepository.saveAndFlush(estudiante);
+        })).isInstanceOf(OptimisticLockingFailureException.class);
+
+        assertThat(intentos).hasValue(3);
+        assertThat(estudianteRepository.findById(3102L).orElseThrow().getUsuarioModificacion()).isNull();
+    }
+
+    @Test
+    void dentroDeUnaTransaccionAbiertaNoRepite() {
+        AtomicInteger intentos = new AtomicInteger();
+
+        assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(status -> reintentoOptimista.ejecutar(() -> {
+            intentos.incrementAndGet();
+            Estudiante estudiante = estudianteRepository.findById(3103L).orElseThrow();
+            modificarEnOtraTransaccion(3103L, "concurrente");
+            estudiante.setUsuarioModificacion("externa");
+            estudianteRepository.saveAndFlush(estudiante);
+        }))).isInstanceOf(OptimisticLockingFailureException.class);
+
+        assertThat(intentos).hasValue(1);
+    }
+
+    // Desde otro hilo, y por tanto en otra transacción, para que la versión cambie antes de la escritura
+    private void modificarEnOtraTransaccion(Long id, String estado) {
+        CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+            Estudiante otro = estudianteRepository.findById(id).orElseThrow();
+            otro.setEstado(estado);
+            estudianteRepository.saveAndFlush(otro);
+        })).join();
+    }
+}
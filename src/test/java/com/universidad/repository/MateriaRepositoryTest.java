@@ -0,0 +1,59 @@
+package com.universidad.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.Sql.ExecutionPhase;
+
+import com.universidad.PostgresPruebas;
+
+/**
+ * La lectura de la materia para inscribir no usa la caché de segundo nivel: los cambios hechos por
+ * otro nodo (aquí, directamente en la base de datos) se ven en la siguiente lectura.
+ */
+@SpringBootTest
+@DisabledIfSystemProperty(named = "user.name", matches = "root", disabledReason = "PostgreSQL embebido no arranca como root")
+@Sql(statements = "insert into materia (id_materia, nombre_materia, codigo_unico, creditos, cupo, activo, version) "
+    + "values (3201, 'Sistemas operativos', 'SOP301', 4, 30, true, 0), (3202, 'Robótica', 'ROB301', 4, 30, true, 0)",
+    executionPhase = ExecutionPhase.BEFORE_TEST_CLASS)
+class MateriaRepositoryTest {
+
+    @Autowired
+    private MateriaRepository materiaRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void baseDeDatos(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> PostgresPruebas.nuevaBase("materia_sin_cache"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+    }
+
+    @Test
+    void veElCupoCambiadoEnOtroNodo() {
+        assertThat(materiaRepository.findById(3201L).orElseThrow().getCupo()).isEqualTo(30); // Queda en la caché
+
+        jdbcTemplate.update("update materia set cupo = 5, version = version + 1 where id_materia = 3201");
+
+        assertThat(materiaRepository.buscarSinBloqueo(3201L).orElseThrow().getCupo()).isEqualTo(5);
+        assertThat(materiaRepository.findById(3201L).orElseThrow().getCupo()).as("la caché se renovó").isEqualTo(5);
+    }
+
+    @Test
+    void noEncuentraLaMateriaEliminadaEnOtroNodo() {
+        assertThat(materiaRepository.buscarSinBloqueo(3202L)).isPresent();
+
+        jdbcTemplate.update("delete from materia where id_materia = 3202");
+
+        assertThat(materiaRepository.buscarSinBloqueo(3202L)).isEmpty();
+    }
+}
@@ -0,0 +1,108 @@
+package com.universidad.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.Sql.ExecutionPhase;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.universidad.PostgresPruebas;
+import com.universidad.repository.EstudianteRepository;
+import com.universidad.service.IEstudianteService;
+
+/**
+ * El bloqueo explícito del estudiante (findByIdForUpdate) solo detiene a quien también lo pide:
+ * las lecturas por id terminan mientras otra transacción mantiene la fila bloqueada.
+ */
+@SpringBootTest
+@DisabledIfSystemProperty(named = "user.name", matches = "root", disabledReason = "PostgreSQL embebido no arranca como root")
+@Sql(statements = {
+    "insert into persona (id_persona, nombre, apellido, email, fecha_nacimiento, version) "
+        + "values (3001, 'Lucía', 'Lara', 'lucia@universidad.test', '2001-04-12', 0)",
+    "insert into estudiante (id_persona, numero_inscripcion, estado, fecha_alta, usuario_alta) "
+        + "values (3001, 'INS3001', 'activo', '2024-02-01', 'admin')"
+}, executionPhase = ExecutionPhase.BEFORE_TEST_CLASS)
+class EstudianteServiceImplTest {
+
+    private static final long ESTUDIANTE = 3001L;
+    private static final Duration ESPERA = Duration.ofSeconds(5);
+
+    @Autowired
+    private IEstudianteService estudianteService;
+
+    @Autowired
+    private EstudianteRepository estudianteRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final CountDownLatch bloqueado = new CountDownLatch(1);
+    private final CountDownLatch liberar = new CountDownLatch(1);
+    private CompletableFuture<Void> bloqueo;
+
+    @DynamicPropertySource
+    static void baseDeDatos(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> PostgresPruebas.nuevaBase("bloqueo_estudiante"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+    }
+
+    // Otra transacción bloquea la fila del estudiante y la retiene hasta el final de la prueba
+    @BeforeEach
+    void bloquearEstudiante() throws InterruptedException {
+        bloqueo = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+            estudianteRepository.findByIdForUpdate(ESTUDIANTE).orElseThrow();
+            bloqueado.countDown();
+            esperar(liberar);
+        }));
+        assertThat(bloqueado.await(ESPERA.toSeconds(), TimeUnit.SECONDS)).as("fila bloqueada").isTrue();
+    }
+
+    @AfterEach
+    void liberarEstudiante() {
+        liberar.countDown();
+        bloqueo.join();
+    }
+
+    @Test
+    void lecturasTerminanMientrasLaFilaEstaBloqueada() {
+        assertTimeoutPreemptively(ESPERA, () -> {
+            assertThat(estudianteRepository.findById(ESTUDIANTE)).isPresent();
+            assertThat(estudianteService.obtenerEstudiantePorNumeroInscripcion("INS3001").getId()).isEqualTo(ESTUDIANTE);
+        });
+    }
+
+    @Test
+    void otroBloqueoEsperaHastaQueSeLibereLaFila() throws Exception {
+        CompletableFuture<Void> segundo = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(
+            status -> estudianteRepository.findByIdForUpdate(ESTUDIANTE).orElseThrow()));
+
+        Thread.sleep(500);
+        assertThat(segundo).as("el segundo bloqueo espera").isNotDone();
+
+        liberar.countDown();
+        segundo.get(ESPERA.toSeconds(), TimeUnit.SECONDS);
+    }
+
+    private static void esperar(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
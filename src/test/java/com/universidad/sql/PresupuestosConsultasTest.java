@@ -0,0 +1,241 @@
+package com.universidad.sql;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.Sql.ExecutionPhase;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.web.method.HandlerMethod;
+
+import com.universidad.PostgresPruebas;
+
+/**
+ * Cada endpoint con {@link PresupuestoConsultas} se ejecuta en modo estricto contra PostgreSQL y su número
+ * de sentencias SQL se compara con el presupuesto declarado. Una asociación perezosa nueva que se cargue
+ * fila a fila hace fallar la prueba del endpoint que la serializa.
+ */
+@SpringBootTest(properties = {
+    "app.sql.estadisticas.presupuesto.modo=estricto",
+    "app.rate-limit.habilitado=false"
+})
+@AutoConfigureMockMvc
+@DisabledIfSystemProperty(named = "user.name", matches = "root", disabledReason = "PostgreSQL embebido no arranca como root")
+@WithMockUser(username = "admin", roles = {"ADMIN", "ESTUDIANTE"})
+@Sql(scripts = "/presupuestos/datos.sql", executionPhase = ExecutionPhase.BEFORE_TEST_CLASS)
+class PresupuestosConsultasTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @DynamicPropertySource
+    static void baseDeDatos(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> PostgresPruebas.nuevaBase("presupuestos"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+    }
+
+    // Estudiantes
+
+    @Test
+    void listarEstudiantes() throws Exception {
+        medir(get("/api/estudiantes"));
+    }
+
+    @Test
+    void estudiantePorNumeroInscripcion() throws Exception {
+        medir(get("/api/estudiantes/inscripcion/INS1001"));
+    }
+
+    @Test
+    void materiasDeEstudiante() throws Exception {
+        medir(get("/api/estudiantes/1001/materias"));
+    }
+
+    @Test
+    void materiasDisponibles() throws Exception {
+        medir(get("/api/estudiantes/1001/materias-disponibles"));
+    }
+
+    @Test
+    void estudianteConBloqueo() throws Exception {
+        medir(get("/api/estudiantes/1003/lock"));
+    }
+
+    @Test
+    void estudiantesActivos() throws Exception {
+        medir(get("/api/estudiantes/activos"));
+    }
+
+    @Test
+    void crearEstudiante() throws Exception {
+        medir(post("/api/estudiantes").contentType(MediaType.APPLICATION_JSON).content(estudiante(
+            "Gabriela", "gabriela@universidad.test", "INS2001", null)));
+    }
+
+    @Test
+    void actualizarEstudiante() throws Exception {
+        medir(put("/api/estudiantes/1006").contentType(MediaType.APPLICATION_JSON).content(estudiante(
+            "Fabián", "fabio@universidad.test", "INS1006", null)));
+    }
+
+    @Test
+    void darDeBajaEstudiante() throws Exception {
+        medir(put("/api/estudiantes/1005/baja").contentType(MediaType.APPLICATION_JSON).content(estudiante(
+            "Elena", "elena@universidad.test", "INS1005", "traslado")));
+    }
+
+    // Materias
+
+    @Test
+    void listarMaterias() throws Exception {
+        medir(get("/api/materias"));
+    }
+
+    @Test
+    void materiaPorId() throws Exception {
+        medir(get("/api/materias/1002"));
+    }
+
+    @Test
+    void inscritosDeMateria() throws Exception {
+        medir(get("/api/materias/1001/inscritos"));
+    }
+
+    @Test
+    void inscritosDeMateriaEnCsv() throws Exception {
+        medir(get("/api/materias/1001/inscritos").param("formato", "csv"));
+    }
+
+    @Test
+    void cupoDeMateria() throws Exception {
+        medir(get("/api/materias/1001/cupo"));
+    }
+
+    @Test
+    void materiaPorCodigo() throws Exception {
+        medir(get("/api/materias/codigo/EST201"));
+    }
+
+    @Test
+    void crearMateria() throws Exception {
+        medir(post("/api/materias").contentType(MediaType.APPLICATION_JSON)
+            .content("{\"nombreMateria\":\"Compiladores\",\"codigoUnico\":\"CMP601\",\"creditos\":4,\"cupo\":20}"));
+    }
+
+    @Test
+    void actualizarMateria() throws Exception {
+        medir(put("/api/materias/1003").contentType(MediaType.APPLICATION_JSON)
+            .content("{\"nombreMateria\":\"Ética y sociedad\",\"codigoUnico\":\"ETI301\",\"creditos\":3,\"version\":0}"));
+    }
+
+    @Test
+    void eliminarMateria() throws Exception {
+        medir(delete("/api/materias/1005"));
+    }
+
+    @Test
+    void formariaCirculo() throws Exception {
+        medir(get("/api/materias/formaria-circulo/1001/1002"));
+    }
+
+    @Test
+    void asignarDocente() throws Exception {
+        medir(post("/api/materias/1004/asignar-docente/1004"));
+    }
+
+    // Inscripciones
+
+    @Test
+    void inscripcionesDeEstudiante() throws Exception {
+        medir(get("/api/v3/inscripciones/estudiante/1001"));
+    }
+
+    @Test
+    void crearInscripcion() throws Exception {
+        medir(post("/api/v3/inscripciones").contentType(MediaType.APPLICATION_JSON)
+            .content("{\"estudianteId\":1003,\"materiaId\":1001,\"fechaInscripcion\":\"" + LocalDate.now() + "\"}"));
+    }
+
+    @Test
+    void solicitudInexistente() throws Exception {
+        MvcResult resultado = mockMvc.perform(get("/api/v3/inscripciones/solicitudes/no-existe")).andReturn();
+        assertThat(resultado.getResponse().getStatus()).isEqualTo(404);
+        assertThat(sentencias(resultado)).isLessThanOrEqualTo(presupuesto(resultado));
+    }
+
+    @Test
+    void actualizarEstadoInscripcion() throws Exception {
+        medir(put("/api/v3/inscripciones/1002/estado").param("estado", "APROBADA"));
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    void cancelarInscripcion() throws Exception {
+        medir(delete("/api/v3/inscripciones/1003"));
+    }
+
+    @Test
+    void solicitarListaEspera() throws Exception {
+        medir(post("/api/v3/inscripciones/lista-espera").param("estudianteId", "1002").param("materiaId", "1004"));
+    }
+
+    @Test
+    void estadisticasDeInscripcion() throws Exception {
+        medir(get("/api/v3/inscripciones/estadisticas").param("materiaId", "1001"));
+    }
+
+    // Ejecuta la solicitud y comprueba que terminó bien sin superar el presupuesto de su método
+    private MvcResult medir(MockHttpServletRequestBuilder solicitud) throws Exception {
+        MvcResult resultado = mockMvc.perform(solicitud).andReturn();
+        if (resultado.getRequest().isAsyncStarted()) {
+            resultado = mockMvc.perform(asyncDispatch(resultado)).andReturn();
+        }
+        int presupuesto = presupuesto(resultado);
+        assertThat(resultado.getResponse().getStatus())
+            .as("%s respondió %s", resultado.getRequest().getRequestURI(), resultado.getResponse().getContentAsString())
+            .isBetween(200, 299);
+        assertThat(sentencias(resultado))
+            .as("sentencias SQL de %s (presupuesto %d)", resultado.getRequest().getRequestURI(), presupuesto)
+            .isLessThanOrEqualTo(presupuesto);
+        return resultado;
+    }
+
+    private static int presupuesto(MvcResult resultado) {
+        PresupuestoConsultas presupuesto = ((HandlerMethod) resultado.getHandler()).getMethodAnnotation(PresupuestoConsultas.class);
+        assertThat(presupuesto).as("el endpoint declara @PresupuestoConsultas").isNotNull();
+        return presupuesto.value();
+    }
+
+    // Las registra el interceptor en modo estricto para toda solicitud atendida por un controlador
+    private static int sentencias(MvcResult resultado) {
+        Object sentencias = resultado.getRequest().getAttribute(PresupuestosConsultas.ATRIBUTO_SENTENCIAS);
+        assertThat(sentencias).as("solicitud medida").isNotNull();
+        return (Integer) sentencias;
+    }
+
+    private static String estudiante(String nombre, String email, String numeroInscripcion, String motivoBaja) {
+        return "{\"nombre\":\"" + nombre + "\",\"apellido\":\"Prueba\",\"email\":\"" + email + "\","
+            + "\"fechaNacimiento\":\"2001-01-01\",\"numeroInscripcion\":\"" + numeroInscripcion + "\","
+            + "\"estado\":\"activo\",\"usuarioAlta\":\"admin\",\"fechaAlta\":\"2024-02-01\""
+            + (motivoBaja != null ? ",\"usuarioBaja\":\"admin\",\"motivoBaja\":\"" + motivoBaja + "\"" : "")
+            + "}";
+    }
+}
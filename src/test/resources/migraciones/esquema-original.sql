@@ -0,0 +1,50 @@
+-- Esquema que creaba la aplicación original con spring.jpa.hibernate.ddl-auto=update (sin Flyway),
+-- tal como lo generaba Hibernate, con algunos datos para que las migraciones los recorran
+create table docente (departamento varchar(255) not null, nro_empleado varchar(255) not null, id_persona bigint not null, primary key (id_persona));
+create table estudiante (estado varchar(255), fecha_alta date not null, fecha_baja date, fecha_modificacion date, motivo_baja varchar(255), numero_inscripcion varchar(255) not null, usuario_alta varchar(255), usuario_baja varchar(255), usuario_modificacion varchar(255), id_persona bigint not null, primary key (id_persona));
+create table estudiante_materia (id_estudiante bigint not null, id_materia bigint not null);
+create table evaluacion_docente (id bigint generated by default as identity, comentario varchar(255), fecha date, puntuacion integer, docente_id bigint not null, primary key (id));
+create table inscripciones (id bigint generated by default as identity, activo boolean, estado varchar(255) check (estado in ('PENDIENTE','APROBADA','RECHAZADA','CANCELADA')), fecha_inscripcion date not null, estudiante_id bigint not null, materia_id bigint not null, primary key (id));
+create table materia (id_materia bigint generated by default as identity, activo boolean, codigo_unico varchar(255) not null, creditos integer not null check (creditos>=1), nombre_materia varchar(100) not null, version bigint, docente_id bigint, primary key (id_materia));
+create table materia_prerequisito (id_materia bigint not null, id_prerequisito bigint not null);
+create table persona (id_persona bigint generated by default as identity, apellido varchar(50) not null, email varchar(255) not null, fecha_nacimiento date not null, nombre varchar(50) not null, version bigint, primary key (id_persona));
+create table roles (id bigint generated by default as identity, nombre varchar(20) check (nombre in ('ROL_ESTUDIANTE','ROL_DOCENTE','ROL_ADMIN')), primary key (id));
+create table usuario_roles (usuario_id bigint not null, rol_id bigint not null, primary key (usuario_id, rol_id));
+create table usuarios (id bigint generated by default as identity, activo boolean not null, apellido varchar(255), email varchar(255) not null, nombre varchar(255), password varchar(255) not null, username varchar(255) not null, primary key (id));
+alter table if exists docente add constraint UKaetsk7g7ubv14rsj0xuhdauij unique (nro_empleado);
+alter table if exists estudiante add constraint UKdkd3lvttsx8v53c40i4dpwy6c unique (numero_inscripcion);
+alter table if exists materia add constraint UK748rrsdphs5op80v26diqfgkc unique (codigo_unico);
+alter table if exists persona add constraint UKbfxfxg15pmy0c1imvi6ucoeem unique (email);
+alter table if exists usuarios add constraint UKkfsp0s1tflm1cwlj8idhqsad0 unique (email);
+alter table if exists usuarios add constraint UKm2dvbwfge291euvmk6vkkocao unique (username);
+alter table if exists docente add constraint FKivfm9r2g4r0jmxoepjykrhccr foreign key (id_persona) references persona;
+alter table if exists estudiante add constraint FKhffieau25rgbm9yn18j9d68ba foreign key (id_persona) references persona;
+alter table if exists estudiante_materia add constraint FKb2jry9002dtsjlmphvkayteqe foreign key (id_materia) references materia;
+alter table if exists estudiante_materia add constraint FK1dhntry5dfuo441rek0h6df2f foreign key (id_estudiante) references estudiante;
+alter table if exists evaluacion_docente add constraint FK50hn6rqg8ecty0mnd4o9afquw foreign key (docente_id) references docente;
+alter table if exists inscripciones add constraint FKe1bjf4osl2wicgmrwg84v8524 foreign key (estudiante_id) references estudiante;
+alter table if exists inscripciones add constraint FKagu4276rdflno7y2qj9cktgrd foreign key (materia_id) references materia;
+alter table if exists materia add constraint FKjpm7iqo7yjybgdl1ych6sqr8f foreign key (docente_id) references docente;
+alter table if exists materia_prerequisito add constraint FKfuesuexu1im62yl7xdbs24pqg foreign key (id_prerequisito) references materia;
+alter table if exists materia_prerequisito add constraint FK6xri56dw6aa2f49dl3ywyaida foreign key (id_materia) references materia;
+alter table if exists usuario_roles add constraint FKbt9i9yrb9ug88xnh82n9m60pr foreign key (rol_id) references roles;
+alter table if exists usuario_roles add constraint FKuu9tea04xb29m2km5lwe46ua foreign key (usuario_id) references usuarios;
+
+insert into roles (nombre) values ('ROL_ESTUDIANTE'), ('ROL_DOCENTE'), ('ROL_ADMIN');
+insert into persona (id_persona, nombre, apellido, email, fecha_nacimiento, version) values
+    (1, 'Ana', 'Aguirre', 'ana@universidad.test', '2001-03-10', 0),
+    (2, 'Bruno', 'Benítez', 'bruno@universidad.test', '2000-07-21', 0),
+    (3, 'Diego', 'Domínguez', 'diego@universidad.test', '1980-01-15', 0);
+insert into estudiante (id_persona, numero_inscripcion, estado, fecha_alta, usuario_alta) values
+    (1, 'INS001', 'activo', '2024-02-01', 'admin'),
+    (2, 'INS002', 'activo', '2024-02-01', 'admin');
+insert into docente (id_persona, departamento, nro_empleado) values (3, 'Sistemas', 'EMP003');
+insert into materia (id_materia, nombre_materia, codigo_unico, creditos, docente_id, activo, version) values
+    (1, 'Algoritmos', 'ALG101', 4, 3, true, 0),
+    (2, 'Estructuras de datos', 'EST201', 4, 3, true, 0);
+insert into materia_prerequisito (id_materia, id_prerequisito) values (2, 1);
+insert into inscripciones (estudiante_id, materia_id, fecha_inscripcion, estado, activo) values
+    (1, 1, '2024-03-01', 'APROBADA', true),
+    (1, 2, '2024-03-01', 'PENDIENTE', true),
+    (2, 1, '2024-03-01', 'CANCELADA', false),
+    (2, 1, '2024-03-02', 'PENDIENTE', true);
@@ -0,0 +1,47 @@
+-- Datos de las pruebas de presupuestos SQL: ids desde 1001 para no chocar con las identidades que asigna la aplicación
+insert into persona (id_persona, nombre, apellido, email, fecha_nacimiento, version) values
+    (1001, 'Ana', 'Aguirre', 'ana@universidad.test', '2001-03-10', 0),
+    (1002, 'Bruno', 'Benítez', 'bruno@universidad.test', '2000-07-21', 0),
+    (1003, 'Carla', 'Castro', 'carla@universidad.test', '2002-11-02', 0),
+    (1004, 'Diego', 'Domínguez', 'diego@universidad.test', '1980-01-15', 0),
+    (1005, 'Elena', 'Escobar', 'elena@universidad.test', '2001-05-30', 0),
+    (1006, 'Fabio', 'Fernández', 'fabio@universidad.test', '1999-09-09', 0);
+
+insert into estudiante (id_persona, numero_inscripcion, estado, fecha_alta, usuario_alta) values
+    (1001, 'INS1001', 'activo', '2024-02-01', 'admin'),
+    (1002, 'INS1002', 'activo', '2024-02-01', 'admin'),
+    (1003, 'INS1003', 'activo', '2024-02-01', 'admin'),
+    (1005, 'INS1005', 'activo', '2024-02-01', 'admin'),
+    (1006, 'INS1006', 'activo', '2024-02-01', 'admin');
+
+insert into docente (id_persona, departamento, nro_empleado) values (1004, 'Sistemas', 'EMP1004');
+
+insert into materia (id_materia, nombre_materia, codigo_unico, creditos, cupo, docente_id, activo, version) values
+    (1001, 'Algoritmos', 'ALG101', 4, 10, 1004, true, 0),
+    (1002, 'Estructuras de datos', 'EST201', 4, 10, 1004, true, 0),
+    (1003, 'Ética profesional', 'ETI301', 2, null, null, true, 0),
+    (1004, 'Bases de datos', 'BDD401', 4, 1, null, true, 0),
+    (1005, 'Materia a eliminar', 'ELM501', 2, null, null, true, 0);
+
+insert into materia_horario (id_materia, dia_semana, hora_inicio, hora_fin) values
+    (1001, 'MONDAY', '08:00', '10:00'),
+    (1002, 'TUESDAY', '08:00', '10:00'),
+    (1003, 'WEDNESDAY', '08:00', '10:00'),
+    (1004, 'THURSDAY', '08:00', '10:00');
+
+insert into materia_prerequisito (id_materia, id_prerequisito) values (1002, 1001);
+
+insert into inscripciones (id, estudiante_id, materia_id, fecha_inscripcion, estado, activo, version) values
+    (1001, 1001, 1001, '2024-03-01', 'APROBADA', true, 0),
+    (1002, 1002, 1001, '2024-03-01', 'PENDIENTE', true, 0),
+    (1003, 1001, 1003, '2024-03-01', 'PENDIENTE', true, 0),
+    (1004, 1005, 1004, '2024-03-01', 'PENDIENTE', true, 0);
+
+-- Cupos ocupados y estadísticas coherentes con las inscripciones, como los deja la migración
+insert into cupo_materia (id_materia, ocupados, actualizado) values
+    (1001, 1, localtimestamp), (1002, 0, localtimestamp), (1004, 1, localtimestamp);
+insert into estadistica_inscripcion (materia_id, estado, cantidad, actualizado)
+select materia_id, estado, count(*), localtimestamp from inscripciones group by materia_id, estado;
+insert into carga_creditos (estudiante_id, creditos)
+select i.estudiante_id, sum(m.creditos) from inscripciones i join materia m on m.id_materia = i.materia_id
+where i.activo and i.estado = 'PENDIENTE' group by i.estudiante_id;